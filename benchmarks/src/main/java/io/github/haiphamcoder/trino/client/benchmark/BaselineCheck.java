@@ -0,0 +1,148 @@
+package io.github.haiphamcoder.trino.client.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares JMH results against a saved baseline and fails on regressions.
+ *
+ * <p>
+ * Both files are JMH JSON output ({@code -rf json}). A benchmark regresses
+ * when it allocates more bytes per operation ({@code gc.alloc.rate.norm},
+ * from {@code -prof gc}) than the baseline by more than the allocation
+ * tolerance. Allocation is nearly deterministic, so it is a reliable gate;
+ * timings vary between runs and machines by more than most regressions, so
+ * they are only reported, with their error. Given a time tolerance, a
+ * benchmark also regresses when its score is worse by more than the tolerance
+ * and the confidence intervals of the two runs do not overlap. Benchmarks
+ * missing from either file are reported but do not fail the check.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar io.github.haiphamcoder.trino.client.benchmark.BaselineCheck \
+ *     baseline.json target/results.json [allocTolerance=0.10] [timeTolerance]
+ * </pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class BaselineCheck {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <results.json> [allocTolerance] [timeTolerance]");
+            System.exit(2);
+        }
+        double allocTolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        double timeTolerance = args.length > 3 ? Double.parseDouble(args[3]) : Double.NaN;
+
+        Map<String, JsonObject> baseline = load(Path.of(args[0]));
+        Map<String, JsonObject> results = load(Path.of(args[1]));
+        int regressions = 0;
+        for (Map.Entry<String, JsonObject> entry : results.entrySet()) {
+            JsonObject before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW         %s%n", entry.getKey());
+                continue;
+            }
+            JsonObject after = entry.getValue();
+            boolean higherIsBetter = after.get("mode").getAsString().equals("thrpt");
+            double timeChange = change(score(before), score(after), higherIsBetter);
+            double allocChange = change(allocation(before), allocation(after), false);
+            boolean slower = timeChange > timeTolerance && !overlaps(before, after);
+            boolean regressed = allocChange > allocTolerance || slower;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-11s %s  alloc %+.1f%%  time %+.1f%% (error %.1f%%)%n",
+                    regressed ? "REGRESSION" : "OK", entry.getKey(), allocChange * 100, timeChange * 100,
+                    relativeError(after) * 100);
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.printf("MISSING     %s%n", key);
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed%n", regressions);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Gets how much worse a value got, as a fraction of the baseline.
+     * Improvements are negative.
+     */
+    static double change(double before, double after, boolean higherIsBetter) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return higherIsBetter ? (before - after) / before : (after - before) / before;
+    }
+
+    /**
+     * Checks whether the confidence intervals of the scores of two runs overlap,
+     * in which case their difference may be noise.
+     */
+    static boolean overlaps(JsonObject before, JsonObject after) {
+        return score(after) - scoreError(after) <= score(before) + scoreError(before)
+                && score(before) - scoreError(before) <= score(after) + scoreError(after);
+    }
+
+    private static double score(JsonObject result) {
+        return result.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+    }
+
+    private static double scoreError(JsonObject result) {
+        JsonElement error = result.getAsJsonObject("primaryMetric").get("scoreError");
+        // A single iteration has no error estimate
+        return error != null && error.isJsonPrimitive() && error.getAsJsonPrimitive().isNumber()
+                ? error.getAsDouble() : 0;
+    }
+
+    private static double relativeError(JsonObject result) {
+        double score = score(result);
+        return score != 0 ? scoreError(result) / score : 0;
+    }
+
+    private static double allocation(JsonObject result) {
+        JsonObject secondary = result.getAsJsonObject("secondaryMetrics");
+        if (secondary == null || !secondary.has(ALLOCATION_METRIC)) {
+            return Double.NaN;
+        }
+        return secondary.getAsJsonObject(ALLOCATION_METRIC).get("score").getAsDouble();
+    }
+
+    /**
+     * Loads results keyed by benchmark name and parameters.
+     */
+    private static Map<String, JsonObject> load(Path path) throws IOException {
+        Map<String, JsonObject> results = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : array) {
+                JsonObject result = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+                JsonObject params = result.getAsJsonObject("params");
+                if (params != null) {
+                    new TreeMap<>(params.asMap()).forEach((name, value) ->
+                            key.append(' ').append(name).append('=').append(value.getAsString()));
+                }
+                results.put(key.toString(), result);
+            }
+        }
+        return results;
+    }
+}
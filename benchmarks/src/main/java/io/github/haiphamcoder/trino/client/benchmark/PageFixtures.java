@@ -0,0 +1,185 @@
+package io.github.haiphamcoder.trino.client.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.model.TrinoColumn;
+
+/**
+ * Result pages shaped like those of a real coordinator, generated with a
+ * fixed seed so every run parses the same bytes.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class PageFixtures {
+    private static final Gson GSON = new Gson();
+
+    /** Column layouts of the generated pages */
+    public enum Shape {
+        /** A few numeric columns, as in aggregations */
+        NARROW_NUMERIC,
+        /** Many string columns, as in {@code SELECT *} over a dimension table */
+        WIDE_STRING,
+        /** Arrays, maps and rows */
+        NESTED
+    }
+
+    private PageFixtures() {
+    }
+
+    /**
+     * Generates the body of a result page.
+     *
+     * @param shape   the column layout
+     * @param rows    the number of rows
+     * @param queryId the query ID
+     * @param nextUri the next URI, or null for the last page
+     * @return the UTF-8 JSON body
+     */
+    public static byte[] page(Shape shape, int rows, String queryId, String nextUri) {
+        JsonObject page = new JsonObject();
+        page.addProperty("id", queryId);
+        page.addProperty("infoUri", "http://localhost:8080/ui/query.html?" + queryId);
+        if (nextUri != null) {
+            page.addProperty("nextUri", nextUri);
+        }
+        JsonArray columns = new JsonArray();
+        for (String[] column : columns(shape)) {
+            columns.add(column(column[0], column[1], column[2]));
+        }
+        page.add("columns", columns);
+
+        Random random = new Random(rows * 31L + shape.ordinal());
+        JsonArray data = new JsonArray();
+        for (int i = 0; i < rows; i++) {
+            data.add(row(shape, random, i));
+        }
+        page.add("data", data);
+        page.add("stats", stats(nextUri == null));
+        return GSON.toJson(page).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the columns of a shape, parsed from a generated page.
+     *
+     * @param shape the column layout
+     * @return the columns
+     */
+    public static List<TrinoColumn> parsedColumns(Shape shape) {
+        String json = new String(page(shape, 0, "q", null), StandardCharsets.UTF_8);
+        return GSON.fromJson(json, StatementResponse.class).getColumns();
+    }
+
+    private static List<String[]> columns(Shape shape) {
+        List<String[]> columns = new ArrayList<>();
+        switch (shape) {
+            case NARROW_NUMERIC:
+                columns.add(new String[] { "day", "date", "date" });
+                columns.add(new String[] { "orders", "bigint", "bigint" });
+                columns.add(new String[] { "revenue", "double", "double" });
+                columns.add(new String[] { "discount", "decimal(12,2)", "decimal" });
+                break;
+            case WIDE_STRING:
+                for (int i = 0; i < 40; i++) {
+                    columns.add(new String[] { "attribute_" + i, "varchar", "varchar" });
+                }
+                break;
+            case NESTED:
+                columns.add(new String[] { "id", "bigint", "bigint" });
+                columns.add(new String[] { "tags", "array(varchar)", "array" });
+                columns.add(new String[] { "counters", "map(varchar, bigint)", "map" });
+                columns.add(new String[] { "location", "row(lat double, lon double, city varchar)", "row" });
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        return columns;
+    }
+
+    private static JsonObject column(String name, String type, String rawType) {
+        JsonObject column = new JsonObject();
+        column.addProperty("name", name);
+        column.addProperty("type", type);
+        JsonObject signature = new JsonObject();
+        signature.addProperty("rawType", rawType);
+        signature.add("arguments", new JsonArray());
+        column.add("typeSignature", signature);
+        return column;
+    }
+
+    private static JsonArray row(Shape shape, Random random, int index) {
+        JsonArray row = new JsonArray();
+        switch (shape) {
+            case NARROW_NUMERIC:
+                row.add(String.format("2025-%02d-%02d", index % 12 + 1, index % 28 + 1));
+                row.add(random.nextInt(1_000_000));
+                row.add(random.nextDouble() * 1e6);
+                row.add(String.format("%d.%02d", random.nextInt(10_000), random.nextInt(100)));
+                break;
+            case WIDE_STRING:
+                for (int i = 0; i < 40; i++) {
+                    row.add(i % 7 == 6 ? null : word(random, 4 + random.nextInt(20)));
+                }
+                break;
+            case NESTED:
+                row.add(index);
+                JsonArray tags = new JsonArray();
+                for (int i = random.nextInt(5); i >= 0; i--) {
+                    tags.add(word(random, 6));
+                }
+                row.add(tags);
+                JsonObject counters = new JsonObject();
+                for (int i = random.nextInt(4); i >= 0; i--) {
+                    counters.addProperty(word(random, 5), random.nextInt(1000));
+                }
+                row.add(counters);
+                JsonArray location = new JsonArray();
+                location.add(random.nextDouble() * 180 - 90);
+                location.add(random.nextDouble() * 360 - 180);
+                location.add(word(random, 8));
+                row.add(location);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        return row;
+    }
+
+    private static String word(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static JsonObject stats(boolean finished) {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("state", finished ? "FINISHED" : "RUNNING");
+        stats.addProperty("queued", false);
+        stats.addProperty("scheduled", true);
+        stats.addProperty("nodes", 8);
+        stats.addProperty("totalSplits", 120);
+        stats.addProperty("queuedSplits", 0);
+        stats.addProperty("runningSplits", finished ? 0 : 12);
+        stats.addProperty("completedSplits", finished ? 120 : 108);
+        stats.addProperty("cpuTimeMillis", 52_311);
+        stats.addProperty("wallTimeMillis", 61_204);
+        stats.addProperty("queuedTimeMillis", 3);
+        stats.addProperty("elapsedTimeMillis", 2_410);
+        stats.addProperty("processedRows", 48_211_904);
+        stats.addProperty("processedBytes", 1_204_118_331);
+        stats.addProperty("physicalInputBytes", 402_118_002);
+        stats.addProperty("peakMemoryBytes", 88_120_331);
+        stats.addProperty("spilledBytes", 0);
+        return stats;
+    }
+}
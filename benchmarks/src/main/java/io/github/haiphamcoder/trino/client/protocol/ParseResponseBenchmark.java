@@ -0,0 +1,60 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.trino.client.benchmark.PageFixtures;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+
+/**
+ * Decoding of result pages by {@link StatementClient#parseResponse(byte[])}.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParseResponseBenchmark {
+    @Param({ "NARROW_NUMERIC", "WIDE_STRING", "NESTED" })
+    private PageFixtures.Shape shape;
+
+    @Param({ "1000" })
+    private int rows;
+
+    private StatementClient client;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        ClientSession session = ClientSession.builder()
+                .server(URI.create("http://localhost:8080"))
+                .user("benchmark")
+                .build();
+        client = new StatementClient(session, "SELECT 1");
+        body = PageFixtures.page(shape, rows, "20250101_000000_00000_bench",
+                "http://localhost:8080/v1/statement/executing/20250101_000000_00000_bench/y/2");
+    }
+
+    @Benchmark
+    public StatementResponse parseResponse() throws IOException {
+        return client.parseResponse(body);
+    }
+}
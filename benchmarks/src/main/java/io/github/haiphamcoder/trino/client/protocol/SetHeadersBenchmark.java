@@ -0,0 +1,68 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+
+/**
+ * Construction of request headers by
+ * {@link StatementClient#setHeaders(org.apache.hc.core5.http.HttpRequest)},
+ * which runs for every request of every query.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SetHeadersBenchmark {
+    /** {@code minimal}: user and source only; {@code full}: catalog, tags, properties and credentials */
+    @Param({ "minimal", "full" })
+    private String session;
+
+    private StatementClient client;
+
+    @Setup
+    public void setUp() {
+        ClientSession.Builder builder = ClientSession.builder()
+                .server(URI.create("http://localhost:8080"))
+                .user("benchmark");
+        if (session.equals("full")) {
+            builder.catalog("hive")
+                    .schema("web")
+                    .clientTag("dashboard")
+                    .clientTag("team=growth")
+                    .timeZone("Asia/Ho_Chi_Minh")
+                    .locale("vi-VN")
+                    .credential("token", "s3cr3t value");
+            for (int i = 0; i < 8; i++) {
+                builder.property("property_" + i, "value " + i);
+            }
+        }
+        client = new StatementClient(builder.build(), "SELECT 1");
+    }
+
+    @Benchmark
+    public HttpGet setHeaders() {
+        HttpGet request = new HttpGet("http://localhost:8080/v1/statement/executing/q/y/1");
+        client.setHeaders(request);
+        return request;
+    }
+}
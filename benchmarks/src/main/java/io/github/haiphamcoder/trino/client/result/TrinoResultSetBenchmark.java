@@ -0,0 +1,114 @@
+package io.github.haiphamcoder.trino.client.result;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.benchmark.PageFixtures;
+
+/**
+ * Iteration over a whole {@link TrinoResultSet}, from submission to the last
+ * row, against an in-process coordinator serving pre-generated pages over
+ * loopback HTTP.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TrinoResultSetBenchmark {
+    private static final String QUERY_ID = "20250101_000000_00000_bench";
+
+    @Param({ "NARROW_NUMERIC", "WIDE_STRING" })
+    private PageFixtures.Shape shape;
+
+    @Param({ "10" })
+    private int pages;
+
+    @Param({ "1000" })
+    private int rowsPerPage;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private TrinoClient client;
+    private byte[][] bodies;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(2);
+        server.setExecutor(serverExecutor);
+        String baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        // Page 0 answers the submission without rows, like a queued query
+        bodies = new byte[pages + 1][];
+        for (int i = 0; i <= pages; i++) {
+            String nextUri = i < pages ? baseUri + "/v1/statement/executing/" + QUERY_ID + "/y/" + (i + 1) : null;
+            bodies[i] = PageFixtures.page(shape, i == 0 ? 0 : rowsPerPage, QUERY_ID, nextUri);
+        }
+        server.createContext("/v1/statement", this::handle);
+        server.start();
+        client = TrinoClient.builder()
+                .server(baseUri)
+                .user("benchmark")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        exchange.getRequestBody().readAllBytes();
+        byte[] body = path.equals("/v1/statement")
+                ? bodies[0]
+                : bodies[Integer.parseInt(path.substring(path.lastIndexOf('/') + 1))];
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Benchmark
+    public long iterateRows(Blackhole blackhole) {
+        long rows = 0;
+        try (TrinoResultSet resultSet = client.execute("SELECT * FROM benchmark")) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getCurrentRow().getValue(0));
+                rows++;
+            }
+            resultSet.checkCompleted();
+        }
+        return rows;
+    }
+}
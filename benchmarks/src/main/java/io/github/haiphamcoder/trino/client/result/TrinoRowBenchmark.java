@@ -0,0 +1,76 @@
+package io.github.haiphamcoder.trino.client.result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.haiphamcoder.trino.client.benchmark.PageFixtures;
+import io.github.haiphamcoder.trino.client.model.TrinoColumn;
+
+/**
+ * Construction of {@link TrinoRow}s, one per row read through
+ * {@link TrinoResultSet#getCurrentRow()}, and access to their values.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrinoRowBenchmark {
+    @Param({ "NARROW_NUMERIC", "WIDE_STRING" })
+    private PageFixtures.Shape shape;
+
+    private List<TrinoColumn> columns;
+    private List<Object> values;
+    private String[] names;
+    private TrinoRow row;
+
+    @Setup
+    public void setUp() {
+        columns = PageFixtures.parsedColumns(shape);
+        values = new ArrayList<>();
+        names = new String[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            values.add("value " + i);
+            // Mixed case, as typed by callers
+            names[i] = columns.get(i).getName().toUpperCase();
+        }
+        row = new TrinoRow(columns, values);
+    }
+
+    @Benchmark
+    public TrinoRow construct() {
+        return new TrinoRow(columns, values);
+    }
+
+    @Benchmark
+    public void getValueByIndex(Blackhole blackhole) {
+        for (int i = 0; i < names.length; i++) {
+            blackhole.consume(row.getValue(i));
+        }
+    }
+
+    @Benchmark
+    public void getValueByName(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(row.getValue(name));
+        }
+    }
+}
@@ -1,11 +1,61 @@
 package io.github.haiphamcoder.trino.client;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.trino.client.admission.AdmissionController;
+import io.github.haiphamcoder.trino.client.admission.AdmissionPermit;
+import io.github.haiphamcoder.trino.client.admission.ConcurrencyLimit;
+import io.github.haiphamcoder.trino.client.admission.FairQueryScheduler;
+import io.github.haiphamcoder.trino.client.batch.BatchOptions;
+import io.github.haiphamcoder.trino.client.batch.QueryBatch;
+import io.github.haiphamcoder.trino.client.batch.QueryResult;
+import io.github.haiphamcoder.trino.client.batch.QuerySpec;
+import io.github.haiphamcoder.trino.client.coalesce.QueryCoalescer;
+import io.github.haiphamcoder.trino.client.coalesce.SharedQuery;
+import io.github.haiphamcoder.trino.client.concurrent.ClientThreads;
 import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.event.QueryEventListener;
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.insert.BulkInserter;
+import io.github.haiphamcoder.trino.client.lookup.KeyLookup;
+import io.github.haiphamcoder.trino.client.metrics.ClientMetrics;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.partition.MergedStatementClient;
+import io.github.haiphamcoder.trino.client.partition.Partition;
+import io.github.haiphamcoder.trino.client.partition.PartitionedQuery;
+import io.github.haiphamcoder.trino.client.poll.PollHandle;
+import io.github.haiphamcoder.trino.client.poll.PollScheduler;
+import io.github.haiphamcoder.trino.client.poll.QueryCallback;
+import io.github.haiphamcoder.trino.client.prepared.PreparedQuery;
+import io.github.haiphamcoder.trino.client.protocol.HedgingPolicy;
+import io.github.haiphamcoder.trino.client.protocol.HttpTransport;
 import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.protocol.TransportProtocol;
 import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
 import io.github.haiphamcoder.trino.client.result.TrinoRow;
+import io.github.haiphamcoder.trino.client.routing.CoordinatorRouter;
+import io.github.haiphamcoder.trino.client.routing.RoutingPolicy;
+import io.github.haiphamcoder.trino.client.script.ScriptRunner;
+import io.github.haiphamcoder.trino.client.script.SqlScript;
+import io.github.haiphamcoder.trino.client.script.StatementResult;
+import io.github.haiphamcoder.trino.client.tracing.QueryTracer;
+import io.github.haiphamcoder.trino.client.transaction.IsolationLevel;
+import io.github.haiphamcoder.trino.client.transaction.Transaction;
 
 /**
  * Main client class for executing queries against a Trino server.
@@ -33,29 +83,441 @@ import io.github.haiphamcoder.trino.client.result.TrinoRow;
  * @author Hai Pham Ngoc
  * @version 1.0.0
  */
-public class TrinoClient {
+public class TrinoClient implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(TrinoClient.class);
+    /** Names accepted for prepared statements */
+    private static final Pattern PREPARED_STATEMENT_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
     /** Client session configuration */
     private final ClientSession session;
+    /** Router for sessions with several coordinators (null for a single server) */
+    private final CoordinatorRouter router;
+    /** Limits concurrently running queries (null for no limit) */
+    private final AdmissionController admissionController;
+    /** Schedules submissions by priority class and tenant (null for no scheduling) */
+    private final FairQueryScheduler scheduler;
+    /** Drives queries submitted with callbacks (null if not configured) */
+    private final PollScheduler pollScheduler;
+    /** Runs asynchronous executions and page prefetches */
+    private final ExecutorService executor;
+    /** Whether result sets fetch the next page while the current one is consumed */
+    private final boolean prefetchPages;
+    /** Shared transport for all queries (null to use an HTTP/1.1 client per query) */
+    private final HttpTransport transport;
+    /** Coalesces identical concurrent queries (null if disabled) */
+    private final QueryCoalescer coalescer;
+    /** Numbers the prepared statements named by the client */
+    private final AtomicLong preparedStatementIds = new AtomicLong();
+    /** Held while an ordered partitioned query acquires the permits of its partitions */
+    private final ReentrantLock partitionAdmissionLock = new ReentrantLock();
 
     /**
      * Constructs a new TrinoClient with the specified session configuration.
+     * If the session has several servers, queries are routed round-robin.
      * 
      * @param session the client session configuration
      */
     public TrinoClient(ClientSession session) {
+        this(session, session.getServers().size() > 1
+                ? new CoordinatorRouter(session.getServers(), RoutingPolicy.roundRobin())
+                : null, null, null, null, false, false, null, null);
+    }
+
+    private TrinoClient(ClientSession session, CoordinatorRouter router, AdmissionController admissionController,
+            FairQueryScheduler scheduler, PollScheduler pollScheduler, boolean virtualThreads,
+            boolean prefetchPages, HttpTransport transport, QueryCoalescer coalescer) {
         this.session = session;
+        this.router = router;
+        this.admissionController = admissionController;
+        this.scheduler = scheduler;
+        this.pollScheduler = pollScheduler;
+        this.executor = ClientThreads.newExecutor("trino-client-query", virtualThreads);
+        this.prefetchPages = prefetchPages;
+        this.transport = transport;
+        this.coalescer = coalescer;
     }
 
     /**
      * Executes a SQL query and returns a result set.
      * The result set must be closed after use to free resources.
      * 
+     * <p>
+     * If the client has a concurrency limit or a scheduler, this method blocks
+     * until the query is admitted, and the admission is released when the result
+     * set is closed.
+     * 
      * @param sql the SQL statement to execute
      * @return a TrinoResultSet containing the query results
+     * @throws io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException
+     *         if the admission queue is full or the queue timeout expires
      */
     public TrinoResultSet execute(String sql) {
-        StatementClient statementClient = new StatementClient(session, sql);
-        return new TrinoResultSet(statementClient);
+        // Queries in a transaction may see its uncommitted writes, so they are never shared
+        if (coalescer != null && session.getTransactionId() == null && QueryCoalescer.isCoalescable(sql)) {
+            StatementClient subscriber = coalescer.subscribe(session, sql, () -> startSharedQuery(sql));
+            return new TrinoResultSet(subscriber, null, prefetchPages ? executor : null);
+        }
+
+        AdmissionPermit permit = acquirePermit(sql);
+        StatementClient statementClient = newStatementClient(sql, permit);
+        Runnable onClose = permit != null ? () -> completeAdmission(permit, statementClient) : null;
+        return new TrinoResultSet(statementClient, onClose, prefetchPages ? executor : null);
+    }
+
+    /**
+     * Creates the statement client of an admitted query, releasing the permit
+     * if the client cannot be created.
+     */
+    private StatementClient newStatementClient(String sql, AdmissionPermit permit) {
+        try {
+            return new StatementClient(session, sql, router, transport);
+        } catch (RuntimeException e) {
+            if (permit != null) {
+                permit.close();
+            }
+            throw e;
+        }
+    }
+
+    private SharedQuery startSharedQuery(String sql) {
+        AdmissionPermit permit = acquirePermit(sql);
+        StatementClient statementClient = newStatementClient(sql, permit);
+        Runnable onFinish = permit != null ? () -> completeAdmission(permit, statementClient) : null;
+        return new SharedQuery(statementClient, onFinish, coalescer.getMaxBufferBytes(), coalescer.getMaxWait());
+    }
+
+    /**
+     * Executes a SQL query on the client's executor, which uses virtual threads
+     * when enabled on the builder and supported by the JVM. Admission, submission
+     * and coordinator failover happen on that executor, and the returned future
+     * completes once the first response has been received.
+     * 
+     * @param sql the SQL statement to execute
+     * @return a future completed with the result set, which must be closed after
+     *         use
+     */
+    public CompletableFuture<TrinoResultSet> executeAsync(String sql) {
+        return CompletableFuture.supplyAsync(() -> {
+            TrinoResultSet resultSet = execute(sql);
+            try {
+                resultSet.getColumns();
+                return resultSet;
+            } catch (RuntimeException e) {
+                resultSet.close();
+                throw e;
+            }
+        }, executor);
+    }
+
+    /**
+     * Runs independent queries concurrently with the default
+     * {@link BatchOptions}: up to {@value BatchOptions#DEFAULT_PARALLELISM} at
+     * once, results in submission order, failures reported in the results.
+     * 
+     * @param sqls the SQL statements to execute
+     * @return one result per statement, in submission order
+     */
+    public List<QueryResult> executeAll(List<String> sqls) {
+        List<QuerySpec> specs = new ArrayList<>(sqls.size());
+        for (String sql : sqls) {
+            specs.add(QuerySpec.of(sql));
+        }
+        return executeAll(specs, BatchOptions.defaults());
+    }
+
+    /**
+     * Runs independent queries concurrently, up to the parallelism of the
+     * options, and collects their rows. In fail-fast mode the first failure
+     * cancels the running queries on the server and skips those not yet
+     * started.
+     * 
+     * @param specs   the queries to run
+     * @param options the batch options
+     * @return one result per query, in submission or completion order
+     * @throws io.github.haiphamcoder.trino.client.exception.BatchQueryException
+     *         if the batch is fail-fast and a query failed
+     */
+    public List<QueryResult> executeAll(List<QuerySpec> specs, BatchOptions options) {
+        return new QueryBatch(this, executor, options).run(specs);
+    }
+
+    /**
+     * Runs the partitions of a query as concurrent sub-queries and merges their
+     * rows into one result set: in arrival order, or in the order of the query's
+     * sort keys. Each sub-query goes through {@link #execute(String)}, so it is
+     * subject to admission control and routing. The merge of an ordered query
+     * needs rows from every partition, so this method first waits until all its
+     * partitions are admitted, and its partitions keep their permits across
+     * retries. A failing partition is retried without affecting the others.
+     * 
+     * @param query the partitioned query
+     * @return a result set over the rows of all partitions
+     * @throws AdmissionRejectedException if the query is ordered and its
+     *                                    partitions cannot all be admitted
+     */
+    public TrinoResultSet executePartitioned(PartitionedQuery query) {
+        List<AdmissionPermit> permits = query.isOrdered() ? acquirePartitionPermits(query) : null;
+        if (permits == null) {
+            return new TrinoResultSet(new MergedStatementClient(this::execute, session, query, executor, null));
+        }
+        return new TrinoResultSet(new MergedStatementClient(this::executeAdmitted, session, query, executor, permits));
+    }
+
+    /**
+     * Acquires one permit per partition of an ordered query before any partition
+     * starts. Admitted partitions would otherwise fill their buffers and hold
+     * their permits while the merge waits for a partition that cannot be
+     * admitted. Ordered queries acquire their permits one at a time, so two of
+     * them cannot each hold part of the capacity.
+     *
+     * @return the permits by partition, or null without admission control
+     */
+    private List<AdmissionPermit> acquirePartitionPermits(PartitionedQuery query) {
+        if (scheduler == null && admissionController == null) {
+            return null;
+        }
+        int partitions = query.getPartitions().size();
+        if (admissionController != null && partitions > admissionController.getLimit()) {
+            throw new AdmissionRejectedException("Ordered query needs its " + partitions
+                    + " partitions admitted at once, but the concurrency limit is " + admissionController.getLimit());
+        }
+
+        List<AdmissionPermit> permits = new ArrayList<>(partitions);
+        partitionAdmissionLock.lock();
+        try {
+            for (Partition partition : query.getPartitions()) {
+                permits.add(acquirePermit(query.sqlFor(partition)));
+            }
+            return permits;
+        } catch (RuntimeException e) {
+            permits.forEach(AdmissionPermit::close);
+            throw e;
+        } finally {
+            partitionAdmissionLock.unlock();
+        }
+    }
+
+    /**
+     * Executes a partition query under a permit its partitioned query holds.
+     */
+    private TrinoResultSet executeAdmitted(String sql) {
+        return new TrinoResultSet(newStatementClient(sql, null), null, prefetchPages ? executor : null);
+    }
+
+    /**
+     * Fetches the rows for a set of keys, running the statement-sized chunks of
+     * the lookup concurrently and returning their rows in arrival order.
+     * 
+     * @param lookup the key lookup
+     * @return a result set over the rows of all chunks
+     * @see #executePartitioned(PartitionedQuery)
+     */
+    public TrinoResultSet executeLookup(KeyLookup lookup) {
+        return executePartitioned(lookup.toPartitionedQuery());
+    }
+
+    /**
+     * Creates a builder for a {@link BulkInserter} writing to the given table.
+     * Its batches run on the client's executor through {@link #execute(String)}.
+     * 
+     * @param table the target table, optionally qualified with catalog and schema
+     * @return a builder to add the target columns to
+     */
+    public BulkInserter.Builder bulkInserter(String table) {
+        return BulkInserter.builder(this, executor).table(table);
+    }
+
+    /**
+     * Runs a SQL script with up to {@value ScriptRunner#DEFAULT_PARALLELISM}
+     * statements at once.
+     * 
+     * @param script the script, with statements separated by semicolons
+     * @return one result per statement, in script order
+     * @see #executeScript(String, int)
+     */
+    public List<StatementResult> executeScript(String script) {
+        return executeScript(script, ScriptRunner.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Runs a SQL script, running statements that do not depend on each other
+     * concurrently. A statement waits for the earlier statements that write
+     * the tables it reads or writes, or read the tables it writes, and
+     * statements that change the session run alone, so the script behaves as
+     * if run in order. Unqualified names are resolved against the session's
+     * current catalog and schema.
+     * 
+     * @param script      the script, with statements separated by semicolons
+     * @param parallelism the maximum number of statements running at once
+     * @return one result per statement, in script order
+     * @throws io.github.haiphamcoder.trino.client.exception.ScriptExecutionException
+     *         if a statement failed; the statements not started are skipped
+     * @see SqlScript
+     */
+    public List<StatementResult> executeScript(String script, int parallelism) {
+        SqlScript parsed = SqlScript.parse(script, session.getCatalog(), session.getSchema());
+        return new ScriptRunner(this, executor, parallelism).run(parsed);
+    }
+
+    /**
+     * Prepares a statement under a generated name.
+     * 
+     * @param sql the statement, with {@code ?} placeholders for parameters
+     * @return a handle to execute the statement with
+     * @see #prepare(String, String)
+     */
+    public PreparedQuery prepare(String sql) {
+        return prepare("statement_" + preparedStatementIds.incrementAndGet(), sql);
+    }
+
+    /**
+     * Prepares a statement with {@code PREPARE name FROM sql} and registers it
+     * in the session, replacing any statement with the same name. The
+     * coordinator parses the statement once here, so syntax errors surface
+     * before the first execution.
+     * 
+     * <p>
+     * Every query of the session may refer to the statement by name, for
+     * example with {@code EXECUTE name USING ...} or {@code DESCRIBE INPUT name};
+     * the client sends its text along with such queries.
+     * 
+     * @param name the statement name, an unquoted identifier
+     * @param sql  the statement, with {@code ?} placeholders for parameters
+     * @return a handle to execute the statement with
+     * @throws IllegalArgumentException if the name is not a valid identifier
+     * @throws io.github.haiphamcoder.trino.client.exception.QueryFailedException
+     *         if the statement cannot be prepared
+     */
+    public PreparedQuery prepare(String name, String sql) {
+        if (name == null || !PREPARED_STATEMENT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid prepared statement name: " + name);
+        }
+        runStatement("PREPARE " + name + " FROM " + sql);
+        // The response already registered the statement, unless a proxy dropped the header
+        session.getPreparedStatements().put(name, sql);
+        return new PreparedQuery(this, session, name, sql);
+    }
+
+    /**
+     * Starts a read-write transaction with the connectors' default isolation
+     * level.
+     * 
+     * @return the open transaction
+     * @see #beginTransaction(IsolationLevel, boolean)
+     */
+    public Transaction beginTransaction() {
+        return beginTransaction(null, false);
+    }
+
+    /**
+     * Starts a transaction with {@code START TRANSACTION}. Until it is
+     * committed or rolled back, every query of the client's session runs in
+     * the transaction, so statements commit together instead of one by one.
+     * 
+     * @param isolationLevel the isolation level, or null for the default
+     * @param readOnly       whether the transaction only reads
+     * @return the open transaction
+     * @throws IllegalStateException if the session already has an open
+     *                               transaction or the client routes queries
+     *                               across several coordinators, which do not
+     *                               share transactions
+     * @throws io.github.haiphamcoder.trino.client.exception.QueryFailedException
+     *         if the transaction cannot be started
+     */
+    public Transaction beginTransaction(IsolationLevel isolationLevel, boolean readOnly) {
+        if (router != null) {
+            throw new IllegalStateException("Transactions require a single coordinator");
+        }
+        if (session.getTransactionId() != null) {
+            throw new IllegalStateException("Transaction " + session.getTransactionId() + " is already open");
+        }
+
+        StringBuilder sql = new StringBuilder("START TRANSACTION ");
+        if (isolationLevel != null) {
+            sql.append("ISOLATION LEVEL ").append(isolationLevel.getSql()).append(", ");
+        }
+        sql.append(readOnly ? "READ ONLY" : "READ WRITE");
+        runStatement(sql.toString());
+
+        String transactionId = session.getTransactionId();
+        if (transactionId == null) {
+            throw new TrinoException("Server did not report the started transaction");
+        }
+        return new Transaction(this, session, transactionId);
+    }
+
+    /**
+     * Runs a statement to completion, throwing if it fails.
+     */
+    private void runStatement(String sql) {
+        try (TrinoResultSet resultSet = execute(sql)) {
+            while (resultSet.next()) {
+                // Skip rows
+            }
+            resultSet.checkCompleted();
+        }
+    }
+
+    /**
+     * Submits a SQL query to the client's {@link PollScheduler}, which pushes pages
+     * and state transitions to the callback without blocking a caller thread.
+     * 
+     * <p>
+     * Admission still blocks the caller if the client has a concurrency limit or a
+     * scheduler; the admission is released when the query completes.
+     * 
+     * @param sql      the SQL statement to execute
+     * @param callback the callback receiving pages and state transitions
+     * @return a handle for the submitted query
+     * @throws IllegalStateException if the client has no poll scheduler
+     */
+    public PollHandle submit(String sql, QueryCallback callback) {
+        if (pollScheduler == null) {
+            throw new IllegalStateException("No poll scheduler configured");
+        }
+
+        AdmissionPermit permit = acquirePermit(sql);
+        StatementClient statementClient;
+        PollHandle handle;
+        try {
+            statementClient = new StatementClient(session, sql, router);
+            handle = pollScheduler.register(statementClient, callback);
+        } catch (RuntimeException e) {
+            if (permit != null) {
+                permit.close();
+            }
+            throw e;
+        }
+        if (permit != null) {
+            handle.getCompletion().whenComplete((state, error) -> completeAdmission(permit, statementClient));
+        }
+        return handle;
+    }
+
+    private AdmissionPermit acquirePermit(String sql) {
+        if (scheduler != null) {
+            return scheduler.acquire(session, sql);
+        }
+        if (admissionController != null) {
+            return admissionController.acquire();
+        }
+        return null;
+    }
+
+    private static void completeAdmission(AdmissionPermit permit, StatementClient statementClient) {
+        StatementResponse response = statementClient.getCurrentResponse();
+        if (response == null) {
+            // The query was never submitted, so there is nothing to learn from it
+            permit.close();
+            return;
+        }
+
+        Long queuedTimeMillis = response.getStats() != null ? response.getStats().getQueuedTimeMillis() : null;
+        long completedNanos = statementClient.getCompletedNanos();
+        permit.complete(queuedTimeMillis != null ? queuedTimeMillis : 0,
+                statementClient.getState() == QueryState.CLIENT_ERROR,
+                completedNanos != 0 ? completedNanos : System.nanoTime());
     }
 
     /**
@@ -90,16 +552,120 @@ public class TrinoClient {
         }
     }
 
+    /**
+     * Gets the session of this client. Its catalog, schema, properties,
+     * prepared statements and transaction are updated by the queries of the
+     * client.
+     * 
+     * @return the client session
+     */
+    public ClientSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the coordinator router used for query submission.
+     * 
+     * @return the router, or null if the client uses a single server
+     */
+    public CoordinatorRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * Gets the admission controller limiting concurrent queries.
+     * 
+     * @return the admission controller, or null if concurrency is not limited
+     */
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * Gets the scheduler ordering query submissions by priority class and tenant.
+     * 
+     * @return the scheduler, or null if submissions are not scheduled
+     */
+    public FairQueryScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the transport shared by the client's queries.
+     * 
+     * @return the transport, or null if every query uses its own HTTP/1.1 client
+     */
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Gets the coalescer sharing identical concurrent queries.
+     * 
+     * @return the coalescer, or null if coalescing is disabled
+     */
+    public QueryCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Gets the poll scheduler driving queries submitted with callbacks.
+     * 
+     * @return the poll scheduler, or null if not configured
+     */
+    public PollScheduler getPollScheduler() {
+        return pollScheduler;
+    }
+
+    /**
+     * Closes the client, stops coordinator health checks, shuts down the
+     * executor used by {@link #executeAsync(String)} and closes the shared
+     * transport.
+     * A poll scheduler passed to the builder is not closed, as it may be shared.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        if (transport != null) {
+            transport.close();
+        }
+        if (router != null) {
+            router.close();
+        }
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
     public static class Builder {
         private URI server;
+        private List<URI> servers = new ArrayList<>();
+        private RoutingPolicy routingPolicy = RoutingPolicy.roundRobin();
+        private Duration healthCheckInterval;
+        private ConcurrencyLimit concurrencyLimit;
+        private int maxQueuedQueries = Integer.MAX_VALUE;
+        private Duration queueTimeout = Duration.ofMinutes(5);
+        private FairQueryScheduler scheduler;
+        private PollScheduler pollScheduler;
         private String user;
         private String source = "trino-java-client";
         private String catalog;
         private String schema;
+        private Set<String> clientTags = new LinkedHashSet<>();
+        private Long targetResultSize;
+        private boolean adaptiveResultSize;
+        private boolean virtualThreads;
+        private boolean prefetchPages;
+        private TransportProtocol transportProtocol = TransportProtocol.HTTP_1_1;
+        private int maxConcurrentStreams = HttpTransport.DEFAULT_MAX_CONCURRENT_STREAMS;
+        private boolean coalesceQueries;
+        private long coalescingBufferSize = QueryCoalescer.DEFAULT_MAX_BUFFER_BYTES;
+        private Duration coalescingMaxWait = QueryCoalescer.DEFAULT_MAX_WAIT;
+        private ClientMetrics metrics = ClientMetrics.NOOP;
+        private List<QueryEventListener> eventListeners = new ArrayList<>();
+        private QueryTracer tracer = QueryTracer.NOOP;
+        private HedgingPolicy hedging;
 
         public Builder server(URI server) {
             this.server = server;
@@ -111,6 +677,211 @@ public class TrinoClient {
             return this;
         }
 
+        public Builder servers(List<URI> servers) {
+            this.servers = new ArrayList<>(servers);
+            return this;
+        }
+
+        public Builder routingPolicy(RoutingPolicy routingPolicy) {
+            this.routingPolicy = routingPolicy;
+            return this;
+        }
+
+        public Builder healthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+            return this;
+        }
+
+        public Builder maxConcurrentQueries(int maxConcurrentQueries) {
+            this.concurrencyLimit = ConcurrencyLimit.fixed(maxConcurrentQueries);
+            return this;
+        }
+
+        public Builder concurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        public Builder maxQueuedQueries(int maxQueuedQueries) {
+            this.maxQueuedQueries = maxQueuedQueries;
+            return this;
+        }
+
+        public Builder queueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+            return this;
+        }
+
+        /**
+         * Sets a scheduler that orders submissions by priority class and tenant.
+         * The scheduler may be shared by several clients and takes precedence over
+         * the concurrency limit configured on this builder.
+         * 
+         * @param scheduler the query scheduler
+         * @return this builder
+         */
+        public Builder scheduler(FairQueryScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Sets the poll scheduler used by {@link TrinoClient#submit(String, QueryCallback)}.
+         * 
+         * @param pollScheduler the poll scheduler
+         * @return this builder
+         */
+        public Builder pollScheduler(PollScheduler pollScheduler) {
+            this.pollScheduler = pollScheduler;
+            return this;
+        }
+
+        /**
+         * Runs asynchronous executions and page prefetches on virtual threads.
+         * Requires Java 21 or later; on older runtimes platform threads are used.
+         * 
+         * @param virtualThreads whether to use virtual threads
+         * @return this builder
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Fetches the next result page in the background while the rows of the
+         * current page are consumed.
+         * 
+         * @param prefetchPages whether to prefetch result pages
+         * @return this builder
+         */
+        public Builder prefetchPages(boolean prefetchPages) {
+            this.prefetchPages = prefetchPages;
+            return this;
+        }
+
+        /**
+         * Sets the HTTP protocol used to talk to coordinators (default: HTTP/1.1,
+         * with a connection per query). With HTTP/2, all queries of the client
+         * share one connection per coordinator and their requests are multiplexed
+         * as streams.
+         * 
+         * @param transportProtocol the protocol
+         * @return this builder
+         */
+        public Builder transportProtocol(TransportProtocol transportProtocol) {
+            this.transportProtocol = transportProtocol;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of HTTP/2 requests in flight (default: 100).
+         * Further requests wait until a stream is free.
+         * 
+         * @param maxConcurrentStreams the maximum number of concurrent streams
+         * @return this builder
+         */
+        public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Shares one server query between identical concurrent read-only
+         * statements. Result pages are broadcast to every caller through a replay
+         * buffer; once the buffer is full, a caller reading ahead waits for the
+         * slowest caller of the same query, up to
+         * {@link #coalescingMaxWait(Duration)}.
+         * 
+         * @param coalesceQueries whether to coalesce identical queries
+         * @return this builder
+         */
+        public Builder coalesceQueries(boolean coalesceQueries) {
+            this.coalesceQueries = coalesceQueries;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound for the replay buffer of each coalesced query
+         * (default: 64MB).
+         * 
+         * @param coalescingBufferSize the buffer size in bytes
+         * @return this builder
+         */
+        public Builder coalescingBufferSize(long coalescingBufferSize) {
+            this.coalescingBufferSize = coalescingBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets how long a caller whose replay buffer is full waits for the
+         * slowest caller of the same coalesced query (default: 10 seconds). The
+         * slowest caller is then detached and its next read fails, which also
+         * keeps a thread reading two coalesced result sets one after the other
+         * from waiting on itself.
+         * 
+         * @param coalescingMaxWait the maximum wait
+         * @return this builder
+         */
+        public Builder coalescingMaxWait(Duration coalescingMaxWait) {
+            this.coalescingMaxWait = coalescingMaxWait;
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving request, page and query measurements, such
+         * as {@link io.github.haiphamcoder.trino.client.metrics.HistogramClientMetrics}
+         * (default: {@link ClientMetrics#NOOP}).
+         * 
+         * @param metrics the client metrics
+         * @return this builder
+         */
+        public Builder metrics(ClientMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Adds a listener receiving the created, submitted, queued, first-row
+         * and completion events of every query, such as a
+         * {@link io.github.haiphamcoder.trino.client.event.QueryTimelineRecorder}.
+         * 
+         * @param listener the event listener
+         * @return this builder
+         */
+        public Builder eventListener(QueryEventListener listener) {
+            this.eventListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Sets the tracer recording a trace per query and propagating it to the
+         * coordinator, such as
+         * {@link io.github.haiphamcoder.trino.client.tracing.opentelemetry.OpenTelemetryQueryTracer}
+         * (default: {@link QueryTracer#NOOP}).
+         * 
+         * @param tracer the query tracer
+         * @return this builder
+         */
+        public Builder tracer(QueryTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * Sets the policy hedging slow page fetches: a page request that has not
+         * answered within a percentile of recent fetch latencies is duplicated,
+         * and the first response wins. Share one policy between clients to share
+         * its hedge rate cap.
+         * 
+         * @param hedging the hedging policy, or null to never hedge
+         * @return this builder
+         */
+        public Builder hedging(HedgingPolicy hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
         public Builder user(String user) {
             this.user = user;
             return this;
@@ -131,15 +902,66 @@ public class TrinoClient {
             return this;
         }
 
+        public Builder clientTag(String tag) {
+            this.clientTags.add(tag);
+            return this;
+        }
+
+        public Builder targetResultSize(long targetResultSize) {
+            this.targetResultSize = targetResultSize;
+            return this;
+        }
+
+        public Builder adaptiveResultSize(boolean adaptiveResultSize) {
+            this.adaptiveResultSize = adaptiveResultSize;
+            return this;
+        }
+
         public TrinoClient build() {
-            ClientSession session = ClientSession.builder()
+            ClientSession.Builder sessionBuilder = ClientSession.builder()
                     .server(server)
+                    .servers(servers)
                     .user(user)
                     .source(source)
                     .catalog(catalog)
                     .schema(schema)
-                    .build();
-            return new TrinoClient(session);
+                    .adaptiveResultSize(adaptiveResultSize)
+                    .metrics(metrics)
+                    .tracer(tracer)
+                    .hedging(hedging);
+            for (String tag : clientTags) {
+                sessionBuilder.clientTag(tag);
+            }
+            for (QueryEventListener listener : eventListeners) {
+                sessionBuilder.eventListener(listener);
+            }
+            if (targetResultSize != null) {
+                sessionBuilder.targetResultSize(targetResultSize);
+            }
+            ClientSession session = sessionBuilder.build();
+
+            CoordinatorRouter router = null;
+            if (session.getServers().size() > 1) {
+                router = new CoordinatorRouter(session.getServers(), routingPolicy);
+                if (healthCheckInterval != null) {
+                    router.startHealthChecks(healthCheckInterval);
+                }
+            }
+            AdmissionController admissionController = concurrencyLimit != null && scheduler == null
+                    ? new AdmissionController(concurrencyLimit, maxQueuedQueries, queueTimeout)
+                    : null;
+            if (virtualThreads && !ClientThreads.isVirtualThreadsSupported()) {
+                log.warn("Virtual threads require Java 21 or later, using platform threads");
+            }
+            HttpTransport transport = transportProtocol == TransportProtocol.HTTP_2
+                    ? HttpTransport.builder()
+                            .protocol(TransportProtocol.HTTP_2)
+                            .maxConcurrentStreams(maxConcurrentStreams)
+                            .build()
+                    : null;
+            return new TrinoClient(session, router, admissionController, scheduler, pollScheduler, virtualThreads,
+                    prefetchPages, transport,
+                    coalesceQueries ? new QueryCoalescer(coalescingBufferSize, coalescingMaxWait) : null);
         }
     }
 }
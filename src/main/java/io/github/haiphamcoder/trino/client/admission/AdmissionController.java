@@ -0,0 +1,197 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+
+/**
+ * Limits the number of queries a client runs concurrently.
+ * Queries beyond the {@link ConcurrencyLimit} wait in a bounded queue for up to
+ * the queue timeout. When the queue is full, new queries fail fast with an
+ * {@link AdmissionRejectedException} instead of piling up on the coordinator.
+ *
+ * <pre>{@code
+ * AdmissionController controller = new AdmissionController(
+ *         ConcurrencyLimit.aimd(10, 100), 50, Duration.ofSeconds(30));
+ * try (AdmissionController.Permit permit = controller.acquire()) {
+ *     // Run the query, then report its outcome
+ *     permit.complete(queuedTimeMillis, false);
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class AdmissionController {
+    /** Limit deciding how many queries may run */
+    private final ConcurrencyLimit limit;
+    /** Maximum number of queries waiting for admission */
+    private final int maxQueueSize;
+    /** Maximum time a query waits for admission in nanoseconds */
+    private final long queueTimeoutNanos;
+    /** Lock guarding the counters and the limit */
+    private final ReentrantLock lock = new ReentrantLock(true);
+    /** Signalled when a permit is released or the limit changes */
+    private final Condition available = lock.newCondition();
+    /** Number of admitted queries that have not completed */
+    private int inFlight;
+    /** Number of queries waiting for admission */
+    private int queued;
+    /** Number of queries rejected because the queue was full or timed out */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructs a new AdmissionController.
+     *
+     * @param limit        the concurrency limit
+     * @param maxQueueSize the maximum number of queries waiting for admission
+     * @param queueTimeout the maximum time a query waits for admission
+     */
+    public AdmissionController(ConcurrencyLimit limit, int maxQueueSize, Duration queueTimeout) {
+        this.limit = limit;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    /**
+     * Waits until a query may run and returns a permit for it.
+     * The permit must be closed when the query completes.
+     *
+     * @return the admission permit
+     * @throws AdmissionRejectedException if the wait queue is full or the queue
+     *                                    timeout expires
+     * @throws TrinoException             if the thread is interrupted while waiting
+     */
+    public Permit acquire() {
+        lock.lock();
+        try {
+            if (inFlight < limit.getLimit()) {
+                inFlight++;
+                return new Permit();
+            }
+
+            if (queued >= maxQueueSize) {
+                rejected.incrementAndGet();
+                throw new AdmissionRejectedException(
+                        "Admission queue is full (" + queued + " waiting, limit " + limit.getLimit() + ")");
+            }
+
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= limit.getLimit()) {
+                    if (remaining <= 0) {
+                        rejected.incrementAndGet();
+                        throw new AdmissionRejectedException("Timed out after "
+                                + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos) + " ms waiting for admission");
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return new Permit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TrinoException("Interrupted while waiting for admission", e);
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long latencyNanos, long queuedTimeMillis, boolean dropped, boolean sampled) {
+        lock.lock();
+        try {
+            if (sampled) {
+                limit.onSample(latencyNanos, queuedTimeMillis, inFlight, dropped);
+            }
+            inFlight--;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the current concurrency limit.
+     *
+     * @return the current limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit.getLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of admitted queries that have not completed.
+     *
+     * @return the number of running queries
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queries waiting for admission.
+     *
+     * @return the number of waiting queries
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queries rejected since this controller was created.
+     *
+     * @return the number of rejected queries
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Permission for one query admitted by this controller.
+     */
+    public class Permit implements AdmissionPermit {
+        /** Time at which the query was admitted */
+        private final long admittedNanos = System.nanoTime();
+        /** Whether the permit has been released */
+        private boolean released;
+
+        @Override
+        public void complete(long queuedTimeMillis, boolean dropped, long completedNanos) {
+            if (!released) {
+                released = true;
+                release(Math.max(0, completedNanos - admittedNanos), queuedTimeMillis, dropped, true);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(0, 0, false, false);
+            }
+        }
+    }
+}
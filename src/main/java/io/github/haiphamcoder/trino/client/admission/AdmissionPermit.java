@@ -0,0 +1,42 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * Permission for one query to run, handed out by an {@link AdmissionController}
+ * or a {@link FairQueryScheduler}.
+ * Closing the permit without calling {@link #complete(long, boolean)} releases
+ * it without feeding a sample to the concurrency limit.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface AdmissionPermit extends AutoCloseable {
+    /**
+     * Reports the outcome of the query, measuring its latency from admission
+     * until now, and releases the permit.
+     * 
+     * @param queuedTimeMillis the time the query spent queued on the server
+     * @param dropped          whether the query failed on the client side
+     */
+    default void complete(long queuedTimeMillis, boolean dropped) {
+        complete(queuedTimeMillis, dropped, System.nanoTime());
+    }
+
+    /**
+     * Reports the outcome of the query and releases the permit. The latency fed
+     * to the concurrency limit runs from admission until the query reached its
+     * final state, so time the application spends reading results afterwards
+     * does not count against the server.
+     * 
+     * @param queuedTimeMillis the time the query spent queued on the server
+     * @param dropped          whether the query failed on the client side
+     * @param completedNanos   the {@link System#nanoTime()} at which the query
+     *                         reached its final state
+     */
+    void complete(long queuedTimeMillis, boolean dropped, long completedNanos);
+
+    /**
+     * Releases the permit without reporting an outcome.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,70 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit.
+ * The limit grows by one when a query completes without queueing on the server
+ * while the client is using most of its limit, and is multiplied by the backoff
+ * ratio when the server queued the query for longer than the threshold or the
+ * query was dropped.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class AimdLimit implements ConcurrencyLimit {
+    /** Default server queue time above which the limit is reduced */
+    public static final long DEFAULT_QUEUED_TIME_THRESHOLD_MILLIS = 1000;
+    /** Default factor applied to the limit when backing off */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    /** Lower bound for the limit */
+    private final int minLimit;
+    /** Upper bound for the limit */
+    private final int maxLimit;
+    /** Server queue time above which the limit is reduced */
+    private final long queuedTimeThresholdMillis;
+    /** Factor applied to the limit when backing off */
+    private final double backoffRatio;
+    /** Current limit */
+    private int limit;
+
+    /**
+     * Constructs a new AimdLimit.
+     * 
+     * @param initialLimit              the starting limit
+     * @param minLimit                  the lower bound for the limit
+     * @param maxLimit                  the upper bound for the limit
+     * @param queuedTimeThresholdMillis the server queue time above which the
+     *                                  limit is reduced
+     * @param backoffRatio              the factor applied to the limit when
+     *                                  backing off, between 0 and 1
+     * @throws IllegalArgumentException if the bounds or ratio are invalid
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long queuedTimeThresholdMillis,
+            double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1: " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queuedTimeThresholdMillis = queuedTimeThresholdMillis;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long latencyNanos, long queuedTimeMillis, int inFlight, boolean dropped) {
+        if (dropped || queuedTimeMillis > queuedTimeThresholdMillis) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
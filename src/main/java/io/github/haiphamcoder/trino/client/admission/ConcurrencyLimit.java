@@ -0,0 +1,66 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * Strategy that decides how many queries may run concurrently.
+ * An {@link AdmissionController} consults the limit before admitting a query
+ * and reports a sample when each admitted query completes. Implementations are
+ * only called while the controller holds its lock, so they need no
+ * synchronization of their own.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface ConcurrencyLimit {
+    /**
+     * Gets the current concurrency limit.
+     * 
+     * @return the maximum number of queries that may run concurrently
+     */
+    int getLimit();
+
+    /**
+     * Records the outcome of a completed query.
+     * 
+     * @param latencyNanos     the client-side time from admission to completion
+     * @param queuedTimeMillis the time the query spent queued on the server, as
+     *                         reported by {@code TrinoStats}
+     * @param inFlight         the number of queries running when the query
+     *                         completed
+     * @param dropped          whether the query failed on the client side
+     */
+    void onSample(long latencyNanos, long queuedTimeMillis, int inFlight, boolean dropped);
+
+    /**
+     * Returns a limit that never changes.
+     * 
+     * @param limit the maximum number of concurrent queries
+     * @return a fixed concurrency limit
+     */
+    static ConcurrencyLimit fixed(int limit) {
+        return new FixedLimit(limit);
+    }
+
+    /**
+     * Returns an additive-increase/multiplicative-decrease limit with default
+     * settings.
+     * 
+     * @param initialLimit the starting limit
+     * @param maxLimit     the upper bound for the limit
+     * @return an AIMD concurrency limit
+     */
+    static ConcurrencyLimit aimd(int initialLimit, int maxLimit) {
+        return new AimdLimit(initialLimit, 1, maxLimit, AimdLimit.DEFAULT_QUEUED_TIME_THRESHOLD_MILLIS,
+                AimdLimit.DEFAULT_BACKOFF_RATIO);
+    }
+
+    /**
+     * Returns a gradient limit with default settings.
+     * 
+     * @param initialLimit the starting limit
+     * @param maxLimit     the upper bound for the limit
+     * @return a gradient concurrency limit
+     */
+    static ConcurrencyLimit gradient(int initialLimit, int maxLimit) {
+        return new GradientLimit(initialLimit, 1, maxLimit);
+    }
+}
@@ -0,0 +1,540 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+
+/**
+ * Schedules query submissions by priority class and shares capacity fairly
+ * between tenants.
+ *
+ * <p>
+ * Each query is assigned to a {@link QueryClass}. When a slot frees up, the
+ * highest-priority class with queued queries and spare capacity under its cap is
+ * served first. Within a class, tenants (by default the session user plus its
+ * client tags) are served in proportion to their weights using stride
+ * scheduling, so one tenant's bulk export cannot starve another tenant's
+ * interactive queries.
+ *
+ * <p>
+ * A single scheduler can be shared by several {@code TrinoClient} instances
+ * that use different sessions:
+ *
+ * <pre>{@code
+ * FairQueryScheduler scheduler = FairQueryScheduler.builder()
+ *         .concurrencyLimit(ConcurrencyLimit.fixed(50))
+ *         .queryClass(new QueryClass("interactive", 10, 40))
+ *         .queryClass(new QueryClass("batch", 0, 10))
+ *         .defaultClass("batch")
+ *         .tenantWeight("alice", 2.0)
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class FairQueryScheduler {
+    /** Limit on the total number of running queries across all classes */
+    private final ConcurrencyLimit limit;
+    /** Classes ordered by descending priority */
+    private final List<ClassState> classes;
+    /** Classes by name */
+    private final Map<String, ClassState> classesByName;
+    /** Class used when a query cannot be classified */
+    private final ClassState defaultClass;
+    /** Optional custom classifier */
+    private final QueryClassifier classifier;
+    /** Derives the tenant key from a session */
+    private final Function<ClientSession, String> tenantKey;
+    /** Weights by tenant key */
+    private final Map<String, Double> tenantWeights;
+    /** Maximum number of queries waiting across all classes */
+    private final int maxQueuedQueries;
+    /** Maximum time a query waits for admission in nanoseconds */
+    private final long queueTimeoutNanos;
+
+    /** Lock guarding all scheduling state */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled whenever a waiter is granted admission */
+    private final Condition granted = lock.newCondition();
+    /** Number of running queries across all classes */
+    private int inFlight;
+    /** Number of waiting queries across all classes */
+    private int queued;
+
+    private FairQueryScheduler(Builder builder) {
+        if (builder.classes.isEmpty()) {
+            throw new IllegalArgumentException("At least one query class is required");
+        }
+        this.limit = builder.limit;
+        this.classifier = builder.classifier;
+        this.tenantKey = builder.tenantKey;
+        this.tenantWeights = new HashMap<>(builder.tenantWeights);
+        this.maxQueuedQueries = builder.maxQueuedQueries;
+        this.queueTimeoutNanos = builder.queueTimeout.toNanos();
+
+        this.classesByName = new LinkedHashMap<>();
+        for (QueryClass queryClass : builder.classes) {
+            classesByName.put(queryClass.getName(), new ClassState(queryClass));
+        }
+        List<ClassState> ordered = new ArrayList<>(classesByName.values());
+        ordered.sort(Comparator.comparingInt((ClassState c) -> c.queryClass.getPriority()).reversed());
+        this.classes = ordered;
+
+        if (builder.defaultClass != null) {
+            this.defaultClass = classesByName.get(builder.defaultClass);
+            if (defaultClass == null) {
+                throw new IllegalArgumentException("Unknown default class: " + builder.defaultClass);
+            }
+        } else {
+            // Unclassified queries go to the lowest priority class
+            this.defaultClass = ordered.get(ordered.size() - 1);
+        }
+    }
+
+    /**
+     * Creates a new Builder for constructing a FairQueryScheduler.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Waits until the query may run and returns a permit for it.
+     * The permit must be closed when the query completes.
+     *
+     * @param session the session the query is submitted with
+     * @param sql     the SQL statement
+     * @return the admission permit
+     * @throws AdmissionRejectedException if the query would have to wait while the
+     *                                    wait queue or its class queue is full, or
+     *                                    the queue timeout expires
+     * @throws TrinoException             if the thread is interrupted while waiting
+     */
+    public AdmissionPermit acquire(ClientSession session, String sql) {
+        ClassState classState = classify(session, sql);
+        String tenant = tenantKey.apply(session);
+
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(tenant);
+            classState.enqueue(waiter, tenantWeights.getOrDefault(tenant, 1.0));
+            queued++;
+            dispatch();
+
+            // Only queries that actually wait count against the queue bounds
+            if (!waiter.granted && (queued > maxQueuedQueries
+                    || classState.queued > classState.queryClass.getMaxQueued())) {
+                classState.remove(waiter);
+                queued--;
+                classState.rejected++;
+                throw new AdmissionRejectedException("Scheduler queue is full (" + queued + " waiting, "
+                        + classState.queued + " in class " + classState.queryClass.getName() + ")");
+            }
+
+            long remaining = queueTimeoutNanos;
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        classState.remove(waiter);
+                        queued--;
+                        classState.rejected++;
+                        throw new AdmissionRejectedException("Timed out waiting for admission in class "
+                                + classState.queryClass.getName());
+                    }
+                    remaining = granted.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // Admission raced with the interrupt; give the slot back
+                    release(classState, 0, 0, false, false);
+                } else {
+                    classState.remove(waiter);
+                    queued--;
+                }
+                Thread.currentThread().interrupt();
+                throw new TrinoException("Interrupted while waiting for admission", e);
+            }
+
+            long waitNanos = System.nanoTime() - waiter.enqueuedNanos;
+            classState.totalWaitNanos += waitNanos;
+            classState.maxWaitNanos = Math.max(classState.maxWaitNanos, waitNanos);
+            return new Permit(classState);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ClassState classify(ClientSession session, String sql) {
+        if (classifier != null) {
+            String name = classifier.classify(session, sql);
+            if (name != null) {
+                ClassState classState = classesByName.get(name);
+                if (classState == null) {
+                    throw new IllegalArgumentException("Unknown query class: " + name);
+                }
+                return classState;
+            }
+        }
+
+        // Pick the highest priority class named by a client tag
+        for (ClassState classState : classes) {
+            if (session.getClientTags().contains(classState.queryClass.getName())) {
+                return classState;
+            }
+        }
+        return defaultClass;
+    }
+
+    /**
+     * Grants admission to queued queries while capacity is available.
+     * Must be called with the lock held.
+     */
+    private void dispatch() {
+        boolean dispatched = false;
+        while (inFlight < limit.getLimit()) {
+            ClassState next = null;
+            for (ClassState classState : classes) {
+                if (classState.queued > 0 && classState.running < classState.queryClass.getMaxConcurrency()) {
+                    next = classState;
+                    break;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+
+            Waiter waiter = next.dequeue();
+            waiter.granted = true;
+            next.running++;
+            next.admitted++;
+            queued--;
+            inFlight++;
+            dispatched = true;
+        }
+
+        if (dispatched) {
+            granted.signalAll();
+        }
+    }
+
+    private void release(ClassState classState, long latencyNanos, long queuedTimeMillis, boolean dropped,
+            boolean sampled) {
+        lock.lock();
+        try {
+            if (sampled) {
+                limit.onSample(latencyNanos, queuedTimeMillis, inFlight, dropped);
+            }
+            classState.running--;
+            inFlight--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the scheduling statistics of every class.
+     *
+     * @return the statistics by class name, in registration order
+     */
+    public Map<String, QueryClassStats> getStats() {
+        lock.lock();
+        try {
+            Map<String, QueryClassStats> stats = new LinkedHashMap<>();
+            for (ClassState c : classesByName.values()) {
+                stats.put(c.queryClass.getName(), new QueryClassStats(c.queryClass.getName(), c.running, c.queued,
+                        c.admitted, c.rejected, c.totalWaitNanos, c.maxWaitNanos));
+            }
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of running queries across all classes.
+     *
+     * @return the number of running queries
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queued queries of a single tenant within a class.
+     */
+    private static class TenantQueue implements Comparable<TenantQueue> {
+        final String tenant;
+        final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        /** Stride added to the pass for each admitted query */
+        double stride;
+        /** Virtual time of the tenant's next admission */
+        double pass;
+
+        TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+
+        @Override
+        public int compareTo(TenantQueue other) {
+            int result = Double.compare(pass, other.pass);
+            return result != 0 ? result : tenant.compareTo(other.tenant);
+        }
+    }
+
+    /**
+     * Scheduling state of a single class.
+     */
+    private static class ClassState {
+        final QueryClass queryClass;
+        final Map<String, TenantQueue> tenants = new HashMap<>();
+        /** Tenants with queued queries ordered by pass */
+        final TreeSet<TenantQueue> active = new TreeSet<>();
+        /** Pass of the most recently served tenant */
+        double virtualTime;
+        int running;
+        int queued;
+        long admitted;
+        long rejected;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        ClassState(QueryClass queryClass) {
+            this.queryClass = queryClass;
+        }
+
+        void enqueue(Waiter waiter, double weight) {
+            TenantQueue tenantQueue = tenants.computeIfAbsent(waiter.tenant, TenantQueue::new);
+            tenantQueue.stride = 1.0 / Math.max(weight, 1e-6);
+            if (tenantQueue.waiters.isEmpty()) {
+                // A tenant that was idle cannot claim credit for the time it was away
+                tenantQueue.pass = Math.max(tenantQueue.pass, virtualTime);
+                active.add(tenantQueue);
+            }
+            tenantQueue.waiters.addLast(waiter);
+            queued++;
+        }
+
+        Waiter dequeue() {
+            TenantQueue tenantQueue = active.pollFirst();
+            Waiter waiter = tenantQueue.waiters.pollFirst();
+            virtualTime = tenantQueue.pass;
+            tenantQueue.pass += tenantQueue.stride;
+            if (!tenantQueue.waiters.isEmpty()) {
+                active.add(tenantQueue);
+            } else {
+                tenants.remove(tenantQueue.tenant);
+            }
+            queued--;
+            return waiter;
+        }
+
+        void remove(Waiter waiter) {
+            TenantQueue tenantQueue = tenants.get(waiter.tenant);
+            if (tenantQueue == null) {
+                return;
+            }
+            for (Iterator<Waiter> it = tenantQueue.waiters.iterator(); it.hasNext();) {
+                if (it.next() == waiter) {
+                    it.remove();
+                    queued--;
+                    break;
+                }
+            }
+            if (tenantQueue.waiters.isEmpty()) {
+                active.remove(tenantQueue);
+                tenants.remove(tenantQueue.tenant);
+            }
+        }
+    }
+
+    /**
+     * A query waiting for admission.
+     */
+    private static class Waiter {
+        final String tenant;
+        final long enqueuedNanos = System.nanoTime();
+        boolean granted;
+
+        Waiter(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Permission for one query admitted by this scheduler.
+     */
+    private class Permit implements AdmissionPermit {
+        private final ClassState classState;
+        private final long admittedNanos = System.nanoTime();
+        private boolean released;
+
+        Permit(ClassState classState) {
+            this.classState = classState;
+        }
+
+        @Override
+        public void complete(long queuedTimeMillis, boolean dropped, long completedNanos) {
+            if (!released) {
+                released = true;
+                release(classState, Math.max(0, completedNanos - admittedNanos), queuedTimeMillis, dropped,
+                        true);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(classState, 0, 0, false, false);
+            }
+        }
+    }
+
+    /**
+     * Builder class for creating FairQueryScheduler instances.
+     */
+    public static class Builder {
+        private ConcurrencyLimit limit = ConcurrencyLimit.fixed(Integer.MAX_VALUE);
+        private final List<QueryClass> classes = new ArrayList<>();
+        private String defaultClass;
+        private QueryClassifier classifier;
+        private Function<ClientSession, String> tenantKey = Builder::defaultTenantKey;
+        private final Map<String, Double> tenantWeights = new HashMap<>();
+        private int maxQueuedQueries = Integer.MAX_VALUE;
+        private Duration queueTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Sets the limit on the total number of running queries across all classes
+         * (default: unlimited).
+         *
+         * @param limit the concurrency limit
+         * @return this builder
+         */
+        public Builder concurrencyLimit(ConcurrencyLimit limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Registers a query class.
+         *
+         * @param queryClass the query class
+         * @return this builder
+         */
+        public Builder queryClass(QueryClass queryClass) {
+            this.classes.add(queryClass);
+            return this;
+        }
+
+        /**
+         * Sets the class used for queries that are not otherwise classified
+         * (default: the lowest priority class).
+         *
+         * @param defaultClass the class name
+         * @return this builder
+         */
+        public Builder defaultClass(String defaultClass) {
+            this.defaultClass = defaultClass;
+            return this;
+        }
+
+        /**
+         * Sets a custom classifier. Queries it does not classify fall back to the
+         * client tags and then the default class.
+         *
+         * @param classifier the query classifier
+         * @return this builder
+         */
+        public Builder classifier(QueryClassifier classifier) {
+            this.classifier = classifier;
+            return this;
+        }
+
+        /**
+         * Sets how the tenant key is derived from a session (default: the user
+         * followed by the sorted client tags).
+         *
+         * @param tenantKey the tenant key function
+         * @return this builder
+         */
+        public Builder tenantKey(Function<ClientSession, String> tenantKey) {
+            this.tenantKey = tenantKey;
+            return this;
+        }
+
+        /**
+         * Sets the relative share of a tenant (default: 1.0).
+         *
+         * @param tenant the tenant key
+         * @param weight the weight
+         * @return this builder
+         */
+        public Builder tenantWeight(String tenant, double weight) {
+            this.tenantWeights.put(tenant, weight);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of queries waiting across all classes. Queries
+         * admitted right away never count against it, so {@code 0} rejects only
+         * queries that would have to wait.
+         *
+         * @param maxQueuedQueries the maximum queue size
+         * @return this builder
+         */
+        public Builder maxQueuedQueries(int maxQueuedQueries) {
+            this.maxQueuedQueries = maxQueuedQueries;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a query waits for admission (default: 5 minutes).
+         *
+         * @param queueTimeout the queue timeout
+         * @return this builder
+         */
+        public Builder queueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new FairQueryScheduler.
+         *
+         * @return a new FairQueryScheduler instance
+         */
+        public FairQueryScheduler build() {
+            return new FairQueryScheduler(this);
+        }
+
+        private static String defaultTenantKey(ClientSession session) {
+            if (session.getClientTags().isEmpty()) {
+                return String.valueOf(session.getUser());
+            }
+            return session.getUser() + ":" + String.join(",", new TreeSet<>(session.getClientTags()));
+        }
+    }
+}
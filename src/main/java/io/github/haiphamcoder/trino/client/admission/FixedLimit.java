@@ -0,0 +1,35 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * Concurrency limit that never changes.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class FixedLimit implements ConcurrencyLimit {
+    /** Maximum number of concurrent queries */
+    private final int limit;
+
+    /**
+     * Constructs a new FixedLimit.
+     * 
+     * @param limit the maximum number of concurrent queries
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public FixedLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long latencyNanos, long queuedTimeMillis, int inFlight, boolean dropped) {
+        // Fixed limit does not adapt
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * Concurrency limit driven by the gradient between long-term and recent query
+ * latency.
+ * While recent latency stays close to the long-term average the limit grows by
+ * a small headroom; when recent latency rises, the limit shrinks in proportion.
+ * Server queue time is added to the measured latency so that queueing on the
+ * coordinator is treated as congestion.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class GradientLimit implements ConcurrencyLimit {
+    /** Weight of a new sample in the short-term latency average */
+    private static final double SHORT_SMOOTHING = 0.5;
+    /** Weight of a new sample in the long-term latency average */
+    private static final double LONG_SMOOTHING = 0.05;
+    /** Weight of the newly computed limit against the current one */
+    private static final double LIMIT_SMOOTHING = 0.2;
+    /** Lowest allowed gradient, so one slow query cannot halve the limit */
+    private static final double MIN_GRADIENT = 0.5;
+
+    /** Lower bound for the limit */
+    private final int minLimit;
+    /** Upper bound for the limit */
+    private final int maxLimit;
+    /** Current limit, kept fractional so that smoothing accumulates */
+    private double limit;
+    /** Short-term average latency in nanoseconds (0 until the first sample) */
+    private double shortLatency;
+    /** Long-term average latency in nanoseconds (0 until the first sample) */
+    private double longLatency;
+
+    /**
+     * Constructs a new GradientLimit.
+     * 
+     * @param initialLimit the starting limit
+     * @param minLimit     the lower bound for the limit
+     * @param maxLimit     the upper bound for the limit
+     * @throws IllegalArgumentException if the bounds are invalid
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long latencyNanos, long queuedTimeMillis, int inFlight, boolean dropped) {
+        double sample = latencyNanos + queuedTimeMillis * 1_000_000.0;
+        if (longLatency == 0) {
+            shortLatency = sample;
+            longLatency = sample;
+        } else {
+            shortLatency += SHORT_SMOOTHING * (sample - shortLatency);
+            longLatency += LONG_SMOOTHING * (sample - longLatency);
+        }
+
+        double gradient = dropped ? MIN_GRADIENT
+                : Math.max(MIN_GRADIENT, Math.min(1.0, longLatency / Math.max(1, shortLatency)));
+        double headroom = Math.sqrt(limit);
+        double target = limit * gradient + headroom;
+        if (inFlight * 2 < limit && target > limit) {
+            // Only grow when the current limit is actually being used
+            target = limit;
+        }
+
+        limit = limit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * A priority class for queries scheduled by a {@link FairQueryScheduler}.
+ * Queued queries of a higher-priority class are always admitted before those of
+ * a lower-priority class, but never beyond the class's concurrency cap. A
+ * class may also bound how many of its queries wait for a slot.
+ * 
+ * <pre>{@code
+ * QueryClass interactive = new QueryClass("interactive", 10, 40);
+ * QueryClass batch = new QueryClass("batch", 0, 8, 100);
+ * }</pre>
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryClass {
+    /** Name of the class, also matched against client tags by default */
+    private final String name;
+    /** Priority of the class; higher values are admitted first */
+    private final int priority;
+    /** Maximum number of queries of this class running at once */
+    private final int maxConcurrency;
+    /** Maximum number of queries of this class waiting for a slot */
+    private final int maxQueued;
+
+    /**
+     * Constructs a new QueryClass with an unbounded queue.
+     * 
+     * @param name           the class name
+     * @param priority       the priority; higher values are admitted first
+     * @param maxConcurrency the maximum number of queries of this class running
+     *                       at once
+     * @throws IllegalArgumentException if the concurrency cap is not positive
+     */
+    public QueryClass(String name, int priority, int maxConcurrency) {
+        this(name, priority, maxConcurrency, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a new QueryClass.
+     * 
+     * @param name           the class name
+     * @param priority       the priority; higher values are admitted first
+     * @param maxConcurrency the maximum number of queries of this class running
+     *                       at once
+     * @param maxQueued      the maximum number of queries of this class waiting
+     *                       for a slot; queries admitted right away never count
+     * @throws IllegalArgumentException if the concurrency cap is not positive or
+     *                                  the queue bound is negative
+     */
+    public QueryClass(String name, int priority, int maxConcurrency, int maxQueued) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Max queued must not be negative: " + maxQueued);
+        }
+        this.name = name;
+        this.priority = priority;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+/**
+ * Snapshot of scheduling statistics for one {@link QueryClass}.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryClassStats {
+    /** Name of the class */
+    private final String name;
+    /** Number of queries of this class currently running */
+    private final int running;
+    /** Number of queries of this class waiting for admission */
+    private final int queued;
+    /** Number of queries of this class admitted so far */
+    private final long admitted;
+    /** Number of queries of this class rejected so far */
+    private final long rejected;
+    /** Total time admitted queries spent waiting in nanoseconds */
+    private final long totalWaitNanos;
+    /** Longest time an admitted query spent waiting in nanoseconds */
+    private final long maxWaitNanos;
+
+    public QueryClassStats(String name, int running, int queued, long admitted, long rejected, long totalWaitNanos,
+            long maxWaitNanos) {
+        this.name = name;
+        this.running = running;
+        this.queued = queued;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRunning() {
+        return running;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the average time admitted queries spent waiting for admission.
+     * 
+     * @return the average queue wait in milliseconds, or 0 if nothing was admitted
+     */
+    public double getAverageWaitMillis() {
+        return admitted == 0 ? 0 : totalWaitNanos / 1_000_000.0 / admitted;
+    }
+
+    /**
+     * Gets the longest time an admitted query spent waiting for admission.
+     * 
+     * @return the maximum queue wait in milliseconds
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+
+/**
+ * Assigns queries submitted to a {@link FairQueryScheduler} to a
+ * {@link QueryClass}.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface QueryClassifier {
+    /**
+     * Returns the name of the class the query belongs to.
+     * 
+     * @param session the session the query is submitted with
+     * @param sql     the SQL statement
+     * @return the class name, or null to fall back to the client tags and then
+     *         the scheduler's default class
+     */
+    String classify(ClientSession session, String sql);
+}
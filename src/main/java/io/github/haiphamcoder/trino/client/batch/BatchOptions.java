@@ -0,0 +1,115 @@
+package io.github.haiphamcoder.trino.client.batch;
+
+/**
+ * Options controlling how a batch of queries is run.
+ *
+ * <pre>{@code
+ * BatchOptions options = BatchOptions.builder()
+ *         .parallelism(16)
+ *         .resultOrder(BatchOptions.ResultOrder.COMPLETION)
+ *         .errorMode(BatchOptions.ErrorMode.FAIL_FAST)
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class BatchOptions {
+    /** Default maximum number of queries running at once */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    /**
+     * Order of the results returned for a batch.
+     */
+    public enum ResultOrder {
+        /** Results are in the order the queries were given */
+        SUBMISSION,
+        /** Results are in the order the queries completed */
+        COMPLETION
+    }
+
+    /**
+     * How a batch reacts to a failed query.
+     */
+    public enum ErrorMode {
+        /**
+         * The first failure cancels the running queries on the server, skips the
+         * queries not started yet and fails the batch.
+         */
+        FAIL_FAST,
+        /** Every query runs, and failures are reported in the results */
+        COLLECT_ERRORS
+    }
+
+    private final int parallelism;
+    private final ResultOrder resultOrder;
+    private final ErrorMode errorMode;
+
+    private BatchOptions(Builder builder) {
+        if (builder.parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = builder.parallelism;
+        this.resultOrder = builder.resultOrder;
+        this.errorMode = builder.errorMode;
+    }
+
+    /**
+     * Creates options with the defaults: {@value #DEFAULT_PARALLELISM} queries at
+     * once, results in submission order, failures collected.
+     *
+     * @return the default options
+     */
+    public static BatchOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new Builder for constructing BatchOptions.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public ResultOrder getResultOrder() {
+        return resultOrder;
+    }
+
+    public ErrorMode getErrorMode() {
+        return errorMode;
+    }
+
+    /**
+     * Builder class for creating BatchOptions instances.
+     */
+    public static class Builder {
+        private int parallelism = DEFAULT_PARALLELISM;
+        private ResultOrder resultOrder = ResultOrder.SUBMISSION;
+        private ErrorMode errorMode = ErrorMode.COLLECT_ERRORS;
+
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder resultOrder(ResultOrder resultOrder) {
+            this.resultOrder = resultOrder;
+            return this;
+        }
+
+        public Builder errorMode(ErrorMode errorMode) {
+            this.errorMode = errorMode;
+            return this;
+        }
+
+        public BatchOptions build() {
+            return new BatchOptions(this);
+        }
+    }
+}
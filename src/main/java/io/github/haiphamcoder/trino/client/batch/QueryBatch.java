@@ -0,0 +1,176 @@
+package io.github.haiphamcoder.trino.client.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.BatchQueryException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.result.TrinoRow;
+
+/**
+ * Runs a list of independent queries concurrently and collects their rows.
+ *
+ * <p>
+ * At most {@link BatchOptions#getParallelism()} queries run at once; each
+ * worker takes the next query in submission order when its current one
+ * completes. Queries go through {@link TrinoClient#execute(String)}, so they
+ * are subject to the client's admission control and routing.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see TrinoClient#executeAll(List, BatchOptions)
+ */
+public class QueryBatch {
+    private final TrinoClient client;
+    private final Executor executor;
+    private final BatchOptions options;
+
+    /**
+     * Constructs a new QueryBatch.
+     *
+     * @param client   the client executing the queries
+     * @param executor the executor running the workers
+     * @param options  the batch options
+     */
+    public QueryBatch(TrinoClient client, Executor executor, BatchOptions options) {
+        this.client = client;
+        this.executor = executor;
+        this.options = options;
+    }
+
+    /**
+     * Runs the queries and waits for them to complete.
+     *
+     * @param specs the queries to run
+     * @return the results, in submission or completion order
+     * @throws BatchQueryException if the batch is fail-fast and a query failed
+     * @throws TrinoException      if the calling thread is interrupted
+     */
+    public List<QueryResult> run(List<QuerySpec> specs) {
+        Execution execution = new Execution(specs);
+        int workers = Math.min(options.getParallelism(), specs.size());
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            futures[i] = CompletableFuture.runAsync(execution::work, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).get();
+        } catch (InterruptedException e) {
+            execution.stop();
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting for batch", e);
+        } catch (ExecutionException e) {
+            execution.stop();
+            throw new TrinoException("Batch worker failed", e.getCause());
+        }
+
+        List<QueryResult> results = options.getResultOrder() == BatchOptions.ResultOrder.COMPLETION
+                ? new ArrayList<>(execution.byCompletion)
+                : Arrays.stream(execution.bySubmission).filter(Objects::nonNull).collect(Collectors.toList());
+
+        QueryResult failure = execution.firstFailure.get();
+        if (failure != null) {
+            throw new BatchQueryException(failure, results);
+        }
+        return results;
+    }
+
+    /**
+     * State shared by the workers of one batch.
+     */
+    private class Execution {
+        private final List<QuerySpec> specs;
+        private final QueryResult[] bySubmission;
+        private final Queue<QueryResult> byCompletion = new ConcurrentLinkedQueue<>();
+        private final Map<Integer, TrinoResultSet> running = new ConcurrentHashMap<>();
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicReference<QueryResult> firstFailure = new AtomicReference<>();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        Execution(List<QuerySpec> specs) {
+            this.specs = specs;
+            this.bySubmission = new QueryResult[specs.size()];
+        }
+
+        void work() {
+            while (!stopped.get()) {
+                int index = nextIndex.getAndIncrement();
+                if (index >= specs.size()) {
+                    return;
+                }
+
+                QueryResult result = runQuery(index, specs.get(index));
+                bySubmission[index] = result;
+                byCompletion.add(result);
+
+                if (!result.isSuccess() && options.getErrorMode() == BatchOptions.ErrorMode.FAIL_FAST
+                        && firstFailure.compareAndSet(null, result)) {
+                    stop();
+                }
+            }
+        }
+
+        /**
+         * Stops starting queries and cancels the running ones on the server.
+         */
+        void stop() {
+            stopped.set(true);
+            for (TrinoResultSet resultSet : running.values()) {
+                resultSet.cancel();
+            }
+        }
+
+        private QueryResult runQuery(int index, QuerySpec spec) {
+            long start = System.nanoTime();
+            TrinoResultSet resultSet = null;
+            try {
+                resultSet = client.execute(spec.getSql());
+                running.put(index, resultSet);
+                // stop() may have missed a result set registered after it ran
+                if (stopped.get()) {
+                    resultSet.cancel();
+                }
+
+                List<TrinoRow> rows = new ArrayList<>();
+                while (resultSet.next()) {
+                    rows.add(resultSet.getCurrentRow());
+                }
+
+                resultSet.checkCompleted();
+                return new QueryResult(spec, index, resultSet.getQueryId(), resultSet.getColumns(), rows,
+                        resultSet.getStats(), null, elapsedMillis(start));
+            } catch (RuntimeException e) {
+                TrinoException error = e instanceof TrinoException ? (TrinoException) e
+                        : new TrinoException("Query failed", e);
+                return new QueryResult(spec, index, resultSet != null ? resultSet.getQueryId() : null, null,
+                        List.of(), resultSet != null ? resultSet.getStats() : null, error, elapsedMillis(start));
+            } finally {
+                running.remove(index);
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+            }
+        }
+
+        private long elapsedMillis(long startNanos) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+}
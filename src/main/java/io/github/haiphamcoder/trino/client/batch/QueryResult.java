@@ -0,0 +1,97 @@
+package io.github.haiphamcoder.trino.client.batch;
+
+import java.util.List;
+
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.TrinoColumn;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+import io.github.haiphamcoder.trino.client.result.TrinoRow;
+
+/**
+ * Outcome of one query of a batch: either its rows or the error that ended it.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class QueryResult {
+    /** Query this result belongs to */
+    private final QuerySpec spec;
+    /** Position of the query in the batch */
+    private final int index;
+    /** Server-assigned query ID (null if the query was never accepted) */
+    private final String queryId;
+    /** Result columns (null if the query failed) */
+    private final List<TrinoColumn> columns;
+    /** Result rows (empty if the query failed) */
+    private final List<TrinoRow> rows;
+    /** Final query statistics (may be null) */
+    private final TrinoStats stats;
+    /** Error that ended the query (null if it succeeded) */
+    private final TrinoException error;
+    /** Wall time from submission to completion in milliseconds */
+    private final long elapsedMillis;
+
+    QueryResult(QuerySpec spec, int index, String queryId, List<TrinoColumn> columns, List<TrinoRow> rows,
+            TrinoStats stats, TrinoException error, long elapsedMillis) {
+        this.spec = spec;
+        this.index = index;
+        this.queryId = queryId;
+        this.columns = columns;
+        this.rows = rows;
+        this.stats = stats;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Checks whether the query completed without error.
+     *
+     * @return true if the query succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public QuerySpec getSpec() {
+        return spec;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getQueryId() {
+        return queryId;
+    }
+
+    public List<TrinoColumn> getColumns() {
+        return columns;
+    }
+
+    public List<TrinoRow> getRows() {
+        return rows;
+    }
+
+    public TrinoStats getStats() {
+        return stats;
+    }
+
+    public TrinoException getError() {
+        return error;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResult{" +
+                "query=" + spec +
+                ", queryId='" + queryId + '\'' +
+                ", rows=" + rows.size() +
+                ", error=" + (error != null ? error.getMessage() : null) +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.haiphamcoder.trino.client.batch;
+
+import java.util.Objects;
+
+/**
+ * A query to run as part of a batch, with an optional name identifying it in
+ * the results.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class QuerySpec {
+    /** Name identifying the query (may be null) */
+    private final String name;
+    /** SQL statement to execute */
+    private final String sql;
+
+    private QuerySpec(String name, String sql) {
+        this.name = name;
+        this.sql = Objects.requireNonNull(sql, "sql is null");
+    }
+
+    /**
+     * Creates an unnamed query.
+     *
+     * @param sql the SQL statement to execute
+     * @return the query
+     */
+    public static QuerySpec of(String sql) {
+        return new QuerySpec(null, sql);
+    }
+
+    /**
+     * Creates a named query.
+     *
+     * @param name the name identifying the query in the results
+     * @param sql  the SQL statement to execute
+     * @return the query
+     */
+    public static QuerySpec of(String name, String sql) {
+        return new QuerySpec(name, sql);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return name != null ? name : sql;
+    }
+}
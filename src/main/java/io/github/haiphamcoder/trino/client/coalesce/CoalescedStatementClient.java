@@ -0,0 +1,177 @@
+package io.github.haiphamcoder.trino.client.coalesce;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.ClientQueryStats;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.protocol.HttpTransport;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+
+/**
+ * Statement client reading the pages of a {@link SharedQuery} instead of
+ * running its own query. Each subscriber has its own position in the query and
+ * its own state, so it can be wrapped in a
+ * {@link io.github.haiphamcoder.trino.client.result.TrinoResultSet} like any
+ * other statement client.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class CoalescedStatementClient extends StatementClient {
+    /** Query whose pages are read */
+    private final SharedQuery query;
+    /** Statement client running the shared query */
+    private final StatementClient shared;
+    /** Page most recently read by this subscriber */
+    private volatile StatementResponse currentResponse;
+    /** State of the query as seen by this subscriber */
+    private volatile QueryState state = QueryState.RUNNING;
+    /** Position of the next page to read (guarded by the shared query's lock) */
+    private int position;
+    /** Whether this subscriber cancelled the query */
+    private volatile boolean cancelled;
+    /** Whether the shared query left this subscriber behind */
+    private volatile boolean detached;
+
+    CoalescedStatementClient(SharedQuery query, StatementClient shared) {
+        super(shared.getSession(), shared.getStatement(), false);
+        this.query = query;
+        this.shared = shared;
+    }
+
+    @Override
+    public StatementResponse execute() {
+        if (currentResponse != null) {
+            throw new TrinoException("Statement already executed");
+        }
+        StatementResponse page = read();
+        if (page == null) {
+            throw new TrinoException("Shared query returned no response");
+        }
+        return page;
+    }
+
+    @Override
+    public StatementResponse advance() {
+        if (currentResponse == null) {
+            throw new TrinoException("No current response. Call execute() first.");
+        }
+        if (state != QueryState.RUNNING || currentResponse.isLastPage()) {
+            return currentResponse;
+        }
+
+        StatementResponse page = read();
+        if (page == null) {
+            state = shared.getState();
+            return currentResponse;
+        }
+        return page;
+    }
+
+    private StatementResponse read() {
+        StatementResponse page;
+        try {
+            page = query.page(this, position);
+        } catch (RuntimeException e) {
+            state = detached ? QueryState.CLIENT_ERROR : shared.getState();
+            throw e;
+        }
+        if (page != null) {
+            currentResponse = page;
+            state = stateOf(page);
+        }
+        return page;
+    }
+
+    private static QueryState stateOf(StatementResponse page) {
+        TrinoError error = page.getError();
+        if (error != null) {
+            return "USER_CANCELED".equals(error.getErrorName()) ? QueryState.CLIENT_ABORTED : QueryState.FINISHED;
+        }
+        return page.isLastPage() ? QueryState.FINISHED : QueryState.RUNNING;
+    }
+
+    /**
+     * Asynchronous execution is not supported for coalesced queries.
+     */
+    @Override
+    public CompletableFuture<StatementResponse> executeAsync(HttpTransport transport) {
+        return CompletableFuture.failedFuture(new TrinoException("Coalesced queries cannot be driven asynchronously"));
+    }
+
+    /**
+     * Asynchronous execution is not supported for coalesced queries.
+     */
+    @Override
+    public CompletableFuture<StatementResponse> advanceAsync(HttpTransport transport) {
+        return CompletableFuture.failedFuture(new TrinoException("Coalesced queries cannot be driven asynchronously"));
+    }
+
+    /**
+     * Stops reading the shared query. The query is cancelled on the server only
+     * when no other subscriber is reading it.
+     */
+    @Override
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        state = QueryState.CLIENT_ABORTED;
+        query.unsubscribe(this);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public QueryState getState() {
+        return state;
+    }
+
+    @Override
+    public StatementResponse getCurrentResponse() {
+        return currentResponse;
+    }
+
+    @Override
+    public URI getServer() {
+        return shared.getServer();
+    }
+
+    /**
+     * Gets the statistics of the shared query, which include the pages fetched
+     * on behalf of every subscriber.
+     */
+    @Override
+    public ClientQueryStats getClientStats() {
+        return shared.getClientStats();
+    }
+
+    @Override
+    public void close() {
+        query.unsubscribe(this);
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    boolean isDetached() {
+        return detached;
+    }
+
+    void detach() {
+        this.detached = true;
+    }
+}
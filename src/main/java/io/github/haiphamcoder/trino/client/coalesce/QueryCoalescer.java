@@ -0,0 +1,239 @@
+package io.github.haiphamcoder.trino.client.coalesce;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+
+/**
+ * Coalesces identical concurrent queries into a single query on the server.
+ *
+ * <p>
+ * A read-only statement submitted while an identical statement with the same
+ * session context is running joins that query instead of starting a new one,
+ * and reads its pages from the shared replay buffer of the {@link SharedQuery}.
+ * Only statements starting with {@code SELECT}, {@code WITH}, {@code VALUES},
+ * {@code TABLE}, {@code SHOW}, {@code DESCRIBE} or {@code EXPLAIN} are
+ * coalesced; anything that may modify data always runs on its own, including
+ * {@code EXPLAIN ANALYZE}, which executes the statement it explains.
+ *
+ * <p>
+ * A query is registered as soon as its first caller starts it, before it is
+ * admitted, so identical statements submitted while it waits for admission
+ * join it instead of queueing on their own.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryCoalescer {
+    /** Default upper bound for the replay buffer of each shared query */
+    public static final long DEFAULT_MAX_BUFFER_BYTES = 64L * 1024 * 1024;
+    /** Default maximum time a caller waits for the slowest caller of the same query */
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(10);
+
+    /** Statement keywords of read-only queries */
+    private static final Set<String> READ_ONLY_KEYWORDS = Set.of(
+            "SELECT", "WITH", "VALUES", "TABLE", "SHOW", "DESCRIBE", "EXPLAIN");
+
+    /** Running shared queries by statement and session context, completed once started */
+    private final ConcurrentHashMap<List<Object>, CompletableFuture<SharedQuery>> queries = new ConcurrentHashMap<>();
+    /** Upper bound for the replay buffer of each shared query in bytes */
+    private final long maxBufferBytes;
+    /** Maximum time a caller waits for the slowest caller of the same query */
+    private final Duration maxWait;
+    /** Number of queries started on the server */
+    private final AtomicLong started = new AtomicLong();
+    /** Number of statements that joined a running query */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Constructs a new QueryCoalescer.
+     *
+     * @param maxBufferBytes the upper bound for the replay buffer of each shared
+     *                       query in bytes
+     */
+    public QueryCoalescer(long maxBufferBytes) {
+        this(maxBufferBytes, DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * Constructs a new QueryCoalescer.
+     *
+     * @param maxBufferBytes the upper bound for the replay buffer of each shared
+     *                       query in bytes
+     * @param maxWait        the maximum time a caller whose replay buffer is full
+     *                       waits for the slowest caller before detaching it
+     */
+    public QueryCoalescer(long maxBufferBytes, Duration maxWait) {
+        this.maxBufferBytes = maxBufferBytes;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Checks whether a statement is read-only and may therefore share its
+     * results with identical statements.
+     *
+     * @param sql the SQL statement
+     * @return true if the statement can be coalesced
+     */
+    public static boolean isCoalescable(String sql) {
+        int start = skipWhitespaceAndComments(sql, 0);
+        int end = wordEnd(sql, start);
+        String keyword = sql.substring(start, end).toUpperCase(Locale.ROOT);
+        if (keyword.equals("EXPLAIN")) {
+            int next = skipWhitespaceAndComments(sql, end);
+            return !sql.substring(next, wordEnd(sql, next)).equalsIgnoreCase("ANALYZE");
+        }
+        return READ_ONLY_KEYWORDS.contains(keyword);
+    }
+
+    private static int skipWhitespaceAndComments(String sql, int i) {
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int wordEnd(String sql, int i) {
+        while (i < sql.length() && Character.isLetter(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns a statement client reading the results of the statement, joining a
+     * running or starting identical query if there is one and starting a new one
+     * otherwise.
+     *
+     * @param session the session the statement runs in
+     * @param sql     the SQL statement
+     * @param starter creates the shared query when none is running; it may block,
+     *                for example on admission control, while identical
+     *                statements wait to join the query it creates
+     * @return a statement client for this caller
+     */
+    public StatementClient subscribe(ClientSession session, String sql, Supplier<SharedQuery> starter) {
+        List<Object> key = keyOf(session, sql);
+        while (true) {
+            CompletableFuture<SharedQuery> pending = new CompletableFuture<>();
+            CompletableFuture<SharedQuery> existing = queries.putIfAbsent(key, pending);
+            if (existing == null) {
+                return start(key, pending, starter);
+            }
+
+            SharedQuery running = await(existing);
+            if (running == null) {
+                // The caller starting the query failed, so start it again
+                continue;
+            }
+            CoalescedStatementClient subscriber = running.subscribe();
+            if (subscriber != null) {
+                coalesced.incrementAndGet();
+                return subscriber;
+            }
+            // Pages have already been dropped, so the query cannot be replayed
+            queries.remove(key, existing);
+        }
+    }
+
+    private CoalescedStatementClient start(List<Object> key, CompletableFuture<SharedQuery> pending,
+            Supplier<SharedQuery> starter) {
+        SharedQuery created;
+        try {
+            created = starter.get();
+        } catch (RuntimeException | Error e) {
+            queries.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        CoalescedStatementClient subscriber = created.subscribe();
+        started.incrementAndGet();
+        created.whenFinished(() -> queries.remove(key, pending));
+        pending.complete(created);
+        return subscriber;
+    }
+
+    /**
+     * Waits until the caller starting a query has started it.
+     *
+     * @return the started query, or null if starting it failed
+     */
+    private static SharedQuery await(CompletableFuture<SharedQuery> pending) {
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting for a shared query to start", e);
+        }
+    }
+
+    private static List<Object> keyOf(ClientSession session, String sql) {
+        // Copy the session state that queries update, so the key does not change while it is in the map
+        return Arrays.asList(sql, session.getServers(), session.getUser(), session.getSource(),
+                session.getCatalog(), session.getSchema(), session.getPath(), session.getClientTags(),
+                Map.copyOf(session.getProperties()), session.getCredentials(),
+                Map.copyOf(session.getPreparedStatements()), session.getTimeZone(), session.getLocale());
+    }
+
+    public long getMaxBufferBytes() {
+        return maxBufferBytes;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Gets the number of queries currently shared.
+     *
+     * @return the number of running shared queries
+     */
+    public int getRunningQueries() {
+        return queries.size();
+    }
+
+    /**
+     * Gets the number of queries started on the server.
+     *
+     * @return the number of started queries
+     */
+    public long getStartedQueries() {
+        return started.get();
+    }
+
+    /**
+     * Gets the number of statements that joined a running query instead of
+     * starting their own.
+     *
+     * @return the number of coalesced statements
+     */
+    public long getCoalescedQueries() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,389 @@
+package io.github.haiphamcoder.trino.client.coalesce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+
+/**
+ * One query on the server whose pages are shared by several subscribers.
+ *
+ * <p>
+ * Pages are fetched on demand by whichever subscriber first needs a page that
+ * has not been received yet, and are kept in a replay buffer so that the other
+ * subscribers read them without another request. The buffer keeps every page
+ * while it fits within its byte bound, so late subscribers can replay the query
+ * from the first page. Beyond the bound, pages read by every subscriber are
+ * dropped, the query stops accepting subscribers, and a subscriber that gets
+ * too far ahead waits for the slowest one. A slowest subscriber that does not
+ * read within the maximum wait, for example because the thread that would read
+ * it is the one waiting, is detached: its next read fails, and the others go
+ * on without it.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class SharedQuery {
+    private static final Logger log = LoggerFactory.getLogger(SharedQuery.class);
+
+    /** Statement client running the query */
+    private final StatementClient client;
+    /** Callbacks run once the query is no longer running on the server */
+    private final List<Runnable> onFinish = new ArrayList<>();
+    /** Upper bound for the size of the buffered pages in bytes */
+    private final long maxBufferBytes;
+    /** Maximum time a subscriber waits for the slowest one, in nanoseconds */
+    private final long maxWaitNanos;
+    /** Lock guarding the buffer and the subscribers */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled when a page is added, pages are read or a subscriber leaves */
+    private final Condition changed = lock.newCondition();
+    /** Buffered pages */
+    private final List<StatementResponse> pages = new ArrayList<>();
+    /** Sizes of the buffered pages in bytes */
+    private final List<Long> pageBytes = new ArrayList<>();
+    /** Position of the first buffered page in the query */
+    private int firstPage;
+    /** Total size of the buffered pages in bytes */
+    private long bufferedBytes;
+    /** Subscribers still reading the query */
+    private final Set<CoalescedStatementClient> subscribers = new HashSet<>();
+    /** Whether new subscribers may still replay the query from the start */
+    private boolean joinable = true;
+    /** Whether a subscriber is fetching the next page */
+    private boolean fetching;
+    /** Whether every page has been received */
+    private boolean complete;
+    /** Error that ended the query (null if none) */
+    private RuntimeException failure;
+    /** Whether the finish callback has run */
+    private boolean finished;
+
+    /**
+     * Constructs a new SharedQuery.
+     *
+     * @param client         the statement client running the query, not yet
+     *                       executed
+     * @param onFinish       the callback to run once the query stops running on
+     *                       the server, or null
+     * @param maxBufferBytes the upper bound for the size of the buffered pages
+     */
+    public SharedQuery(StatementClient client, Runnable onFinish, long maxBufferBytes) {
+        this(client, onFinish, maxBufferBytes, QueryCoalescer.DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * Constructs a new SharedQuery.
+     *
+     * @param client         the statement client running the query, not yet
+     *                       executed
+     * @param onFinish       the callback to run once the query stops running on
+     *                       the server, or null
+     * @param maxBufferBytes the upper bound for the size of the buffered pages
+     * @param maxWait        the maximum time a subscriber waits for the slowest
+     *                       one before detaching it
+     */
+    public SharedQuery(StatementClient client, Runnable onFinish, long maxBufferBytes, Duration maxWait) {
+        this.client = client;
+        this.maxBufferBytes = maxBufferBytes;
+        this.maxWaitNanos = maxWait.toNanos();
+        if (onFinish != null) {
+            this.onFinish.add(onFinish);
+        }
+    }
+
+    /**
+     * Registers a callback to run once the query stops running on the server, or
+     * runs it now if it already has.
+     *
+     * @param callback the callback
+     */
+    void whenFinished(Runnable callback) {
+        lock.lock();
+        try {
+            if (finished) {
+                callback.run();
+            } else {
+                onFinish.add(callback);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a subscriber reading the query from its first page.
+     *
+     * @return the subscriber, or null if pages have already been dropped
+     */
+    CoalescedStatementClient subscribe() {
+        lock.lock();
+        try {
+            if (!joinable) {
+                return null;
+            }
+            CoalescedStatementClient subscriber = new CoalescedStatementClient(this, client);
+            subscribers.add(subscriber);
+            return subscriber;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the page at the given position, fetching it if no subscriber has
+     * yet.
+     *
+     * @param subscriber the subscriber reading the page
+     * @param position   the position of the page in the query
+     * @return the page, or null if the query has no more pages
+     * @throws TrinoException if the subscriber was detached for falling behind,
+     *                        or was interrupted while waiting
+     */
+    StatementResponse page(CoalescedStatementClient subscriber, int position) {
+        lock.lock();
+        try {
+            long deadline = 0;
+            while (true) {
+                if (subscriber.isDetached()) {
+                    throw new TrinoException("Reader fell behind the shared query by more than its replay buffer"
+                            + " and was detached");
+                }
+                if (position < firstPage) {
+                    throw new TrinoException("Page " + position + " is no longer buffered");
+                }
+                if (position < firstPage + pages.size()) {
+                    StatementResponse page = pages.get(position - firstPage);
+                    subscriber.setPosition(position + 1);
+                    trim();
+                    changed.signalAll();
+                    return page;
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                if (complete) {
+                    return null;
+                }
+                if (fetching) {
+                    await(0);
+                    continue;
+                }
+                if (bufferedBytes > maxBufferBytes) {
+                    // Wait for the slowest subscriber to read, and leave it behind if it does not
+                    long now = System.nanoTime();
+                    if (deadline == 0) {
+                        deadline = now + maxWaitNanos;
+                    } else if (now - deadline >= 0) {
+                        detachSlowest();
+                        deadline = 0;
+                        continue;
+                    }
+                    await(deadline - now);
+                    continue;
+                }
+                fetch(position);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a change with the lock held.
+     *
+     * @param nanos the maximum time to wait, or 0 to wait until signalled
+     */
+    private void await(long nanos) {
+        try {
+            if (nanos > 0) {
+                changed.awaitNanos(nanos);
+            } else {
+                changed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting for the shared query", e);
+        }
+    }
+
+    /**
+     * Detaches the subscribers holding the oldest buffered page, so the buffer
+     * can be trimmed without them.
+     */
+    private void detachSlowest() {
+        int minPosition = firstPage + pages.size();
+        for (CoalescedStatementClient subscriber : subscribers) {
+            minPosition = Math.min(minPosition, subscriber.getPosition());
+        }
+        List<CoalescedStatementClient> detached = new ArrayList<>();
+        for (CoalescedStatementClient subscriber : subscribers) {
+            if (subscriber.getPosition() == minPosition) {
+                detached.add(subscriber);
+            }
+        }
+        for (CoalescedStatementClient subscriber : detached) {
+            subscribers.remove(subscriber);
+            subscriber.detach();
+        }
+        log.warn("Detached {} reader(s) of a shared query at page {} after waiting {} ms for them",
+                detached.size(), minPosition, maxWaitNanos / 1_000_000);
+        trim();
+        changed.signalAll();
+    }
+
+    /**
+     * Fetches the next page without holding the lock. Must be called with the
+     * lock held.
+     */
+    private void fetch(int position) {
+        fetching = true;
+        lock.unlock();
+        StatementResponse page = null;
+        RuntimeException error = null;
+        try {
+            page = position == 0 ? client.execute() : client.advance();
+        } catch (RuntimeException e) {
+            error = e;
+        } finally {
+            lock.lock();
+            fetching = false;
+        }
+
+        if (error != null) {
+            failure = error;
+            complete = true;
+        } else {
+            long bytes = client.getClientStats().getLastPageBytes();
+            pages.add(page);
+            pageBytes.add(bytes);
+            bufferedBytes += bytes;
+            complete = page.isLastPage() || client.getState() != QueryState.RUNNING;
+            trim();
+        }
+        if (complete) {
+            finish();
+        }
+        if (subscribers.isEmpty()) {
+            // The last subscriber left while this page was being fetched
+            client.close();
+        }
+        changed.signalAll();
+    }
+
+    /**
+     * Drops the pages read by every subscriber once the buffer exceeds its bound.
+     */
+    private void trim() {
+        if (bufferedBytes <= maxBufferBytes) {
+            return;
+        }
+
+        int minPosition = firstPage + pages.size();
+        for (CoalescedStatementClient subscriber : subscribers) {
+            minPosition = Math.min(minPosition, subscriber.getPosition());
+        }
+        while (firstPage < minPosition) {
+            pages.remove(0);
+            bufferedBytes -= pageBytes.remove(0);
+            firstPage++;
+            joinable = false;
+        }
+    }
+
+    /**
+     * Removes a subscriber. When the last subscriber leaves, the query is
+     * cancelled on the server if it is still running, and its statement client
+     * is closed.
+     *
+     * @param subscriber the subscriber leaving
+     */
+    void unsubscribe(CoalescedStatementClient subscriber) {
+        lock.lock();
+        try {
+            if (!subscribers.remove(subscriber)) {
+                return;
+            }
+            if (subscribers.isEmpty()) {
+                joinable = false;
+                if (!complete) {
+                    client.cancel();
+                    complete = true;
+                }
+                finish();
+                if (!fetching) {
+                    client.close();
+                }
+            } else {
+                trim();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        joinable = false;
+        for (Runnable callback : onFinish) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Gets the number of subscribers reading the query.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscribers() {
+        lock.lock();
+        try {
+            return subscribers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the size of the buffered pages.
+     *
+     * @return the buffered size in bytes
+     */
+    public long getBufferedBytes() {
+        lock.lock();
+        try {
+            return bufferedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether new subscribers can still join the query.
+     *
+     * @return true if the query can be replayed from its first page
+     */
+    public boolean isJoinable() {
+        lock.lock();
+        try {
+            return joinable;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.haiphamcoder.trino.client.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads used by the client to run queries and prefetch pages.
+ *
+ * <p>
+ * This is the Java 17 implementation, which only has platform threads. The
+ * multi-release JAR contains a Java 21 version of this class under
+ * {@code META-INF/versions/21} that creates virtual threads when requested, so
+ * the same configuration runs on both runtimes.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class ClientThreads {
+
+    private ClientThreads() {
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     *
+     * @return true on Java 21 and later, false otherwise
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return false;
+    }
+
+    /**
+     * Creates a thread factory naming threads {@code <name>-<n>}.
+     * Virtual threads are not available on this runtime, so daemon platform
+     * threads are created regardless of {@code virtual}.
+     *
+     * @param name    the thread name prefix
+     * @param virtual whether virtual threads are requested
+     * @return the thread factory
+     */
+    public static ThreadFactory newThreadFactory(String name, boolean virtual) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor that runs every task on its own thread, or on a cached
+     * platform thread when virtual threads are not used.
+     *
+     * @param name    the thread name prefix
+     * @param virtual whether virtual threads are requested
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String name, boolean virtual) {
+        return Executors.newCachedThreadPool(newThreadFactory(name, virtual));
+    }
+}
@@ -1,10 +1,18 @@
 package io.github.haiphamcoder.trino.client.config;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.haiphamcoder.trino.client.event.QueryEventListener;
+import io.github.haiphamcoder.trino.client.metrics.ClientMetrics;
+import io.github.haiphamcoder.trino.client.protocol.HedgingPolicy;
+import io.github.haiphamcoder.trino.client.tracing.QueryTracer;
 
 /**
  * Configuration object for a Trino client session.
@@ -24,27 +32,38 @@ import java.util.Set;
  *         .build();
  * }</pre>
  * 
+ * <p>
+ * The catalog, schema, path, session properties, prepared statements and
+ * transaction are session state: statements such as {@code USE},
+ * {@code SET SESSION} and {@code START TRANSACTION} change them through
+ * response headers, and every later query of the session sends the updated
+ * values. Changes are visible to all threads using the session.
+ * 
  * @author Hai Pham Ngoc
  * @version 1.0.0
  */
 public class ClientSession {
     /** Trino server URI */
     private URI server;
+    /** Coordinator URIs to route queries across */
+    private List<URI> servers;
     /** User name for authentication */
     private String user;
     /** Client source identifier */
     private String source;
-    /** Catalog name */
-    private String catalog;
-    /** Schema name */
-    private String schema;
+    /** Catalog name, updated by USE */
+    private volatile String catalog;
+    /** Schema name, updated by USE */
+    private volatile String schema;
+    /** SQL path for resolving functions, updated by SET PATH */
+    private volatile String path;
     /** Client tags for resource group selection */
     private Set<String> clientTags;
-    /** Session properties */
+    /** Session properties, updated by SET SESSION and RESET SESSION */
     private Map<String, String> properties;
     /** User credentials for authentication */
     private Map<String, String> credentials;
-    /** Prepared statements mapping */
+    /** Prepared statements by name, updated by PREPARE and DEALLOCATE responses */
     private Map<String, String> preparedStatements;
     /** Timezone for temporal operations */
     private String timeZone;
@@ -52,6 +71,22 @@ public class ClientSession {
     private String locale;
     /** Whether compression is disabled */
     private Boolean compressionDisabled;
+    /** Target size in bytes of each result page (null for the server default) */
+    private Long targetResultSize;
+    /** Whether the target result size is tuned from observed pages */
+    private boolean adaptiveResultSize;
+    /** Maximum bytes a single result page may occupy when tuning adaptively */
+    private Long resultMemoryBudget;
+    /** Identifier of the open transaction (null in auto-commit mode) */
+    private volatile String transactionId;
+    /** Receiver of request and page measurements */
+    private ClientMetrics metrics;
+    /** Listeners receiving the lifecycle events of the session's queries */
+    private List<QueryEventListener> eventListeners;
+    /** Tracer of the session's queries */
+    private QueryTracer tracer;
+    /** Policy hedging slow page fetches (null to never hedge) */
+    private HedgingPolicy hedging;
 
     /**
      * Creates a new Builder for constructing a ClientSession.
@@ -68,10 +103,12 @@ public class ClientSession {
      */
     public static class Builder {
         private URI server;
+        private List<URI> servers = new ArrayList<>();
         private String user;
         private String source = "trino-java-client";
         private String catalog;
         private String schema;
+        private String path;
         private Set<String> clientTags = new HashSet<>();
         private Map<String, String> properties = new HashMap<>();
         private Map<String, String> credentials = new HashMap<>();
@@ -79,6 +116,13 @@ public class ClientSession {
         private String timeZone;
         private String locale;
         private Boolean compressionDisabled;
+        private Long targetResultSize;
+        private boolean adaptiveResultSize;
+        private Long resultMemoryBudget;
+        private ClientMetrics metrics = ClientMetrics.NOOP;
+        private List<QueryEventListener> eventListeners = new ArrayList<>();
+        private QueryTracer tracer = QueryTracer.NOOP;
+        private HedgingPolicy hedging;
 
         /**
          * Sets the Trino server URI.
@@ -91,6 +135,18 @@ public class ClientSession {
             return this;
         }
 
+        /**
+         * Sets several coordinator URIs to route queries across.
+         * The first URI is also used as the primary server.
+         * 
+         * @param servers the coordinator URIs
+         * @return this builder
+         */
+        public Builder servers(List<URI> servers) {
+            this.servers = new ArrayList<>(servers);
+            return this;
+        }
+
         /**
          * Sets the user name for authentication.
          * 
@@ -135,6 +191,18 @@ public class ClientSession {
             return this;
         }
 
+        /**
+         * Sets the SQL path used to resolve functions, for example
+         * {@code "catalog.schema"}.
+         * 
+         * @param path the SQL path
+         * @return this builder
+         */
+        public Builder path(String path) {
+            this.path = path;
+            return this;
+        }
+
         /**
          * Adds a client tag for resource group selection.
          * 
@@ -215,6 +283,91 @@ public class ClientSession {
             return this;
         }
 
+        /**
+         * Sets the target size of each result page returned by the server. Without
+         * adaptive tuning the size is sent as configured, capped at the 128MB the
+         * coordinator accepts; adaptive tuning starts from it and keeps it at
+         * least 1MB.
+         * 
+         * @param targetResultSize the target size in bytes
+         * @return this builder
+         */
+        public Builder targetResultSize(long targetResultSize) {
+            this.targetResultSize = targetResultSize;
+            return this;
+        }
+
+        /**
+         * Enables or disables adaptive tuning of the target result size.
+         * When enabled, the target grows while the consumer keeps up with the network
+         * and shrinks when pages exceed the memory budget or the consumer falls behind.
+         * 
+         * @param adaptiveResultSize true to tune the target result size adaptively
+         * @return this builder
+         */
+        public Builder adaptiveResultSize(boolean adaptiveResultSize) {
+            this.adaptiveResultSize = adaptiveResultSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum bytes a single result page may occupy when tuning
+         * adaptively.
+         * 
+         * @param resultMemoryBudget the memory budget in bytes
+         * @return this builder
+         */
+        public Builder resultMemoryBudget(long resultMemoryBudget) {
+            this.resultMemoryBudget = resultMemoryBudget;
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving measurements of the session's queries.
+         * 
+         * @param metrics the metrics, or {@link ClientMetrics#NOOP} to discard
+         *                them
+         * @return this builder
+         */
+        public Builder metrics(ClientMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Adds a listener receiving the lifecycle events of the session's
+         * queries.
+         * 
+         * @param listener the event listener
+         * @return this builder
+         */
+        public Builder eventListener(QueryEventListener listener) {
+            this.eventListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Sets the tracer of the session's queries.
+         * 
+         * @param tracer the tracer, or {@link QueryTracer#NOOP} to trace nothing
+         * @return this builder
+         */
+        public Builder tracer(QueryTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * Sets the policy hedging slow page fetches of the session's queries.
+         * 
+         * @param hedging the policy, or null to never hedge
+         * @return this builder
+         */
+        public Builder hedging(HedgingPolicy hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
         /**
          * Builds and returns a new ClientSession with the configured properties.
          * 
@@ -226,24 +379,46 @@ public class ClientSession {
     }
 
     private ClientSession(Builder builder) {
-        this.server = builder.server;
+        this.server = builder.server != null || builder.servers.isEmpty() ? builder.server : builder.servers.get(0);
+        this.servers = builder.servers;
         this.user = builder.user;
         this.source = builder.source;
         this.catalog = builder.catalog;
         this.schema = builder.schema;
+        this.path = builder.path;
         this.clientTags = builder.clientTags;
-        this.properties = builder.properties;
+        this.properties = new ConcurrentHashMap<>(builder.properties);
         this.credentials = builder.credentials;
-        this.preparedStatements = builder.preparedStatements;
+        this.preparedStatements = new ConcurrentHashMap<>(builder.preparedStatements);
         this.timeZone = builder.timeZone;
         this.locale = builder.locale;
         this.compressionDisabled = builder.compressionDisabled;
+        this.targetResultSize = builder.targetResultSize;
+        this.adaptiveResultSize = builder.adaptiveResultSize;
+        this.resultMemoryBudget = builder.resultMemoryBudget;
+        this.metrics = builder.metrics != null ? builder.metrics : ClientMetrics.NOOP;
+        this.eventListeners = List.copyOf(builder.eventListeners);
+        this.tracer = builder.tracer != null ? builder.tracer : QueryTracer.NOOP;
+        this.hedging = builder.hedging;
     }
 
     public URI getServer() {
         return server;
     }
 
+    /**
+     * Gets all coordinator URIs configured for this session.
+     * If only a single server was configured, the list contains just that server.
+     * 
+     * @return the coordinator URIs
+     */
+    public List<URI> getServers() {
+        if (servers.isEmpty() && server != null) {
+            return List.of(server);
+        }
+        return servers;
+    }
+
     public String getUser() {
         return user;
     }
@@ -260,10 +435,47 @@ public class ClientSession {
         return schema;
     }
 
+    /**
+     * Sets the catalog used by later queries of this session.
+     * 
+     * @param catalog the catalog name
+     */
+    public void setCatalog(String catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Sets the schema used by later queries of this session.
+     * 
+     * @param schema the schema name
+     */
+    public void setSchema(String schema) {
+        this.schema = schema;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Sets the SQL path used by later queries of this session.
+     * 
+     * @param path the SQL path
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
     public Set<String> getClientTags() {
         return clientTags;
     }
 
+    /**
+     * Gets the session properties. The map is shared by all queries of the
+     * session and is updated by {@code SET SESSION} and {@code RESET SESSION}.
+     * 
+     * @return the session properties by name
+     */
     public Map<String, String> getProperties() {
         return properties;
     }
@@ -272,6 +484,13 @@ public class ClientSession {
         return credentials;
     }
 
+    /**
+     * Gets the prepared statements of this session. The map is shared by all
+     * queries of the session and is updated when the server reports prepared
+     * statements added or deallocated by a query.
+     * 
+     * @return the prepared statements by name
+     */
     public Map<String, String> getPreparedStatements() {
         return preparedStatements;
     }
@@ -287,4 +506,51 @@ public class ClientSession {
     public Boolean getCompressionDisabled() {
         return compressionDisabled;
     }
+
+    public Long getTargetResultSize() {
+        return targetResultSize;
+    }
+
+    public boolean isAdaptiveResultSize() {
+        return adaptiveResultSize;
+    }
+
+    public Long getResultMemoryBudget() {
+        return resultMemoryBudget;
+    }
+
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    public List<QueryEventListener> getEventListeners() {
+        return eventListeners;
+    }
+
+    public QueryTracer getTracer() {
+        return tracer;
+    }
+
+    public HedgingPolicy getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Gets the identifier of the transaction the session's queries run in.
+     * 
+     * @return the transaction identifier, or null in auto-commit mode
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Sets the transaction the session's queries run in.
+     * 
+     * @param transactionId the transaction identifier, or null for auto-commit
+     *                      mode
+     */
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
 }
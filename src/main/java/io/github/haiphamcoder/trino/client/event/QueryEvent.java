@@ -0,0 +1,132 @@
+package io.github.haiphamcoder.trino.client.event;
+
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * A step in the lifecycle of a query, with the client-side time at which it
+ * was observed and the latest statistics reported by the server.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryEvent {
+    /**
+     * Kind of lifecycle event.
+     */
+    public enum Type {
+        /** The client created the query, after admission */
+        CREATED,
+        /** The coordinator accepted the statement and assigned a query id */
+        SUBMITTED,
+        /** The coordinator first reported the query as queued */
+        QUEUED,
+        /** The first page with rows was received */
+        FIRST_ROW,
+        /** The query finished successfully */
+        FINISHED,
+        /** The query failed on the server or the client */
+        FAILED,
+        /** The query was cancelled */
+        CANCELLED;
+
+        /**
+         * Checks whether this is the last event of a query.
+         *
+         * @return true for {@link #FINISHED}, {@link #FAILED} and
+         *         {@link #CANCELLED}
+         */
+        public boolean isTerminal() {
+            return this == FINISHED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final Type type;
+    private final QueryTimeline timeline;
+    private final String queryId;
+    private final long timestampMillis;
+    private final long elapsedNanos;
+    private final long rows;
+    private final TrinoStats stats;
+    private final TrinoError error;
+
+    /**
+     * Constructs a new QueryEvent.
+     *
+     * @param type            the kind of event
+     * @param timeline        the timeline of the query
+     * @param queryId         the query id, or null before submission
+     * @param timestampMillis the wall-clock time of the event
+     * @param elapsedNanos    the time since the query was created
+     * @param rows            the number of rows received so far
+     * @param stats           the latest server statistics, or null
+     * @param error           the error of a failed query, or null
+     */
+    public QueryEvent(Type type, QueryTimeline timeline, String queryId, long timestampMillis, long elapsedNanos,
+            long rows, TrinoStats stats, TrinoError error) {
+        this.type = type;
+        this.timeline = timeline;
+        this.queryId = queryId;
+        this.timestampMillis = timestampMillis;
+        this.elapsedNanos = elapsedNanos;
+        this.rows = rows;
+        this.stats = stats;
+        this.error = error;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the timeline of the query, which includes this event.
+     *
+     * @return the query timeline
+     */
+    public QueryTimeline getTimeline() {
+        return timeline;
+    }
+
+    public String getQueryId() {
+        return queryId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Gets the time from the creation of the query until this event.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the latest statistics reported by the server; for terminal events,
+     * the final statistics.
+     *
+     * @return the statistics, or null if the server has not reported any
+     */
+    public TrinoStats getStats() {
+        return stats;
+    }
+
+    public TrinoError getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%.1f ms %s", elapsedNanos / 1e6, type)
+                + (stats != null && stats.getState() != null ? " state=" + stats.getState() : "")
+                + (rows > 0 ? " rows=" + rows : "")
+                + (error != null ? " error=" + error.getErrorName() : "");
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.haiphamcoder.trino.client.event;
+
+/**
+ * Receives the lifecycle events of every query of a client.
+ *
+ * <p>
+ * Events are delivered on the thread that observed them, usually the thread
+ * fetching pages, and in order for each query, except that a cancellation may
+ * be reported from the cancelling thread. Listeners should return quickly;
+ * exceptions they throw are logged and do not affect the query.
+ *
+ * <pre>{@code
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .eventListener(event -> log.info("{} {}", event.getType(), event.getQueryId()))
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see QueryTimelineRecorder
+ */
+@FunctionalInterface
+public interface QueryEventListener {
+    /**
+     * Called for each lifecycle event of a query.
+     *
+     * @param event the event
+     */
+    void onEvent(QueryEvent event);
+}
@@ -0,0 +1,137 @@
+package io.github.haiphamcoder.trino.client.event;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.github.haiphamcoder.trino.client.metrics.MetricTags;
+
+/**
+ * The lifecycle events of one query, in the order they were observed.
+ *
+ * <p>
+ * Events are appended by the query while it runs, so a timeline read before
+ * the query completes shows the events so far. A query has only a handful of
+ * events, so they are kept in a copy-on-write list that is read and appended
+ * without locking.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryTimeline {
+    private final String statement;
+    private final MetricTags tags;
+    private final List<QueryEvent> events = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new, empty QueryTimeline.
+     *
+     * @param statement the SQL statement of the query
+     */
+    public QueryTimeline(String statement) {
+        this(statement, MetricTags.of(null, null, Set.of()));
+    }
+
+    /**
+     * Constructs a new, empty QueryTimeline.
+     *
+     * @param statement the SQL statement of the query
+     * @param tags      the user, source and client tags of the query's session
+     */
+    public QueryTimeline(String statement, MetricTags tags) {
+        this.statement = statement;
+        this.tags = tags;
+    }
+
+    /**
+     * Appends an event to the timeline.
+     *
+     * @param event the event
+     */
+    public void add(QueryEvent event) {
+        events.add(event);
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public MetricTags getTags() {
+        return tags;
+    }
+
+    /**
+     * Gets the events observed so far.
+     *
+     * @return a snapshot of the events, oldest first
+     */
+    public List<QueryEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    /**
+     * Gets the query id assigned by the coordinator.
+     *
+     * @return the query id, or null if the query was not submitted
+     */
+    public String getQueryId() {
+        List<QueryEvent> snapshot = getEvents();
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            if (snapshot.get(i).getQueryId() != null) {
+                return snapshot.get(i).getQueryId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the last event of the completed query.
+     *
+     * @return the terminal event, or null while the query runs
+     */
+    public QueryEvent getTerminalEvent() {
+        QueryEvent last = last();
+        return last != null && last.getType().isTerminal() ? last : null;
+    }
+
+    /**
+     * Gets the time from the creation of the query until the last event
+     * observed.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getDurationNanos() {
+        QueryEvent last = last();
+        return last != null ? last.getElapsedNanos() : 0;
+    }
+
+    private QueryEvent last() {
+        List<QueryEvent> snapshot = getEvents();
+        return snapshot.isEmpty() ? null : snapshot.get(snapshot.size() - 1);
+    }
+
+    /**
+     * Formats the timeline as a header line followed by one line per event,
+     * each with its offset from the creation of the query.
+     *
+     * @return the formatted timeline
+     */
+    public String format() {
+        List<QueryEvent> snapshot = getEvents();
+        StringBuilder builder = new StringBuilder();
+        QueryEvent terminal = getTerminalEvent();
+        builder.append("Query ").append(getQueryId())
+                .append(String.format(" (%s, %.1f ms): ", terminal != null ? terminal.getType() : "RUNNING",
+                        getDurationNanos() / 1e6))
+                .append(statement.replaceAll("\\s+", " ").trim());
+        for (QueryEvent event : snapshot) {
+            builder.append("\n  ").append(event);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
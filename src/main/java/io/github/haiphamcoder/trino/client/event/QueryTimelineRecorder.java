@@ -0,0 +1,148 @@
+package io.github.haiphamcoder.trino.client.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the timelines of the most recently completed queries in a fixed-size
+ * ring buffer, to explain slow queries after the fact.
+ *
+ * <p>
+ * Recording a completed query is one atomic increment and one array write, so
+ * the recorder can stay registered in production. When the oldest timelines
+ * are overwritten they are simply dropped.
+ *
+ * <pre>{@code
+ * QueryTimelineRecorder recorder = new QueryTimelineRecorder(1000);
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .eventListener(recorder)
+ *         .build();
+ *
+ * // When a latency SLO is breached
+ * log.warn("Slow queries:\n{}", recorder.dump(Duration.ofSeconds(5)));
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryTimelineRecorder implements QueryEventListener {
+    /** Default number of timelines kept */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<QueryTimeline> timelines;
+    /** Number of timelines recorded so far; the next one goes at this index modulo the capacity */
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * Constructs a recorder keeping the last {@value #DEFAULT_CAPACITY}
+     * timelines.
+     */
+    public QueryTimelineRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new QueryTimelineRecorder.
+     *
+     * @param capacity the number of timelines kept
+     */
+    public QueryTimelineRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.timelines = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void onEvent(QueryEvent event) {
+        if (event.getType().isTerminal()) {
+            long index = recorded.getAndIncrement();
+            timelines.set((int) (index % timelines.length()), event.getTimeline());
+        }
+    }
+
+    /**
+     * Gets the timelines kept, oldest first.
+     *
+     * @return the timelines of the most recently completed queries
+     */
+    public List<QueryTimeline> getTimelines() {
+        int capacity = timelines.length();
+        long end = recorded.get();
+        long start = Math.max(0, end - capacity);
+        List<QueryTimeline> result = new ArrayList<>((int) (end - start));
+        Set<QueryTimeline> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (long i = start; i < end; i++) {
+            QueryTimeline timeline = timelines.get((int) (i % capacity));
+            // A slot may not be written yet, or already overwritten by a newer query
+            if (timeline != null && seen.add(timeline)) {
+                result.add(timeline);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the timelines kept of queries that took at least the given time.
+     *
+     * @param threshold the minimum duration
+     * @return the matching timelines, oldest first
+     */
+    public List<QueryTimeline> getTimelinesSlowerThan(Duration threshold) {
+        long thresholdNanos = threshold.toNanos();
+        List<QueryTimeline> result = new ArrayList<>();
+        for (QueryTimeline timeline : getTimelines()) {
+            if (timeline.getDurationNanos() >= thresholdNanos) {
+                result.add(timeline);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Formats all timelines kept, oldest first.
+     *
+     * @return the formatted timelines, separated by blank lines
+     */
+    public String dump() {
+        return format(getTimelines());
+    }
+
+    /**
+     * Formats the timelines kept of queries that took at least the given time.
+     *
+     * @param threshold the minimum duration
+     * @return the formatted timelines, separated by blank lines
+     */
+    public String dump(Duration threshold) {
+        return format(getTimelinesSlowerThan(threshold));
+    }
+
+    /**
+     * Gets the number of timelines recorded since the recorder was created,
+     * including those overwritten.
+     *
+     * @return the number of completed queries recorded
+     */
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    private static String format(List<QueryTimeline> timelines) {
+        StringBuilder builder = new StringBuilder();
+        for (QueryTimeline timeline : timelines) {
+            if (builder.length() > 0) {
+                builder.append("\n\n");
+            }
+            builder.append(timeline.format());
+        }
+        return builder.toString();
+    }
+}
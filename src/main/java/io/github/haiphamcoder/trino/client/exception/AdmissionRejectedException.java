@@ -0,0 +1,20 @@
+package io.github.haiphamcoder.trino.client.exception;
+
+/**
+ * Exception thrown when the client refuses to submit a query because its
+ * concurrency limit is reached and the wait queue is full, or the query waited
+ * longer than the configured queue timeout.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class AdmissionRejectedException extends TrinoException {
+    /**
+     * Constructs a new AdmissionRejectedException with the specified message.
+     * 
+     * @param message the detail message
+     */
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.haiphamcoder.trino.client.exception;
+
+import java.util.List;
+
+import io.github.haiphamcoder.trino.client.batch.QueryResult;
+
+/**
+ * Exception thrown when a fail-fast batch stops because one of its queries
+ * failed. The failed query's error is the cause, and the results of the queries
+ * that completed or were cancelled before the batch stopped are available.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class BatchQueryException extends TrinoException {
+    /** Result of the query that failed first */
+    private final transient QueryResult failure;
+    /** Results of the queries that completed before the batch stopped */
+    private final transient List<QueryResult> results;
+
+    /**
+     * Constructs a new BatchQueryException.
+     * 
+     * @param failure the result of the query that failed first
+     * @param results the results of the queries that completed
+     */
+    public BatchQueryException(QueryResult failure, List<QueryResult> results) {
+        super("Batch query " + failure.getSpec() + " failed: " + failure.getError().getMessage(),
+                failure.getError().getTrinoError(), failure.getError());
+        this.failure = failure;
+        this.results = results;
+    }
+
+    public QueryResult getFailure() {
+        return failure;
+    }
+
+    public List<QueryResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.haiphamcoder.trino.client.exception;
+
+/**
+ * Exception thrown when a batch of a bulk insert fails. Batches are separate
+ * statements, so the rows of the batches that completed before the failure
+ * stay inserted; their count is available.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class BulkInsertException extends TrinoException {
+    /** Number of rows inserted by the batches that completed */
+    private final long insertedRows;
+
+    /**
+     * Constructs a new BulkInsertException.
+     *
+     * @param cause        the failure of the batch
+     * @param insertedRows the number of rows inserted by completed batches
+     */
+    public BulkInsertException(RuntimeException cause, long insertedRows) {
+        super("Bulk insert failed after " + insertedRows + " rows: " + cause.getMessage(),
+                cause instanceof TrinoException ? ((TrinoException) cause).getTrinoError() : null, cause);
+        this.insertedRows = insertedRows;
+    }
+
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+}
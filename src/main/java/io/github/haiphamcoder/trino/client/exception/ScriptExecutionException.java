@@ -0,0 +1,41 @@
+package io.github.haiphamcoder.trino.client.exception;
+
+import java.util.List;
+
+import io.github.haiphamcoder.trino.client.script.StatementResult;
+
+/**
+ * Exception thrown when a script stops because one of its statements failed.
+ * The failed statement's error is the cause, and the results of all
+ * statements, including those skipped, are available.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class ScriptExecutionException extends TrinoException {
+    /** Result of the statement that failed first */
+    private final transient StatementResult failure;
+    /** Results of all statements of the script, in script order */
+    private final transient List<StatementResult> results;
+
+    /**
+     * Constructs a new ScriptExecutionException.
+     * 
+     * @param failure the result of the statement that failed first
+     * @param results the results of all statements, in script order
+     */
+    public ScriptExecutionException(StatementResult failure, List<StatementResult> results) {
+        super("Script statement #" + failure.getStatement().getIndex() + " failed: "
+                + failure.getError().getMessage(), failure.getError().getTrinoError(), failure.getError());
+        this.failure = failure;
+        this.results = results;
+    }
+
+    public StatementResult getFailure() {
+        return failure;
+    }
+
+    public List<StatementResult> getResults() {
+        return results;
+    }
+}
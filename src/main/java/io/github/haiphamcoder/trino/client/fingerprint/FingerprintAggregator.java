@@ -0,0 +1,274 @@
+package io.github.haiphamcoder.trino.client.fingerprint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.haiphamcoder.trino.client.event.QueryEvent;
+import io.github.haiphamcoder.trino.client.event.QueryEventListener;
+import io.github.haiphamcoder.trino.client.metrics.LatencyHistogram;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * Aggregates completed queries by {@link SqlFingerprint} and session source,
+ * keeping the heaviest fingerprints in bounded memory.
+ *
+ * <p>
+ * Fingerprints are tracked in a space-saving sketch of fixed capacity: when
+ * a new fingerprint arrives and the sketch is full, it replaces the
+ * fingerprint with the lowest count and inherits that count as its possible
+ * overestimation. Entries are kept in buckets of equal count, ordered by
+ * count, so both recording and eviction take constant time. Any fingerprint seen more often than {@code 1/capacity} of
+ * all queries is guaranteed to be kept, so the snapshot shows the statements
+ * that dominate the workload even when most statements are ad hoc.
+ *
+ * <pre>{@code
+ * FingerprintAggregator fingerprints = new FingerprintAggregator(500);
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .eventListener(fingerprints)
+ *         .build();
+ *
+ * // Later
+ * fingerprints.snapshot().stream().limit(10).forEach(System.out::println);
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class FingerprintAggregator implements QueryEventListener {
+    /** Default number of fingerprints tracked */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final int capacity;
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Bucket with the lowest count, linked to buckets of increasing count */
+    private Bucket minBucket;
+
+    /**
+     * Constructs an aggregator tracking {@value #DEFAULT_CAPACITY}
+     * fingerprints.
+     */
+    public FingerprintAggregator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new FingerprintAggregator.
+     *
+     * @param capacity the number of fingerprints tracked
+     */
+    public FingerprintAggregator(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onEvent(QueryEvent event) {
+        if (!event.getType().isTerminal()) {
+            return;
+        }
+        // Normalize outside the lock; it is the costly part
+        Key key = new Key(SqlFingerprint.of(event.getTimeline().getStatement()),
+                event.getTimeline().getTags().getSource());
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = admit(key);
+            }
+            entry.record(event);
+            promote(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the statistics of the tracked fingerprints, by descending count.
+     *
+     * @return the statistics
+     */
+    public List<FingerprintStats> snapshot() {
+        List<FingerprintStats> stats = new ArrayList<>(entries.size());
+        lock.lock();
+        try {
+            for (Entry entry : entries.values()) {
+                stats.add(entry.toStats());
+            }
+        } finally {
+            lock.unlock();
+        }
+        stats.sort(Comparator.comparingLong(FingerprintStats::getCount).reversed());
+        return stats;
+    }
+
+    /**
+     * Forgets all fingerprints.
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            entries.clear();
+            minBucket = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts tracking a fingerprint, evicting the oldest entry of the lowest
+     * count when the sketch is full. The new entry takes the evicted entry's
+     * place in its bucket until its first query is recorded.
+     */
+    private Entry admit(Key key) {
+        if (entries.size() < capacity) {
+            Entry entry = new Entry(key, 0);
+            entries.put(key, entry);
+            return entry;
+        }
+        Iterator<Entry> candidates = minBucket.entries.iterator();
+        Entry evicted = candidates.next();
+        candidates.remove();
+        entries.remove(evicted.key);
+
+        Entry entry = new Entry(key, evicted.count);
+        entry.bucket = minBucket;
+        minBucket.entries.add(entry);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Moves an entry whose count was just incremented to the bucket of its new
+     * count, which is either the next bucket or a new one in between.
+     */
+    private void promote(Entry entry) {
+        Bucket from = entry.bucket;
+        Bucket next = from != null ? from.next : minBucket;
+        Bucket to;
+        if (next != null && next.count == entry.count) {
+            to = next;
+        } else {
+            to = new Bucket(entry.count);
+            to.prev = from;
+            to.next = next;
+            if (next != null) {
+                next.prev = to;
+            }
+            if (from != null) {
+                from.next = to;
+            } else {
+                minBucket = to;
+            }
+        }
+        if (from != null) {
+            from.entries.remove(entry);
+            if (from.entries.isEmpty()) {
+                unlink(from);
+            }
+        }
+        to.entries.add(entry);
+        entry.bucket = to;
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.prev != null) {
+            bucket.prev.next = bucket.next;
+        } else {
+            minBucket = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+
+    private static final class Key {
+        final SqlFingerprint fingerprint;
+        final String source;
+
+        Key(SqlFingerprint fingerprint, String source) {
+            this.fingerprint = fingerprint;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return fingerprint.equals(other.fingerprint) && Objects.equals(source, other.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fingerprint, source);
+        }
+    }
+
+    /** Entries sharing one count, guarded by the aggregator's lock */
+    private static final class Bucket {
+        final long count;
+        final Set<Entry> entries = new LinkedHashSet<>();
+        Bucket prev;
+        Bucket next;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    /** Statistics of one fingerprint, guarded by the aggregator's lock */
+    private static final class Entry {
+        final Key key;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final long countError;
+        long count;
+        long failures;
+        long rows;
+        long processedBytes;
+        long cpuTimeMillis;
+        Bucket bucket;
+
+        Entry(Key key, long countError) {
+            this.key = key;
+            this.countError = countError;
+            this.count = countError;
+        }
+
+        void record(QueryEvent event) {
+            count++;
+            if (event.getType() != QueryEvent.Type.FINISHED) {
+                failures++;
+            }
+            latency.record(event.getElapsedNanos());
+            rows += event.getRows();
+            TrinoStats stats = event.getStats();
+            if (stats != null) {
+                processedBytes += stats.getBytesProcessed() != null ? stats.getBytesProcessed() : 0;
+                cpuTimeMillis += stats.getTotalCpuTimeMillis() != null ? stats.getTotalCpuTimeMillis() : 0;
+            }
+        }
+
+        FingerprintStats toStats() {
+            return new FingerprintStats(key.fingerprint, key.source, count, countError, latency.getCount(), failures,
+                    latency.getValueAtQuantile(0.5), latency.getValueAtQuantile(0.9),
+                    latency.getValueAtQuantile(0.99), latency.getMax(), latency.getSum(), rows, processedBytes,
+                    cpuTimeMillis);
+        }
+    }
+}
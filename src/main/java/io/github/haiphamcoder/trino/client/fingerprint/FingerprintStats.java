@@ -0,0 +1,122 @@
+package io.github.haiphamcoder.trino.client.fingerprint;
+
+/**
+ * A snapshot of the statistics aggregated for one query fingerprint by a
+ * {@link FingerprintAggregator}. Latencies are in nanoseconds.
+ *
+ * <p>
+ * Counts come from a space-saving sketch: {@link #getCount()} may
+ * overestimate the true count by up to {@link #getCountError()}, while the
+ * other figures cover only the {@link #getSampleCount()} queries seen since
+ * the fingerprint last entered the sketch.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class FingerprintStats {
+    private final SqlFingerprint fingerprint;
+    private final String source;
+    private final long count;
+    private final long countError;
+    private final long sampleCount;
+    private final long failures;
+    private final long latencyP50;
+    private final long latencyP90;
+    private final long latencyP99;
+    private final long latencyMax;
+    private final long totalLatency;
+    private final long rows;
+    private final long processedBytes;
+    private final long cpuTimeMillis;
+
+    FingerprintStats(SqlFingerprint fingerprint, String source, long count, long countError, long sampleCount,
+            long failures, long latencyP50, long latencyP90, long latencyP99, long latencyMax, long totalLatency,
+            long rows, long processedBytes, long cpuTimeMillis) {
+        this.fingerprint = fingerprint;
+        this.source = source;
+        this.count = count;
+        this.countError = countError;
+        this.sampleCount = sampleCount;
+        this.failures = failures;
+        this.latencyP50 = latencyP50;
+        this.latencyP90 = latencyP90;
+        this.latencyP99 = latencyP99;
+        this.latencyMax = latencyMax;
+        this.totalLatency = totalLatency;
+        this.rows = rows;
+        this.processedBytes = processedBytes;
+        this.cpuTimeMillis = cpuTimeMillis;
+    }
+
+    public SqlFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /** The session source of the queries, or null if none was set */
+    public String getSource() {
+        return source;
+    }
+
+    /** Estimated number of queries, never below the true number */
+    public long getCount() {
+        return count;
+    }
+
+    /** Maximum overestimation of {@link #getCount()} */
+    public long getCountError() {
+        return countError;
+    }
+
+    /** Number of queries the other statistics were computed from */
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /** Number of sampled queries that failed or were cancelled */
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    public long getLatencyP90() {
+        return latencyP90;
+    }
+
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    /** Sum of the latencies of the sampled queries */
+    public long getTotalLatency() {
+        return totalLatency;
+    }
+
+    /** Rows received by the client */
+    public long getRows() {
+        return rows;
+    }
+
+    /** Bytes processed on the server, as reported in the final query stats */
+    public long getProcessedBytes() {
+        return processedBytes;
+    }
+
+    /** Server CPU time, as reported in the final query stats */
+    public long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d%s p50=%.1fms p99=%.1fms rows=%d bytes=%d cpu=%dms source=%s %s",
+                fingerprint.getHash(), count, countError > 0 ? "(+" + countError + ")" : "", latencyP50 / 1e6,
+                latencyP99 / 1e6, rows, processedBytes, cpuTimeMillis, source, fingerprint.getNormalized());
+    }
+}
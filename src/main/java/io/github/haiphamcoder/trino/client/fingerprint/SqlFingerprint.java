@@ -0,0 +1,291 @@
+package io.github.haiphamcoder.trino.client.fingerprint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The shape of a SQL statement: its text with literals replaced by
+ * {@code ?}, and a hash of that text.
+ *
+ * <p>
+ * Normalization drops comments and whitespace, lowercases unquoted words,
+ * replaces string and numeric literals (including negative numbers) with
+ * {@code ?}, collapses {@code IN} lists of literals to {@code (?...)} and
+ * repeated {@code VALUES} rows of the same shape to the first row followed by
+ * {@code , ...}. So {@code SELECT * FROM t WHERE id IN (1, 2, 3)} and
+ * {@code select * from t where id in (42)} share the fingerprint of
+ * {@code select * from t where id in (?...)}, and multi-row inserts share one
+ * fingerprint whatever their row count.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class SqlFingerprint {
+    private static final Set<String> TWO_CHAR_OPERATORS = Set.of("<=", ">=", "<>", "!=", "||", "->", "=>", "::");
+    private static final String PLACEHOLDER = "?";
+
+    private final String normalized;
+    private final String hash;
+
+    private SqlFingerprint(String normalized) {
+        this.normalized = normalized;
+        this.hash = fnv1a64(normalized);
+    }
+
+    /**
+     * Computes the fingerprint of a statement.
+     *
+     * @param sql the SQL statement
+     * @return the fingerprint
+     */
+    public static SqlFingerprint of(String sql) {
+        return new SqlFingerprint(normalize(sql));
+    }
+
+    /**
+     * Normalizes a statement as described in the class documentation.
+     *
+     * @param sql the SQL statement
+     * @return the normalized text
+     */
+    public static String normalize(String sql) {
+        List<String> tokens = collapseValues(collapseInLists(tokenize(sql)));
+        StringBuilder builder = new StringBuilder(sql.length());
+        String previous = null;
+        for (String token : tokens) {
+            boolean attach = previous == null || previous.equals("(") || previous.equals(".")
+                    || token.equals(")") || token.equals(",") || token.equals(".") || token.equals(";");
+            if (!attach) {
+                builder.append(' ');
+            }
+            builder.append(token);
+            previous = token;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the normalized text of the statement.
+     *
+     * @return the normalized text
+     */
+    public String getNormalized() {
+        return normalized;
+    }
+
+    /**
+     * Gets the 64-bit FNV-1a hash of the normalized text, in hexadecimal.
+     *
+     * @return the hash
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'') {
+                i = skipQuoted(sql, i);
+                tokens.add(PLACEHOLDER);
+            } else if (c == '"') {
+                int end = skipQuoted(sql, i);
+                tokens.add(sql.substring(i, end));
+                i = end;
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(sql.charAt(i + 1)))) {
+                i = skipNumber(sql, i);
+                if (isNegation(tokens)) {
+                    tokens.remove(tokens.size() - 1);
+                }
+                tokens.add(PLACEHOLDER);
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i;
+                while (end < length && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+                    end++;
+                }
+                tokens.add(sql.substring(i, end).toLowerCase(Locale.ROOT));
+                i = end;
+            } else if (i + 1 < length && TWO_CHAR_OPERATORS.contains(sql.substring(i, i + 2))) {
+                tokens.add(sql.substring(i, i + 2));
+                i += 2;
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Checks whether the last token is a minus sign applied to the number
+     * that follows, rather than a subtraction.
+     */
+    private static boolean isNegation(List<String> tokens) {
+        int size = tokens.size();
+        if (size == 0 || !tokens.get(size - 1).equals("-")) {
+            return false;
+        }
+        if (size == 1) {
+            return true;
+        }
+        String before = tokens.get(size - 2);
+        char first = before.charAt(0);
+        return !before.equals(")") && !before.equals(PLACEHOLDER) && !before.startsWith("\"")
+                && !Character.isLetterOrDigit(first) && first != '_';
+    }
+
+    private static int skipQuoted(String sql, int start) {
+        char quote = sql.charAt(start);
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipNumber(String sql, int start) {
+        int i = start;
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.'
+                || sql.charAt(i) == '_')) {
+            char c = sql.charAt(i);
+            i++;
+            // Exponent sign, as in 1e-5
+            if ((c == 'e' || c == 'E') && i < sql.length() && (sql.charAt(i) == '-' || sql.charAt(i) == '+')) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static List<String> collapseInLists(List<String> tokens) {
+        List<String> result = new ArrayList<>(tokens.size());
+        int i = 0;
+        while (i < tokens.size()) {
+            String token = tokens.get(i);
+            result.add(token);
+            i++;
+            if (!token.equals("in") || i >= tokens.size() || !tokens.get(i).equals("(")) {
+                continue;
+            }
+            int end = i + 1;
+            while (end < tokens.size() && (tokens.get(end).equals(PLACEHOLDER) || tokens.get(end).equals(","))) {
+                end++;
+            }
+            if (end > i + 1 && end < tokens.size() && tokens.get(end).equals(")")) {
+                result.add("(");
+                result.add("?...");
+                result.add(")");
+                i = end + 1;
+            }
+        }
+        return result;
+    }
+
+    private static List<String> collapseValues(List<String> tokens) {
+        List<String> result = new ArrayList<>(tokens.size());
+        int i = 0;
+        while (i < tokens.size()) {
+            String token = tokens.get(i);
+            result.add(token);
+            i++;
+            if (!token.equals("values")) {
+                continue;
+            }
+            int firstEnd = rowEnd(tokens, i);
+            if (firstEnd < 0) {
+                continue;
+            }
+            List<String> firstRow = tokens.subList(i, firstEnd);
+            result.addAll(firstRow);
+            int next = firstEnd;
+            boolean repeated = false;
+            while (next < tokens.size() && tokens.get(next).equals(",")) {
+                int end = rowEnd(tokens, next + 1);
+                if (end < 0 || !tokens.subList(next + 1, end).equals(firstRow)) {
+                    break;
+                }
+                repeated = true;
+                next = end;
+            }
+            if (repeated) {
+                result.add(",");
+                result.add("...");
+            }
+            i = next;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position after the parenthesized row starting at the given
+     * position, or -1 if there is none.
+     */
+    private static int rowEnd(List<String> tokens, int start) {
+        if (start >= tokens.size() || !tokens.get(start).equals("(")) {
+            return -1;
+        }
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token.equals("(")) {
+                depth++;
+            } else if (token.equals(")") && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String fnv1a64(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash ^= c & 0xff;
+            hash *= 0x100000001b3L;
+            hash ^= c >>> 8;
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SqlFingerprint)) {
+            return false;
+        }
+        return normalized.equals(((SqlFingerprint) o).normalized);
+    }
+
+    @Override
+    public int hashCode() {
+        return normalized.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return hash + " " + normalized;
+    }
+}
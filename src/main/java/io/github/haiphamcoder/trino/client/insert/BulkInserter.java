@@ -0,0 +1,406 @@
+package io.github.haiphamcoder.trino.client.insert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.BulkInsertException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.sql.SqlLiterals;
+
+/**
+ * Inserts rows into a table with multi-row {@code INSERT ... VALUES}
+ * statements.
+ *
+ * <p>
+ * Each value is rendered as a literal of its column's Trino type with
+ * {@link SqlLiterals#render(Object, String)}. Rows are packed into a batch
+ * until it reaches {@link Builder#maxBatchRows(int)} rows or its statement
+ * would exceed {@link Builder#maxBatchBytes(int)} bytes, and full batches run
+ * on the client's executor while more rows are added. At most
+ * {@link Builder#parallelism(int)} batches run at once; {@link #add(List)}
+ * waits for a free slot. Batch results are not read beyond their update
+ * count.
+ *
+ * <p>
+ * Batches are separate statements, so a failed batch does not undo the
+ * batches that completed before it. The first failure is thrown from the next
+ * call to {@link #add(List)} or {@link #finish()} as a
+ * {@link BulkInsertException}.
+ *
+ * <pre>{@code
+ * try (BulkInserter inserter = client.bulkInserter("memory.default.users")
+ *         .column("id", "bigint")
+ *         .column("name", "varchar")
+ *         .build()) {
+ *     for (User user : users) {
+ *         inserter.add(user.getId(), user.getName());
+ *     }
+ *     long inserted = inserter.finish();
+ * }
+ * }</pre>
+ *
+ * <p>
+ * This class is not thread-safe; rows must be added from one thread.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class BulkInserter implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(BulkInserter.class);
+    /** Default maximum number of rows in one statement */
+    public static final int DEFAULT_MAX_BATCH_ROWS = 1_000;
+    /** Default maximum size of one statement in UTF-8 bytes, below Trino's default query.max-length */
+    public static final int DEFAULT_MAX_BATCH_BYTES = 1_000_000;
+    /** Default maximum number of statements running at once */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final TrinoClient client;
+    private final Executor executor;
+    private final List<String> types;
+    private final int maxBatchRows;
+    private final int maxBatchBytes;
+    private final int parallelism;
+    /** {@code INSERT INTO table (columns) VALUES } */
+    private final String prefix;
+    private final int prefixBytes;
+    /** Permits for running batches */
+    private final Semaphore permits;
+    private final AtomicLong insertedRows = new AtomicLong();
+    private final AtomicInteger submittedBatches = new AtomicInteger();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private StringBuilder batch;
+    private int batchRows;
+    private int batchBytes;
+    private boolean finished;
+
+    private BulkInserter(Builder builder) {
+        if (builder.table == null) {
+            throw new IllegalArgumentException("table is required");
+        }
+        if (builder.names.isEmpty()) {
+            throw new IllegalArgumentException("at least one column is required");
+        }
+        if (builder.maxBatchRows <= 0 || builder.maxBatchBytes <= 0 || builder.parallelism <= 0) {
+            throw new IllegalArgumentException("batch limits and parallelism must be positive");
+        }
+        this.client = builder.client;
+        this.executor = builder.executor;
+        this.types = List.copyOf(builder.types);
+        this.maxBatchRows = builder.maxBatchRows;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.parallelism = builder.parallelism;
+        this.permits = new Semaphore(parallelism);
+
+        StringBuilder prefix = new StringBuilder("INSERT INTO ").append(builder.table).append(" (");
+        for (int i = 0; i < builder.names.size(); i++) {
+            prefix.append(i > 0 ? ", " : "").append(quoteIdentifier(builder.names.get(i)));
+        }
+        this.prefix = prefix.append(") VALUES ").toString();
+        this.prefixBytes = utf8Length(this.prefix);
+        newBatch();
+    }
+
+    /**
+     * Creates a new Builder for a BulkInserter running its batches through the
+     * given client.
+     *
+     * @param client   the client executing the statements
+     * @param executor the executor running the batches
+     * @return a new Builder instance
+     * @see TrinoClient#bulkInserter(String)
+     */
+    public static Builder builder(TrinoClient client, Executor executor) {
+        return new Builder(client, executor);
+    }
+
+    /**
+     * Adds a row with one value per column, in column order.
+     *
+     * @param values the values of the row
+     * @throws BulkInsertException if an earlier batch failed
+     */
+    public void add(Object... values) {
+        add(Arrays.asList(values));
+    }
+
+    /**
+     * Adds a row with one value per column, in column order. Sends the current
+     * batch first if the row does not fit in it, waiting for a free slot if
+     * the maximum number of batches is running.
+     *
+     * @param values the values of the row
+     * @throws IllegalArgumentException if the row has the wrong number of values,
+     *                                  a value cannot be rendered as its column
+     *                                  type or the row alone exceeds the batch
+     *                                  size
+     * @throws BulkInsertException      if an earlier batch failed
+     */
+    public void add(List<?> values) {
+        if (finished) {
+            throw new IllegalStateException("Bulk inserter is finished");
+        }
+        throwIfFailed();
+        if (values.size() != types.size()) {
+            throw new IllegalArgumentException("Expected " + types.size() + " values but got " + values.size());
+        }
+
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < values.size(); i++) {
+            row.append(i > 0 ? ", " : "").append(SqlLiterals.render(values.get(i), types.get(i)));
+        }
+        row.append(')');
+        int rowBytes = utf8Length(row);
+        if (prefixBytes + rowBytes > maxBatchBytes) {
+            throw new IllegalArgumentException("Row of " + rowBytes + " bytes exceeds the batch size of "
+                    + maxBatchBytes + " bytes");
+        }
+
+        if (batchRows == maxBatchRows || (batchRows > 0 && batchBytes + 2 + rowBytes > maxBatchBytes)) {
+            submit();
+        }
+        if (batchRows > 0) {
+            batch.append(", ");
+            batchBytes += 2;
+        }
+        batch.append(row);
+        batchRows++;
+        batchBytes += rowBytes;
+    }
+
+    /**
+     * Sends the last batch and waits for all batches to complete.
+     *
+     * @return the total update count reported by the batches
+     * @throws BulkInsertException if a batch failed
+     */
+    public long finish() {
+        if (!finished) {
+            if (batchRows > 0) {
+                submit();
+            }
+            finished = true;
+            awaitBatches();
+        }
+        throwIfFailed();
+        return insertedRows.get();
+    }
+
+    private void submit() {
+        String sql = batch.toString();
+        newBatch();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting to send a batch", e);
+        }
+        try {
+            submittedBatches.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    insertedRows.addAndGet(runBatch(sql));
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw new TrinoException("Client is closed", e);
+        }
+    }
+
+    private long runBatch(String sql) {
+        try (TrinoResultSet resultSet = client.execute(sql)) {
+            // Drive the statement to completion; the single result row is not read
+            while (resultSet.next()) {
+                // Skip rows
+            }
+            resultSet.checkCompleted();
+            Long updateCount = resultSet.getUpdateCount();
+            return updateCount != null ? updateCount : 0;
+        }
+    }
+
+    private void newBatch() {
+        batch = new StringBuilder(prefix);
+        batchRows = 0;
+        batchBytes = prefixBytes;
+    }
+
+    private void awaitBatches() {
+        try {
+            permits.acquire(parallelism);
+            permits.release(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting for batches", e);
+        }
+    }
+
+    private void throwIfFailed() {
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw new BulkInsertException(e, insertedRows.get());
+        }
+    }
+
+    /**
+     * Gets the total update count of the batches completed so far.
+     *
+     * @return the number of inserted rows
+     */
+    public long getInsertedRows() {
+        return insertedRows.get();
+    }
+
+    /**
+     * Gets the number of batches sent so far.
+     *
+     * @return the number of batches
+     */
+    public int getSubmittedBatches() {
+        return submittedBatches.get();
+    }
+
+    /**
+     * Waits for the running batches to complete. Rows added since the last
+     * batch was sent are discarded unless {@link #finish()} was called.
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (batchRows > 0) {
+            log.warn("Discarding {} rows not sent before the bulk inserter was closed", batchRows);
+            newBatch();
+        }
+        awaitBatches();
+    }
+
+    private static String quoteIdentifier(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    private static int utf8Length(CharSequence text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // A surrogate pair encodes to four bytes
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Builder class for creating BulkInserter instances.
+     */
+    public static class Builder {
+        private final TrinoClient client;
+        private final Executor executor;
+        private String table;
+        private final List<String> names = new ArrayList<>();
+        private final List<String> types = new ArrayList<>();
+        private int maxBatchRows = DEFAULT_MAX_BATCH_ROWS;
+        private int maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+        private int parallelism = DEFAULT_PARALLELISM;
+
+        private Builder(TrinoClient client, Executor executor) {
+            this.client = client;
+            this.executor = executor;
+        }
+
+        /**
+         * Sets the target table. It is inserted as written, so it may be
+         * qualified with a catalog and schema.
+         *
+         * @param table the table name
+         * @return this builder
+         */
+        public Builder table(String table) {
+            this.table = table;
+            return this;
+        }
+
+        /**
+         * Adds a target column. Rows passed to {@link BulkInserter#add(List)}
+         * have one value per column, in the order the columns were added.
+         *
+         * @param name the column name
+         * @param type the Trino type of the column, for example {@code bigint}
+         *             or {@code decimal(10,2)}
+         * @return this builder
+         */
+        public Builder column(String name, String type) {
+            this.names.add(name);
+            this.types.add(type);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of rows in one statement (default:
+         * {@value BulkInserter#DEFAULT_MAX_BATCH_ROWS}).
+         *
+         * @param maxBatchRows the maximum number of rows per statement
+         * @return this builder
+         */
+        public Builder maxBatchRows(int maxBatchRows) {
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of one statement in UTF-8 bytes (default:
+         * {@value BulkInserter#DEFAULT_MAX_BATCH_BYTES}).
+         *
+         * @param maxBatchBytes the maximum statement size
+         * @return this builder
+         */
+        public Builder maxBatchBytes(int maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of statements running at once (default:
+         * {@value BulkInserter#DEFAULT_PARALLELISM}).
+         *
+         * @param parallelism the maximum number of running statements
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public BulkInserter build() {
+            return new BulkInserter(this);
+        }
+    }
+}
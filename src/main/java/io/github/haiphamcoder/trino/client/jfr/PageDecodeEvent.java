@@ -0,0 +1,32 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for reading a response body off the connection,
+ * including its content decoding, such as gzip decompression. Only blocking
+ * requests over a per-statement HTTP client read the body separately; shared
+ * transports deliver it with the response.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@Name("io.github.haiphamcoder.trino.client.PageDecode")
+@Label("Trino Page Decode")
+@Description("Reading and content-decoding of a response body")
+@Category({ "Trino", "Client" })
+@StackTrace(false)
+public class PageDecodeEvent extends Event {
+    @Label("Query Id")
+    public String queryId;
+
+    @Label("Decoded Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,24 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the GET polling the next page of a query.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@Name("io.github.haiphamcoder.trino.client.PageFetch")
+@Label("Trino Page Fetch")
+@Description("Request for the next result page of a query, until its body has been read")
+public class PageFetchEvent extends RequestEvent {
+    @Label("Rows")
+    public int rows;
+
+    @Label("Target Result Size")
+    @DataAmount
+    public long targetResultSize;
+}
@@ -0,0 +1,33 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for decoding the JSON of a response into a
+ * {@link io.github.haiphamcoder.trino.client.model.StatementResponse}.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@Name("io.github.haiphamcoder.trino.client.PageParse")
+@Label("Trino Page Parse")
+@Description("JSON parsing of a statement response")
+@Category({ "Trino", "Client" })
+@StackTrace(false)
+public class PageParseEvent extends Event {
+    @Label("Query Id")
+    public String queryId;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Rows")
+    public int rows;
+}
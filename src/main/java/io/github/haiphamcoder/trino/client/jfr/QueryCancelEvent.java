@@ -0,0 +1,29 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the DELETE cancelling a query on the coordinator.
+ * Its stack trace shows what cancelled the query.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@Name("io.github.haiphamcoder.trino.client.QueryCancel")
+@Label("Trino Query Cancel")
+@Description("Cancellation of a query on the coordinator")
+@Category({ "Trino", "Client" })
+public class QueryCancelEvent extends Event {
+    @Label("Query Id")
+    public String queryId;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
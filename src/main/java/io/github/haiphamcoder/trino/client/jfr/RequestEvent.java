@@ -0,0 +1,59 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import java.net.URISyntaxException;
+
+import org.apache.hc.core5.http.HttpRequest;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the Flight Recorder events timing an HTTP request of a query, from
+ * sending it until its body has been read.
+ *
+ * <p>
+ * For asynchronous requests the event begins on the submitting thread and is
+ * committed on the thread completing the response.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@Category({ "Trino", "Client" })
+@StackTrace(false)
+public abstract class RequestEvent extends Event {
+    @Label("Query Id")
+    public String queryId;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status Code")
+    public int statusCode;
+
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+
+    /**
+     * Creates and begins the event of a request.
+     *
+     * @param submission whether the request submits the statement
+     * @param request    the request
+     * @return the event, to be committed when the response has been read
+     */
+    public static RequestEvent begin(boolean submission, HttpRequest request) {
+        RequestEvent event = submission ? new StatementSubmitEvent() : new PageFetchEvent();
+        if (event.isEnabled()) {
+            try {
+                event.uri = request.getUri().toString();
+            } catch (URISyntaxException e) {
+                event.uri = request.getRequestUri();
+            }
+        }
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the POST submitting a statement.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+@Name("io.github.haiphamcoder.trino.client.StatementSubmit")
+@Label("Trino Statement Submit")
+@Description("Submission of a statement to a coordinator, until the first response has been read")
+public class StatementSubmitEvent extends RequestEvent {
+    @Label("User")
+    public String user;
+}
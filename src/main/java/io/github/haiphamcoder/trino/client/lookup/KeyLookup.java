@@ -0,0 +1,272 @@
+package io.github.haiphamcoder.trino.client.lookup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import io.github.haiphamcoder.trino.client.partition.Partition;
+import io.github.haiphamcoder.trino.client.partition.PartitionStats;
+import io.github.haiphamcoder.trino.client.partition.PartitionedQuery;
+import io.github.haiphamcoder.trino.client.sql.SqlLiterals;
+
+/**
+ * Fetches the rows for a large set of keys by splitting the keys into
+ * {@code IN} lists that each fit in a statement, and running the chunks as
+ * concurrent partitions of a {@link PartitionedQuery}.
+ *
+ * <p>
+ * The SQL template contains a {@value #PLACEHOLDER} placeholder that is
+ * replaced by {@code (column IN (...))} for each chunk. Keys are rendered with
+ * {@link SqlLiterals#render(Object)} and duplicates are removed. A chunk holds
+ * at most {@link #getMaxKeysPerChunk()} keys and its statement is at most
+ * {@link #getMaxStatementLength()} characters long, which defaults to the
+ * coordinator's default {@code query.max-length}.
+ *
+ * <pre>{@code
+ * KeyLookup lookup = KeyLookup.builder()
+ *         .sql("SELECT id, name FROM users WHERE {keys}")
+ *         .keyColumn("id")
+ *         .keys(ids)
+ *         .parallelism(8)
+ *         .onChunkComplete(stats -> log.info("{}", stats))
+ *         .build();
+ * try (TrinoResultSet resultSet = client.executeLookup(lookup)) {
+ *     while (resultSet.next()) {
+ *         // Process resultSet.getCurrentRow()
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class KeyLookup {
+    /** Placeholder replaced by the key predicate of each chunk */
+    public static final String PLACEHOLDER = "{keys}";
+    /** Default maximum number of keys in one statement */
+    public static final int DEFAULT_MAX_KEYS_PER_CHUNK = 5_000;
+    /** Default maximum statement length, matching Trino's default query.max-length */
+    public static final int DEFAULT_MAX_STATEMENT_LENGTH = 1_000_000;
+    /** Default maximum number of chunks running at once */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private final int keyCount;
+    private final int maxKeysPerChunk;
+    private final int maxStatementLength;
+    private final PartitionedQuery query;
+
+    private KeyLookup(Builder builder) {
+        if (builder.sql == null || !builder.sql.contains(PLACEHOLDER)) {
+            throw new IllegalArgumentException("sql must contain the " + PLACEHOLDER + " placeholder");
+        }
+        if (builder.keyColumn == null) {
+            throw new IllegalArgumentException("keyColumn is required");
+        }
+        if (builder.maxKeysPerChunk <= 0 || builder.maxStatementLength <= 0) {
+            throw new IllegalArgumentException("maxKeysPerChunk and maxStatementLength must be positive");
+        }
+
+        Set<String> literals = new LinkedHashSet<>();
+        for (Object key : builder.keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("keys must not contain null");
+            }
+            literals.add(SqlLiterals.render(key));
+        }
+        this.keyCount = literals.size();
+        this.maxKeysPerChunk = builder.maxKeysPerChunk;
+        this.maxStatementLength = builder.maxStatementLength;
+
+        List<Partition> chunks = chunk(builder.sql, builder.keyColumn, literals);
+        this.query = PartitionedQuery.builder()
+                .sql(builder.sql.replace(PLACEHOLDER, PartitionedQuery.PLACEHOLDER))
+                .partitions(chunks)
+                .parallelism(builder.parallelism)
+                .maxRetries(builder.maxRetries)
+                .onPartitionComplete(builder.listener)
+                .build();
+    }
+
+    private List<Partition> chunk(String sql, String keyColumn, Collection<String> literals) {
+        String prefix = keyColumn + " IN (";
+        // The partitioned query wraps each predicate in parentheses
+        int budget = maxStatementLength - (sql.length() - PLACEHOLDER.length()) - prefix.length() - 3;
+
+        List<Partition> chunks = new ArrayList<>();
+        StringBuilder keys = new StringBuilder();
+        int count = 0;
+        for (String literal : literals) {
+            if (literal.length() > budget) {
+                throw new IllegalArgumentException("Key does not fit in a statement of " + maxStatementLength
+                        + " characters: " + literal.substring(0, Math.min(literal.length(), 64)));
+            }
+            if (count == maxKeysPerChunk || (count > 0 && keys.length() + 2 + literal.length() > budget)) {
+                chunks.add(Partition.of("keys#" + chunks.size(), prefix + keys + ")"));
+                keys.setLength(0);
+                count = 0;
+            }
+            if (count > 0) {
+                keys.append(", ");
+            }
+            keys.append(literal);
+            count++;
+        }
+        if (count > 0) {
+            chunks.add(Partition.of("keys#" + chunks.size(), prefix + keys + ")"));
+        }
+        if (chunks.isEmpty()) {
+            // An empty lookup still returns the columns of the query
+            chunks.add(Partition.of("keys#0", "FALSE"));
+        }
+        return chunks;
+    }
+
+    /**
+     * Creates a new Builder for constructing a KeyLookup.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the number of distinct keys looked up.
+     *
+     * @return the number of keys
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Gets the number of statements the keys were split into.
+     *
+     * @return the number of chunks
+     */
+    public int getChunkCount() {
+        return query.getPartitions().size();
+    }
+
+    public int getMaxKeysPerChunk() {
+        return maxKeysPerChunk;
+    }
+
+    public int getMaxStatementLength() {
+        return maxStatementLength;
+    }
+
+    /**
+     * Gets the partitioned query running the chunks, with one partition per
+     * chunk.
+     *
+     * @return the partitioned query
+     */
+    public PartitionedQuery toPartitionedQuery() {
+        return query;
+    }
+
+    /**
+     * Builder class for creating KeyLookup instances.
+     */
+    public static class Builder {
+        private String sql;
+        private String keyColumn;
+        private final List<Object> keys = new ArrayList<>();
+        private int maxKeysPerChunk = DEFAULT_MAX_KEYS_PER_CHUNK;
+        private int maxStatementLength = DEFAULT_MAX_STATEMENT_LENGTH;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int maxRetries = PartitionedQuery.DEFAULT_MAX_RETRIES;
+        private Consumer<PartitionStats> listener;
+
+        /**
+         * Sets the SQL template, which must contain the
+         * {@value KeyLookup#PLACEHOLDER} placeholder.
+         *
+         * @param sql the SQL template
+         * @return this builder
+         */
+        public Builder sql(String sql) {
+            this.sql = sql;
+            return this;
+        }
+
+        /**
+         * Sets the column or expression compared with the keys. It is inserted
+         * as written; quote identifiers that need it.
+         *
+         * @param keyColumn the key column
+         * @return this builder
+         */
+        public Builder keyColumn(String keyColumn) {
+            this.keyColumn = keyColumn;
+            return this;
+        }
+
+        public Builder keys(Collection<?> keys) {
+            this.keys.addAll(keys);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of keys in one statement (default:
+         * {@value KeyLookup#DEFAULT_MAX_KEYS_PER_CHUNK}).
+         *
+         * @param maxKeysPerChunk the maximum number of keys per statement
+         * @return this builder
+         */
+        public Builder maxKeysPerChunk(int maxKeysPerChunk) {
+            this.maxKeysPerChunk = maxKeysPerChunk;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length of one statement in characters (default:
+         * {@value KeyLookup#DEFAULT_MAX_STATEMENT_LENGTH}). Lower it to match
+         * the coordinator's {@code query.max-length} if that was changed.
+         *
+         * @param maxStatementLength the maximum statement length
+         * @return this builder
+         */
+        public Builder maxStatementLength(int maxStatementLength) {
+            this.maxStatementLength = maxStatementLength;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of chunks running at once (default:
+         * {@value KeyLookup#DEFAULT_PARALLELISM}).
+         *
+         * @param parallelism the maximum number of running chunks
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets a listener notified with the row count and timing of each chunk
+         * once it has finished or failed for good.
+         *
+         * @param listener the listener
+         * @return this builder
+         */
+        public Builder onChunkComplete(Consumer<PartitionStats> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public KeyLookup build() {
+            return new KeyLookup(this);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.haiphamcoder.trino.client.metrics;
+
+import io.github.haiphamcoder.trino.client.model.QueryState;
+
+/**
+ * Receives measurements from the request and page path of every query.
+ *
+ * <p>
+ * Methods are called on the threads fetching pages, once or more per page, so
+ * implementations must be thread-safe and should record without locking or
+ * allocating; {@link HistogramClientMetrics} is a lock-free implementation,
+ * and {@link io.github.haiphamcoder.trino.client.metrics.micrometer.MicrometerClientMetrics}
+ * publishes to a Micrometer registry. All methods do nothing by default, so
+ * implementations override only what they need. Durations are in
+ * nanoseconds.
+ *
+ * <pre>{@code
+ * HistogramClientMetrics metrics = new HistogramClientMetrics();
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .metrics(metrics)
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface ClientMetrics {
+    /**
+     * Metrics that discard every measurement.
+     */
+    ClientMetrics NOOP = new ClientMetrics() {
+    };
+
+    /**
+     * Kind of HTTP request sent for a query.
+     */
+    enum RequestType {
+        /** The POST submitting the statement */
+        SUBMIT,
+        /** A GET polling for the next page */
+        NEXT_PAGE
+    }
+
+    /**
+     * Called when the response to a request has been received.
+     *
+     * @param tags          the tags of the query's session
+     * @param type          the kind of request
+     * @param statusCode    the HTTP status code
+     * @param latencyNanos  the time from sending the request until the
+     *                      response headers arrived, including connecting;
+     *                      over HTTP/2 the body is buffered before the
+     *                      response is delivered, so this includes the body
+     * @param bodyReadNanos the time spent reading the response body after the
+     *                      headers
+     */
+    default void recordRequest(MetricTags tags, RequestType type, int statusCode, long latencyNanos,
+            long bodyReadNanos) {
+    }
+
+    /**
+     * Called when a response body has been parsed.
+     *
+     * @param tags       the tags of the query's session
+     * @param parseNanos the time spent decoding the JSON body
+     */
+    default void recordParse(MetricTags tags, long parseNanos) {
+    }
+
+    /**
+     * Called for every response of a query, including those without rows.
+     *
+     * @param tags  the tags of the query's session
+     * @param bytes the size of the response body
+     * @param rows  the number of rows in the response
+     */
+    default void recordPage(MetricTags tags, long bytes, int rows) {
+    }
+
+    /**
+     * Called when a submission is retried on another coordinator.
+     *
+     * @param tags the tags of the query's session
+     * @param type the kind of request retried
+     */
+    default void recordRetry(MetricTags tags, RequestType type) {
+    }
+
+    /**
+     * Called when a request or query fails.
+     *
+     * @param tags      the tags of the query's session
+     * @param errorName the Trino error name, {@code HTTP_<status>} for HTTP
+     *                  errors without a Trino error, or {@code CLIENT_ERROR} for
+     *                  I/O failures
+     */
+    default void recordError(MetricTags tags, String errorName) {
+    }
+
+    /**
+     * Called once when a query reaches a final state.
+     *
+     * @param tags         the tags of the query's session
+     * @param state        the final client-side state
+     * @param elapsedNanos the time from submission until the final state
+     * @param queuedNanos  the time the query spent queued on the server, as
+     *                     last reported by it
+     * @param rows         the number of rows received
+     */
+    default void recordQueryCompleted(MetricTags tags, QueryState state, long elapsedNanos, long queuedNanos,
+            long rows) {
+    }
+}
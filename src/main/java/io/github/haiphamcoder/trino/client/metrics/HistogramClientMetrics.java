@@ -0,0 +1,188 @@
+package io.github.haiphamcoder.trino.client.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.haiphamcoder.trino.client.model.QueryState;
+
+/**
+ * Client metrics kept in memory, per set of {@link MetricTags}, with
+ * lock-free {@link LatencyHistogram}s and counters.
+ *
+ * <pre>{@code
+ * HistogramClientMetrics metrics = new HistogramClientMetrics();
+ * // ... run queries with a client built with .metrics(metrics)
+ * for (HistogramClientMetrics.Metrics m : metrics.getAll().values()) {
+ *     System.out.println(m.getPageLatency().getValueAtQuantile(0.99) / 1e6 + " ms");
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class HistogramClientMetrics implements ClientMetrics {
+    private final Map<MetricTags, Metrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the metrics recorded for the given tags.
+     *
+     * @param tags the tags
+     * @return the metrics, or null if nothing was recorded for the tags
+     */
+    public Metrics get(MetricTags tags) {
+        return metrics.get(tags);
+    }
+
+    /**
+     * Gets the metrics of all tags recorded so far.
+     *
+     * @return the metrics by tags
+     */
+    public Map<MetricTags, Metrics> getAll() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    private Metrics metricsFor(MetricTags tags) {
+        Metrics existing = metrics.get(tags);
+        return existing != null ? existing : metrics.computeIfAbsent(tags, t -> new Metrics());
+    }
+
+    @Override
+    public void recordRequest(MetricTags tags, RequestType type, int statusCode, long latencyNanos,
+            long bodyReadNanos) {
+        Metrics m = metricsFor(tags);
+        (type == RequestType.SUBMIT ? m.submitLatency : m.pageLatency).record(latencyNanos);
+        m.bodyReadTime.record(bodyReadNanos);
+    }
+
+    @Override
+    public void recordParse(MetricTags tags, long parseNanos) {
+        metricsFor(tags).parseTime.record(parseNanos);
+    }
+
+    @Override
+    public void recordPage(MetricTags tags, long bytes, int rows) {
+        Metrics m = metricsFor(tags);
+        m.pageBytes.record(bytes);
+        m.pageRows.record(rows);
+        m.polls.increment();
+    }
+
+    @Override
+    public void recordRetry(MetricTags tags, RequestType type) {
+        metricsFor(tags).retries.increment();
+    }
+
+    @Override
+    public void recordError(MetricTags tags, String errorName) {
+        metricsFor(tags).errors.computeIfAbsent(errorName, name -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordQueryCompleted(MetricTags tags, QueryState state, long elapsedNanos, long queuedNanos,
+            long rows) {
+        Metrics m = metricsFor(tags);
+        m.queryTime.record(elapsedNanos);
+        m.queueWait.record(queuedNanos);
+        if (elapsedNanos > 0) {
+            m.rowsPerSecond.record(rows * 1_000_000_000L / elapsedNanos);
+        }
+        m.queries.increment();
+    }
+
+    /**
+     * Metrics recorded for one set of tags. Times are in nanoseconds.
+     */
+    public static final class Metrics {
+        private final LatencyHistogram submitLatency = new LatencyHistogram();
+        private final LatencyHistogram pageLatency = new LatencyHistogram();
+        private final LatencyHistogram bodyReadTime = new LatencyHistogram();
+        private final LatencyHistogram parseTime = new LatencyHistogram();
+        private final LatencyHistogram pageBytes = new LatencyHistogram();
+        private final LatencyHistogram pageRows = new LatencyHistogram();
+        private final LatencyHistogram queryTime = new LatencyHistogram();
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram rowsPerSecond = new LatencyHistogram();
+        private final LongAdder polls = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private Metrics() {
+        }
+
+        /** Time until the response headers of submissions, including connecting */
+        public LatencyHistogram getSubmitLatency() {
+            return submitLatency;
+        }
+
+        /** Time until the response headers of page requests */
+        public LatencyHistogram getPageLatency() {
+            return pageLatency;
+        }
+
+        /** Time reading response bodies after their headers */
+        public LatencyHistogram getBodyReadTime() {
+            return bodyReadTime;
+        }
+
+        /** Time decoding JSON response bodies */
+        public LatencyHistogram getParseTime() {
+            return parseTime;
+        }
+
+        /** Size in bytes of response bodies */
+        public LatencyHistogram getPageBytes() {
+            return pageBytes;
+        }
+
+        /** Rows per response */
+        public LatencyHistogram getPageRows() {
+            return pageRows;
+        }
+
+        /** Time from submission until queries reached a final state */
+        public LatencyHistogram getQueryTime() {
+            return queryTime;
+        }
+
+        /** Time queries spent queued on the server */
+        public LatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        /** Rows received per second over each query's lifetime */
+        public LatencyHistogram getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+
+        /** Number of responses received */
+        public long getPolls() {
+            return polls.sum();
+        }
+
+        /** Number of submissions retried on another coordinator */
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /** Number of queries that reached a final state */
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        /**
+         * Gets the number of errors by error name.
+         *
+         * @return the error counts
+         */
+        public Map<String, Long> getErrors() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((name, count) -> counts.put(name, count.sum()));
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.haiphamcoder.trino.client.metrics;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+
+/**
+ * Dimensions that client metrics are recorded under: the user, source and
+ * client tags of the session that ran the query. Instances are immutable and
+ * may be used as map keys.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class MetricTags {
+    private final String user;
+    private final String source;
+    /** Client tags in sorted order */
+    private final Set<String> clientTags;
+    /** Client tags joined with commas */
+    private final String joinedClientTags;
+
+    private MetricTags(String user, String source, Set<String> clientTags) {
+        this.user = user;
+        this.source = source;
+        this.clientTags = Collections.unmodifiableSortedSet(new TreeSet<>(clientTags));
+        this.joinedClientTags = String.join(",", this.clientTags);
+    }
+
+    /**
+     * Creates tags from the given values.
+     *
+     * @param user       the user, or null
+     * @param source     the source, or null
+     * @param clientTags the client tags
+     * @return the tags
+     */
+    public static MetricTags of(String user, String source, Set<String> clientTags) {
+        return new MetricTags(user, source, clientTags);
+    }
+
+    /**
+     * Creates the tags of a session.
+     *
+     * @param session the session
+     * @return the tags
+     */
+    public static MetricTags of(ClientSession session) {
+        return of(session.getUser(), session.getSource(), session.getClientTags());
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Set<String> getClientTags() {
+        return clientTags;
+    }
+
+    /**
+     * Gets the client tags as one sorted, comma-separated value.
+     *
+     * @return the joined client tags, empty if there are none
+     */
+    public String getJoinedClientTags() {
+        return joinedClientTags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MetricTags)) {
+            return false;
+        }
+        MetricTags that = (MetricTags) o;
+        return Objects.equals(user, that.user) && Objects.equals(source, that.source)
+                && clientTags.equals(that.clientTags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(user, source, clientTags);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricTags{user='" + user + "', source='" + source + "', clientTags=" + joinedClientTags + '}';
+    }
+}
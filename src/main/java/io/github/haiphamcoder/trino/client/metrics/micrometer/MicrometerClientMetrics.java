@@ -0,0 +1,167 @@
+package io.github.haiphamcoder.trino.client.metrics.micrometer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.github.haiphamcoder.trino.client.metrics.ClientMetrics;
+import io.github.haiphamcoder.trino.client.metrics.MetricTags;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Client metrics published to a Micrometer {@link MeterRegistry}.
+ *
+ * <p>
+ * Micrometer is an optional dependency of this library: add
+ * {@code io.micrometer:micrometer-core} to the application to use this class.
+ * Meters are tagged with {@code user}, {@code source} and {@code client_tags};
+ * each distinct combination creates its own meters, so sessions should draw
+ * these values from a small set. The meters are:
+ *
+ * <ul>
+ * <li>{@code trino.client.request} (timer, tag {@code type}): time until the
+ * response headers</li>
+ * <li>{@code trino.client.request.body.read} (timer): time reading response
+ * bodies</li>
+ * <li>{@code trino.client.response.parse} (timer): time decoding
+ * responses</li>
+ * <li>{@code trino.client.page.bytes} and {@code trino.client.page.rows}
+ * (distribution summaries): size of each response</li>
+ * <li>{@code trino.client.retries} (counter): submissions failed over</li>
+ * <li>{@code trino.client.errors} (counter, tag {@code error}): failures by
+ * error name</li>
+ * <li>{@code trino.client.query} (timer, tag {@code state}) and
+ * {@code trino.client.query.queued} (timer): query time and server queue
+ * wait</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .metrics(new MicrometerClientMetrics(registry))
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class MicrometerClientMetrics implements ClientMetrics {
+    private final MeterRegistry registry;
+    /** Meters by name, tags and extra tag value, looked up before registering */
+    private final Map<MeterKey, Object> meters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new MicrometerClientMetrics.
+     *
+     * @param registry the registry to publish to
+     */
+    public MicrometerClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordRequest(MetricTags tags, RequestType type, int statusCode, long latencyNanos,
+            long bodyReadNanos) {
+        timer("trino.client.request", tags, "type", type.name()).record(latencyNanos, TimeUnit.NANOSECONDS);
+        timer("trino.client.request.body.read", tags, null, null).record(bodyReadNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordParse(MetricTags tags, long parseNanos) {
+        timer("trino.client.response.parse", tags, null, null).record(parseNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordPage(MetricTags tags, long bytes, int rows) {
+        summary("trino.client.page.bytes", tags, "bytes").record(bytes);
+        summary("trino.client.page.rows", tags, "rows").record(rows);
+    }
+
+    @Override
+    public void recordRetry(MetricTags tags, RequestType type) {
+        meter(new MeterKey("trino.client.retries", tags, null, null),
+                key -> Counter.builder(key.name).tags(key.tags()).register(registry)).increment();
+    }
+
+    @Override
+    public void recordError(MetricTags tags, String errorName) {
+        meter(new MeterKey("trino.client.errors", tags, "error", errorName),
+                key -> Counter.builder(key.name).tags(key.tags()).register(registry)).increment();
+    }
+
+    @Override
+    public void recordQueryCompleted(MetricTags tags, QueryState state, long elapsedNanos, long queuedNanos,
+            long rows) {
+        timer("trino.client.query", tags, "state", state.name()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        timer("trino.client.query.queued", tags, null, null).record(queuedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, MetricTags tags, String extraTag, String extraValue) {
+        return meter(new MeterKey(name, tags, extraTag, extraValue),
+                key -> Timer.builder(key.name).tags(key.tags()).publishPercentileHistogram().register(registry));
+    }
+
+    private DistributionSummary summary(String name, MetricTags tags, String unit) {
+        return meter(new MeterKey(name, tags, null, null),
+                key -> DistributionSummary.builder(key.name).baseUnit(unit).tags(key.tags()).register(registry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T meter(MeterKey key, Function<MeterKey, T> factory) {
+        Object meter = meters.get(key);
+        if (meter == null) {
+            meter = meters.computeIfAbsent(key, factory::apply);
+        }
+        return (T) meter;
+    }
+
+    /**
+     * Identifies a meter without building Micrometer tags on every
+     * measurement.
+     */
+    private static final class MeterKey {
+        final String name;
+        final MetricTags tags;
+        final String extraTag;
+        final String extraValue;
+
+        MeterKey(String name, MetricTags tags, String extraTag, String extraValue) {
+            this.name = name;
+            this.tags = tags;
+            this.extraTag = extraTag;
+            this.extraValue = extraValue;
+        }
+
+        Tags tags() {
+            Tags result = Tags.of("user", String.valueOf(tags.getUser()),
+                    "source", String.valueOf(tags.getSource()),
+                    "client_tags", tags.getJoinedClientTags());
+            return extraTag != null ? result.and(extraTag, extraValue) : result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MeterKey)) {
+                return false;
+            }
+            MeterKey other = (MeterKey) o;
+            return name.equals(other.name) && tags.equals(other.tags)
+                    && Objects.equals(extraValue, other.extraValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, tags, extraValue);
+        }
+    }
+}
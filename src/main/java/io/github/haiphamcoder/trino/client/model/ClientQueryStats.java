@@ -0,0 +1,74 @@
+package io.github.haiphamcoder.trino.client.model;
+
+/**
+ * Represents client-side statistics for a single query execution.
+ * Unlike {@link TrinoStats}, which is reported by the server, these values are
+ * measured by the client while fetching result pages.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class ClientQueryStats {
+    /** Number of pages fetched from the server, including the initial response */
+    private long pages;
+
+    /** Total bytes of response bodies received */
+    private long bytesReceived;
+
+    /** Size in bytes of the most recent page body */
+    private long lastPageBytes;
+
+    /** Time spent fetching the most recent page in milliseconds */
+    private long lastFetchTimeMillis;
+
+    /** Target result size in bytes requested for the most recent page (null if not sent) */
+    private Long targetResultSize;
+
+    /** Observed consumer throughput in bytes per second (null until measured) */
+    private Double consumerBytesPerSecond;
+
+    /**
+     * Records a fetched page.
+     *
+     * @param pageBytes       the size of the page body in bytes
+     * @param fetchTimeMillis the time spent fetching the page in milliseconds
+     */
+    public void recordPage(long pageBytes, long fetchTimeMillis) {
+        this.pages++;
+        this.bytesReceived += pageBytes;
+        this.lastPageBytes = pageBytes;
+        this.lastFetchTimeMillis = fetchTimeMillis;
+    }
+
+    public long getPages() {
+        return pages;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getLastPageBytes() {
+        return lastPageBytes;
+    }
+
+    public long getLastFetchTimeMillis() {
+        return lastFetchTimeMillis;
+    }
+
+    public Long getTargetResultSize() {
+        return targetResultSize;
+    }
+
+    public void setTargetResultSize(Long targetResultSize) {
+        this.targetResultSize = targetResultSize;
+    }
+
+    public Double getConsumerBytesPerSecond() {
+        return consumerBytesPerSecond;
+    }
+
+    public void setConsumerBytesPerSecond(Double consumerBytesPerSecond) {
+        this.consumerBytesPerSecond = consumerBytesPerSecond;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.haiphamcoder.trino.client.monitor;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * Maps the query info served by {@code /v1/query/{queryId}} onto the
+ * {@link TrinoStats} and {@link TrinoError} of the statement protocol.
+ *
+ * <p>
+ * Query info reports durations and data sizes as strings such as
+ * {@code "1.50s"} and {@code "12.3MB"}, and counts drivers where statement
+ * responses count splits; drivers are what the coordinator's own progress
+ * bar counts, so they are reported as splits.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+final class QueryInfoParser {
+    private static final Pattern VALUE_WITH_UNIT = Pattern.compile("\\s*(\\d+(?:\\.\\d+)?)\\s*([a-zA-Z]+)\\s*");
+
+    private QueryInfoParser() {
+    }
+
+    static TrinoStats parseStats(JsonObject info) {
+        TrinoStats stats = new TrinoStats();
+        String state = string(info, "state");
+        stats.setState(state);
+        stats.setQueued("QUEUED".equals(state));
+        stats.setScheduled(bool(info, "scheduled"));
+
+        JsonObject queryStats = object(info, "queryStats");
+        if (queryStats == null) {
+            return stats;
+        }
+        stats.setTotalSplits(integer(queryStats, "totalDrivers"));
+        stats.setQueuedSplits(integer(queryStats, "queuedDrivers"));
+        stats.setRunningSplits(integer(queryStats, "runningDrivers"));
+        stats.setCompletedSplits(integer(queryStats, "completedDrivers"));
+        stats.setBytesProcessed(parseDataSize(string(queryStats, "processedInputDataSize")));
+        stats.setRowsProcessed(number(queryStats, "processedInputPositions"));
+        stats.setElapsedTimeMillis(parseDurationMillis(string(queryStats, "elapsedTime")));
+        stats.setQueuedTimeMillis(parseDurationMillis(string(queryStats, "queuedTime")));
+        stats.setTotalCpuTimeMillis(parseDurationMillis(string(queryStats, "totalCpuTime")));
+        JsonElement memory = queryStats.get("cumulativeUserMemory");
+        stats.setCumulativeUserMemory(memory != null && !memory.isJsonNull() ? memory.getAsDouble() : null);
+        JsonElement progress = queryStats.get("progressPercentage");
+        stats.setProgressPercentage(progress != null && !progress.isJsonNull() ? progress.getAsDouble() : null);
+        return stats;
+    }
+
+    /**
+     * Gets the error of a failed query.
+     *
+     * @return the error, or null if the query info carries none
+     */
+    static TrinoError parseError(JsonObject info) {
+        JsonObject errorCode = object(info, "errorCode");
+        if (errorCode == null) {
+            return null;
+        }
+        TrinoError error = new TrinoError();
+        error.setErrorCode(integer(errorCode, "code"));
+        error.setErrorName(string(errorCode, "name"));
+        error.setErrorType(string(errorCode, "type"));
+        JsonObject failureInfo = object(info, "failureInfo");
+        error.setMessage(failureInfo != null ? string(failureInfo, "message") : null);
+        return error;
+    }
+
+    /**
+     * Parses a duration such as {@code "1.50s"} or {@code "250.00ms"}.
+     *
+     * @return the duration in milliseconds, or null if absent or malformed
+     */
+    static Long parseDurationMillis(String value) {
+        Matcher matcher = value != null ? VALUE_WITH_UNIT.matcher(value) : null;
+        if (matcher == null || !matcher.matches()) {
+            return null;
+        }
+        double amount = Double.parseDouble(matcher.group(1));
+        double millisPerUnit;
+        switch (matcher.group(2)) {
+            case "ns":
+                millisPerUnit = 1e-6;
+                break;
+            case "us":
+                millisPerUnit = 1e-3;
+                break;
+            case "ms":
+                millisPerUnit = 1;
+                break;
+            case "s":
+                millisPerUnit = 1_000;
+                break;
+            case "m":
+                millisPerUnit = 60_000;
+                break;
+            case "h":
+                millisPerUnit = 3_600_000;
+                break;
+            case "d":
+                millisPerUnit = 86_400_000;
+                break;
+            default:
+                return null;
+        }
+        return Math.round(amount * millisPerUnit);
+    }
+
+    /**
+     * Parses a data size such as {@code "12B"} or {@code "1.50kB"}, where each
+     * unit is 1024 times the previous one.
+     *
+     * @return the size in bytes, or null if absent or malformed
+     */
+    static Long parseDataSize(String value) {
+        Matcher matcher = value != null ? VALUE_WITH_UNIT.matcher(value) : null;
+        if (matcher == null || !matcher.matches()) {
+            return null;
+        }
+        int exponent = "BkMGTP".indexOf(matcher.group(2).charAt(0));
+        if (exponent < 0 || (exponent > 0 && !matcher.group(2).endsWith("B"))) {
+            return null;
+        }
+        return Math.round(Double.parseDouble(matcher.group(1)) * Math.pow(1024, exponent));
+    }
+
+    private static JsonObject object(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element != null && !element.isJsonNull() ? element.getAsString() : null;
+    }
+
+    private static Boolean bool(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element != null && !element.isJsonNull() ? element.getAsBoolean() : null;
+    }
+
+    private static Integer integer(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element != null && !element.isJsonNull() ? element.getAsInt() : null;
+    }
+
+    private static Long number(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element != null && !element.isJsonNull() ? element.getAsLong() : null;
+    }
+}
@@ -0,0 +1,667 @@
+package io.github.haiphamcoder.trino.client.monitor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+import io.github.haiphamcoder.trino.client.protocol.HttpTransport;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.protocol.TransportProtocol;
+
+/**
+ * Tracks the status of many running queries without reading their results.
+ *
+ * <p>
+ * Queries are tracked either by id, polling {@code /v1/query/{queryId}} on the
+ * coordinator, which works for queries submitted by any client, or as a
+ * {@link StatementClient} submitted by this process, polling its
+ * {@code nextUri} and discarding the rows. Polling a statement's
+ * {@code nextUri} also keeps the coordinator from abandoning the query, which
+ * it does to queries whose client stops polling for longer than its client
+ * timeout (5 minutes by default), so the maximum interval must stay below
+ * that timeout.
+ *
+ * <p>
+ * All polls are scheduled and their responses handled on a single thread,
+ * with non-blocking requests over an {@link HttpTransport}, so hundreds of
+ * queries cost one thread and a few connections. The interval between polls
+ * of a query adapts to it: a fixed fraction of how long the query has run, so
+ * a query running for an hour is not polled as often as one running for ten
+ * seconds, but no longer than half its estimated remaining time, so its end
+ * is noticed promptly.
+ *
+ * <pre>{@code
+ * try (QueryMonitor monitor = QueryMonitor.builder().session(client.getSession()).build()) {
+ *     CompletableFuture<QueryStatus> done = monitor.track(queryId);
+ *     // ... later
+ *     QueryStatus status = monitor.getStatus(queryId);
+ *     System.out.println(status.getState() + " " + status.getProgress());
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class QueryMonitor implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(QueryMonitor.class);
+
+    /** Default shortest interval between polls of a query */
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofSeconds(1);
+    /** Default longest interval between polls of a query */
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(30);
+    /** Default fraction of a query's elapsed time waited between its polls */
+    public static final double DEFAULT_INTERVAL_FRACTION = 0.1;
+    /** Failed polls in a row after which a query is no longer tracked */
+    private static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private final ClientSession session;
+    /** Non-blocking HTTP transport sending the polls */
+    private final HttpTransport transport;
+    /** Whether the transport was created by this monitor and is closed with it */
+    private final boolean ownsTransport;
+    /** Thread scheduling polls and handling their responses */
+    private final ScheduledExecutorService scheduler;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final double intervalFraction;
+    /** Listener receiving every new status (null for none) */
+    private final Consumer<QueryStatus> listener;
+    /** Queries currently tracked */
+    private final Set<Tracked> active = ConcurrentHashMap.newKeySet();
+    /** Tracked queries by id, once their id is known */
+    private final Map<String, Tracked> byId = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    /** Whether the monitor has been closed */
+    private volatile boolean closed;
+
+    private QueryMonitor(Builder builder) {
+        if (builder.session == null) {
+            throw new IllegalArgumentException("session is required");
+        }
+        if (builder.minInterval.isNegative() || builder.minInterval.isZero()
+                || builder.maxInterval.compareTo(builder.minInterval) < 0) {
+            throw new IllegalArgumentException("minInterval must be positive and at most maxInterval");
+        }
+        this.session = builder.session;
+        this.minIntervalNanos = builder.minInterval.toNanos();
+        this.maxIntervalNanos = builder.maxInterval.toNanos();
+        this.intervalFraction = builder.intervalFraction;
+        this.listener = builder.listener;
+        this.ownsTransport = builder.transport == null;
+        this.transport = builder.transport != null ? builder.transport
+                : HttpTransport.builder()
+                        .protocol(TransportProtocol.HTTP_1_1)
+                        .maxConcurrentStreams(Integer.MAX_VALUE)
+                        .ioThreads(1)
+                        .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trino-client-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new Builder for constructing a QueryMonitor.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts tracking a query on the session's coordinator by id.
+     *
+     * @param queryId the query id
+     * @return a future completed with the final status once the query
+     *         finishes or fails, or completed exceptionally if the
+     *         coordinator no longer knows the query or cannot be reached
+     * @throws IllegalStateException if the monitor has been closed
+     */
+    public CompletableFuture<QueryStatus> track(String queryId) {
+        InfoTracked tracked = new InfoTracked(queryId);
+        Tracked existing = tracked.identify(queryId);
+        return existing != null ? existing.completion : start(tracked);
+    }
+
+    /**
+     * Starts tracking a query through its statement client. If the statement
+     * has not been executed yet, it is submitted first. Rows returned by the
+     * query are discarded, so this suits statements such as
+     * {@code CREATE TABLE AS} and {@code INSERT} whose results are a row
+     * count. The monitor closes the statement client once the query
+     * completes.
+     *
+     * @param client the statement client
+     * @return a future completed with the final status once the query
+     *         finishes or fails, or completed exceptionally if the client
+     *         failed
+     * @throws IllegalStateException if the monitor has been closed
+     */
+    public CompletableFuture<QueryStatus> track(StatementClient client) {
+        StatementTracked tracked = new StatementTracked(client);
+        if (client.getCurrentResponse() != null) {
+            tracked.identify(client.getCurrentResponse().getId());
+        }
+        return start(tracked);
+    }
+
+    private CompletableFuture<QueryStatus> start(Tracked tracked) {
+        if (closed) {
+            throw new IllegalStateException("Query monitor is closed");
+        }
+        active.add(tracked);
+        try {
+            scheduler.execute(tracked::poll);
+        } catch (RejectedExecutionException e) {
+            tracked.stop(new TrinoException("Query monitor is closed", e));
+        }
+        return tracked.completion;
+    }
+
+    /**
+     * Stops tracking a query. Its future is completed exceptionally, and a
+     * tracked statement client is closed without cancelling the query.
+     *
+     * @param queryId the query id
+     * @return true if the query was tracked
+     */
+    public boolean untrack(String queryId) {
+        Tracked tracked = byId.get(queryId);
+        if (tracked == null) {
+            return false;
+        }
+        tracked.stop(new TrinoException("Query " + queryId + " is no longer tracked"));
+        return true;
+    }
+
+    /**
+     * Gets the latest status of a query.
+     *
+     * @param queryId the query id
+     * @return the status, or null if the query is not tracked or has not been
+     *         polled yet
+     */
+    public QueryStatus getStatus(String queryId) {
+        Tracked tracked = byId.get(queryId);
+        return tracked != null ? tracked.status : null;
+    }
+
+    /**
+     * Gets the latest status of every query still tracked that has been
+     * polled at least once.
+     *
+     * @return the statuses
+     */
+    public List<QueryStatus> getStatuses() {
+        List<QueryStatus> statuses = new ArrayList<>(active.size());
+        for (Tracked tracked : active) {
+            QueryStatus status = tracked.status;
+            if (status != null) {
+                statuses.add(status);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Gets the number of queries currently tracked.
+     *
+     * @return the number of queries
+     */
+    public int getTrackedQueries() {
+        return active.size();
+    }
+
+    /**
+     * Gets the number of poll requests sent so far.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Stops tracking all queries, closes their statement clients and releases
+     * the monitor's thread and connections.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Tracked tracked : active) {
+            tracked.stop(new TrinoException("Query monitor is closed"));
+        }
+        scheduler.shutdownNow();
+        if (ownsTransport) {
+            transport.close();
+        }
+    }
+
+    /**
+     * What a single poll observed about a query.
+     */
+    private static final class Observation {
+        final String queryId;
+        final TrinoStats stats;
+        final TrinoError error;
+        final boolean done;
+        /** Whether the poll returned rows, so more may be waiting */
+        final boolean hasData;
+
+        Observation(String queryId, TrinoStats stats, TrinoError error, boolean done, boolean hasData) {
+            this.queryId = queryId;
+            this.stats = stats;
+            this.error = error;
+            this.done = done;
+            this.hasData = hasData;
+        }
+    }
+
+    /**
+     * State of a single tracked query. Apart from {@link #stop(Throwable)},
+     * only accessed on the scheduler thread.
+     */
+    private abstract class Tracked {
+        final CompletableFuture<QueryStatus> completion = new CompletableFuture<>();
+        final long trackedNanos = System.nanoTime();
+        volatile QueryStatus status;
+        /** Id of the query (null until a statement client's submission returns) */
+        volatile String queryId;
+        private ScheduledFuture<?> nextPoll;
+        private int polls;
+        private int failures;
+        /** Progress at the last poll where it changed, and when that poll returned */
+        private double anchorProgress = -1;
+        private long anchorNanos;
+        /** Progress per nanosecond between the last two changes of progress */
+        private double progressRate;
+
+        /**
+         * Sends one poll.
+         *
+         * @return a future completed with what the poll observed
+         */
+        abstract CompletableFuture<Observation> fetch();
+
+        /**
+         * Checks whether polling may continue after a failed poll.
+         */
+        abstract boolean isRetriable(Throwable error);
+
+        /**
+         * Releases the resources of the query once it is no longer tracked.
+         */
+        abstract void release();
+
+        void poll() {
+            if (completion.isDone()) {
+                return;
+            }
+            requests.increment();
+            CompletableFuture<Observation> future;
+            try {
+                future = fetch();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenCompleteAsync(this::onResult, scheduler);
+        }
+
+        private void onResult(Observation observation, Throwable error) {
+            if (completion.isDone()) {
+                return;
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (++failures >= MAX_CONSECUTIVE_FAILURES || !isRetriable(cause)) {
+                    stop(cause);
+                } else {
+                    log.debug("Poll of query {} failed, retrying", queryId, cause);
+                    schedule(Math.min(maxIntervalNanos, minIntervalNanos << failures));
+                }
+                return;
+            }
+
+            failures = 0;
+            polls++;
+            long now = System.nanoTime();
+            double progress = estimateProgress(observation.stats);
+            Duration remaining = estimateRemaining(progress, now, observation.stats);
+            status = new QueryStatus(observation.queryId, observation.stats, observation.error, progress, remaining,
+                    polls, observation.done);
+            if (queryId == null && observation.queryId != null) {
+                identify(observation.queryId);
+            }
+            if (listener != null) {
+                try {
+                    listener.accept(status);
+                } catch (RuntimeException e) {
+                    log.warn("Query status listener failed", e);
+                }
+            }
+
+            if (observation.done) {
+                finish();
+            } else if (observation.hasData) {
+                schedule(minIntervalNanos);
+            } else {
+                schedule(nextIntervalNanos(observation.stats, remaining, now));
+            }
+        }
+
+        private double estimateProgress(TrinoStats stats) {
+            if (stats == null) {
+                return -1;
+            }
+            if ("FINISHED".equals(stats.getState())) {
+                return 1;
+            }
+            if (stats.getProgressPercentage() != null) {
+                return Math.max(0, Math.min(1, stats.getProgressPercentage() / 100));
+            }
+            Integer total = stats.getTotalSplits();
+            Integer completed = stats.getCompletedSplits();
+            if (total != null && total > 0 && completed != null) {
+                return Math.min(1, (double) completed / total);
+            }
+            return "QUEUED".equals(stats.getState()) ? 0 : -1;
+        }
+
+        private Duration estimateRemaining(double progress, long now, TrinoStats stats) {
+            if (progress >= 1) {
+                return Duration.ZERO;
+            }
+            if (progress < 0) {
+                return null;
+            }
+            if (progress != anchorProgress) {
+                if (anchorProgress >= 0 && progress > anchorProgress) {
+                    progressRate = (progress - anchorProgress) / (now - anchorNanos);
+                }
+                anchorProgress = progress;
+                anchorNanos = now;
+            }
+            if (progressRate > 0) {
+                long remainingNanos = (long) ((1 - anchorProgress) / progressRate) - (now - anchorNanos);
+                return Duration.ofNanos(Math.max(0, remainingNanos));
+            }
+            // Until progress has moved between polls, assume it moves as fast as it did so far
+            Long elapsedMillis = stats.getElapsedTimeMillis();
+            if (progress > 0 && elapsedMillis != null) {
+                return Duration.ofMillis((long) (elapsedMillis * (1 - progress) / progress));
+            }
+            return null;
+        }
+
+        private long nextIntervalNanos(TrinoStats stats, Duration remaining, long now) {
+            Long elapsedMillis = stats != null ? stats.getElapsedTimeMillis() : null;
+            long ageNanos = elapsedMillis != null ? TimeUnit.MILLISECONDS.toNanos(elapsedMillis) : now - trackedNanos;
+            long interval = (long) (ageNanos * intervalFraction);
+            if (remaining != null) {
+                interval = Math.min(interval, remaining.toNanos() / 2);
+            }
+            return Math.max(minIntervalNanos, Math.min(maxIntervalNanos, interval));
+        }
+
+        private void schedule(long delayNanos) {
+            try {
+                nextPoll = scheduler.schedule(this::poll, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // The monitor was closed concurrently
+                stop(new TrinoException("Query monitor is closed", e));
+            }
+        }
+
+        // The query is untracked before its future completes, so callers see it gone
+        private void finish() {
+            if (!completion.isDone()) {
+                untrack();
+                completion.complete(status);
+            }
+        }
+
+        void stop(Throwable error) {
+            if (!completion.isDone()) {
+                ScheduledFuture<?> poll = nextPoll;
+                if (poll != null) {
+                    poll.cancel(false);
+                }
+                untrack();
+                completion.completeExceptionally(error);
+            }
+        }
+
+        /**
+         * Makes the query known by its id.
+         *
+         * @return the query already tracked with the same id, or null
+         */
+        Tracked identify(String id) {
+            queryId = id;
+            return byId.putIfAbsent(id, this);
+        }
+
+        private void untrack() {
+            active.remove(this);
+            String id = queryId;
+            if (id != null) {
+                byId.remove(id, this);
+            }
+            release();
+        }
+    }
+
+    /**
+     * A query tracked by id through {@code /v1/query/{queryId}}.
+     */
+    private final class InfoTracked extends Tracked {
+        private final URI uri;
+
+        InfoTracked(String queryId) {
+            String server = session.getServer().toString().replaceAll("/+$", "");
+            // Pruned query info leaves out the stage tree, which is most of its size
+            this.uri = URI.create(server + "/v1/query/" + URLEncoder.encode(queryId, StandardCharsets.UTF_8)
+                    + "?pruned=true");
+        }
+
+        @Override
+        CompletableFuture<Observation> fetch() {
+            SimpleHttpRequest request = SimpleRequestBuilder.get(uri)
+                    .setHeader("X-Trino-User", session.getUser())
+                    .setHeader("X-Trino-Source", session.getSource())
+                    .setHeader("Accept", "application/json")
+                    .build();
+            return transport.execute(request).thenApply(this::parse);
+        }
+
+        private Observation parse(SimpleHttpResponse response) {
+            int code = response.getCode();
+            if (code == 404 || code == 410) {
+                throw new TrinoException("Query " + queryId + " is not known to " + session.getServer());
+            }
+            if (code != 200) {
+                throw new CompletionException(new IOException(
+                        "Unexpected status " + code + " for query info of " + queryId));
+            }
+            JsonObject info;
+            try {
+                info = JsonParser.parseString(response.getBodyText()).getAsJsonObject();
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new TrinoException("Invalid query info for " + queryId, e);
+            }
+            TrinoStats stats = QueryInfoParser.parseStats(info);
+            TrinoError error = QueryInfoParser.parseError(info);
+            boolean done = "FINISHED".equals(stats.getState()) || "FAILED".equals(stats.getState());
+            return new Observation(queryId, stats, error, done, false);
+        }
+
+        @Override
+        boolean isRetriable(Throwable error) {
+            return !(error instanceof TrinoException);
+        }
+
+        @Override
+        void release() {
+            // Nothing is held for queries tracked by id
+        }
+    }
+
+    /**
+     * A query tracked through the {@code nextUri} of its statement client.
+     */
+    private final class StatementTracked extends Tracked {
+        private final StatementClient client;
+
+        StatementTracked(StatementClient client) {
+            this.client = client;
+        }
+
+        @Override
+        CompletableFuture<Observation> fetch() {
+            CompletableFuture<StatementResponse> future = client.getCurrentResponse() == null
+                    ? client.executeAsync(transport)
+                    : client.advanceAsync(transport);
+            return future.thenApply(response -> new Observation(response.getId(), response.getStats(),
+                    response.getError(), client.getState() != QueryState.RUNNING, response.hasData()));
+        }
+
+        @Override
+        boolean isRetriable(Throwable error) {
+            return client.getState() == QueryState.RUNNING && !(error instanceof TrinoException);
+        }
+
+        @Override
+        void release() {
+            client.close();
+        }
+    }
+
+    /**
+     * Builder class for creating QueryMonitor instances.
+     */
+    public static class Builder {
+        private ClientSession session;
+        private HttpTransport transport;
+        private Duration minInterval = DEFAULT_MIN_INTERVAL;
+        private Duration maxInterval = DEFAULT_MAX_INTERVAL;
+        private double intervalFraction = DEFAULT_INTERVAL_FRACTION;
+        private Consumer<QueryStatus> listener;
+
+        /**
+         * Sets the session whose coordinator and user are used to look up
+         * queries tracked by id.
+         *
+         * @param session the session
+         * @return this builder
+         */
+        public Builder session(ClientSession session) {
+            this.session = session;
+            return this;
+        }
+
+        /**
+         * Sets a transport to share with other schedulers or clients instead of
+         * creating one. The transport is not closed with the monitor.
+         *
+         * @param transport the shared transport
+         * @return this builder
+         */
+        public Builder transport(HttpTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets the shortest interval between polls of a query (default: 1s).
+         *
+         * @param minInterval the minimum interval
+         * @return this builder
+         */
+        public Builder minInterval(Duration minInterval) {
+            this.minInterval = minInterval;
+            return this;
+        }
+
+        /**
+         * Sets the longest interval between polls of a query (default: 30s).
+         * Statement clients must be polled within the coordinator's client
+         * timeout, or it abandons their queries.
+         *
+         * @param maxInterval the maximum interval
+         * @return this builder
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of a query's elapsed time waited before polling it
+         * again (default: 0.1), within the minimum and maximum intervals.
+         *
+         * @param intervalFraction the fraction
+         * @return this builder
+         */
+        public Builder intervalFraction(double intervalFraction) {
+            this.intervalFraction = intervalFraction;
+            return this;
+        }
+
+        /**
+         * Sets a listener receiving the status of a query after every poll.
+         * It runs on the monitor's thread, so it should return quickly.
+         *
+         * @param listener the listener
+         * @return this builder
+         */
+        public Builder listener(Consumer<QueryStatus> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new QueryMonitor.
+         *
+         * @return a new QueryMonitor instance
+         */
+        public QueryMonitor build() {
+            return new QueryMonitor(this);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.haiphamcoder.trino.client.monitor;
+
+import java.time.Duration;
+
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * Snapshot of a query tracked by a {@link QueryMonitor}, as of its latest
+ * poll.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class QueryStatus {
+    private final String queryId;
+    private final TrinoStats stats;
+    private final TrinoError error;
+    private final double progress;
+    private final Duration estimatedRemaining;
+    private final int polls;
+    private final boolean done;
+
+    QueryStatus(String queryId, TrinoStats stats, TrinoError error, double progress, Duration estimatedRemaining,
+            int polls, boolean done) {
+        this.queryId = queryId;
+        this.stats = stats;
+        this.error = error;
+        this.progress = progress;
+        this.estimatedRemaining = estimatedRemaining;
+        this.polls = polls;
+        this.done = done;
+    }
+
+    public String getQueryId() {
+        return queryId;
+    }
+
+    /**
+     * Gets the statistics reported by the coordinator.
+     *
+     * @return the statistics, or null if the coordinator reported none
+     */
+    public TrinoStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Gets the server-side state of the query, such as {@code QUEUED},
+     * {@code RUNNING}, {@code FINISHED} or {@code FAILED}.
+     *
+     * @return the state, or null if the coordinator reported none
+     */
+    public String getState() {
+        return stats != null ? stats.getState() : null;
+    }
+
+    /**
+     * Gets the error of a failed query.
+     *
+     * @return the error, or null if the query has not failed
+     */
+    public TrinoError getError() {
+        return error;
+    }
+
+    /**
+     * Gets the estimated fraction of the query's work completed: the
+     * coordinator's progress percentage when it reports one, otherwise the
+     * fraction of completed splits.
+     *
+     * @return the progress between 0 and 1, or -1 if it cannot be estimated yet
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    /**
+     * Gets the estimated time until the query finishes, extrapolated from how
+     * fast its progress moved between recent polls.
+     *
+     * @return the estimate, or null if it cannot be estimated yet
+     */
+    public Duration getEstimatedRemaining() {
+        return estimatedRemaining;
+    }
+
+    /** Number of successful polls of the query so far */
+    public int getPolls() {
+        return polls;
+    }
+
+    /** Whether the query reached a final state; no further polls are made */
+    public boolean isDone() {
+        return done;
+    }
+
+    /** Whether the query failed or was cancelled */
+    public boolean isFailed() {
+        return error != null || "FAILED".equals(getState());
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStatus{queryId=" + queryId + ", state=" + getState() + ", progress=" + progress
+                + ", estimatedRemaining=" + estimatedRemaining + ", polls=" + polls + '}';
+    }
+}
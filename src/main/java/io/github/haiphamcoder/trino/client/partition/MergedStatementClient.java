@@ -0,0 +1,566 @@
+package io.github.haiphamcoder.trino.client.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.admission.AdmissionPermit;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.model.TrinoColumn;
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.protocol.HttpTransport;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+
+/**
+ * Statement client returning the merged rows of the partitions of a
+ * {@link PartitionedQuery}, so that they can be read through one
+ * {@link TrinoResultSet}.
+ *
+ * <p>
+ * Each partition runs as its own query through
+ * {@link TrinoClient#execute(String)} on a reader thread, which copies rows
+ * into chunks and hands them over through a bounded queue; a reader waits
+ * when the consumer falls behind. Unordered queries share one queue and pages
+ * are returned in arrival order. Ordered queries have one queue per partition
+ * and pages are produced by a k-way merge on the sort keys. The partitions of
+ * an ordered query may be admitted up front, in which case each reader holds
+ * its partition's permit until the partition is done.
+ *
+ * <p>
+ * A failing partition is run again, up to
+ * {@link PartitionedQuery#getMaxRetries()} times, without affecting the other
+ * partitions. Ordered partitions skip the rows they had already handed over,
+ * which assumes that the sort keys order the partition's rows
+ * deterministically. Unordered partitions are retried only if they had not
+ * handed over any rows yet. Admission rejections are never retried. Other
+ * failures are thrown from {@link #advance()}
+ * once the consumer reaches them.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see TrinoClient#executePartitioned(PartitionedQuery)
+ */
+public class MergedStatementClient extends StatementClient {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(MergedStatementClient.class);
+    /** How often blocked readers and the consumer check whether the query was stopped */
+    private static final long STOP_CHECK_MILLIS = 100;
+    /** Cursor returned by {@link #nextCursor} when the query was stopped */
+    private static final Cursor CURSOR_STOPPED = new Cursor(null, List.of(), true);
+
+    /** Runs the query of one partition */
+    private final Function<String, TrinoResultSet> runner;
+    private final PartitionedQuery query;
+    private final Executor executor;
+    private final PartitionReader[] readers;
+    /** Queue shared by all partitions of an unordered query, or null */
+    private final BlockingQueue<Chunk> sharedQueue;
+    /** Index of the next partition to be picked up by a reader */
+    private final AtomicInteger nextPartition = new AtomicInteger();
+
+    private volatile StatementResponse currentResponse;
+    private volatile QueryState state = QueryState.RUNNING;
+    private volatile boolean stopped;
+    private volatile boolean cancelled;
+
+    // Consumer state, accessed only by the thread reading the result set
+    private List<TrinoColumn> columns;
+    private int[] sortKeyIndexes;
+    private int finishedPartitions;
+    private PriorityQueue<Cursor> merge;
+    private int pages;
+
+    /**
+     * Constructs a new MergedStatementClient. The partitions start running on
+     * the first call to {@link #execute()}.
+     *
+     * @param runner   runs the query of one partition, such as
+     *                 {@link TrinoClient#execute(String)}
+     * @param session  the session of the client
+     * @param query    the partitioned query
+     * @param executor the executor running the partition readers
+     * @param permits  the permits the partitions were admitted with, by
+     *                 partition, or null if the runner admits each query
+     */
+    public MergedStatementClient(Function<String, TrinoResultSet> runner, ClientSession session,
+            PartitionedQuery query, Executor executor, List<AdmissionPermit> permits) {
+        super(session, query.getSql(), false);
+        this.runner = runner;
+        this.query = query;
+        this.executor = executor;
+        this.sharedQueue = query.isOrdered() ? null
+                : new ArrayBlockingQueue<>(query.getBufferedChunks() * query.getParallelism());
+
+        List<Partition> partitions = query.getPartitions();
+        this.readers = new PartitionReader[partitions.size()];
+        for (int i = 0; i < readers.length; i++) {
+            BlockingQueue<Chunk> queue = query.isOrdered() ? new ArrayBlockingQueue<>(query.getBufferedChunks())
+                    : sharedQueue;
+            readers[i] = new PartitionReader(i, partitions.get(i), queue, permits != null ? permits.get(i) : null);
+        }
+    }
+
+    @Override
+    public StatementResponse execute() {
+        if (currentResponse != null) {
+            throw new TrinoException("Statement already executed");
+        }
+        for (int i = 0; i < query.getParallelism(); i++) {
+            executor.execute(this::work);
+        }
+        return nextPage();
+    }
+
+    @Override
+    public StatementResponse advance() {
+        if (currentResponse == null) {
+            throw new TrinoException("No current response. Call execute() first.");
+        }
+        if (state != QueryState.RUNNING) {
+            return currentResponse;
+        }
+        return nextPage();
+    }
+
+    private StatementResponse nextPage() {
+        List<List<Object>> rows;
+        try {
+            rows = query.isOrdered() ? mergeRows() : takeRows();
+        } catch (RuntimeException e) {
+            state = QueryState.CLIENT_ERROR;
+            stop();
+            throw e;
+        }
+
+        StatementResponse page = new StatementResponse();
+        page.setColumns(columns);
+        if (rows != null && !rows.isEmpty()) {
+            page.setData(rows);
+        }
+        boolean finished = query.isOrdered() ? merge.isEmpty() : finishedPartitions == readers.length;
+        if (rows == null) {
+            state = QueryState.CLIENT_ABORTED;
+        } else if (finished) {
+            state = QueryState.FINISHED;
+        } else {
+            // Any non-null next URI keeps the result set reading; it is never requested
+            page.setNextUri("partitioned:" + (++pages));
+        }
+        currentResponse = page;
+        return page;
+    }
+
+    /**
+     * Takes the rows of the next chunk of any partition.
+     *
+     * @return the rows, or null if the query was stopped
+     */
+    private List<List<Object>> takeRows() {
+        while (finishedPartitions < readers.length) {
+            Chunk chunk = take(sharedQueue);
+            if (chunk == null) {
+                return null;
+            }
+            if (chunk.end) {
+                finishedPartitions++;
+            }
+            if (!chunk.rows.isEmpty()) {
+                return chunk.rows;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Merges up to one chunk of rows from the heads of all partitions.
+     *
+     * @return the rows, or null if the query was stopped
+     */
+    private List<List<Object>> mergeRows() {
+        if (merge == null) {
+            merge = new PriorityQueue<>(readers.length, this::compare);
+            for (PartitionReader reader : readers) {
+                Cursor cursor = nextCursor(reader);
+                if (cursor == CURSOR_STOPPED) {
+                    return null;
+                }
+                if (cursor != null) {
+                    merge.add(cursor);
+                }
+            }
+        }
+
+        List<List<Object>> rows = new ArrayList<>(query.getChunkRows());
+        while (rows.size() < query.getChunkRows() && !merge.isEmpty()) {
+            Cursor cursor = merge.poll();
+            rows.add(cursor.rows.get(cursor.position++));
+            if (cursor.position < cursor.rows.size()) {
+                merge.add(cursor);
+            } else if (!cursor.last) {
+                Cursor next = nextCursor(cursor.reader);
+                if (next == CURSOR_STOPPED) {
+                    return null;
+                }
+                if (next != null) {
+                    merge.add(next);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Waits for the next chunk of a partition with rows.
+     *
+     * @return a cursor over the chunk, null if the partition has no more rows, or
+     *         {@link #CURSOR_STOPPED} if the query was stopped
+     */
+    private Cursor nextCursor(PartitionReader reader) {
+        for (;;) {
+            Chunk chunk = take(reader.queue);
+            if (chunk == null) {
+                return CURSOR_STOPPED;
+            }
+            if (!chunk.rows.isEmpty()) {
+                return new Cursor(reader, chunk.rows, chunk.end);
+            }
+            if (chunk.end) {
+                return null;
+            }
+        }
+    }
+
+    private Chunk take(BlockingQueue<Chunk> queue) {
+        try {
+            while (!stopped) {
+                Chunk chunk = queue.poll(STOP_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    if (chunk.failure != null) {
+                        throw chunk.failure;
+                    }
+                    if (columns == null && chunk.columns != null) {
+                        setColumns(chunk.columns);
+                    }
+                    return chunk;
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting for partition rows", e);
+        }
+    }
+
+    private void setColumns(List<TrinoColumn> columns) {
+        this.columns = columns;
+        if (!query.isOrdered()) {
+            return;
+        }
+        List<SortKey> sortKeys = query.getSortKeys();
+        sortKeyIndexes = new int[sortKeys.size()];
+        for (int i = 0; i < sortKeyIndexes.length; i++) {
+            sortKeyIndexes[i] = indexOf(columns, sortKeys.get(i).getColumn());
+        }
+    }
+
+    private static int indexOf(List<TrinoColumn> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new TrinoException("Sort key column not found in result: " + name);
+    }
+
+    private int compare(Cursor left, Cursor right) {
+        List<Object> leftRow = left.rows.get(left.position);
+        List<Object> rightRow = right.rows.get(right.position);
+        List<SortKey> sortKeys = query.getSortKeys();
+        for (int i = 0; i < sortKeyIndexes.length; i++) {
+            int index = sortKeyIndexes[i];
+            int result = sortKeys.get(i).compare(leftRow.get(index), rightRow.get(index));
+            if (result != 0) {
+                return result;
+            }
+        }
+        // Ties are broken by partition so that the merge is deterministic
+        return Integer.compare(left.reader.index, right.reader.index);
+    }
+
+    private void work() {
+        int index;
+        while (!stopped && (index = nextPartition.getAndIncrement()) < readers.length) {
+            readers[index].run();
+        }
+    }
+
+    /**
+     * Stops the partition readers, cancels their running queries and releases
+     * the permits of their partitions.
+     */
+    private void stop() {
+        stopped = true;
+        for (PartitionReader reader : readers) {
+            TrinoResultSet resultSet = reader.resultSet;
+            if (resultSet != null) {
+                resultSet.cancel();
+            }
+            reader.queue.clear();
+            reader.releasePermit();
+        }
+    }
+
+    /**
+     * Asynchronous execution is not supported for partitioned queries.
+     */
+    @Override
+    public CompletableFuture<StatementResponse> executeAsync(HttpTransport transport) {
+        return CompletableFuture.failedFuture(new TrinoException("Partitioned queries cannot be driven asynchronously"));
+    }
+
+    /**
+     * Asynchronous execution is not supported for partitioned queries.
+     */
+    @Override
+    public CompletableFuture<StatementResponse> advanceAsync(HttpTransport transport) {
+        return CompletableFuture.failedFuture(new TrinoException("Partitioned queries cannot be driven asynchronously"));
+    }
+
+    /**
+     * Cancels the queries of all partitions. This method may be called from
+     * another thread while the result set is being read; reading then stops.
+     */
+    @Override
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (state == QueryState.RUNNING) {
+            state = QueryState.CLIENT_ABORTED;
+        }
+        stop();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public QueryState getState() {
+        return state;
+    }
+
+    @Override
+    public StatementResponse getCurrentResponse() {
+        return currentResponse;
+    }
+
+    /**
+     * Stops the partition readers, cancelling the queries of partitions that
+     * have not finished.
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Reads one partition, running its query again on retryable failures.
+     */
+    private class PartitionReader {
+        private final int index;
+        private final Partition partition;
+        private final BlockingQueue<Chunk> queue;
+        /** Permit the partition was admitted with, until it is released */
+        private final AtomicReference<AdmissionPermit> permit;
+        /** Number of rows handed over to the consumer */
+        private long delivered;
+        private int attempts;
+        private String queryId;
+        private volatile TrinoResultSet resultSet;
+
+        PartitionReader(int index, Partition partition, BlockingQueue<Chunk> queue, AdmissionPermit permit) {
+            this.index = index;
+            this.partition = partition;
+            this.queue = queue;
+            this.permit = new AtomicReference<>(permit);
+        }
+
+        void run() {
+            long start = System.nanoTime();
+            try {
+                while (!stopped) {
+                    try {
+                        read(start);
+                        return;
+                    } catch (RuntimeException e) {
+                        if (stopped) {
+                            return;
+                        }
+                        if (!shouldRetry(e)) {
+                            log.warn("Partition {} failed after {} attempts", partition, attempts + 1, e);
+                            report(start, e);
+                            offer(new Chunk(null, List.of(), true, e));
+                            return;
+                        }
+                        attempts++;
+                        log.warn("Partition {} failed, retrying (retry {} of {}): {}", partition, attempts,
+                                query.getMaxRetries(), e.getMessage());
+                    }
+                }
+            } finally {
+                releasePermit();
+            }
+        }
+
+        void releasePermit() {
+            AdmissionPermit held = permit.getAndSet(null);
+            if (held != null) {
+                held.close();
+            }
+        }
+
+        private void report(long start, RuntimeException error) {
+            Consumer<PartitionStats> listener = query.getListener();
+            if (listener == null) {
+                return;
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            try {
+                listener.accept(new PartitionStats(partition, index, queryId, delivered, attempts + 1, elapsedMillis,
+                        error));
+            } catch (RuntimeException e) {
+                log.warn("Partition listener failed", e);
+            }
+        }
+
+        /**
+         * Runs the partition query once and hands its rows over. Success is
+         * reported before the last chunk, so that it precedes the end of the
+         * merged result set.
+         */
+        private void read(long start) {
+            // Rows already handed over on a previous attempt are skipped
+            long skip = delivered;
+            try (TrinoResultSet resultSet = runner.apply(query.sqlFor(partition))) {
+                this.resultSet = resultSet;
+                if (stopped) {
+                    // The query was stopped before this result set could be cancelled
+                    resultSet.cancel();
+                    return;
+                }
+
+                List<List<Object>> rows = new ArrayList<>(query.getChunkRows());
+                while (resultSet.next()) {
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    rows.add(resultSet.getCurrentValues());
+                    if (rows.size() == query.getChunkRows()) {
+                        if (!offer(new Chunk(resultSet.getColumns(), rows, false, null))) {
+                            return;
+                        }
+                        delivered += rows.size();
+                        rows = new ArrayList<>(query.getChunkRows());
+                    }
+                }
+                resultSet.checkCompleted();
+                if (skip > 0) {
+                    throw new TrinoException("Partition " + partition + " returned fewer rows than before its retry");
+                }
+                delivered += rows.size();
+                queryId = resultSet.getQueryId();
+                report(start, null);
+                offer(new Chunk(resultSet.getColumns(), rows, true, null));
+            } finally {
+                TrinoResultSet current = this.resultSet;
+                if (current != null) {
+                    queryId = current.getQueryId();
+                }
+                this.resultSet = null;
+            }
+        }
+
+        private boolean shouldRetry(RuntimeException e) {
+            if (attempts >= query.getMaxRetries() || e instanceof AdmissionRejectedException) {
+                return false;
+            }
+            if (!query.isOrdered() && delivered > 0) {
+                // Without an order, the rows already handed over cannot be skipped on a new attempt
+                return false;
+            }
+            TrinoError error = e instanceof TrinoException ? ((TrinoException) e).getTrinoError() : null;
+            return error == null || !"USER_ERROR".equals(error.getErrorType());
+        }
+
+        private boolean offer(Chunk chunk) {
+            try {
+                while (!stopped) {
+                    if (queue.offer(chunk, STOP_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Rows handed from a partition reader to the consumer.
+     */
+    private static final class Chunk {
+        private final List<TrinoColumn> columns;
+        private final List<List<Object>> rows;
+        /** Whether this is the last chunk of the partition */
+        private final boolean end;
+        private final RuntimeException failure;
+
+        Chunk(List<TrinoColumn> columns, List<List<Object>> rows, boolean end, RuntimeException failure) {
+            this.columns = columns;
+            this.rows = rows;
+            this.end = end;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Position of the merge within the current chunk of a partition.
+     */
+    private static final class Cursor {
+        private final PartitionReader reader;
+        private final List<List<Object>> rows;
+        /** Whether the chunk is the last of the partition */
+        private final boolean last;
+        private int position;
+
+        Cursor(PartitionReader reader, List<List<Object>> rows, boolean last) {
+            this.reader = reader;
+            this.rows = rows;
+            this.last = last;
+        }
+    }
+}
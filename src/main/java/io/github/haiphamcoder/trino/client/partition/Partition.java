@@ -0,0 +1,141 @@
+package io.github.haiphamcoder.trino.client.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.haiphamcoder.trino.client.sql.SqlLiterals;
+
+/**
+ * One slice of a {@link PartitionedQuery}: a name used in logs and errors and
+ * a SQL predicate substituted for the {@code {partition}} placeholder of the
+ * query template.
+ *
+ * <p>
+ * Column arguments are inserted into the predicate as written, so they may be
+ * any SQL expression; quote identifiers that need it. Range and hash
+ * predicates never match rows where the column is null; add
+ * {@code Partition.of("nulls", "col IS NULL")} if those rows are needed.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class Partition {
+    private final String name;
+    private final String predicate;
+
+    private Partition(String name, String predicate) {
+        this.name = Objects.requireNonNull(name, "name is null");
+        this.predicate = Objects.requireNonNull(predicate, "predicate is null");
+    }
+
+    /**
+     * Creates a partition from an arbitrary predicate.
+     *
+     * @param name      the partition name
+     * @param predicate the SQL predicate selecting the rows of the partition
+     * @return the partition
+     */
+    public static Partition of(String name, String predicate) {
+        return new Partition(name, predicate);
+    }
+
+    /**
+     * Creates a partition selecting rows with {@code lower <= column < upper}.
+     * Bounds are rendered with {@link SqlLiterals#render(Object)}.
+     *
+     * @param column the partition column
+     * @param lower  the inclusive lower bound, or null for no lower bound
+     * @param upper  the exclusive upper bound, or null for no upper bound
+     * @return the partition
+     */
+    public static Partition range(String column, Object lower, Object upper) {
+        String predicate;
+        if (lower == null && upper == null) {
+            predicate = column + " IS NOT NULL";
+        } else if (lower == null) {
+            predicate = column + " < " + SqlLiterals.render(upper);
+        } else if (upper == null) {
+            predicate = column + " >= " + SqlLiterals.render(lower);
+        } else {
+            predicate = column + " >= " + SqlLiterals.render(lower) + " AND " + column + " < "
+                    + SqlLiterals.render(upper);
+        }
+        return new Partition(column + "[" + (lower != null ? lower : "") + ".." + (upper != null ? upper : "") + ")",
+                predicate);
+    }
+
+    /**
+     * Splits {@code [min, max]} into contiguous ranges of about the same width.
+     * The first range has no lower bound and the last has no upper bound, so
+     * rows outside the estimate are still read.
+     *
+     * @param column the integer partition column
+     * @param min    the estimated minimum value of the column
+     * @param max    the estimated maximum value of the column
+     * @param count  the number of ranges
+     * @return the partitions, in ascending order of their ranges
+     */
+    public static List<Partition> ranges(String column, long min, long max, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        if (max < min) {
+            throw new IllegalArgumentException("max must not be less than min");
+        }
+
+        // Widths are computed in double so that ranges spanning the whole long domain do not overflow
+        double width = ((double) max - (double) min + 1) / count;
+        List<Partition> partitions = new ArrayList<>(count);
+        Long lower = null;
+        for (int i = 1; i <= count; i++) {
+            Long upper = i == count ? null : (long) Math.floor(min + width * i);
+            if (upper != null && lower != null && upper <= lower) {
+                // More ranges than distinct values; skip empty ranges
+                continue;
+            }
+            partitions.add(range(column, lower, upper));
+            lower = upper;
+        }
+        return partitions;
+    }
+
+    /**
+     * Splits rows into buckets by a hash of the column, for columns without a
+     * useful range. Each bucket is
+     * {@code mod(hash(column), count) = bucket}, where the hash is the
+     * non-negative {@code xxhash64} of the column cast to varchar.
+     *
+     * @param column the partition column
+     * @param count  the number of buckets
+     * @return the partitions
+     */
+    public static List<Partition> hashBuckets(String column, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        // The sign bit is cleared rather than taking abs(), which overflows for the minimum value
+        String hash = "bitwise_and(from_big_endian_64(xxhash64(to_utf8(CAST(" + column
+                + " AS varchar)))), 9223372036854775807)";
+        List<Partition> partitions = new ArrayList<>(count);
+        for (int bucket = 0; bucket < count; bucket++) {
+            partitions.add(new Partition(column + "#" + bucket + "/" + count,
+                    "mod(" + hash + ", " + count + ") = " + bucket));
+        }
+        return partitions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPredicate() {
+        return predicate;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.haiphamcoder.trino.client.partition;
+
+/**
+ * Outcome of one partition of a {@link PartitionedQuery}, reported once the
+ * partition has been read completely or has failed for good.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class PartitionStats {
+    private final Partition partition;
+    private final int index;
+    private final String queryId;
+    private final long rows;
+    private final int attempts;
+    private final long elapsedMillis;
+    private final RuntimeException error;
+
+    PartitionStats(Partition partition, int index, String queryId, long rows, int attempts, long elapsedMillis,
+            RuntimeException error) {
+        this.partition = partition;
+        this.index = index;
+        this.queryId = queryId;
+        this.rows = rows;
+        this.attempts = attempts;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Gets the position of the partition in {@link PartitionedQuery#getPartitions()}.
+     *
+     * @return the partition index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the ID of the query of the last attempt.
+     *
+     * @return the query ID, or null if no query was submitted
+     */
+    public String getQueryId() {
+        return queryId;
+    }
+
+    /**
+     * Gets the number of rows handed over to the merged result set.
+     *
+     * @return the number of rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of times the partition query was run, including retries.
+     *
+     * @return the number of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the time from the first submission to the end of the last attempt,
+     * including time spent waiting for the consumer.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the failure of the last attempt.
+     *
+     * @return the failure, or null if the partition succeeded
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionStats{partition=" + partition + ", queryId=" + queryId + ", rows=" + rows + ", attempts="
+                + attempts + ", elapsedMillis=" + elapsedMillis + (error != null ? ", error=" + error : "") + "}";
+    }
+}
@@ -0,0 +1,250 @@
+package io.github.haiphamcoder.trino.client.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A query split into partitions that run as concurrent sub-queries and whose
+ * rows are merged into one result set.
+ *
+ * <p>
+ * The SQL template contains a {@value #PLACEHOLDER} placeholder that is
+ * replaced by the predicate of each partition. Without sort keys, rows are
+ * returned in whatever order the partitions produce them. With sort keys, the
+ * template must order its rows by the same keys and the partitions are merged
+ * into one sorted stream.
+ *
+ * <pre>{@code
+ * PartitionedQuery query = PartitionedQuery.builder()
+ *         .sql("SELECT * FROM orders WHERE {partition} ORDER BY orderkey")
+ *         .partitions(Partition.ranges("orderkey", 1, 6_000_000, 8))
+ *         .sortKeys(SortKey.asc("orderkey"))
+ *         .build();
+ * try (TrinoResultSet resultSet = client.executePartitioned(query)) {
+ *     while (resultSet.next()) {
+ *         // Process resultSet.getCurrentRow()
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class PartitionedQuery {
+    /** Placeholder replaced by the predicate of each partition */
+    public static final String PLACEHOLDER = "{partition}";
+    /** Default maximum number of attempts of a failing partition beyond the first */
+    public static final int DEFAULT_MAX_RETRIES = 2;
+    /** Default number of rows handed from a partition to the merge at once */
+    public static final int DEFAULT_CHUNK_ROWS = 1024;
+    /** Default number of chunks buffered for each partition */
+    public static final int DEFAULT_BUFFERED_CHUNKS = 4;
+
+    private final String sql;
+    private final List<Partition> partitions;
+    private final List<SortKey> sortKeys;
+    private final int parallelism;
+    private final int maxRetries;
+    private final int chunkRows;
+    private final int bufferedChunks;
+    private final Consumer<PartitionStats> listener;
+
+    private PartitionedQuery(Builder builder) {
+        if (builder.sql == null || !builder.sql.contains(PLACEHOLDER)) {
+            throw new IllegalArgumentException("sql must contain the " + PLACEHOLDER + " placeholder");
+        }
+        if (builder.partitions.isEmpty()) {
+            throw new IllegalArgumentException("at least one partition is required");
+        }
+        int parallelism = builder.parallelism != null ? builder.parallelism : builder.partitions.size();
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (!builder.sortKeys.isEmpty() && parallelism < builder.partitions.size()) {
+            // The merge needs the next row of every partition, so every partition must be running
+            throw new IllegalArgumentException("ordered queries require parallelism of at least the partition count");
+        }
+        if (builder.maxRetries < 0 || builder.chunkRows <= 0 || builder.bufferedChunks <= 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative and chunk sizes must be positive");
+        }
+        this.sql = builder.sql;
+        this.partitions = List.copyOf(builder.partitions);
+        this.sortKeys = List.copyOf(builder.sortKeys);
+        this.parallelism = Math.min(parallelism, partitions.size());
+        this.maxRetries = builder.maxRetries;
+        this.chunkRows = builder.chunkRows;
+        this.bufferedChunks = builder.bufferedChunks;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Creates a new Builder for constructing a PartitionedQuery.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the SQL of the sub-query reading one partition.
+     *
+     * @param partition the partition
+     * @return the SQL with the placeholder replaced by the partition predicate
+     */
+    public String sqlFor(Partition partition) {
+        return sql.replace(PLACEHOLDER, "(" + partition.getPredicate() + ")");
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+
+    public List<SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    public boolean isOrdered() {
+        return !sortKeys.isEmpty();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public int getBufferedChunks() {
+        return bufferedChunks;
+    }
+
+    public Consumer<PartitionStats> getListener() {
+        return listener;
+    }
+
+    /**
+     * Builder class for creating PartitionedQuery instances.
+     */
+    public static class Builder {
+        private String sql;
+        private final List<Partition> partitions = new ArrayList<>();
+        private final List<SortKey> sortKeys = new ArrayList<>();
+        private Integer parallelism;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private int chunkRows = DEFAULT_CHUNK_ROWS;
+        private int bufferedChunks = DEFAULT_BUFFERED_CHUNKS;
+        private Consumer<PartitionStats> listener;
+
+        /**
+         * Sets the SQL template, which must contain the
+         * {@value PartitionedQuery#PLACEHOLDER} placeholder.
+         *
+         * @param sql the SQL template
+         * @return this builder
+         */
+        public Builder sql(String sql) {
+            this.sql = sql;
+            return this;
+        }
+
+        public Builder partition(Partition partition) {
+            this.partitions.add(partition);
+            return this;
+        }
+
+        public Builder partitions(List<Partition> partitions) {
+            this.partitions.addAll(partitions);
+            return this;
+        }
+
+        /**
+         * Sets the keys the template orders its rows by, which turns on the
+         * ordered merge. The keys must name result columns.
+         *
+         * @param sortKeys the sort keys, most significant first
+         * @return this builder
+         */
+        public Builder sortKeys(SortKey... sortKeys) {
+            this.sortKeys.addAll(List.of(sortKeys));
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of partitions running at once (default: all).
+         * Ordered queries must run all partitions at once.
+         *
+         * @param parallelism the maximum number of running partitions
+         * @return this builder
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets how many times a failing partition is run again (default:
+         * {@value PartitionedQuery#DEFAULT_MAX_RETRIES}). User errors are not
+         * retried.
+         *
+         * @param maxRetries the maximum number of retries per partition
+         * @return this builder
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows handed from a partition to the merge at once
+         * (default: {@value PartitionedQuery#DEFAULT_CHUNK_ROWS}).
+         *
+         * @param chunkRows the number of rows per chunk
+         * @return this builder
+         */
+        public Builder chunkRows(int chunkRows) {
+            this.chunkRows = chunkRows;
+            return this;
+        }
+
+        /**
+         * Sets the number of chunks buffered for each partition before its
+         * reader waits for the consumer (default:
+         * {@value PartitionedQuery#DEFAULT_BUFFERED_CHUNKS}).
+         *
+         * @param bufferedChunks the number of buffered chunks per partition
+         * @return this builder
+         */
+        public Builder bufferedChunks(int bufferedChunks) {
+            this.bufferedChunks = bufferedChunks;
+            return this;
+        }
+
+        /**
+         * Sets a listener notified with the row count, attempts and timing of
+         * each partition once it has finished or failed for good. The listener
+         * runs on the partition's reader thread and should return quickly.
+         *
+         * @param listener the listener
+         * @return this builder
+         */
+        public Builder onPartitionComplete(Consumer<PartitionStats> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public PartitionedQuery build() {
+            return new PartitionedQuery(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.haiphamcoder.trino.client.partition;
+
+import java.util.Objects;
+
+/**
+ * A column of the {@code ORDER BY} clause of a {@link PartitionedQuery}, used
+ * to merge the sorted partitions into one sorted stream.
+ *
+ * <p>
+ * Values are compared as they are decoded from the JSON response: numbers
+ * numerically, booleans with false first and everything else, including dates
+ * and timestamps, by their string form. Nulls sort last, like Trino's default.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class SortKey {
+    private final String column;
+    private final boolean descending;
+    private final boolean nullsFirst;
+
+    private SortKey(String column, boolean descending, boolean nullsFirst) {
+        this.column = Objects.requireNonNull(column, "column is null");
+        this.descending = descending;
+        this.nullsFirst = nullsFirst;
+    }
+
+    /**
+     * Creates an ascending sort key with nulls last.
+     *
+     * @param column the name of the result column
+     * @return the sort key
+     */
+    public static SortKey asc(String column) {
+        return new SortKey(column, false, false);
+    }
+
+    /**
+     * Creates a descending sort key with nulls last.
+     *
+     * @param column the name of the result column
+     * @return the sort key
+     */
+    public static SortKey desc(String column) {
+        return new SortKey(column, true, false);
+    }
+
+    /**
+     * Returns this sort key with nulls sorted first, matching
+     * {@code NULLS FIRST} in the query.
+     *
+     * @return the sort key
+     */
+    public SortKey nullsFirst() {
+        return new SortKey(column, descending, true);
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean isNullsFirst() {
+        return nullsFirst;
+    }
+
+    int compare(Object left, Object right) {
+        if (left == null || right == null) {
+            if (left == right) {
+                return 0;
+            }
+            // Null placement does not depend on the direction
+            return (left == null) == nullsFirst ? -1 : 1;
+        }
+        int result = compareValues(left, right);
+        return descending ? -result : result;
+    }
+
+    private static int compareValues(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        }
+        if (left instanceof Boolean && right instanceof Boolean) {
+            return Boolean.compare((Boolean) left, (Boolean) right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.haiphamcoder.trino.client.poll;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer that keeps scheduled tasks in a hashed wheel of buckets.
+ * A single thread advances the wheel one bucket per tick and hands expired tasks
+ * to an executor, so scheduling and cancelling are O(1) regardless of how many
+ * tasks are pending. Tasks fire no earlier than their delay and at most one tick
+ * late.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class HashedTimerWheel implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    /** Length of a tick in nanoseconds */
+    private final long tickNanos;
+    /** Buckets of the wheel, only accessed by the worker thread */
+    private final ArrayDeque<Timeout>[] wheel;
+    /** Mask mapping a tick to its bucket */
+    private final int mask;
+    /** Executor running expired tasks */
+    private final Executor executor;
+    /** Timeouts scheduled since the last tick */
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    /** Number of scheduled timeouts that have not fired or been cancelled */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    /** Thread advancing the wheel */
+    private final Thread worker;
+    /** Time at which the wheel started */
+    private final long startNanos;
+    /** Whether the wheel has been stopped */
+    private volatile boolean stopped;
+
+    /**
+     * Constructs and starts a new HashedTimerWheel.
+     * 
+     * @param tickDuration the length of a tick
+     * @param unit         the unit of the tick duration
+     * @param wheelSize    the number of buckets, rounded up to a power of two
+     * @param executor     the executor running expired tasks
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, "trino-client-timer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run after the given delay.
+     * 
+     * @param task  the task to run
+     * @param delay the delay
+     * @param unit  the unit of the delay
+     * @return a handle that can cancel the task
+     * @throws IllegalStateException if the wheel has been stopped
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer wheel is stopped");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay)));
+        pendingCount.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Gets the number of scheduled tasks that have not fired or been cancelled.
+     * 
+     * @return the number of pending tasks
+     */
+    public int getPendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long deadline = startNanos + tickNanos * (tick + 1);
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0 && !stopped) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (stopped) {
+                break;
+            }
+
+            transferPending(tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPending(long currentTick) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expiryTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (expiryTick - currentTick) / wheel.length;
+            // Timeouts that are already due go into the current bucket
+            long tick = Math.max(expiryTick, currentTick);
+            wheel[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket) {
+        for (Iterator<Timeout> it = bucket.iterator(); it.hasNext();) {
+            Timeout timeout = it.next();
+            if (timeout.isCancelled()) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                it.remove();
+                if (timeout.fire()) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        executor.execute(timeout.task);
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to run timer task", e);
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Stops the wheel. Pending tasks are discarded.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Handle for a task scheduled on a {@link HashedTimerWheel}.
+     */
+    public class Timeout {
+        private static final int PENDING = 0;
+        private static final int FIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger status = new AtomicInteger(PENDING);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private boolean fire() {
+            return status.compareAndSet(PENDING, FIRED);
+        }
+
+        /**
+         * Cancels the task if it has not fired yet.
+         * 
+         * @return true if the task was cancelled
+         */
+        public boolean cancel() {
+            if (status.compareAndSet(PENDING, CANCELLED)) {
+                pendingCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return status.get() == CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.haiphamcoder.trino.client.poll;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+
+/**
+ * Handle for a query registered with a {@link PollScheduler}.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface PollHandle {
+    /**
+     * Stops driving the query, cancels it on the coordinator and closes its
+     * statement client. Does nothing once the query is done.
+     */
+    void cancel();
+
+    /**
+     * Checks whether the scheduler has stopped driving the query.
+     * 
+     * @return true if the query completed, failed or was cancelled
+     */
+    boolean isDone();
+
+    /**
+     * Gets the statement client driven by the scheduler.
+     * 
+     * @return the statement client
+     */
+    StatementClient getStatementClient();
+
+    /**
+     * Gets a future completed with the final client-side state once the scheduler
+     * stops driving the query.
+     * 
+     * @return the completion future
+     */
+    CompletableFuture<QueryState> getCompletion();
+}
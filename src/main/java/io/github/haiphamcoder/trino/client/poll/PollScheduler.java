@@ -0,0 +1,423 @@
+package io.github.haiphamcoder.trino.client.poll;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.protocol.HttpTransport;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.protocol.TransportProtocol;
+
+/**
+ * Drives many queries from a small, shared set of threads.
+ *
+ * <p>
+ * Instead of a caller thread blocking in {@link StatementClient#advance()} for
+ * every query, registered queries are polled with non-blocking HTTP requests.
+ * Responses are handed to a small worker pool that invokes the query's
+ * {@link QueryCallback} and then requests the next page: immediately when the
+ * response carried rows, or after the poll interval using a
+ * {@link HashedTimerWheel} otherwise. A waiting query therefore costs one timer
+ * slot or one in-flight request, not one thread.
+ *
+ * <pre>{@code
+ * try (PollScheduler scheduler = PollScheduler.builder().workerThreads(4).build()) {
+ *     PollHandle handle = scheduler.register(new StatementClient(session, sql), new QueryCallback() {
+ *         public void onPage(StatementClient client, StatementResponse response) {
+ *             // Process response.getData()
+ *         }
+ *     });
+ *     handle.getCompletion().join();
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class PollScheduler implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(PollScheduler.class);
+
+    /** Non-blocking HTTP transport shared by all queries */
+    private final HttpTransport transport;
+    /** Whether the transport was created by this scheduler and is closed with it */
+    private final boolean ownsTransport;
+    /** Threads running callbacks and issuing requests */
+    private final ExecutorService workers;
+    /** Timer delaying polls of queries without new rows */
+    private final HashedTimerWheel timer;
+    /** Delay before polling again after a response without rows, in nanoseconds */
+    private final long pollIntervalNanos;
+    /** Queries currently driven by this scheduler */
+    private final Set<Registration> active = ConcurrentHashMap.newKeySet();
+    /** Whether the scheduler has been closed */
+    private volatile boolean closed;
+
+    private PollScheduler(Builder builder) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(builder.workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "trino-client-poll-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = new HashedTimerWheel(builder.tickDuration.toNanos(), TimeUnit.NANOSECONDS, builder.wheelSize,
+                workers);
+        this.pollIntervalNanos = builder.pollInterval.toNanos();
+        this.ownsTransport = builder.transport == null;
+        if (builder.transport != null) {
+            this.transport = builder.transport;
+        } else if (builder.asyncClient != null) {
+            this.transport = HttpTransport.of(builder.asyncClient);
+        } else {
+            int maxConcurrentStreams = builder.maxConcurrentStreams != null ? builder.maxConcurrentStreams
+                    : builder.protocol == TransportProtocol.HTTP_2 ? HttpTransport.DEFAULT_MAX_CONCURRENT_STREAMS
+                            : Integer.MAX_VALUE;
+            this.transport = HttpTransport.builder()
+                    .protocol(builder.protocol)
+                    .maxConcurrentStreams(maxConcurrentStreams)
+                    .maxConnections(builder.maxConnections)
+                    .ioThreads(builder.ioThreads)
+                    .build();
+        }
+    }
+
+    /**
+     * Creates a new Builder for constructing a PollScheduler.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registers a query to be driven by this scheduler.
+     * If the statement has not been executed yet, it is submitted first;
+     * otherwise its current response is delivered to the callback before the
+     * next page is requested. The scheduler closes the statement client once the
+     * query completes.
+     *
+     * @param client   the statement client
+     * @param callback the callback receiving pages and state transitions
+     * @return a handle for the registered query
+     * @throws IllegalStateException if the scheduler has been closed
+     */
+    public PollHandle register(StatementClient client, QueryCallback callback) {
+        if (closed) {
+            throw new IllegalStateException("Poll scheduler is closed");
+        }
+        Registration registration = new Registration(client, callback);
+        active.add(registration);
+        workers.execute(registration::start);
+        return registration;
+    }
+
+    /**
+     * Gets the number of queries currently driven by this scheduler.
+     *
+     * @return the number of active queries
+     */
+    public int getActiveQueries() {
+        return active.size();
+    }
+
+    /**
+     * Gets the number of queries waiting for their next poll on the timer.
+     *
+     * @return the number of pending timer slots
+     */
+    public int getScheduledPolls() {
+        return timer.getPendingTimeouts();
+    }
+
+    /**
+     * Stops driving all queries, cancels those still running on the coordinator,
+     * closes their statement clients and releases the scheduler's threads and
+     * connections.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Registration registration : active) {
+            registration.cancel();
+        }
+        timer.close();
+        workers.shutdownNow();
+        if (ownsTransport) {
+            transport.close();
+        }
+    }
+
+    /**
+     * State of a single registered query.
+     */
+    private class Registration implements PollHandle {
+        private final StatementClient client;
+        private final QueryCallback callback;
+        private final CompletableFuture<QueryState> completion = new CompletableFuture<>();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile HashedTimerWheel.Timeout nextPoll;
+        private String serverState;
+
+        Registration(StatementClient client, QueryCallback callback) {
+            this.client = client;
+            this.callback = callback;
+        }
+
+        void start() {
+            if (client.getCurrentResponse() == null) {
+                client.executeAsync(transport).whenCompleteAsync(this::onResponse, workers);
+            } else {
+                onResponse(client.getCurrentResponse(), null);
+            }
+        }
+
+        void poll() {
+            if (done.get()) {
+                return;
+            }
+            client.advanceAsync(transport).whenCompleteAsync(this::onResponse, workers);
+        }
+
+        void onResponse(StatementResponse response, Throwable error) {
+            if (done.get()) {
+                return;
+            }
+
+            try {
+                if (error != null) {
+                    callback.onError(client, error);
+                    finish();
+                    return;
+                }
+
+                String newState = response.getStats() != null ? response.getStats().getState() : null;
+                if (newState != null && !Objects.equals(newState, serverState)) {
+                    String previousState = serverState;
+                    serverState = newState;
+                    callback.onStateChange(client, previousState, newState);
+                }
+
+                if (response.hasData()) {
+                    callback.onPage(client, response);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Query callback failed, stopping query {}", response != null ? response.getId() : null, e);
+                client.cancel();
+                finish();
+                return;
+            }
+
+            if (client.getState() != QueryState.RUNNING) {
+                finish();
+            } else if (response.hasData() || pollIntervalNanos == 0) {
+                poll();
+            } else {
+                try {
+                    nextPoll = timer.schedule(this::poll, pollIntervalNanos, TimeUnit.NANOSECONDS);
+                } catch (IllegalStateException e) {
+                    // The scheduler was closed concurrently
+                    finish();
+                }
+            }
+        }
+
+        private void finish() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            active.remove(this);
+            QueryState finalState = client.getState();
+            client.close();
+            try {
+                callback.onComplete(client, finalState);
+            } catch (RuntimeException e) {
+                log.warn("Query completion callback failed", e);
+            } finally {
+                completion.complete(finalState);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (done.get()) {
+                return;
+            }
+            HashedTimerWheel.Timeout timeout = nextPoll;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            client.cancel();
+            finish();
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.get();
+        }
+
+        @Override
+        public StatementClient getStatementClient() {
+            return client;
+        }
+
+        @Override
+        public CompletableFuture<QueryState> getCompletion() {
+            return completion;
+        }
+    }
+
+    /**
+     * Builder class for creating PollScheduler instances.
+     */
+    public static class Builder {
+        private int workerThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int maxConnections = 256;
+        private Duration pollInterval = Duration.ofMillis(100);
+        private Duration tickDuration = Duration.ofMillis(10);
+        private int wheelSize = 512;
+        private TransportProtocol protocol = TransportProtocol.HTTP_1_1;
+        private Integer maxConcurrentStreams;
+        private CloseableHttpAsyncClient asyncClient;
+        private HttpTransport transport;
+
+        /**
+         * Sets the number of threads running callbacks and issuing requests.
+         *
+         * @param workerThreads the number of worker threads
+         * @return this builder
+         */
+        public Builder workerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * Sets the number of I/O reactor threads of the HTTP client.
+         *
+         * @param ioThreads the number of I/O threads
+         * @return this builder
+         */
+        public Builder ioThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Sets the HTTP protocol used to poll queries (default: HTTP/1.1).
+         * With HTTP/2, polls of all queries are multiplexed over one connection
+         * per coordinator.
+         *
+         * @param protocol the protocol
+         * @return this builder
+         */
+        public Builder transportProtocol(TransportProtocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests in flight (default: 100 for HTTP/2,
+         * unlimited for HTTP/1.1).
+         *
+         * @param maxConcurrentStreams the maximum number of requests in flight
+         * @return this builder
+         */
+        public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections to each coordinator.
+         *
+         * @param maxConnections the maximum number of connections
+         * @return this builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Sets the delay before polling again after a response without rows
+         * (default: 100ms).
+         *
+         * @param pollInterval the poll interval
+         * @return this builder
+         */
+        public Builder pollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        /**
+         * Sets the tick duration of the timer wheel (default: 10ms).
+         *
+         * @param tickDuration the tick duration
+         * @return this builder
+         */
+        public Builder tickDuration(Duration tickDuration) {
+            this.tickDuration = tickDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of buckets of the timer wheel (default: 512).
+         *
+         * @param wheelSize the number of buckets
+         * @return this builder
+         */
+        public Builder wheelSize(int wheelSize) {
+            this.wheelSize = wheelSize;
+            return this;
+        }
+
+        /**
+         * Sets the asynchronous HTTP client to use instead of creating one.
+         * The client is started by the scheduler if needed and closed with it.
+         *
+         * @param asyncClient the asynchronous HTTP client
+         * @return this builder
+         */
+        public Builder asyncClient(CloseableHttpAsyncClient asyncClient) {
+            this.asyncClient = asyncClient;
+            return this;
+        }
+
+        /**
+         * Sets a transport to share with other schedulers or clients instead of
+         * creating one. The transport is not closed with the scheduler.
+         *
+         * @param transport the shared transport
+         * @return this builder
+         */
+        public Builder transport(HttpTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new PollScheduler.
+         *
+         * @return a new PollScheduler instance
+         */
+        public PollScheduler build() {
+            return new PollScheduler(this);
+        }
+    }
+}
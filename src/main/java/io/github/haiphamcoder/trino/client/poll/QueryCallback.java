@@ -0,0 +1,56 @@
+package io.github.haiphamcoder.trino.client.poll;
+
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+
+/**
+ * Receives pages and state transitions of a query driven by a
+ * {@link PollScheduler}.
+ * Callbacks for one query are never invoked concurrently, and the next page is
+ * not requested until the current callback returns. Callbacks run on the
+ * scheduler's worker threads and should not block for long.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface QueryCallback {
+    /**
+     * Called for every response that carries rows.
+     * 
+     * @param client   the statement client
+     * @param response the response containing the rows
+     */
+    default void onPage(StatementClient client, StatementResponse response) {
+    }
+
+    /**
+     * Called when the server-reported query state changes (e.g., from "QUEUED" to
+     * "RUNNING").
+     * 
+     * @param client        the statement client
+     * @param previousState the previous state, or null for the first response
+     * @param newState      the new state
+     */
+    default void onStateChange(StatementClient client, String previousState, String newState) {
+    }
+
+    /**
+     * Called when a request fails. {@link #onComplete} is called afterwards.
+     * 
+     * @param client the statement client
+     * @param error  the failure
+     */
+    default void onError(StatementClient client, Throwable error) {
+    }
+
+    /**
+     * Called once when the scheduler stops driving the query, because it
+     * finished, failed or was cancelled.
+     * 
+     * @param client     the statement client
+     * @param finalState the final client-side query state
+     */
+    default void onComplete(StatementClient client, QueryState finalState) {
+    }
+}
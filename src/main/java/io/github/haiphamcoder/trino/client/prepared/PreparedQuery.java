@@ -0,0 +1,195 @@
+package io.github.haiphamcoder.trino.client.prepared;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.sql.SqlLiterals;
+import io.github.haiphamcoder.trino.client.sql.TypedValue;
+
+/**
+ * A handle to a statement prepared in the client session, executed with
+ * {@code EXECUTE ... USING} and bound parameters.
+ *
+ * <p>
+ * Trino coordinators keep no per-session state, so the prepared statements of
+ * a session live in {@link ClientSession#getPreparedStatements()} and the
+ * client sends the referenced statement with each {@code EXECUTE}. The
+ * statement text is parsed once by {@code PREPARE} and sent unchanged; each
+ * execution only renders its parameters, with
+ * {@link SqlLiterals#render(Object)}. Wrap a parameter in a
+ * {@link TypedValue} to choose its Trino type.
+ *
+ * <pre>{@code
+ * try (PreparedQuery query = client.prepare("SELECT * FROM orders WHERE custkey = ? AND orderdate >= ?")) {
+ *     try (TrinoResultSet resultSet = query.execute(42, LocalDate.of(2024, 1, 1))) {
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Handles are thread-safe and may be executed concurrently.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see TrinoClient#prepare(String, String)
+ */
+public class PreparedQuery implements AutoCloseable {
+    private final TrinoClient client;
+    private final ClientSession session;
+    private final String name;
+    private final String sql;
+    private final int parameterCount;
+
+    /**
+     * Constructs a handle to a statement already registered in the session.
+     *
+     * @param client  the client executing the statement
+     * @param session the session holding the statement
+     * @param name    the name of the prepared statement
+     * @param sql     the text of the prepared statement
+     */
+    public PreparedQuery(TrinoClient client, ClientSession session, String name, String sql) {
+        this.client = client;
+        this.session = session;
+        this.name = name;
+        this.sql = sql;
+        this.parameterCount = countParameters(sql);
+    }
+
+    /**
+     * Executes the statement with the given parameters.
+     *
+     * @param parameters one value per {@code ?} placeholder, in order
+     * @return a result set over the statement's results
+     * @throws IllegalArgumentException if the number of parameters is wrong or
+     *                                  a parameter cannot be rendered
+     */
+    public TrinoResultSet execute(Object... parameters) {
+        return execute(Arrays.asList(parameters));
+    }
+
+    /**
+     * Executes the statement with the given parameters.
+     *
+     * @param parameters one value per {@code ?} placeholder, in order
+     * @return a result set over the statement's results
+     * @throws IllegalArgumentException if the number of parameters is wrong or
+     *                                  a parameter cannot be rendered
+     * @throws IllegalStateException    if the handle is closed
+     */
+    public TrinoResultSet execute(List<?> parameters) {
+        return client.execute(executeStatement(parameters));
+    }
+
+    /**
+     * Executes the statement with the given parameters and consumes its
+     * results, as for {@code INSERT}, {@code UPDATE} or {@code DELETE}.
+     *
+     * @param parameters one value per {@code ?} placeholder, in order
+     * @return the update count, or 0 if the statement reported none
+     */
+    public long executeUpdate(Object... parameters) {
+        try (TrinoResultSet resultSet = execute(parameters)) {
+            while (resultSet.next()) {
+                // Consume all results
+            }
+            resultSet.checkCompleted();
+            Long updateCount = resultSet.getUpdateCount();
+            return updateCount != null ? updateCount : 0;
+        }
+    }
+
+    /**
+     * Builds the {@code EXECUTE} statement for the given parameters.
+     *
+     * @param parameters one value per {@code ?} placeholder, in order
+     * @return the statement
+     */
+    String executeStatement(List<?> parameters) {
+        if (!session.getPreparedStatements().containsKey(name)) {
+            throw new IllegalStateException("Prepared statement " + name + " is closed");
+        }
+        if (parameters.size() != parameterCount) {
+            throw new IllegalArgumentException("Expected " + parameterCount + " parameters but got "
+                    + parameters.size());
+        }
+        if (parameters.isEmpty()) {
+            return "EXECUTE " + name;
+        }
+
+        StringJoiner values = new StringJoiner(", ", "EXECUTE " + name + " USING ", "");
+        for (Object parameter : parameters) {
+            values.add(SqlLiterals.render(parameter));
+        }
+        return values.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Gets the number of {@code ?} placeholders in the statement, not counting
+     * those in string literals, quoted identifiers and comments.
+     *
+     * @return the number of parameters
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Removes the statement from the session. Nothing is sent to the
+     * coordinator, which does not keep prepared statements between queries.
+     */
+    @Override
+    public void close() {
+        session.getPreparedStatements().remove(name, sql);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + sql;
+    }
+
+    private static int countParameters(String sql) {
+        int count = 0;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                // Skip the quoted text; a doubled quote is an escaped quote
+                i++;
+                while (i < sql.length()) {
+                    if (sql.charAt(i) == c) {
+                        if (i + 1 < sql.length() && sql.charAt(i + 1) == c) {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    i++;
+                }
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? sql.length() : end + 1;
+            } else if (c == '?') {
+                count++;
+            }
+            i++;
+        }
+        return count;
+    }
+}
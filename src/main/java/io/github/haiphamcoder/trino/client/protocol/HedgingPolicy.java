@@ -0,0 +1,285 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides when a page fetch is hedged: when its response has not arrived
+ * within a percentile of recent page fetch latencies, a duplicate request is
+ * sent and whichever response arrives first is used.
+ *
+ * <p>
+ * Page requests are safe to duplicate, since the coordinator serves the same
+ * page for the same {@code nextUri} token. Submissions are never hedged. With
+ * HTTP/1.1 the duplicate goes out on another pooled connection, which avoids
+ * a stalled connection or a proxy hiccup; over HTTP/2 it is another stream on
+ * the same connection, which helps less.
+ *
+ * <p>
+ * One policy is shared by all queries of a client. It learns the latency
+ * distribution from a window of recent fetches, and caps hedges to a fraction
+ * of fetches with a token bucket: every fetch earns {@code maxHedgeRate}
+ * tokens, up to a small burst, and every hedge spends one. During an
+ * incident where every fetch is slow, hedging therefore adds at most that
+ * fraction of extra load. The hedge delay is a volatile read, and the window
+ * and token bucket are guarded by a short {@link ReentrantLock} section; the
+ * percentile is recomputed outside the lock.
+ *
+ * <pre>{@code
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .hedging(HedgingPolicy.builder().percentile(0.95).maxHedgeRate(0.05).build())
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class HedgingPolicy {
+    /** Default percentile of recent latencies after which fetches are hedged */
+    public static final double DEFAULT_PERCENTILE = 0.95;
+    /** Default maximum fraction of fetches hedged */
+    public static final double DEFAULT_MAX_HEDGE_RATE = 0.05;
+    /** Default number of recent fetch latencies kept */
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+    /** Default number of fetches measured before hedging starts */
+    public static final int DEFAULT_MIN_SAMPLES = 50;
+    /** Default lower bound of the hedge delay */
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(20);
+    /** Hedges that may be spent at once after a quiet period */
+    private static final double MAX_TOKENS = 10;
+    /** Fetches between recomputations of the hedge delay */
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final double percentile;
+    private final double maxHedgeRate;
+    private final int minSamples;
+    private final long minDelayNanos;
+
+    /** Lock guarding the window and the token bucket */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Recent fetch latencies */
+    private final long[] window;
+    private int windowNext;
+    private int windowSize;
+    private int samplesSinceRecompute;
+    private double tokens;
+    /** Current hedge delay, read on every fetch without locking */
+    private volatile long hedgeDelayNanos = -1;
+
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder suppressedHedges = new LongAdder();
+
+    private HedgingPolicy(Builder builder) {
+        if (builder.percentile <= 0 || builder.percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        if (builder.maxHedgeRate < 0 || builder.maxHedgeRate > 1) {
+            throw new IllegalArgumentException("maxHedgeRate must be between 0 and 1");
+        }
+        if (builder.windowSize <= 0 || builder.minSamples <= 0 || builder.minSamples > builder.windowSize) {
+            throw new IllegalArgumentException("minSamples must be positive and at most windowSize");
+        }
+        this.percentile = builder.percentile;
+        this.maxHedgeRate = builder.maxHedgeRate;
+        this.minSamples = builder.minSamples;
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.window = new long[builder.windowSize];
+    }
+
+    /**
+     * Creates a policy with the defaults: hedge after the
+     * {@value #DEFAULT_PERCENTILE} percentile, at most
+     * {@value #DEFAULT_MAX_HEDGE_RATE} of fetches.
+     *
+     * @return the default policy
+     */
+    public static HedgingPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new Builder for constructing a HedgingPolicy.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets how long a fetch may take before it is hedged.
+     *
+     * @return the delay in nanoseconds, or -1 until enough fetches have been
+     *         measured
+     */
+    public long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * Records the latency of a completed fetch, hedged or not, and earns its
+     * share of hedge tokens.
+     *
+     * @param latencyNanos the time from sending the first request until the
+     *                     response headers of the request that answered; when
+     *                     the duplicate won, this is a lower bound of the first
+     *                     request's latency rather than the duplicate's own
+     */
+    public void recordFetch(long latencyNanos) {
+        fetches.increment();
+        long[] sorted = null;
+        lock.lock();
+        try {
+            tokens = Math.min(MAX_TOKENS, tokens + maxHedgeRate);
+            window[windowNext] = latencyNanos;
+            windowNext = (windowNext + 1) % window.length;
+            windowSize = Math.min(windowSize + 1, window.length);
+            samplesSinceRecompute++;
+            if (windowSize >= minSamples && (hedgeDelayNanos < 0 || samplesSinceRecompute >= RECOMPUTE_INTERVAL)) {
+                sorted = Arrays.copyOf(window, windowSize);
+                samplesSinceRecompute = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (sorted != null) {
+            Arrays.sort(sorted);
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+            hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+        }
+    }
+
+    /**
+     * Takes a hedge token if one is available.
+     *
+     * @return whether the fetch may be hedged
+     */
+    public boolean tryAcquireHedge() {
+        lock.lock();
+        try {
+            if (tokens >= 1) {
+                tokens--;
+                hedges.increment();
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        suppressedHedges.increment();
+        return false;
+    }
+
+    /**
+     * Records which request of a hedged fetch answered first.
+     *
+     * @param hedgeWon whether the duplicate answered first
+     */
+    public void recordHedgeResult(boolean hedgeWon) {
+        if (hedgeWon) {
+            hedgeWins.increment();
+        }
+    }
+
+    /** Number of page fetches completed */
+    public long getFetches() {
+        return fetches.sum();
+    }
+
+    /** Number of duplicate requests sent */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /** Number of hedged fetches answered first by the duplicate */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /** Number of slow fetches not hedged because of the rate cap */
+    public long getSuppressedHedges() {
+        return suppressedHedges.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy{percentile=" + percentile + ", maxHedgeRate=" + maxHedgeRate + ", fetches="
+                + getFetches() + ", hedges=" + getHedges() + ", hedgeWins=" + getHedgeWins() + '}';
+    }
+
+    public static class Builder {
+        private double percentile = DEFAULT_PERCENTILE;
+        private double maxHedgeRate = DEFAULT_MAX_HEDGE_RATE;
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+        private int minSamples = DEFAULT_MIN_SAMPLES;
+        private Duration minDelay = DEFAULT_MIN_DELAY;
+
+        /**
+         * Sets the percentile of recent fetch latencies after which a fetch is
+         * hedged.
+         *
+         * @param percentile the percentile, between 0 and 1 exclusive
+         * @return this builder
+         */
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the maximum fraction of fetches hedged, across all queries
+         * sharing the policy.
+         *
+         * @param maxHedgeRate the fraction, between 0 and 1
+         * @return this builder
+         */
+        public Builder maxHedgeRate(double maxHedgeRate) {
+            this.maxHedgeRate = maxHedgeRate;
+            return this;
+        }
+
+        /**
+         * Sets the number of recent fetch latencies the percentile is taken
+         * over.
+         *
+         * @param windowSize the number of latencies
+         * @return this builder
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of fetches measured before hedging starts.
+         *
+         * @param minSamples the number of fetches
+         * @return this builder
+         */
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Sets the lower bound of the hedge delay, so fast fetches are not
+         * hedged over scheduling noise.
+         *
+         * @param minDelay the minimum delay
+         * @return this builder
+         */
+        public Builder minDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+
+/**
+ * Non-blocking HTTP transport shared by many statement clients.
+ *
+ * <p>
+ * The transport wraps an asynchronous HTTP client and caps the number of
+ * requests in flight. Requests beyond the cap wait in a FIFO queue and are sent
+ * as earlier responses arrive, so with {@link TransportProtocol#HTTP_2} the cap
+ * is the maximum number of concurrent streams the client opens.
+ *
+ * <pre>{@code
+ * HttpTransport transport = HttpTransport.builder()
+ *         .protocol(TransportProtocol.HTTP_2)
+ *         .maxConcurrentStreams(200)
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class HttpTransport implements AutoCloseable {
+    /** Default maximum number of requests in flight */
+    public static final int DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+
+    /** Asynchronous HTTP client sending the requests */
+    private final CloseableHttpAsyncClient client;
+    /** Protocol spoken by the client */
+    private final TransportProtocol protocol;
+    /** Maximum number of requests in flight */
+    private final int maxConcurrentStreams;
+    /** Lock guarding the in-flight count, the pending queue and the closed flag */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Requests waiting for a free stream */
+    private final Queue<PendingRequest> pending = new ArrayDeque<>();
+    /** Number of requests in flight */
+    private int inFlight;
+    /** Whether the transport was closed; queued and new requests then fail */
+    private boolean closed;
+
+    private HttpTransport(CloseableHttpAsyncClient client, TransportProtocol protocol, int maxConcurrentStreams) {
+        if (maxConcurrentStreams <= 0) {
+            throw new IllegalArgumentException("maxConcurrentStreams must be positive");
+        }
+        this.client = client;
+        this.protocol = protocol;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.client.start();
+    }
+
+    /**
+     * Creates a new Builder for constructing an HttpTransport.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Wraps an existing asynchronous HTTP client without limiting its requests.
+     * The client is started if needed and closed with the transport.
+     *
+     * @param client the asynchronous HTTP client
+     * @return the transport
+     */
+    public static HttpTransport of(CloseableHttpAsyncClient client) {
+        return new HttpTransport(client, TransportProtocol.HTTP_1_1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sends a request, or queues it until a stream is free.
+     *
+     * @param request the request to send
+     * @return a future completed with the response; it fails with the I/O error
+     *         of the request or an {@link IllegalStateException} once the
+     *         transport is closed, or is cancelled if the request was cancelled
+     */
+    public CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+        CompletableFuture<SimpleHttpResponse> future = new CompletableFuture<>();
+
+        boolean sendNow;
+        lock.lock();
+        try {
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("HTTP transport is closed"));
+                return future;
+            }
+            sendNow = inFlight < maxConcurrentStreams;
+            if (sendNow) {
+                inFlight++;
+            } else {
+                pending.add(new PendingRequest(request, future));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (sendNow) {
+            send(request, future);
+        }
+        return future;
+    }
+
+    private void send(SimpleHttpRequest request, CompletableFuture<SimpleHttpResponse> future) {
+        try {
+            sendAsync(request, future);
+        } catch (RuntimeException e) {
+            // The client rejected the request without invoking the callback
+            release();
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void sendAsync(SimpleHttpRequest request, CompletableFuture<SimpleHttpResponse> future) {
+        client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                release();
+                future.complete(response);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                release();
+                future.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                release();
+                future.cancel(false);
+            }
+        });
+    }
+
+    private void release() {
+        PendingRequest next;
+        lock.lock();
+        try {
+            next = pending.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // The freed stream is handed over to the next queued request
+        if (next != null) {
+            send(next.request, next.future);
+        }
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return the number of requests in flight
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests waiting for a free stream.
+     *
+     * @return the number of queued requests
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public TransportProtocol getProtocol() {
+        return protocol;
+    }
+
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * Closes the underlying HTTP client. Requests in flight are aborted and
+     * queued requests fail, so no caller is left waiting for a response.
+     */
+    @Override
+    public void close() {
+        List<PendingRequest> queued;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queued = new ArrayList<>(pending);
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (PendingRequest request : queued) {
+            request.future.completeExceptionally(new IllegalStateException("HTTP transport is closed"));
+        }
+        client.close(CloseMode.IMMEDIATE);
+    }
+
+    /**
+     * Request waiting in the queue for a free stream.
+     */
+    private static final class PendingRequest {
+        private final SimpleHttpRequest request;
+        private final CompletableFuture<SimpleHttpResponse> future;
+
+        PendingRequest(SimpleHttpRequest request, CompletableFuture<SimpleHttpResponse> future) {
+            this.request = request;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Builder class for creating HttpTransport instances.
+     */
+    public static class Builder {
+        private TransportProtocol protocol = TransportProtocol.HTTP_2;
+        private int maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+        private int maxConnections = 256;
+        private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Sets the HTTP protocol (default: HTTP/2).
+         *
+         * @param protocol the protocol
+         * @return this builder
+         */
+        public Builder protocol(TransportProtocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests in flight (default: 100).
+         *
+         * @param maxConcurrentStreams the maximum number of requests in flight
+         * @return this builder
+         */
+        public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of HTTP/1.1 connections to each coordinator.
+         * HTTP/2 uses a single connection per coordinator.
+         *
+         * @param maxConnections the maximum number of connections
+         * @return this builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Sets the number of I/O reactor threads.
+         *
+         * @param ioThreads the number of I/O threads
+         * @return this builder
+         */
+        public Builder ioThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Builds and starts a new HttpTransport.
+         *
+         * @return a new HttpTransport instance
+         */
+        public HttpTransport build() {
+            IOReactorConfig ioReactorConfig = IOReactorConfig.custom().setIoThreadCount(ioThreads).build();
+            CloseableHttpAsyncClient client;
+            if (protocol == TransportProtocol.HTTP_2) {
+                client = H2AsyncClientBuilder.create()
+                        .setH2Config(H2Config.custom()
+                                .setMaxConcurrentStreams(maxConcurrentStreams)
+                                .setPushEnabled(false)
+                                .build())
+                        .setIOReactorConfig(ioReactorConfig)
+                        .build();
+            } else {
+                client = HttpAsyncClients.custom()
+                        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                                .setMaxConnTotal(maxConnections)
+                                .setMaxConnPerRoute(maxConnections)
+                                .build())
+                        .setIOReactorConfig(ioReactorConfig)
+                        .build();
+            }
+            return new HttpTransport(client, protocol, maxConcurrentStreams);
+        }
+    }
+}
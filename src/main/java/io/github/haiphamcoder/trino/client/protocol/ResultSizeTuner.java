@@ -0,0 +1,103 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+/**
+ * Chooses the {@code targetResultSize} requested from the coordinator for each
+ * page fetch.
+ * In fixed mode the configured size is always used, capped only at the largest
+ * size the coordinator accepts. In adaptive mode the target
+ * grows while the consumer keeps up with the network and pages come back full,
+ * and shrinks when pages exceed the memory budget or the consumer falls behind.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class ResultSizeTuner {
+    /** Smallest target the adaptive mode will request (1MB) */
+    public static final long MIN_TARGET_RESULT_SIZE = 1024L * 1024;
+    /** Largest target accepted by the coordinator (128MB) */
+    public static final long MAX_TARGET_RESULT_SIZE = 128L * 1024 * 1024;
+    /** Starting target when adaptive mode has no configured size (1MB, the server default) */
+    public static final long DEFAULT_TARGET_RESULT_SIZE = 1024L * 1024;
+
+    /** A page at least this fraction of the target is considered full */
+    private static final double FULL_PAGE_RATIO = 0.8;
+    /** Consumer time this many times the fetch time means the consumer is the bottleneck */
+    private static final int SLOW_CONSUMER_FACTOR = 4;
+
+    /** Whether the target is adjusted from observed pages */
+    private final boolean adaptive;
+    /** Upper bound for the target derived from the memory budget */
+    private final long maxTarget;
+    /** Current target in bytes, or null to let the server decide */
+    private Long target;
+
+    /**
+     * Constructs a new ResultSizeTuner.
+     *
+     * @param initialTarget the configured target in bytes, or null for the server default
+     * @param adaptive      whether to adjust the target from observed pages
+     * @param memoryBudget  the maximum bytes a single page may occupy, or null for no budget
+     */
+    public ResultSizeTuner(Long initialTarget, boolean adaptive, Long memoryBudget) {
+        this.adaptive = adaptive;
+        long budget = memoryBudget != null ? memoryBudget : MAX_TARGET_RESULT_SIZE;
+        this.maxTarget = Math.max(MIN_TARGET_RESULT_SIZE, Math.min(MAX_TARGET_RESULT_SIZE, budget));
+        if (initialTarget != null) {
+            this.target = adaptive ? clamp(initialTarget) : Math.min(MAX_TARGET_RESULT_SIZE, initialTarget);
+        } else if (adaptive) {
+            this.target = clamp(DEFAULT_TARGET_RESULT_SIZE);
+        }
+    }
+
+    /**
+     * Gets the target to request for the next page.
+     *
+     * @return the target in bytes, or null if no target should be sent
+     */
+    public Long getTargetResultSize() {
+        return target;
+    }
+
+    /**
+     * Records an observed page and adjusts the target in adaptive mode.
+     *
+     * @param pageBytes     the size of the page body in bytes
+     * @param fetchNanos    the time spent fetching the page
+     * @param consumerNanos the time the consumer spent between the previous fetch
+     *                      and this one
+     */
+    public void onPage(long pageBytes, long fetchNanos, long consumerNanos) {
+        if (!adaptive || target == null) {
+            return;
+        }
+
+        if (pageBytes > maxTarget) {
+            target = clamp(target / 2);
+        } else if (consumerNanos > fetchNanos * SLOW_CONSUMER_FACTOR) {
+            target = clamp(target - target / 4);
+        } else if (pageBytes >= target * FULL_PAGE_RATIO && fetchNanos >= consumerNanos) {
+            target = clamp(target * 2);
+        }
+    }
+
+    private long clamp(long value) {
+        return Math.max(MIN_TARGET_RESULT_SIZE, Math.min(maxTarget, value));
+    }
+
+    /**
+     * Formats a byte count as a data size understood by the coordinator
+     * (e.g., "16MB", "512kB", "100B").
+     *
+     * @param bytes the size in bytes
+     * @return the formatted data size
+     */
+    public static String formatDataSize(long bytes) {
+        if (bytes > 0 && bytes % (1024L * 1024) == 0) {
+            return (bytes / (1024L * 1024)) + "MB";
+        }
+        if (bytes > 0 && bytes % 1024 == 0) {
+            return (bytes / 1024) + "kB";
+        }
+        return bytes + "B";
+    }
+}
@@ -1,33 +1,80 @@
 package io.github.haiphamcoder.trino.client.protocol;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
-import org.apache.hc.core5.http.message.StatusLine;
+import org.apache.hc.core5.net.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 
+import io.github.haiphamcoder.trino.client.concurrent.ClientThreads;
 import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.event.QueryEvent;
+import io.github.haiphamcoder.trino.client.event.QueryEventListener;
+import io.github.haiphamcoder.trino.client.event.QueryTimeline;
 import io.github.haiphamcoder.trino.client.exception.QueryCancelledException;
 import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
 import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.jfr.PageDecodeEvent;
+import io.github.haiphamcoder.trino.client.jfr.PageFetchEvent;
+import io.github.haiphamcoder.trino.client.jfr.PageParseEvent;
+import io.github.haiphamcoder.trino.client.jfr.QueryCancelEvent;
+import io.github.haiphamcoder.trino.client.jfr.RequestEvent;
+import io.github.haiphamcoder.trino.client.jfr.StatementSubmitEvent;
+import io.github.haiphamcoder.trino.client.metrics.ClientMetrics;
+import io.github.haiphamcoder.trino.client.metrics.MetricTags;
+import io.github.haiphamcoder.trino.client.model.ClientQueryStats;
 import io.github.haiphamcoder.trino.client.model.QueryState;
 import io.github.haiphamcoder.trino.client.model.StatementResponse;
 import io.github.haiphamcoder.trino.client.model.TrinoError;
 import io.github.haiphamcoder.trino.client.model.TrinoStats;
+import io.github.haiphamcoder.trino.client.routing.Coordinator;
+import io.github.haiphamcoder.trino.client.routing.CoordinatorRouter;
+import io.github.haiphamcoder.trino.client.tracing.QueryTrace;
+import io.github.haiphamcoder.trino.client.tracing.RequestTrace;
 
 /**
  * Low-level client for communicating with Trino statement API.
@@ -41,6 +88,12 @@ public class StatementClient implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(StatementClient.class);
     /** JSON parser for responses */
     private static final Gson gson = new Gson();
+    /** Statements referring to a prepared statement, capturing its name after any leading comments */
+    private static final Pattern PREPARED_STATEMENT_REFERENCE = Pattern.compile(
+            "(?:\\s|--[^\\n]*(?:\\n|$)|/\\*.*?\\*/)*"
+                    + "(?:EXECUTE|DESCRIBE\\s+INPUT|DESCRIBE\\s+OUTPUT|DEALLOCATE\\s+PREPARE)\\s+"
+                    + "(\"(?:[^\"]|\"\")+\"|[A-Za-z_][A-Za-z0-9_]*)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
 
     /** Client session configuration */
     private final ClientSession session;
@@ -48,19 +101,135 @@ public class StatementClient implements AutoCloseable {
     private final String statement;
     /** Current query state */
     private final AtomicReference<QueryState> state;
-    /** Current statement response */
-    private StatementResponse currentResponse;
-    /** HTTP client for making requests */
-    private final CloseableHttpClient httpClient;
+    /** Current statement response (read by other threads while pages are prefetched) */
+    private volatile StatementResponse currentResponse;
+    /** HTTP client for making blocking requests (created on first use) */
+    private CloseableHttpClient httpClient;
+    /** Shared transport for blocking requests (null to use a per-statement HTTP client) */
+    private final HttpTransport transport;
     /** Whether this client has been closed */
     private boolean closed;
+    /** Whether the query has been cancelled, possibly from another thread */
+    private volatile boolean cancelled;
+    /** Chooses the target result size for page fetches */
+    private final ResultSizeTuner resultSizeTuner;
+    /** Client-side statistics for this query */
+    private final ClientQueryStats clientStats;
+    /** Size in bytes of the most recently parsed response body */
+    private long lastResponseBytes;
+    /** Time at which the most recent response was received */
+    private long lastResponseNanos;
+    /** Router choosing the coordinator for submission (null for a single server) */
+    private final CoordinatorRouter router;
+    /** Coordinator that accepted the query (null for a single server) */
+    private Coordinator coordinator;
+    /** Whether the coordinator's outstanding query count has been released */
+    private boolean coordinatorReleased;
+    /** Receiver of request and page measurements */
+    private final ClientMetrics metrics;
+    /** Tags of the measurements of this query */
+    private final MetricTags metricTags;
+    /** Time at which the statement was first submitted */
+    private long submitNanos;
+    /** Number of rows received so far */
+    private long rowCount;
+    /** Whether the query's completion has been reported to the metrics and listeners */
+    private final AtomicBoolean completionRecorded = new AtomicBoolean();
+    /** Time at which the query reached its final state (0 until then) */
+    private volatile long completedNanos;
+    /** Listeners receiving the query's lifecycle events */
+    private final List<QueryEventListener> eventListeners;
+    /** Lifecycle events of this query (null when there are no listeners) */
+    private final QueryTimeline timeline;
+    /** Time at which this statement client was created */
+    private final long createdNanos;
+    /** Whether the QUEUED and FIRST_ROW events have been emitted */
+    private boolean queuedReported;
+    private boolean firstRowReported;
+    /** Policy hedging slow page fetches (null to never hedge) */
+    private final HedgingPolicy hedging;
+    /** Trace of this query (started on submission) */
+    private volatile QueryTrace queryTrace = QueryTrace.NOOP;
+    /** Trace of the request in flight, ended when its response has been handled */
+    private volatile RequestTrace requestTrace = RequestTrace.NOOP;
 
     public StatementClient(ClientSession session, String statement) {
+        this(session, statement, null);
+    }
+
+    /**
+     * Creates a statement client that submits through the given router.
+     * Only submission is routed; follow-up page requests stay on the coordinator
+     * that accepted the query.
+     * 
+     * @param session   the client session configuration
+     * @param statement the SQL statement to execute
+     * @param router    the coordinator router, or null to use the session server
+     */
+    public StatementClient(ClientSession session, String statement, CoordinatorRouter router) {
+        this(session, statement, router, null);
+    }
+
+    /**
+     * Creates a statement client whose blocking requests are sent over a shared
+     * transport, for example to multiplex many queries over HTTP/2. The
+     * transport is not closed with the statement client.
+     * 
+     * @param session   the client session configuration
+     * @param statement the SQL statement to execute
+     * @param router    the coordinator router, or null to use the session server
+     * @param transport the shared transport, or null to use a per-statement HTTP
+     *                  client
+     */
+    public StatementClient(ClientSession session, String statement, CoordinatorRouter router,
+            HttpTransport transport) {
+        this(session, statement, router, transport, true);
+    }
+
+    /**
+     * Creates a statement client for a subclass that serves the pages of other
+     * statement clients instead of running a query of its own, such as a reader
+     * of a shared or partitioned query. Without lifecycle recording, the client
+     * emits no events and records no metrics or traces; the statement clients
+     * running the server queries record their own.
+     * 
+     * @param session         the client session configuration
+     * @param statement       the SQL statement whose results are served
+     * @param recordLifecycle whether to emit events and record metrics and
+     *                        traces for this client
+     */
+    protected StatementClient(ClientSession session, String statement, boolean recordLifecycle) {
+        this(session, statement, null, null, recordLifecycle);
+    }
+
+    private StatementClient(ClientSession session, String statement, CoordinatorRouter router,
+            HttpTransport transport, boolean recordLifecycle) {
         this.session = session;
+        this.transport = transport;
+        this.router = router;
         this.statement = statement;
         this.state = new AtomicReference<>(QueryState.RUNNING);
-        this.httpClient = HttpClients.createDefault();
         this.closed = false;
+        this.clientStats = new ClientQueryStats();
+        this.createdNanos = System.nanoTime();
+        if (!recordLifecycle) {
+            this.resultSizeTuner = null;
+            this.metrics = ClientMetrics.NOOP;
+            this.metricTags = null;
+            this.eventListeners = List.of();
+            this.timeline = null;
+            this.hedging = null;
+            completionRecorded.set(true);
+            return;
+        }
+        this.resultSizeTuner = new ResultSizeTuner(session.getTargetResultSize(), session.isAdaptiveResultSize(),
+                session.getResultMemoryBudget());
+        this.metrics = session.getMetrics();
+        this.metricTags = MetricTags.of(session);
+        this.eventListeners = session.getEventListeners();
+        this.timeline = eventListeners.isEmpty() ? null : new QueryTimeline(statement, metricTags);
+        this.hedging = session.getHedging();
+        emit(QueryEvent.Type.CREATED, null);
     }
 
     /**
@@ -71,31 +240,454 @@ public class StatementClient implements AutoCloseable {
             throw new TrinoException("Client is closed");
         }
 
-        URI uri = session.getServer().resolve("/v1/statement");
-        HttpPost post = new HttpPost(uri);
+        submitNanos = System.nanoTime();
+        queryTrace = session.getTracer().startQuery(session, statement);
+        if (router == null) {
+            try {
+                return submit(session.getServer());
+            } catch (IOException e) {
+                failWithClientError();
+                throw new TrinoException("Failed to execute statement", e);
+            }
+        }
 
-        // Set headers
-        setHeaders(post);
+        Set<Coordinator> failed = new HashSet<>();
+        IOException lastFailure = null;
+        Coordinator candidate;
+        while ((candidate = router.select(failed)) != null) {
+            router.acquire(candidate);
+            coordinator = candidate;
+            coordinatorReleased = false;
+            try {
+                StatementResponse response = submit(candidate.getUri());
+                router.markSuccess(candidate);
+                return response;
+            } catch (IOException e) {
+                releaseCoordinator();
+                coordinator = null;
+                router.markFailure(candidate);
+                if (!isSubmissionRetryable(e)) {
+                    failWithClientError();
+                    throw new TrinoException("Failed to execute statement on " + candidate, e);
+                }
+                log.warn("Coordinator {} unavailable, failing over: {}", candidate, e.toString());
+                metrics.recordRetry(metricTags, ClientMetrics.RequestType.SUBMIT);
+                failed.add(candidate);
+                lastFailure = e;
+            } catch (RuntimeException e) {
+                releaseCoordinator();
+                throw e;
+            }
+        }
 
-        // Set body
-        post.setEntity(new StringEntity(statement, ContentType.TEXT_PLAIN.withCharset("UTF-8")));
+        failWithClientError();
+        throw new TrinoException("No coordinator available to execute statement", lastFailure);
+    }
 
+    /**
+     * Submits the statement to the given server.
+     */
+    private StatementResponse submit(URI server) throws IOException {
         try {
-            return httpClient.execute(post, response -> {
-                int statusCode = response.getCode();
+            if (transport != null) {
+                return send(newSubmitRequest(server), 0, true);
+            }
 
-                if (statusCode >= 400) {
-                    handleErrorResponse(response);
-                }
+            URI uri = server.resolve("/v1/statement");
+            HttpPost post = new HttpPost(uri);
+
+            // Set headers
+            setHeaders(post);
+            setPreparedStatementHeader(post);
+            traceRequest(post, uri, true);
 
-                currentResponse = parseResponse(response);
-                updateState();
+            // Set body
+            post.setEntity(new StringEntity(statement, ContentType.TEXT_PLAIN.withCharset("UTF-8")));
 
-                return currentResponse;
+            RequestEvent requestEvent = RequestEvent.begin(true, post);
+            long startNanos = System.nanoTime();
+            return httpClient().execute(post, response -> {
+                long headersNanos = System.nanoTime();
+                return handleResponse(response, readBody(response), startNanos, headersNanos, 0, true,
+                        requestEvent);
             });
         } catch (IOException e) {
-            state.set(QueryState.CLIENT_ERROR);
-            throw new TrinoException("Failed to execute statement", e);
+            endRequestTrace(0, 0, 0, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Execute the statement without blocking, using the given asynchronous HTTP
+     * client. When a router is configured, the coordinator is selected by the
+     * router, but the submission is not failed over to another coordinator.
+     * 
+     * @param transport the transport sending the requests
+     * @return a future completed with the first response
+     */
+    public CompletableFuture<StatementResponse> executeAsync(HttpTransport transport) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new TrinoException("Client is closed"));
+        }
+
+        submitNanos = System.nanoTime();
+        queryTrace = session.getTracer().startQuery(session, statement);
+        URI server = session.getServer();
+        if (router != null) {
+            Coordinator candidate = router.select(Set.of());
+            router.acquire(candidate);
+            coordinator = candidate;
+            coordinatorReleased = false;
+            server = candidate.getUri();
+        }
+
+        Coordinator submittedTo = coordinator;
+        return executeAsync(transport, newSubmitRequest(server), 0, true, "Failed to execute statement")
+                .whenComplete((response, error) -> {
+                    if (submittedTo == null) {
+                        return;
+                    }
+                    if (error == null) {
+                        router.markSuccess(submittedTo);
+                    } else if (!(error instanceof QueryFailedException)) {
+                        router.markFailure(submittedTo);
+                        releaseCoordinator();
+                    }
+                });
+    }
+
+    /**
+     * Advance to the next page without blocking, using the given asynchronous
+     * HTTP client.
+     * 
+     * @param transport the transport sending the requests
+     * @return a future completed with the next response, or with the current
+     *         response if there are no more pages
+     */
+    public CompletableFuture<StatementResponse> advanceAsync(HttpTransport transport) {
+        try {
+            if (!hasNextPage()) {
+                return CompletableFuture.completedFuture(currentResponse);
+            }
+        } catch (TrinoException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return executeAsync(transport, newNextPageRequest(), System.nanoTime() - lastResponseNanos, false,
+                "Failed to advance query");
+    }
+
+    private CompletableFuture<StatementResponse> executeAsync(HttpTransport transport, SimpleHttpRequest request,
+            long consumerNanos, boolean submission, String failureMessage) {
+        CompletableFuture<StatementResponse> future = new CompletableFuture<>();
+        RequestEvent requestEvent = RequestEvent.begin(submission, request);
+        long startNanos = System.nanoTime();
+        transport.execute(request).whenComplete((response, error) -> {
+            if (error != null) {
+                endRequestTrace(0, 0, 0, null, error);
+            }
+            if (error instanceof CancellationException) {
+                state.set(QueryState.CLIENT_ABORTED);
+                future.completeExceptionally(new TrinoException("Request cancelled"));
+                return;
+            }
+
+            try {
+                if (error != null) {
+                    throw error instanceof IOException ? (IOException) error : new IOException(error);
+                }
+                // The body arrives with the response, so it has no read time of its own
+                future.complete(handleResponse(response, response.getBodyBytes(), startNanos, System.nanoTime(),
+                        consumerNanos, submission, requestEvent));
+            } catch (IOException e) {
+                failWithClientError();
+                future.completeExceptionally(new TrinoException(failureMessage, e));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends a request over the shared transport and waits for its response.
+     */
+    private StatementResponse send(SimpleHttpRequest request, long consumerNanos, boolean submission)
+            throws IOException {
+        RequestEvent requestEvent = RequestEvent.begin(submission, request);
+        long startNanos = System.nanoTime();
+        SimpleHttpResponse response;
+        try {
+            response = transport.execute(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Request cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+        return handleResponse(response, response.getBodyBytes(), startNanos, System.nanoTime(), consumerNanos,
+                submission, requestEvent);
+    }
+
+    /**
+     * Fetches a page over the shared transport, sending a duplicate request if
+     * the first is slower than the hedging policy allows.
+     */
+    private StatementResponse sendHedged(SimpleHttpRequest request, long consumerNanos) throws IOException {
+        RequestEvent requestEvent = RequestEvent.begin(false, request);
+        long startNanos = System.nanoTime();
+        long delayNanos = hedging.getHedgeDelayNanos();
+        CompletableFuture<FetchedPage> primary = sendAsync(request, false);
+        // The transport cannot abort a request once sent, so the slower response is dropped when it arrives
+        FetchedPage page = delayNanos < 0 ? await(primary)
+                : awaitHedged(primary, () -> { }, delayNanos,
+                        () -> sendAsync(SimpleRequestBuilder.copy(request).build(), true), () -> { });
+        hedging.recordFetch(page.headersNanos - startNanos);
+        return handleResponse(page.response, page.body, startNanos, page.headersNanos, consumerNanos, false,
+                requestEvent);
+    }
+
+    private CompletableFuture<FetchedPage> sendAsync(SimpleHttpRequest request, boolean hedge) {
+        return transport.execute(request).thenApply(
+                response -> new FetchedPage(response, response.getBodyBytes(), System.nanoTime(), hedge));
+    }
+
+    /**
+     * Fetches a page with the per-statement HTTP client, sending a duplicate
+     * request on another pooled connection if the first is slower than the
+     * hedging policy allows. Until the policy has measured enough fetches, the
+     * page is fetched on the calling thread as usual.
+     */
+    private StatementResponse executeHedged(HttpGet get, URI uri, long startNanos, long consumerNanos,
+            RequestEvent requestEvent) throws IOException {
+        CloseableHttpClient client = httpClient();
+        long delayNanos = hedging.getHedgeDelayNanos();
+        long primaryNanos = System.nanoTime();
+        FetchedPage page;
+        if (delayNanos < 0) {
+            page = fetch(client, get, false);
+        } else {
+            HttpGet duplicate = new HttpGet(uri);
+            duplicate.setHeaders(get.getHeaders());
+            ExecutorService executor = HedgeExecutor.INSTANCE;
+            page = awaitHedged(CompletableFuture.supplyAsync(() -> fetchUnchecked(client, get, false), executor),
+                    get::cancel, delayNanos,
+                    () -> CompletableFuture.supplyAsync(() -> fetchUnchecked(client, duplicate, true), executor),
+                    duplicate::cancel);
+        }
+        hedging.recordFetch(page.headersNanos - primaryNanos);
+        return handleResponse(page.response, page.body, startNanos, page.headersNanos, consumerNanos, false,
+                requestEvent);
+    }
+
+    private FetchedPage fetch(CloseableHttpClient client, HttpGet get, boolean hedge) throws IOException {
+        return client.execute(get, response -> {
+            long headersNanos = System.nanoTime();
+            return new FetchedPage(response, readBody(response), headersNanos, hedge);
+        });
+    }
+
+    private FetchedPage fetchUnchecked(CloseableHttpClient client, HttpGet get, boolean hedge) {
+        try {
+            return fetch(client, get, hedge);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Waits for the primary request up to the hedge delay, then, if the rate cap
+     * allows, for whichever of the primary and a duplicate answers first. The
+     * request that lost is cancelled.
+     */
+    private FetchedPage awaitHedged(CompletableFuture<FetchedPage> primary, Runnable cancelPrimary, long delayNanos,
+            Supplier<CompletableFuture<FetchedPage>> hedge, Runnable cancelHedge) throws IOException {
+        try {
+            return await(primary, delayNanos);
+        } catch (TimeoutException e) {
+            if (!hedging.tryAcquireHedge()) {
+                return await(primary);
+            }
+        }
+
+        log.debug("Hedging page fetch of query {} after {} ms", currentResponse.getId(), delayNanos / 1_000_000);
+        CompletableFuture<FetchedPage> duplicate = hedge.get();
+        FetchedPage winner = await(firstSuccessful(primary, duplicate));
+        hedging.recordHedgeResult(winner.hedge);
+        (winner.hedge ? cancelPrimary : cancelHedge).run();
+        return winner;
+    }
+
+    private static FetchedPage await(Future<FetchedPage> future) throws IOException {
+        try {
+            return await(future, Long.MAX_VALUE);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FetchedPage await(Future<FetchedPage> future, long timeoutNanos)
+            throws IOException, TimeoutException {
+        try {
+            return timeoutNanos == Long.MAX_VALUE ? future.get() : future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Request cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    /**
+     * Completes with the first of two futures to succeed, or with the last
+     * failure if both fail.
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<T, Throwable> handler = (value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            }
+        };
+        first.whenComplete(handler);
+        second.whenComplete(handler);
+        return result;
+    }
+
+    private SimpleHttpRequest newSubmitRequest(URI server) {
+        URI uri = server.resolve("/v1/statement");
+        SimpleHttpRequest post = SimpleRequestBuilder.post(uri)
+                .setBody(statement, ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8))
+                .build();
+        setHeaders(post);
+        setPreparedStatementHeader(post);
+        traceRequest(post, uri, true);
+        return post;
+    }
+
+    private SimpleHttpRequest newNextPageRequest() {
+        URI uri = buildNextUri(currentResponse.getNextUri());
+        SimpleHttpRequest get = SimpleRequestBuilder.get(uri).build();
+        setHeaders(get);
+        traceRequest(get, uri, false);
+        return get;
+    }
+
+    /**
+     * Starts the trace of a request and propagates it to the coordinator in
+     * the request headers.
+     */
+    private void traceRequest(org.apache.hc.core5.http.HttpRequest request, URI uri, boolean submission) {
+        RequestTrace trace = queryTrace.startRequest(submission, request.getMethod(), uri);
+        trace.inject(request::setHeader);
+        requestTrace = trace;
+    }
+
+    private void endRequestTrace(int statusCode, long responseBytes, int rows, TrinoStats stats, Throwable error) {
+        RequestTrace trace = requestTrace;
+        requestTrace = RequestTrace.NOOP;
+        trace.end(statusCode, responseBytes, rows, stats, error);
+    }
+
+    /**
+     * Processes a response to a submission or page request and updates the
+     * query state.
+     */
+    private StatementResponse handleResponse(HttpResponse response, byte[] body, long startNanos,
+            long headersNanos, long consumerNanos, boolean submission, RequestEvent requestEvent)
+            throws IOException {
+        requestEvent.end();
+        int statusCode = response.getCode();
+        int rows = 0;
+        StatementResponse parsed = null;
+        Throwable failure = null;
+        try {
+            metrics.recordRequest(metricTags, submission ? ClientMetrics.RequestType.SUBMIT
+                    : ClientMetrics.RequestType.NEXT_PAGE, statusCode, headersNanos - startNanos,
+                    System.nanoTime() - headersNanos);
+            if (submission && router != null && (statusCode == 502 || statusCode == 503 || statusCode == 504)) {
+                metrics.recordError(metricTags, "HTTP_" + statusCode);
+                throw new CoordinatorUnavailableException(statusCode);
+            }
+
+            if (statusCode >= 400) {
+                handleErrorResponse(statusCode, response.getReasonPhrase(), body);
+            }
+
+            updateSession(response);
+            PageParseEvent parseEvent = new PageParseEvent();
+            parseEvent.begin();
+            long parseStartNanos = System.nanoTime();
+            currentResponse = parseResponse(body);
+            parsed = currentResponse;
+            parseEvent.end();
+            metrics.recordParse(metricTags, System.nanoTime() - parseStartNanos);
+            rows = recordPage(startNanos, consumerNanos);
+            if (parseEvent.shouldCommit()) {
+                parseEvent.queryId = currentResponse.getId();
+                parseEvent.bytes = lastResponseBytes;
+                parseEvent.rows = rows;
+                parseEvent.commit();
+            }
+            if (timeline != null) {
+                emitProgress(submission, rows);
+            }
+            updateState();
+
+            return currentResponse;
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            commitRequestEvent(requestEvent, statusCode, body, rows);
+            endRequestTrace(statusCode, body != null ? body.length : 0, rows,
+                    parsed != null ? parsed.getStats() : null, failure);
+        }
+    }
+
+    private void commitRequestEvent(RequestEvent event, int statusCode, byte[] body, int rows) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        StatementResponse response = currentResponse;
+        event.queryId = response != null ? response.getId() : null;
+        event.statusCode = statusCode;
+        event.responseBytes = body != null ? body.length : 0;
+        if (event instanceof StatementSubmitEvent) {
+            ((StatementSubmitEvent) event).user = session.getUser();
+        } else if (event instanceof PageFetchEvent) {
+            PageFetchEvent pageEvent = (PageFetchEvent) event;
+            pageEvent.rows = rows;
+            Long targetResultSize = clientStats.getTargetResultSize();
+            pageEvent.targetResultSize = targetResultSize != null ? targetResultSize : 0;
+        }
+        event.commit();
+    }
+
+    /**
+     * Failover is only safe when the coordinator never accepted the statement,
+     * otherwise the query could run twice.
+     */
+    private static boolean isSubmissionRetryable(IOException e) {
+        return e instanceof CoordinatorUnavailableException
+                || e instanceof ConnectException
+                || e instanceof ConnectTimeoutException
+                || e instanceof UnknownHostException;
+    }
+
+    private void releaseCoordinator() {
+        if (coordinator != null && !coordinatorReleased) {
+            coordinatorReleased = true;
+            router.release(coordinator);
         }
     }
 
@@ -103,6 +695,43 @@ public class StatementClient implements AutoCloseable {
      * Advance to the next page
      */
     public StatementResponse advance() {
+        if (!hasNextPage()) {
+            return currentResponse;
+        }
+
+        long startNanos = System.nanoTime();
+        long consumerNanos = startNanos - lastResponseNanos;
+        try {
+            if (transport != null) {
+                SimpleHttpRequest request = newNextPageRequest();
+                return hedging != null ? sendHedged(request, consumerNanos) : send(request, consumerNanos, false);
+            }
+
+            URI uri = buildNextUri(currentResponse.getNextUri());
+            HttpGet get = new HttpGet(uri);
+            setHeaders(get);
+            traceRequest(get, uri, false);
+            RequestEvent requestEvent = RequestEvent.begin(false, get);
+            if (hedging != null) {
+                return executeHedged(get, uri, startNanos, consumerNanos, requestEvent);
+            }
+            return httpClient().execute(get, response -> {
+                long headersNanos = System.nanoTime();
+                return handleResponse(response, readBody(response), startNanos, headersNanos, consumerNanos, false,
+                        requestEvent);
+            });
+        } catch (IOException e) {
+            endRequestTrace(0, 0, 0, null, e);
+            failWithClientError();
+            throw new TrinoException("Failed to advance query", e);
+        }
+    }
+
+    /**
+     * Checks whether there is another page to fetch, marking the query finished
+     * when the last page has been reached.
+     */
+    private boolean hasNextPage() {
         if (closed) {
             throw new TrinoException("Client is closed");
         }
@@ -113,42 +742,120 @@ public class StatementClient implements AutoCloseable {
 
         if (currentResponse.isLastPage()) {
             state.set(QueryState.FINISHED);
-            return currentResponse;
+            return false;
         }
 
-        if (state.get() != QueryState.RUNNING) {
-            return currentResponse;
-        }
+        return state.get() == QueryState.RUNNING;
+    }
 
-        String nextUri = currentResponse.getNextUri();
-        if (nextUri == null) {
-            state.set(QueryState.FINISHED);
-            return currentResponse;
+    private CloseableHttpClient httpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClients.createDefault();
         }
+        return httpClient;
+    }
 
-        HttpGet get = new HttpGet(URI.create(nextUri));
-        setHeaders(get);
+    private URI buildNextUri(String nextUri) {
+        Long targetResultSize = resultSizeTuner.getTargetResultSize();
+        clientStats.setTargetResultSize(targetResultSize);
+        if (targetResultSize == null) {
+            return URI.create(nextUri);
+        }
 
         try {
-            return httpClient.execute(get, response -> {
-                int statusCode = response.getCode();
+            return new URIBuilder(nextUri)
+                    .setParameter("targetResultSize", ResultSizeTuner.formatDataSize(targetResultSize))
+                    .build();
+        } catch (URISyntaxException e) {
+            throw new TrinoException("Invalid next URI: " + nextUri, e);
+        }
+    }
 
-                if (statusCode >= 400) {
-                    handleErrorResponse(response);
-                }
+    private int recordPage(long startNanos, long consumerNanos) {
+        lastResponseNanos = System.nanoTime();
+        long fetchNanos = lastResponseNanos - startNanos;
+        clientStats.recordPage(lastResponseBytes, fetchNanos / 1_000_000);
+        if (consumerNanos > 0) {
+            clientStats.setConsumerBytesPerSecond(clientStats.getLastPageBytes() * 1e9 / consumerNanos);
+        }
+        resultSizeTuner.onPage(lastResponseBytes, fetchNanos, consumerNanos);
 
-                currentResponse = parseResponse(response);
-                updateState();
+        int rows = currentResponse.getData() != null ? currentResponse.getData().size() : 0;
+        rowCount += rows;
+        metrics.recordPage(metricTags, lastResponseBytes, rows);
+        return rows;
+    }
 
-                return currentResponse;
-            });
-        } catch (IOException e) {
-            state.set(QueryState.CLIENT_ERROR);
-            throw new TrinoException("Failed to advance query", e);
+    private void failWithClientError() {
+        state.set(QueryState.CLIENT_ERROR);
+        metrics.recordError(metricTags, "CLIENT_ERROR");
+        recordCompletion(null);
+    }
+
+    /**
+     * Reports the query's final state to the metrics and listeners, once.
+     */
+    private void recordCompletion(TrinoError error) {
+        if (!completionRecorded.compareAndSet(false, true)) {
+            return;
+        }
+        completedNanos = System.nanoTime();
+        QueryState finalState = state.get();
+        StatementResponse response = currentResponse;
+        TrinoStats stats = response != null ? response.getStats() : null;
+        Long queuedMillis = stats != null ? stats.getQueuedTimeMillis() : null;
+        metrics.recordQueryCompleted(metricTags, finalState, System.nanoTime() - submitNanos,
+                queuedMillis != null ? queuedMillis * 1_000_000 : 0, rowCount);
+        queryTrace.end(response != null ? response.getId() : null, finalState, stats, error, rowCount);
+
+        if (finalState == QueryState.CLIENT_ABORTED) {
+            emit(QueryEvent.Type.CANCELLED, error);
+        } else if (finalState == QueryState.CLIENT_ERROR || error != null
+                || (stats != null && "FAILED".equals(stats.getState()))) {
+            emit(QueryEvent.Type.FAILED, error);
+        } else {
+            emit(QueryEvent.Type.FINISHED, null);
         }
     }
 
-    private void setHeaders(org.apache.hc.core5.http.HttpRequest request) {
+    /**
+     * Emits the events marking the query's progress through a response.
+     */
+    private void emitProgress(boolean submission, int rows) {
+        if (submission) {
+            emit(QueryEvent.Type.SUBMITTED, null);
+        }
+        TrinoStats stats = currentResponse.getStats();
+        if (!queuedReported && stats != null && "QUEUED".equals(stats.getState())) {
+            queuedReported = true;
+            emit(QueryEvent.Type.QUEUED, null);
+        }
+        if (!firstRowReported && rows > 0) {
+            firstRowReported = true;
+            emit(QueryEvent.Type.FIRST_ROW, null);
+        }
+    }
+
+    private void emit(QueryEvent.Type type, TrinoError error) {
+        if (timeline == null) {
+            return;
+        }
+        StatementResponse response = currentResponse;
+        QueryEvent event = new QueryEvent(type, timeline, response != null ? response.getId() : null,
+                System.currentTimeMillis(), System.nanoTime() - createdNanos, rowCount,
+                response != null ? response.getStats() : null, error);
+        timeline.add(event);
+        for (QueryEventListener listener : eventListeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                log.warn("Query event listener failed on {}", type, e);
+            }
+        }
+    }
+
+    /** Package-private for the benchmarks module */
+    void setHeaders(org.apache.hc.core5.http.HttpRequest request) {
         request.setHeader("X-Trino-User", session.getUser());
         request.setHeader("X-Trino-Source", session.getSource());
 
@@ -160,6 +867,10 @@ public class StatementClient implements AutoCloseable {
             request.setHeader("X-Trino-Schema", session.getSchema());
         }
 
+        if (session.getPath() != null) {
+            request.setHeader("X-Trino-Path", session.getPath());
+        }
+
         if (!session.getClientTags().isEmpty()) {
             request.setHeader("X-Trino-Client-Tags", String.join(",", session.getClientTags()));
         }
@@ -172,47 +883,176 @@ public class StatementClient implements AutoCloseable {
             request.setHeader("X-Trino-Language", session.getLocale());
         }
 
-        // Session properties
+        // Session properties, one header each
         for (Map.Entry<String, String> entry : session.getProperties().entrySet()) {
-            request.setHeader("X-Trino-Session", entry.getKey() + "=" + entry.getValue());
+            request.addHeader("X-Trino-Session", entry.getKey() + "=" + urlEncode(entry.getValue()));
         }
 
-        // Extra credentials
+        // Extra credentials, one header each
         for (Map.Entry<String, String> entry : session.getCredentials().entrySet()) {
-            request.setHeader("X-Trino-Extra-Credential", entry.getKey() + "=" + entry.getValue());
+            request.addHeader("X-Trino-Extra-Credential", entry.getKey() + "=" + urlEncode(entry.getValue()));
         }
 
+        // NONE tells the coordinator that the client can start transactions
+        String transactionId = session.getTransactionId();
+        request.setHeader("X-Trino-Transaction-Id", transactionId != null ? transactionId : "NONE");
+
         if (session.getCompressionDisabled() != null && session.getCompressionDisabled()) {
             request.setHeader("Accept-Encoding", "identity");
         }
     }
 
-    private StatementResponse parseResponse(ClassicHttpResponse response) throws IOException {
-        try {
-            String content = EntityUtils.toString(response.getEntity());
-            return gson.fromJson(content, StatementResponse.class);
-        } catch (ParseException e) {
-            throw new IOException("Failed to parse response", e);
+    /**
+     * Sends the prepared statement referenced by an {@code EXECUTE},
+     * {@code DESCRIBE INPUT}, {@code DESCRIBE OUTPUT} or {@code DEALLOCATE}
+     * statement. Only the referenced statement is sent, and only with the
+     * submission, since the coordinator needs it to plan the query but not to
+     * serve its pages.
+     */
+    private void setPreparedStatementHeader(org.apache.hc.core5.http.HttpRequest request) {
+        Map<String, String> preparedStatements = session.getPreparedStatements();
+        if (preparedStatements.isEmpty()) {
+            return;
+        }
+        Matcher matcher = PREPARED_STATEMENT_REFERENCE.matcher(statement);
+        if (!matcher.lookingAt()) {
+            return;
+        }
+
+        String name = matcher.group(1);
+        if (name.startsWith("\"")) {
+            name = name.substring(1, name.length() - 1).replace("\"\"", "\"");
+        }
+        String sql = preparedStatements.get(name);
+        if (sql == null) {
+            // Unquoted names are case-insensitive
+            for (Map.Entry<String, String> entry : preparedStatements.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name)) {
+                    name = entry.getKey();
+                    sql = entry.getValue();
+                    break;
+                }
+            }
+        }
+        if (sql != null) {
+            request.setHeader("X-Trino-Prepared-Statement", urlEncode(name) + "=" + urlEncode(sql));
+        }
+    }
+
+    /**
+     * Applies the session changes made by the statement, such as {@code USE},
+     * {@code SET SESSION}, {@code PREPARE} or {@code START TRANSACTION}, so
+     * that later statements of the session see them.
+     */
+    private void updateSession(HttpResponse response) {
+        Header catalog = response.getFirstHeader("X-Trino-Set-Catalog");
+        if (catalog != null) {
+            session.setCatalog(catalog.getValue());
+        }
+        Header schema = response.getFirstHeader("X-Trino-Set-Schema");
+        if (schema != null) {
+            session.setSchema(schema.getValue());
+        }
+        Header path = response.getFirstHeader("X-Trino-Set-Path");
+        if (path != null) {
+            session.setPath(path.getValue());
+        }
+
+        for (Header header : response.getHeaders("X-Trino-Set-Session")) {
+            String value = header.getValue();
+            int separator = value.indexOf('=');
+            if (separator > 0) {
+                session.getProperties().put(value.substring(0, separator).trim(),
+                        urlDecode(value.substring(separator + 1).trim()));
+            }
+        }
+        for (Header header : response.getHeaders("X-Trino-Clear-Session")) {
+            session.getProperties().remove(header.getValue().trim());
+        }
+
+        Header startedTransaction = response.getFirstHeader("X-Trino-Started-Transaction-Id");
+        if (startedTransaction != null) {
+            session.setTransactionId(startedTransaction.getValue().trim());
+        }
+        if (response.containsHeader("X-Trino-Clear-Transaction-Id")) {
+            session.setTransactionId(null);
+        }
+
+        for (Header header : response.getHeaders("X-Trino-Added-Prepare")) {
+            String value = header.getValue();
+            int separator = value.indexOf('=');
+            if (separator > 0) {
+                session.getPreparedStatements().put(urlDecode(value.substring(0, separator)),
+                        urlDecode(value.substring(separator + 1)));
+            }
+        }
+        for (Header header : response.getHeaders("X-Trino-Deallocated-Prepare")) {
+            session.getPreparedStatements().remove(urlDecode(header.getValue()));
         }
     }
 
-    private void handleErrorResponse(ClassicHttpResponse response) throws IOException {
-        StatementResponse errorResponse = parseResponse(response);
-        TrinoError error = errorResponse.getError();
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
 
+    private static String urlDecode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBody(ClassicHttpResponse response) throws IOException {
+        if (response.getEntity() == null) {
+            return null;
+        }
+        PageDecodeEvent event = new PageDecodeEvent();
+        event.begin();
+        byte[] body = EntityUtils.toByteArray(response.getEntity());
+        event.end();
+        if (event.shouldCommit()) {
+            StatementResponse previous = currentResponse;
+            event.queryId = previous != null ? previous.getId() : null;
+            event.bytes = body.length;
+            event.commit();
+        }
+        return body;
+    }
+
+    /** Package-private for the benchmarks module */
+    StatementResponse parseResponse(byte[] content) throws IOException {
+        if (content == null) {
+            throw new IOException("Empty response body");
+        }
+        lastResponseBytes = content.length;
+        return gson.fromJson(new String(content, StandardCharsets.UTF_8), StatementResponse.class);
+    }
+
+    private void handleErrorResponse(int statusCode, String reasonPhrase, byte[] body) throws IOException {
+        StatementResponse errorResponse = parseErrorResponse(body);
+        TrinoError error = errorResponse != null ? errorResponse.getError() : null;
+
+        metrics.recordError(metricTags, error != null ? error.getErrorName() : "HTTP_" + statusCode);
         if (error != null) {
             if ("USER_CANCELED".equals(error.getErrorName())) {
                 state.set(QueryState.CLIENT_ABORTED);
+                recordCompletion(error);
                 throw new QueryCancelledException(errorResponse.getId());
             } else {
                 state.set(QueryState.FINISHED);
+                recordCompletion(error);
                 throw new QueryFailedException(errorResponse.getId(), error);
             }
         }
 
         // If no error object, use status code
-        StatusLine statusLine = new StatusLine(response);
-        throw new TrinoException("HTTP error: " + statusLine.getStatusCode() + " " + statusLine.getReasonPhrase());
+        throw new TrinoException("HTTP error: " + statusCode + " " + reasonPhrase);
+    }
+
+    private StatementResponse parseErrorResponse(byte[] body) {
+        try {
+            return parseResponse(body);
+        } catch (IOException | RuntimeException e) {
+            // Error bodies from proxies are often not JSON
+            return null;
+        }
     }
 
     private void updateState() {
@@ -220,6 +1060,19 @@ public class StatementClient implements AutoCloseable {
             return;
         }
 
+        if (cancelled) {
+            // The response raced with cancel(), which may not have known the query yet
+            state.set(QueryState.CLIENT_ABORTED);
+            if (!currentResponse.isLastPage()) {
+                sendCancel(URI.create(currentResponse.getNextUri()));
+            }
+            if (router != null) {
+                releaseCoordinator();
+            }
+            recordCompletion(null);
+            return;
+        }
+
         TrinoError error = currentResponse.getError();
         if (error != null) {
             if ("USER_CANCELED".equals(error.getErrorName())) {
@@ -227,6 +1080,8 @@ public class StatementClient implements AutoCloseable {
             } else {
                 state.set(QueryState.FINISHED);
             }
+            metrics.recordError(metricTags, error.getErrorName());
+            recordCompletion(error);
             return;
         }
 
@@ -238,6 +1093,117 @@ public class StatementClient implements AutoCloseable {
         } else {
             state.set(QueryState.RUNNING);
         }
+
+        if (state.get() != QueryState.RUNNING) {
+            if (router != null) {
+                releaseCoordinator();
+            }
+            recordCompletion(null);
+        }
+    }
+
+    /** A page response read in full, with the time its response headers arrived */
+    private static final class FetchedPage {
+        final HttpResponse response;
+        final byte[] body;
+        final long headersNanos;
+        /** Whether the response answered the duplicate request of a hedged fetch */
+        final boolean hedge;
+
+        FetchedPage(HttpResponse response, byte[] body, long headersNanos, boolean hedge) {
+            this.response = response;
+            this.body = body;
+            this.headersNanos = headersNanos;
+            this.hedge = hedge;
+        }
+    }
+
+    /** Runs the blocking requests of hedged page fetches, created on first use */
+    private static final class HedgeExecutor {
+        static final ExecutorService INSTANCE = ClientThreads.newExecutor("trino-client-hedge",
+                ClientThreads.isVirtualThreadsSupported());
+    }
+
+    /**
+     * Exception raised when a coordinator rejects a submission because it is
+     * unavailable (HTTP 502, 503 or 504).
+     */
+    private static class CoordinatorUnavailableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CoordinatorUnavailableException(int statusCode) {
+            super("Coordinator unavailable: HTTP " + statusCode);
+        }
+    }
+
+    /**
+     * Cancels the query on the coordinator by deleting its next URI.
+     * This method may be called from another thread while pages are being
+     * fetched; the query state becomes {@link QueryState#CLIENT_ABORTED} and no
+     * further pages are requested. A query whose submission is still in flight is
+     * cancelled as soon as the coordinator responds.
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        state.set(QueryState.CLIENT_ABORTED);
+        if (submitNanos != 0) {
+            recordCompletion(null);
+        }
+
+        StatementResponse response = currentResponse;
+        if (response != null && !response.isLastPage()) {
+            sendCancel(URI.create(response.getNextUri()));
+        }
+    }
+
+    private void sendCancel(URI uri) {
+        QueryCancelEvent event = new QueryCancelEvent();
+        event.begin();
+        try {
+            if (transport != null) {
+                SimpleHttpRequest delete = SimpleRequestBuilder.delete(uri).build();
+                setHeaders(delete);
+                transport.execute(delete).whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Failed to cancel query at {}", uri, error);
+                    }
+                    commitCancelEvent(event, uri, error == null);
+                });
+                return;
+            }
+
+            // The statement's own HTTP client may be in use by the fetching thread
+            HttpDelete delete = new HttpDelete(uri);
+            setHeaders(delete);
+            try (CloseableHttpClient client = HttpClients.createDefault()) {
+                client.execute(delete, response -> {
+                    EntityUtils.consume(response.getEntity());
+                    return null;
+                });
+            }
+            commitCancelEvent(event, uri, true);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to cancel query at {}", uri, e);
+            commitCancelEvent(event, uri, false);
+        }
+    }
+
+    private void commitCancelEvent(QueryCancelEvent event, URI uri, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            StatementResponse response = currentResponse;
+            event.queryId = response != null ? response.getId() : null;
+            event.uri = uri.toString();
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
     }
 
     public QueryState getState() {
@@ -248,6 +1214,17 @@ public class StatementClient implements AutoCloseable {
         return currentResponse;
     }
 
+    /**
+     * Gets the time at which the query reached its final state, as received
+     * from the coordinator rather than as read by the application.
+     * 
+     * @return the {@link System#nanoTime()} of completion, or 0 if the query
+     *         has not completed
+     */
+    public long getCompletedNanos() {
+        return completedNanos;
+    }
+
     public ClientSession getSession() {
         return session;
     }
@@ -256,10 +1233,29 @@ public class StatementClient implements AutoCloseable {
         return statement;
     }
 
+    /**
+     * Gets the coordinator that accepted the query.
+     * 
+     * @return the coordinator URI, or the session server when no router is used
+     */
+    public URI getServer() {
+        return coordinator != null ? coordinator.getUri() : session.getServer();
+    }
+
+    public ClientQueryStats getClientStats() {
+        return clientStats;
+    }
+
     @Override
     public void close() {
         if (!closed) {
             closed = true;
+            if (router != null) {
+                releaseCoordinator();
+            }
+            if (httpClient == null) {
+                return;
+            }
             try {
                 httpClient.close();
             } catch (IOException e) {
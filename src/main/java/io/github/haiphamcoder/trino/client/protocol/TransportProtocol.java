@@ -0,0 +1,21 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+/**
+ * HTTP protocol used to talk to Trino coordinators.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public enum TransportProtocol {
+    /**
+     * HTTP/1.1, where every in-flight request needs its own connection.
+     */
+    HTTP_1_1,
+
+    /**
+     * HTTP/2, where requests of many queries are multiplexed as streams over a
+     * single connection per coordinator. Cleartext servers are contacted with
+     * prior knowledge ({@code h2c}); TLS servers negotiate HTTP/2 through ALPN.
+     */
+    HTTP_2
+}
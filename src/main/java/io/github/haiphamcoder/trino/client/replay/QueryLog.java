@@ -0,0 +1,117 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+
+/**
+ * Reads query logs in JSON Lines format, one query per line:
+ *
+ * <pre>
+ * {"timestamp":"2025-10-28T09:00:00.120Z","sql":"SELECT ...","user":"alice","source":"superset",
+ *  "catalog":"hive","schema":"web","clientTags":["dashboard"],"properties":{"query_max_run_time":"5m"}}
+ * </pre>
+ *
+ * <p>
+ * Only {@code sql} is required. {@code timestamp} is an ISO-8601 instant or
+ * milliseconds since the epoch; without it, queries arrive together. Blank
+ * lines and lines starting with {@code #} are skipped. Entries are returned
+ * in arrival order.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class QueryLog {
+
+    private QueryLog() {
+    }
+
+    /**
+     * Reads a query log file.
+     *
+     * @param path the file
+     * @return the entries, in arrival order
+     * @throws IOException    if the file cannot be read
+     * @throws TrinoException if a line is not a valid entry
+     */
+    public static List<QueryLogEntry> read(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads a query log.
+     *
+     * @param reader the log
+     * @return the entries, in arrival order
+     * @throws IOException    if the log cannot be read
+     * @throws TrinoException if a line is not a valid entry
+     */
+    public static List<QueryLogEntry> read(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<QueryLogEntry> entries = new ArrayList<>();
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                entries.add(parse(JsonParser.parseString(trimmed).getAsJsonObject()));
+            } catch (JsonParseException | IllegalStateException | IllegalArgumentException
+                    | DateTimeParseException e) {
+                throw new TrinoException("Invalid query log entry on line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        // Stable, so queries logged at the same time keep their order
+        entries.sort(Comparator.comparingLong(QueryLogEntry::getArrivalMillis));
+        return entries;
+    }
+
+    private static QueryLogEntry parse(JsonObject json) {
+        QueryLogEntry.Builder builder = QueryLogEntry.builder()
+                .sql(string(json, "sql"))
+                .user(string(json, "user"))
+                .source(string(json, "source"))
+                .catalog(string(json, "catalog"))
+                .schema(string(json, "schema"));
+        JsonElement timestamp = json.get("timestamp");
+        if (timestamp != null && !timestamp.isJsonNull()) {
+            builder.arrivalMillis(timestamp.getAsJsonPrimitive().isNumber() ? timestamp.getAsLong()
+                    : Instant.parse(timestamp.getAsString()).toEpochMilli());
+        }
+        if (json.has("clientTags")) {
+            json.getAsJsonArray("clientTags").forEach(tag -> builder.clientTag(tag.getAsString()));
+        }
+        if (json.has("properties")) {
+            for (Map.Entry<String, JsonElement> property : json.getAsJsonObject("properties").entrySet()) {
+                builder.property(property.getKey(), property.getValue().getAsString());
+            }
+        }
+        return builder.build();
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * One query of a workload to replay: its SQL, the session it ran in and when
+ * it arrived.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class QueryLogEntry {
+    private final long arrivalMillis;
+    private final String sql;
+    private final String user;
+    private final String source;
+    private final String catalog;
+    private final String schema;
+    private final Set<String> clientTags;
+    private final Map<String, String> properties;
+
+    private QueryLogEntry(Builder builder) {
+        if (builder.sql == null || builder.sql.isBlank()) {
+            throw new IllegalArgumentException("sql is required");
+        }
+        this.arrivalMillis = builder.arrivalMillis;
+        this.sql = builder.sql;
+        this.user = builder.user;
+        this.source = builder.source;
+        this.catalog = builder.catalog;
+        this.schema = builder.schema;
+        this.clientTags = Set.copyOf(builder.clientTags);
+        this.properties = Map.copyOf(builder.properties);
+    }
+
+    /**
+     * Creates a new Builder for constructing a QueryLogEntry.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Arrival time, in milliseconds since the epoch */
+    public long getArrivalMillis() {
+        return arrivalMillis;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getCatalog() {
+        return catalog;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public Set<String> getClientTags() {
+        return clientTags;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Gets the session fields of the entry; entries with equal keys run in the
+     * same session.
+     */
+    List<Object> getSessionKey() {
+        return Arrays.asList(user, source, catalog, schema, new TreeSet<>(clientTags), properties);
+    }
+
+    public static class Builder {
+        private long arrivalMillis;
+        private String sql;
+        private String user;
+        private String source;
+        private String catalog;
+        private String schema;
+        private final Set<String> clientTags = new TreeSet<>();
+        private final Map<String, String> properties = new LinkedHashMap<>();
+
+        /**
+         * Sets the arrival time.
+         *
+         * @param arrivalMillis the arrival time, in milliseconds since the epoch
+         * @return this builder
+         */
+        public Builder arrivalMillis(long arrivalMillis) {
+            this.arrivalMillis = arrivalMillis;
+            return this;
+        }
+
+        /**
+         * Sets the SQL statement.
+         *
+         * @param sql the SQL statement
+         * @return this builder
+         */
+        public Builder sql(String sql) {
+            this.sql = sql;
+            return this;
+        }
+
+        /**
+         * Sets the user; entries without one run as the replayer's default user.
+         *
+         * @param user the user
+         * @return this builder
+         */
+        public Builder user(String user) {
+            this.user = user;
+            return this;
+        }
+
+        /**
+         * Sets the source.
+         *
+         * @param source the source
+         * @return this builder
+         */
+        public Builder source(String source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * Sets the catalog.
+         *
+         * @param catalog the catalog
+         * @return this builder
+         */
+        public Builder catalog(String catalog) {
+            this.catalog = catalog;
+            return this;
+        }
+
+        /**
+         * Sets the schema.
+         *
+         * @param schema the schema
+         * @return this builder
+         */
+        public Builder schema(String schema) {
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Adds a client tag.
+         *
+         * @param tag the client tag
+         * @return this builder
+         */
+        public Builder clientTag(String tag) {
+            this.clientTags.add(tag);
+            return this;
+        }
+
+        /**
+         * Sets a session property.
+         *
+         * @param key   the property name
+         * @param value the property value
+         * @return this builder
+         */
+        public Builder property(String key, String value) {
+            this.properties.put(key, value);
+            return this;
+        }
+
+        public QueryLogEntry build() {
+            return new QueryLogEntry(this);
+        }
+    }
+}
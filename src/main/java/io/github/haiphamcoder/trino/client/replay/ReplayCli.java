@@ -0,0 +1,102 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command line entry point of the {@link WorkloadReplayer}.
+ *
+ * <pre>
+ * java -cp trino-client.jar:... io.github.haiphamcoder.trino.client.replay.ReplayCli \
+ *     --server http://localhost:8080 --log queries.jsonl [--rate 2 | --concurrency 16] \
+ *     [--user replay] [--virtual-threads] [--max-error-rate 0.01]
+ * </pre>
+ *
+ * <p>
+ * Prints the {@link ReplayReport} and exits with status 1 when the error
+ * rate exceeds {@code --max-error-rate}, so release validation can run it
+ * as a gate, or with status 2 on invalid arguments.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class ReplayCli {
+    private static final String USAGE = "Usage: ReplayCli --server <uri> --log <file> [--rate <multiplier>] "
+            + "[--concurrency <workers>] [--user <default user>] [--virtual-threads] [--max-error-rate <fraction>]";
+
+    private ReplayCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the command line.
+     *
+     * @param args the arguments
+     * @param out  the stream the report is printed to
+     * @param err  the stream errors are printed to
+     * @return the exit status
+     * @throws IOException if the log cannot be read
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) throws IOException {
+        URI server = null;
+        Path log = null;
+        double maxErrorRate = 1;
+        ReplayOptions.Builder options = ReplayOptions.builder();
+        ReplayOptions replayOptions;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--server":
+                        server = URI.create(args[++i]);
+                        break;
+                    case "--log":
+                        log = Path.of(args[++i]);
+                        break;
+                    case "--rate":
+                        options.rateMultiplier(Double.parseDouble(args[++i]));
+                        break;
+                    case "--concurrency":
+                        options.concurrency(Integer.parseInt(args[++i]));
+                        break;
+                    case "--user":
+                        options.defaultUser(args[++i]);
+                        break;
+                    case "--virtual-threads":
+                        options.virtualThreads(true);
+                        break;
+                    case "--max-error-rate":
+                        maxErrorRate = Double.parseDouble(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (server == null || log == null) {
+                throw new IllegalArgumentException("--server and --log are required");
+            }
+            replayOptions = options.build();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing argument value" : e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        List<QueryLogEntry> entries = QueryLog.read(log);
+        out.printf("Replaying %d queries against %s (%s)%n", entries.size(), server,
+                replayOptions.isClosedLoop() ? replayOptions.getConcurrency() + " workers"
+                        : replayOptions.getRateMultiplier() + "x rate");
+        ReplayReport report = new WorkloadReplayer(server, replayOptions).run(entries);
+        out.print(report.format());
+        if (report.getErrorRate() > maxErrorRate) {
+            err.printf("Error rate %.2f%% exceeds %.2f%%%n", report.getErrorRate() * 100, maxErrorRate * 100);
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+/**
+ * Options controlling how a {@link WorkloadReplayer} paces a workload.
+ *
+ * <p>
+ * In open-loop mode, the default, queries start at their logged arrival
+ * times, compressed by the rate multiplier, whether or not earlier queries
+ * have completed; this reproduces the load a cluster sees from real users. In
+ * closed-loop mode, a fixed number of workers each start the next query as
+ * soon as their previous one completes, ignoring arrival times; this finds
+ * the throughput a cluster sustains at a given concurrency.
+ *
+ * <pre>{@code
+ * ReplayOptions twiceAsFast = ReplayOptions.builder().rateMultiplier(2).build();
+ * ReplayOptions sixteenWorkers = ReplayOptions.builder().concurrency(16).build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class ReplayOptions {
+    /** User for entries logged without one */
+    public static final String DEFAULT_USER = "replay";
+
+    private final double rateMultiplier;
+    private final int concurrency;
+    private final String defaultUser;
+    private final boolean virtualThreads;
+
+    private ReplayOptions(Builder builder) {
+        if (builder.rateMultiplier <= 0) {
+            throw new IllegalArgumentException("rateMultiplier must be positive");
+        }
+        if (builder.concurrency < 0) {
+            throw new IllegalArgumentException("concurrency must not be negative");
+        }
+        this.rateMultiplier = builder.rateMultiplier;
+        this.concurrency = builder.concurrency;
+        this.defaultUser = builder.defaultUser;
+        this.virtualThreads = builder.virtualThreads;
+    }
+
+    /**
+     * Creates options replaying at the original rate.
+     *
+     * @return the default options
+     */
+    public static ReplayOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new Builder for constructing ReplayOptions.
+     *
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public double getRateMultiplier() {
+        return rateMultiplier;
+    }
+
+    /** Number of closed-loop workers, or 0 for open-loop replay */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public boolean isClosedLoop() {
+        return concurrency > 0;
+    }
+
+    public String getDefaultUser() {
+        return defaultUser;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public static class Builder {
+        private double rateMultiplier = 1;
+        private int concurrency;
+        private String defaultUser = DEFAULT_USER;
+        private boolean virtualThreads;
+
+        /**
+         * Sets how much faster than logged queries arrive in open-loop mode;
+         * 2 halves the gaps between arrivals.
+         *
+         * @param rateMultiplier the rate multiplier
+         * @return this builder
+         */
+        public Builder rateMultiplier(double rateMultiplier) {
+            this.rateMultiplier = rateMultiplier;
+            return this;
+        }
+
+        /**
+         * Switches to closed-loop mode with the given number of workers; 0
+         * switches back to open-loop mode.
+         *
+         * @param concurrency the number of workers
+         * @return this builder
+         */
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets the user of entries logged without one.
+         *
+         * @param defaultUser the user
+         * @return this builder
+         */
+        public Builder defaultUser(String defaultUser) {
+            this.defaultUser = defaultUser;
+            return this;
+        }
+
+        /**
+         * Runs queries on virtual threads when the JVM supports them, so
+         * open-loop replay of slow workloads is not limited by platform
+         * threads.
+         *
+         * @param virtualThreads whether to use virtual threads
+         * @return this builder
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public ReplayOptions build() {
+            return new ReplayOptions(this);
+        }
+    }
+}
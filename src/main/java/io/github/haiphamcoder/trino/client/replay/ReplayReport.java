@@ -0,0 +1,178 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.haiphamcoder.trino.client.metrics.LatencyHistogram;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * Results of a workload replay. Latencies are in nanoseconds, except the
+ * Trino-side ones, which Trino reports in milliseconds.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class ReplayReport {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram timeToFirstRow = new LatencyHistogram();
+    private final LatencyHistogram startLag = new LatencyHistogram();
+    private final LatencyHistogram trinoElapsedMillis = new LatencyHistogram();
+    private final LatencyHistogram trinoQueuedMillis = new LatencyHistogram();
+    private final LatencyHistogram trinoCpuMillis = new LatencyHistogram();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private volatile long wallNanos;
+
+    ReplayReport() {
+    }
+
+    void recordQuery(long latencyNanos, long firstRowNanos, long startLagNanos, long rowCount, TrinoStats stats,
+            String errorName) {
+        queries.increment();
+        latency.record(latencyNanos);
+        startLag.record(startLagNanos);
+        rows.add(rowCount);
+        if (firstRowNanos >= 0) {
+            timeToFirstRow.record(firstRowNanos);
+        }
+        if (stats != null) {
+            if (stats.getElapsedTimeMillis() != null) {
+                trinoElapsedMillis.record(stats.getElapsedTimeMillis());
+            }
+            if (stats.getQueuedTimeMillis() != null) {
+                trinoQueuedMillis.record(stats.getQueuedTimeMillis());
+            }
+            if (stats.getTotalCpuTimeMillis() != null) {
+                trinoCpuMillis.record(stats.getTotalCpuTimeMillis());
+            }
+        }
+        if (errorName != null) {
+            failures.increment();
+            errors.computeIfAbsent(errorName, name -> new LongAdder()).increment();
+        }
+    }
+
+    void setWallNanos(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the fraction of queries that failed.
+     *
+     * @return the error rate, between 0 and 1
+     */
+    public double getErrorRate() {
+        long total = queries.sum();
+        return total == 0 ? 0 : (double) failures.sum() / total;
+    }
+
+    /**
+     * Gets the number of failures by Trino error name, or exception class for
+     * client-side failures.
+     *
+     * @return the failure counts
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /** Time from the first query's start until the last query completed */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Gets the number of queries completed per second of replay.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return wallNanos == 0 ? 0 : queries.sum() * 1e9 / wallNanos;
+    }
+
+    /** Client-side time from submission until the last row was read */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /** Client-side time from submission until the first row, for queries returning rows */
+    public LatencyHistogram getTimeToFirstRow() {
+        return timeToFirstRow;
+    }
+
+    /** How late queries started relative to their scheduled arrival, in open-loop mode */
+    public LatencyHistogram getStartLag() {
+        return startLag;
+    }
+
+    /** Elapsed time reported by Trino, in milliseconds */
+    public LatencyHistogram getTrinoElapsedMillis() {
+        return trinoElapsedMillis;
+    }
+
+    /** Queued time reported by Trino, in milliseconds */
+    public LatencyHistogram getTrinoQueuedMillis() {
+        return trinoQueuedMillis;
+    }
+
+    /** CPU time reported by Trino, in milliseconds */
+    public LatencyHistogram getTrinoCpuMillis() {
+        return trinoCpuMillis;
+    }
+
+    /**
+     * Formats the report as text, one measure per line.
+     *
+     * @return the formatted report
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("queries      %d in %.1f s, %.2f queries/s, %d rows%n", getQueries(),
+                wallNanos / 1e9, getThroughput(), getRows()));
+        builder.append(String.format("errors       %d (%.2f%%) %s%n", getFailures(), getErrorRate() * 100,
+                getErrors()));
+        builder.append(String.format("%-12s %10s %10s %10s %10s%n", "", "p50", "p90", "p99", "max"));
+        appendNanos(builder, "latency", latency);
+        appendNanos(builder, "first row", timeToFirstRow);
+        appendNanos(builder, "start lag", startLag);
+        appendMillis(builder, "trino time", trinoElapsedMillis);
+        appendMillis(builder, "trino queued", trinoQueuedMillis);
+        appendMillis(builder, "trino cpu", trinoCpuMillis);
+        return builder.toString();
+    }
+
+    private static void appendNanos(StringBuilder builder, String name, LatencyHistogram histogram) {
+        builder.append(String.format("%-12s %8.1fms %8.1fms %8.1fms %8.1fms%n", name,
+                histogram.getValueAtQuantile(0.5) / 1e6, histogram.getValueAtQuantile(0.9) / 1e6,
+                histogram.getValueAtQuantile(0.99) / 1e6, histogram.getMax() / 1e6));
+    }
+
+    private static void appendMillis(StringBuilder builder, String name, LatencyHistogram histogram) {
+        builder.append(String.format("%-12s %8dms %8dms %8dms %8dms%n", name, histogram.getValueAtQuantile(0.5),
+                histogram.getValueAtQuantile(0.9), histogram.getValueAtQuantile(0.99), histogram.getMax()));
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
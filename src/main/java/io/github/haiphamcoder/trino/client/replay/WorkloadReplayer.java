@@ -0,0 +1,152 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.concurrent.ClientThreads;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+
+/**
+ * Replays a logged workload against a coordinator and measures how it ran.
+ *
+ * <p>
+ * Each query runs in a session with the user, source, catalog, schema, client
+ * tags and session properties it was logged with, through a
+ * {@link TrinoClient} shared by all queries of that session. Rows are read
+ * and discarded. Failed queries are counted, not rethrown, so one bad query
+ * does not stop the replay. See {@link ReplayOptions} for the open- and
+ * closed-loop modes.
+ *
+ * <pre>{@code
+ * List<QueryLogEntry> workload = QueryLog.read(Path.of("queries.jsonl"));
+ * ReplayReport report = new WorkloadReplayer(URI.create("http://localhost:8080"),
+ *         ReplayOptions.builder().rateMultiplier(2).build()).run(workload);
+ * System.out.println(report.format());
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see ReplayCli
+ */
+public class WorkloadReplayer {
+    private final URI server;
+    private final ReplayOptions options;
+
+    /**
+     * Constructs a new WorkloadReplayer.
+     *
+     * @param server  the coordinator to replay against
+     * @param options the replay options
+     */
+    public WorkloadReplayer(URI server, ReplayOptions options) {
+        this.server = server;
+        this.options = options;
+    }
+
+    /**
+     * Replays a workload and waits for all its queries to complete.
+     *
+     * @param entries the queries, in arrival order
+     * @return the report
+     * @throws TrinoException if the calling thread is interrupted
+     */
+    public ReplayReport run(List<QueryLogEntry> entries) {
+        ReplayReport report = new ReplayReport();
+        Map<List<Object>, TrinoClient> clients = new ConcurrentHashMap<>();
+        ExecutorService executor = ClientThreads.newExecutor("trino-replay", options.isVirtualThreads());
+        List<Future<?>> futures = new ArrayList<>();
+        long startNanos = System.nanoTime();
+        try {
+            if (options.isClosedLoop()) {
+                AtomicInteger next = new AtomicInteger();
+                for (int i = 0; i < options.getConcurrency(); i++) {
+                    futures.add(executor.submit(() -> {
+                        int index;
+                        while ((index = next.getAndIncrement()) < entries.size()) {
+                            runQuery(entries.get(index), System.nanoTime(), clients, report);
+                        }
+                    }));
+                }
+            } else if (!entries.isEmpty()) {
+                long firstArrival = entries.get(0).getArrivalMillis();
+                for (QueryLogEntry entry : entries) {
+                    long offsetNanos = (long) ((entry.getArrivalMillis() - firstArrival) * 1_000_000L
+                            / options.getRateMultiplier());
+                    long scheduledNanos = startNanos + offsetNanos;
+                    long waitNanos = scheduledNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                    futures.add(executor.submit(() -> runQuery(entry, scheduledNanos, clients, report)));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while replaying workload", e);
+        } catch (ExecutionException e) {
+            throw new TrinoException("Replay worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            clients.values().forEach(TrinoClient::close);
+        }
+        report.setWallNanos(System.nanoTime() - startNanos);
+        return report;
+    }
+
+    private void runQuery(QueryLogEntry entry, long scheduledNanos, Map<List<Object>, TrinoClient> clients,
+            ReplayReport report) {
+        long startNanos = System.nanoTime();
+        long firstRowNanos = -1;
+        long rows = 0;
+        TrinoStats stats = null;
+        String errorName = null;
+        TrinoClient client = clients.computeIfAbsent(entry.getSessionKey(), key -> new TrinoClient(session(entry)));
+        try (TrinoResultSet resultSet = client.execute(entry.getSql())) {
+            while (resultSet.next()) {
+                if (rows++ == 0) {
+                    firstRowNanos = System.nanoTime() - startNanos;
+                }
+            }
+            stats = resultSet.getStats();
+            resultSet.checkCompleted();
+        } catch (TrinoException e) {
+            errorName = e.getTrinoError() != null && e.getTrinoError().getErrorName() != null
+                    ? e.getTrinoError().getErrorName()
+                    : e.getClass().getSimpleName();
+        } catch (RuntimeException e) {
+            errorName = e.getClass().getSimpleName();
+        }
+        report.recordQuery(System.nanoTime() - startNanos, firstRowNanos, Math.max(0, startNanos - scheduledNanos),
+                rows, stats, errorName);
+    }
+
+    private ClientSession session(QueryLogEntry entry) {
+        ClientSession.Builder builder = ClientSession.builder()
+                .server(server)
+                .user(entry.getUser() != null ? entry.getUser() : options.getDefaultUser())
+                .catalog(entry.getCatalog())
+                .schema(entry.getSchema());
+        if (entry.getSource() != null) {
+            builder.source(entry.getSource());
+        }
+        entry.getClientTags().forEach(builder::clientTag);
+        entry.getProperties().forEach(builder::property);
+        return builder.build();
+    }
+}
@@ -1,11 +1,18 @@
 package io.github.haiphamcoder.trino.client.result;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+import io.github.haiphamcoder.trino.client.exception.QueryCancelledException;
+import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
 import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.ClientQueryStats;
 import io.github.haiphamcoder.trino.client.model.QueryState;
 import io.github.haiphamcoder.trino.client.model.StatementResponse;
 import io.github.haiphamcoder.trino.client.model.TrinoColumn;
+import io.github.haiphamcoder.trino.client.model.TrinoError;
 import io.github.haiphamcoder.trino.client.model.TrinoStats;
 import io.github.haiphamcoder.trino.client.protocol.StatementClient;
 
@@ -31,14 +38,46 @@ import io.github.haiphamcoder.trino.client.protocol.StatementClient;
  */
 public class TrinoResultSet implements AutoCloseable {
     private final StatementClient statementClient;
+    private final Runnable onClose;
+    private final Executor prefetchExecutor;
+    private CompletableFuture<StatementResponse> prefetchedPage;
     private List<TrinoColumn> columns;
     private int currentPageIndex = -1;
     private List<List<Object>> currentPageData;
     private boolean hasNextPage = true;
     private boolean initialized = false;
 
+    private boolean closed = false;
+
     public TrinoResultSet(StatementClient statementClient) {
+        this(statementClient, null);
+    }
+
+    /**
+     * Constructs a result set that runs a callback once it is closed, after the
+     * statement client has been closed.
+     * 
+     * @param statementClient the statement client producing the results
+     * @param onClose         the callback to run on close, or null
+     */
+    public TrinoResultSet(StatementClient statementClient, Runnable onClose) {
+        this(statementClient, onClose, null);
+    }
+
+    /**
+     * Constructs a result set that fetches the next page on the given executor
+     * while the rows of the current page are consumed. At most one page is
+     * fetched ahead.
+     * 
+     * @param statementClient  the statement client producing the results
+     * @param onClose          the callback to run on close, or null
+     * @param prefetchExecutor the executor fetching pages ahead, or null to fetch
+     *                         pages on the calling thread when they are needed
+     */
+    public TrinoResultSet(StatementClient statementClient, Runnable onClose, Executor prefetchExecutor) {
         this.statementClient = statementClient;
+        this.onClose = onClose;
+        this.prefetchExecutor = prefetchExecutor;
     }
 
     /**
@@ -55,43 +94,59 @@ public class TrinoResultSet implements AutoCloseable {
 
         currentPageIndex++;
 
-        // If we've exhausted the current page, get the next page
-        if (currentPageData != null && currentPageIndex >= currentPageData.size()) {
-            if (hasNextPage && statementClient.getState() == QueryState.RUNNING) {
-                StatementResponse response = statementClient.advance();
-
-                if (response == null) {
-                    hasNextPage = false;
-                    return false;
-                }
-
-                currentPageData = response.getData();
-
-                // If still no data, we're done
-                if (currentPageData == null || currentPageData.isEmpty()) {
-                    if (response.isLastPage()) {
-                        hasNextPage = false;
-                    }
-                    return false;
-                }
+        // Fetch pages until one has rows; queued and running responses often have none
+        while (currentPageData == null || currentPageIndex >= currentPageData.size()) {
+            // A prefetched page may already have finished the query without being consumed
+            if (!hasNextPage || (prefetchedPage == null && statementClient.getState() != QueryState.RUNNING)) {
+                return false;
+            }
 
-                currentPageIndex = 0;
-            } else {
+            StatementResponse response = fetchNextPage();
+            if (response == null) {
+                hasNextPage = false;
                 return false;
             }
+
+            setPage(response);
+            currentPageIndex = 0;
         }
 
-        return currentPageData != null && currentPageIndex < currentPageData.size();
+        return true;
     }
 
     private void initialize() {
         StatementResponse response = statementClient.execute();
+        initialized = true;
+        setPage(response);
+        currentPageIndex = -1;
+    }
 
-        columns = response.getColumns();
+    private void setPage(StatementResponse response) {
+        if (columns == null) {
+            columns = response.getColumns();
+        }
         currentPageData = response.getData();
-        currentPageIndex = -1;
         hasNextPage = !response.isLastPage();
-        initialized = true;
+        if (prefetchExecutor != null && hasNextPage) {
+            prefetchedPage = CompletableFuture.supplyAsync(statementClient::advance, prefetchExecutor);
+        }
+    }
+
+    private StatementResponse fetchNextPage() {
+        CompletableFuture<StatementResponse> page = prefetchedPage;
+        if (page == null) {
+            return statementClient.advance();
+        }
+
+        prefetchedPage = null;
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -111,6 +166,22 @@ public class TrinoResultSet implements AutoCloseable {
         return new TrinoRow(columns, currentPageData.get(currentPageIndex));
     }
 
+    /**
+     * Gets the values of the current row without wrapping them in a
+     * {@link TrinoRow}, for callers copying many rows.
+     * 
+     * @return the values of the current row
+     * @throws TrinoException if called before next() or when there is no current
+     *                        row
+     */
+    public List<Object> getCurrentValues() {
+        if (currentPageIndex < 0 || currentPageData == null || currentPageIndex >= currentPageData.size()) {
+            throw new TrinoException("No current row. Call next() first.");
+        }
+
+        return currentPageData.get(currentPageIndex);
+    }
+
     /**
      * Gets all columns in the result set.
      * This will trigger initialization if not already initialized.
@@ -134,6 +205,73 @@ public class TrinoResultSet implements AutoCloseable {
         return response != null ? response.getStats() : null;
     }
 
+    /**
+     * Gets the client-side statistics measured while fetching result pages,
+     * including the target result size requested for the most recent page.
+     * 
+     * @return the client-side query statistics
+     */
+    public ClientQueryStats getClientStats() {
+        return statementClient.getClientStats();
+    }
+
+    /**
+     * Gets the number of rows changed by a data-modifying statement, as
+     * reported by the server once the statement has finished.
+     * 
+     * @return the update count, or null if the server reported none
+     */
+    public Long getUpdateCount() {
+        StatementResponse response = statementClient.getCurrentResponse();
+        return response != null ? response.getUpdateCount() : null;
+    }
+
+    /**
+     * Gets the ID assigned to the query by the server.
+     * 
+     * @return the query ID, or null if the query has not been submitted
+     */
+    public String getQueryId() {
+        StatementResponse response = statementClient.getCurrentResponse();
+        return response != null ? response.getId() : null;
+    }
+
+    /**
+     * Gets the error reported by the server for a failed query.
+     * 
+     * @return the error, or null if the query has not failed
+     */
+    public TrinoError getError() {
+        StatementResponse response = statementClient.getCurrentResponse();
+        return response != null ? response.getError() : null;
+    }
+
+    /**
+     * Throws if the query was cancelled or failed on the server. Iteration stops
+     * silently in both cases, so callers that need every row should call this
+     * once {@link #next()} returns false.
+     * 
+     * @throws QueryCancelledException if the query was cancelled
+     * @throws QueryFailedException    if the server reported an error
+     */
+    public void checkCompleted() {
+        if (statementClient.getState() == QueryState.CLIENT_ABORTED) {
+            throw new QueryCancelledException(getQueryId());
+        }
+        TrinoError error = getError();
+        if (error != null) {
+            throw new QueryFailedException(getQueryId(), error);
+        }
+    }
+
+    /**
+     * Cancels the query on the server. This method may be called from another
+     * thread while this result set is being iterated; iteration then stops.
+     */
+    public void cancel() {
+        statementClient.cancel();
+    }
+
     /**
      * Gets the current state of the query execution.
      * 
@@ -145,6 +283,22 @@ public class TrinoResultSet implements AutoCloseable {
 
     @Override
     public void close() {
-        statementClient.close();
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // The statement client must not be closed while a page is being fetched
+            CompletableFuture<StatementResponse> page = prefetchedPage;
+            if (page != null) {
+                prefetchedPage = null;
+                page.handle((response, error) -> null).join();
+            }
+            statementClient.close();
+        } finally {
+            if (onClose != null) {
+                onClose.run();
+            }
+        }
     }
 }
@@ -0,0 +1,103 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a single Trino coordinator known to a {@link CoordinatorRouter}.
+ * This class tracks the number of outstanding queries submitted to the
+ * coordinator, the latency observed by health probes, and whether the
+ * coordinator is currently ejected after failures.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class Coordinator {
+    /** Base URI of the coordinator */
+    private final URI uri;
+    /** Number of queries submitted to this coordinator that have not completed */
+    private final AtomicInteger outstandingQueries = new AtomicInteger();
+    /** Number of consecutive failures since the last success */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** Time until which the coordinator is ejected, in System.nanoTime() units */
+    private volatile long ejectedUntilNanos;
+    /** Whether the coordinator is currently ejected */
+    private volatile boolean ejected;
+    /** Latency of the most recent successful health probe in milliseconds (-1 if unknown) */
+    private volatile long probeLatencyMillis = -1;
+
+    /**
+     * Constructs a new Coordinator for the specified URI.
+     * 
+     * @param uri the base URI of the coordinator
+     */
+    public Coordinator(URI uri) {
+        this.uri = uri;
+    }
+
+    /**
+     * Checks whether this coordinator may receive new queries.
+     * An ejected coordinator becomes available again once its backoff expires.
+     * 
+     * @param nowNanos the current time in System.nanoTime() units
+     * @return true if the coordinator is not ejected or its backoff has expired
+     */
+    public boolean isAvailable(long nowNanos) {
+        return !ejected || nowNanos - ejectedUntilNanos >= 0;
+    }
+
+    void markSuccess() {
+        consecutiveFailures.set(0);
+        ejected = false;
+    }
+
+    void eject(long untilNanos) {
+        ejectedUntilNanos = untilNanos;
+        ejected = true;
+    }
+
+    int incrementFailures() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void acquire() {
+        outstandingQueries.incrementAndGet();
+    }
+
+    void release() {
+        outstandingQueries.decrementAndGet();
+    }
+
+    void setProbeLatencyMillis(long probeLatencyMillis) {
+        this.probeLatencyMillis = probeLatencyMillis;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getOutstandingQueries() {
+        return outstandingQueries.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    public long getProbeLatencyMillis() {
+        return probeLatencyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return uri.toString();
+    }
+}
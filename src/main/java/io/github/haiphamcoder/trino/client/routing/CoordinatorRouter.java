@@ -0,0 +1,283 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Routes new queries across several Trino coordinators.
+ * The router delegates the choice of coordinator to a {@link RoutingPolicy},
+ * ejects coordinators that fail with an exponential backoff, and can
+ * periodically probe {@code /v1/info} on every coordinator to detect recovery
+ * and measure latency.
+ *
+ * <p>
+ * Routing only applies to query submission. Once a query is accepted, its
+ * {@code nextUri} requests go to the coordinator that accepted it.
+ *
+ * <pre>{@code
+ * CoordinatorRouter router = new CoordinatorRouter(
+ *         List.of(URI.create("http://trino-a:8080"), URI.create("http://trino-b:8080")),
+ *         RoutingPolicy.leastOutstandingQueries());
+ * router.startHealthChecks(Duration.ofSeconds(10));
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class CoordinatorRouter implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(CoordinatorRouter.class);
+    /** JSON parser for health probe responses */
+    private static final Gson gson = new Gson();
+
+    /** Default backoff after the first failure */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofSeconds(1);
+    /** Default upper bound for the backoff */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(1);
+
+    /** Coordinators known to this router */
+    private final List<Coordinator> coordinators;
+    /** Policy used to choose among available coordinators */
+    private final RoutingPolicy policy;
+    /** Backoff after the first failure in nanoseconds */
+    private final long initialBackoffNanos;
+    /** Upper bound for the backoff in nanoseconds */
+    private final long maxBackoffNanos;
+    /** Lock guarding the health check lifecycle */
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+    /** Executor running health probes (null until health checks are started) */
+    private ScheduledExecutorService healthCheckExecutor;
+    /** HTTP client used by health probes (null until health checks are started) */
+    private CloseableHttpClient healthCheckClient;
+
+    /**
+     * Constructs a new CoordinatorRouter with the default backoff settings.
+     *
+     * @param servers the coordinator URIs
+     * @param policy  the routing policy
+     */
+    public CoordinatorRouter(List<URI> servers, RoutingPolicy policy) {
+        this(servers, policy, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * Constructs a new CoordinatorRouter.
+     *
+     * @param servers        the coordinator URIs
+     * @param policy         the routing policy
+     * @param initialBackoff how long a coordinator is ejected after its first
+     *                       failure
+     * @param maxBackoff     the upper bound for the ejection time after repeated
+     *                       failures
+     * @throws IllegalArgumentException if no servers are given
+     */
+    public CoordinatorRouter(List<URI> servers, RoutingPolicy policy, Duration initialBackoff,
+            Duration maxBackoff) {
+        if (servers == null || servers.isEmpty()) {
+            throw new IllegalArgumentException("At least one server is required");
+        }
+        List<Coordinator> list = new ArrayList<>();
+        for (URI server : servers) {
+            list.add(new Coordinator(server));
+        }
+        this.coordinators = Collections.unmodifiableList(list);
+        this.policy = policy;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    /**
+     * Selects a coordinator for a new query.
+     * Coordinators whose ejection backoff has not expired are skipped. If every
+     * remaining coordinator is ejected, the one that becomes available first is
+     * returned so that queries are still attempted.
+     *
+     * @param excluded coordinators that already failed for this query
+     * @return the selected coordinator, or null if every coordinator is excluded
+     */
+    public Coordinator select(Collection<Coordinator> excluded) {
+        long now = System.nanoTime();
+        List<Coordinator> available = new ArrayList<>(coordinators.size());
+        Coordinator soonest = null;
+        for (Coordinator coordinator : coordinators) {
+            if (excluded.contains(coordinator)) {
+                continue;
+            }
+            if (coordinator.isAvailable(now)) {
+                available.add(coordinator);
+            } else if (soonest == null || coordinator.getEjectedUntilNanos() - soonest.getEjectedUntilNanos() < 0) {
+                soonest = coordinator;
+            }
+        }
+
+        if (!available.isEmpty()) {
+            return available.size() == 1 ? available.get(0) : policy.select(available);
+        }
+        return soonest;
+    }
+
+    /**
+     * Records that a query was accepted by the coordinator.
+     *
+     * @param coordinator the coordinator that accepted the query
+     */
+    public void acquire(Coordinator coordinator) {
+        coordinator.acquire();
+    }
+
+    /**
+     * Records that a query accepted by the coordinator has completed.
+     *
+     * @param coordinator the coordinator that accepted the query
+     */
+    public void release(Coordinator coordinator) {
+        coordinator.release();
+    }
+
+    /**
+     * Records a successful request and reinstates the coordinator if it was
+     * ejected.
+     *
+     * @param coordinator the coordinator that succeeded
+     */
+    public void markSuccess(Coordinator coordinator) {
+        if (coordinator.isEjected()) {
+            log.info("Coordinator {} is healthy again", coordinator);
+        }
+        coordinator.markSuccess();
+    }
+
+    /**
+     * Records a failed request and ejects the coordinator. The ejection time
+     * doubles with each consecutive failure up to the maximum backoff.
+     *
+     * @param coordinator the coordinator that failed
+     */
+    public void markFailure(Coordinator coordinator) {
+        int failures = coordinator.incrementFailures();
+        long backoff = initialBackoffNanos << Math.min(failures - 1, 30);
+        if (backoff <= 0 || backoff > maxBackoffNanos) {
+            backoff = maxBackoffNanos;
+        }
+        coordinator.eject(System.nanoTime() + backoff);
+        log.warn("Ejecting coordinator {} for {} ms after {} consecutive failure(s)", coordinator,
+                TimeUnit.NANOSECONDS.toMillis(backoff), failures);
+    }
+
+    /**
+     * Starts probing {@code /v1/info} on every coordinator at the given interval.
+     * A coordinator that fails to respond or reports that it is still starting is
+     * ejected; a successful probe reinstates it and updates its latency.
+     *
+     * @param interval the time between probes
+     */
+    public void startHealthChecks(Duration interval) {
+        lifecycleLock.lock();
+        try {
+            if (healthCheckExecutor != null) {
+                return;
+            }
+
+            Timeout timeout = Timeout.of(interval);
+            healthCheckClient = HttpClients.custom()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .setDefaultConnectionConfig(ConnectionConfig.custom().setConnectTimeout(timeout).build())
+                            .build())
+                    .setDefaultRequestConfig(RequestConfig.custom().setResponseTimeout(timeout).build())
+                    .build();
+            healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "trino-client-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthCheckExecutor.scheduleWithFixedDelay(this::probeAll, 0, interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private void probeAll() {
+        for (Coordinator coordinator : coordinators) {
+            probe(coordinator);
+        }
+    }
+
+    private void probe(Coordinator coordinator) {
+        HttpGet get = new HttpGet(coordinator.getUri().resolve("/v1/info"));
+        long start = System.nanoTime();
+        try {
+            boolean healthy = healthCheckClient.execute(get, response -> {
+                if (response.getCode() >= 400) {
+                    return false;
+                }
+                String content = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                JsonObject info = gson.fromJson(content, JsonObject.class);
+                JsonElement starting = info != null ? info.get("starting") : null;
+                return starting == null || !starting.getAsBoolean();
+            });
+
+            if (healthy) {
+                coordinator.setProbeLatencyMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                markSuccess(coordinator);
+            } else {
+                markFailure(coordinator);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Health probe failed for coordinator {}", coordinator, e);
+            markFailure(coordinator);
+        }
+    }
+
+    public List<Coordinator> getCoordinators() {
+        return coordinators;
+    }
+
+    public RoutingPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void close() {
+        lifecycleLock.lock();
+        try {
+            if (healthCheckExecutor != null) {
+                healthCheckExecutor.shutdownNow();
+                healthCheckExecutor = null;
+                try {
+                    healthCheckClient.close();
+                } catch (IOException e) {
+                    log.warn("Error closing health check HTTP client", e);
+                }
+                healthCheckClient = null;
+            }
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Routing policy that picks coordinators at random, weighted by the inverse of
+ * the latency measured by the periodic {@code /v1/info} health probe.
+ * Coordinators that have not been probed yet are weighted as if they responded
+ * in {@value #DEFAULT_LATENCY_MILLIS} ms.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class HealthWeightedPolicy implements RoutingPolicy {
+    /** Latency assumed for coordinators without a probe result */
+    static final long DEFAULT_LATENCY_MILLIS = 100;
+
+    @Override
+    public Coordinator select(List<Coordinator> candidates) {
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            weights[i] = weight(candidates.get(i));
+            total += weights[i];
+        }
+
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
+    private static double weight(Coordinator coordinator) {
+        long latency = coordinator.getProbeLatencyMillis();
+        if (latency < 0) {
+            latency = DEFAULT_LATENCY_MILLIS;
+        }
+        return 1.0 / Math.max(1, latency);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import java.util.List;
+
+/**
+ * Routing policy that picks the coordinator with the fewest outstanding queries
+ * submitted by this client. Ties are broken in list order.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class LeastOutstandingQueriesPolicy implements RoutingPolicy {
+
+    @Override
+    public Coordinator select(List<Coordinator> candidates) {
+        Coordinator best = candidates.get(0);
+        for (int i = 1; i < candidates.size(); i++) {
+            Coordinator candidate = candidates.get(i);
+            if (candidate.getOutstandingQueries() < best.getOutstandingQueries()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
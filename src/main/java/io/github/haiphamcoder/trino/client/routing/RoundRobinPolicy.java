@@ -0,0 +1,21 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routing policy that cycles through the available coordinators in order.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class RoundRobinPolicy implements RoutingPolicy {
+    /** Counter used to pick the next coordinator */
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public Coordinator select(List<Coordinator> candidates) {
+        int index = Math.floorMod(next.getAndIncrement(), candidates.size());
+        return candidates.get(index);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import java.util.List;
+
+/**
+ * Strategy for choosing the coordinator that receives a new query.
+ * Implementations must be thread-safe, as a single policy is shared by all
+ * queries submitted through a {@link CoordinatorRouter}.
+ * 
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface RoutingPolicy {
+    /**
+     * Selects a coordinator from the available candidates.
+     * 
+     * @param candidates the non-empty list of coordinators that may receive the
+     *                   query
+     * @return the selected coordinator
+     */
+    Coordinator select(List<Coordinator> candidates);
+
+    /**
+     * Returns a policy that cycles through coordinators in order.
+     * 
+     * @return a round-robin routing policy
+     */
+    static RoutingPolicy roundRobin() {
+        return new RoundRobinPolicy();
+    }
+
+    /**
+     * Returns a policy that picks the coordinator with the fewest outstanding
+     * queries.
+     * 
+     * @return a least-outstanding-queries routing policy
+     */
+    static RoutingPolicy leastOutstandingQueries() {
+        return new LeastOutstandingQueriesPolicy();
+    }
+
+    /**
+     * Returns a policy that picks coordinators at random, weighted by the inverse
+     * of their health probe latency.
+     * 
+     * @return a health-weighted routing policy
+     */
+    static RoutingPolicy healthWeighted() {
+        return new HealthWeightedPolicy();
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.haiphamcoder.trino.client.script;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.ScriptExecutionException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+
+/**
+ * Runs the statements of a {@link SqlScript}, starting each one as soon as
+ * the statements it depends on have completed.
+ *
+ * <p>
+ * At most {@code parallelism} statements run at once; among the statements
+ * ready to run, the one earliest in the script starts first. Barriers such as
+ * {@code USE} or {@code SET SESSION} run alone, so every statement sees the
+ * session state the script gave it. Statements go through
+ * {@link TrinoClient#execute(String)}, so they are subject to the client's
+ * admission control and routing, and their rows are read and discarded.
+ *
+ * <p>
+ * The first failure stops the script: statements not yet started are
+ * skipped, while running statements complete, since cancelling DDL half-way
+ * may leave more to clean up than letting it finish.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see TrinoClient#executeScript(String, int)
+ */
+public class ScriptRunner {
+    /** Default maximum number of statements running at once */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final TrinoClient client;
+    private final Executor executor;
+    private final int parallelism;
+
+    /**
+     * Constructs a new ScriptRunner.
+     *
+     * @param client      the client executing the statements
+     * @param executor    the executor running the statements
+     * @param parallelism the maximum number of statements running at once
+     */
+    public ScriptRunner(TrinoClient client, Executor executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.client = client;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the script and waits for its statements to complete.
+     *
+     * @param script the script to run
+     * @return one result per statement, in script order
+     * @throws ScriptExecutionException if a statement failed
+     * @throws TrinoException           if the calling thread is interrupted
+     */
+    public List<StatementResult> run(SqlScript script) {
+        List<ScriptStatement> statements = script.getStatements();
+        int size = statements.size();
+        StatementResult[] results = new StatementResult[size];
+        int[] waitingFor = new int[size];
+        List<List<Integer>> dependents = new ArrayList<>(size);
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (ScriptStatement statement : statements) {
+            dependents.add(new ArrayList<>());
+            waitingFor[statement.getIndex()] = statement.getDependencies().size();
+            for (int dependency : statement.getDependencies()) {
+                dependents.get(dependency).add(statement.getIndex());
+            }
+            if (statement.getDependencies().isEmpty()) {
+                ready.add(statement.getIndex());
+            }
+        }
+
+        BlockingQueue<StatementResult> completed = new LinkedBlockingQueue<>();
+        Map<Integer, TrinoResultSet> running = new ConcurrentHashMap<>();
+        StatementResult failure = null;
+        int inFlight = 0;
+        try {
+            while (true) {
+                while (failure == null && inFlight < parallelism && !ready.isEmpty()) {
+                    start(statements.get(ready.poll()), running, completed);
+                    inFlight++;
+                }
+                if (inFlight == 0) {
+                    break;
+                }
+
+                StatementResult result = completed.take();
+                inFlight--;
+                int index = result.getStatement().getIndex();
+                results[index] = result;
+                if (!result.isSuccess()) {
+                    if (failure == null) {
+                        failure = result;
+                    }
+                    continue;
+                }
+                for (int dependent : dependents.get(index)) {
+                    if (--waitingFor[dependent] == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            for (TrinoResultSet resultSet : running.values()) {
+                resultSet.cancel();
+            }
+            Thread.currentThread().interrupt();
+            throw new TrinoException("Interrupted while waiting for script", e);
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (results[i] == null) {
+                results[i] = StatementResult.skipped(statements.get(i));
+            }
+        }
+        List<StatementResult> all = Arrays.asList(results);
+        if (failure != null) {
+            throw new ScriptExecutionException(failure, all);
+        }
+        return all;
+    }
+
+    private void start(ScriptStatement statement, Map<Integer, TrinoResultSet> running,
+            BlockingQueue<StatementResult> completed) {
+        try {
+            executor.execute(() -> completed.add(runStatement(statement, running)));
+        } catch (RejectedExecutionException e) {
+            completed.add(new StatementResult(statement, null, null, new TrinoException("Client is closed", e),
+                    false, 0));
+        }
+    }
+
+    private StatementResult runStatement(ScriptStatement statement, Map<Integer, TrinoResultSet> running) {
+        long start = System.nanoTime();
+        TrinoResultSet resultSet = null;
+        try {
+            resultSet = client.execute(statement.getSql());
+            running.put(statement.getIndex(), resultSet);
+            while (resultSet.next()) {
+                // Skip rows
+            }
+            resultSet.checkCompleted();
+            return new StatementResult(statement, resultSet.getQueryId(), resultSet.getUpdateCount(), null, false,
+                    elapsedMillis(start));
+        } catch (RuntimeException e) {
+            TrinoException error = e instanceof TrinoException ? (TrinoException) e
+                    : new TrinoException("Statement failed", e);
+            return new StatementResult(statement, resultSet != null ? resultSet.getQueryId() : null, null, error,
+                    false, elapsedMillis(start));
+        } finally {
+            running.remove(statement.getIndex());
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
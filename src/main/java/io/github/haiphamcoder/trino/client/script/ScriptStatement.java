@@ -0,0 +1,86 @@
+package io.github.haiphamcoder.trino.client.script;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One statement of a {@link SqlScript}, with the objects it reads and writes
+ * and the earlier statements it must wait for.
+ *
+ * <p>
+ * Objects are fully qualified, lower-case {@code catalog.schema.table} names;
+ * schemas are recorded as {@code schema:catalog.schema}, and a table reference
+ * also reads its schema. Parts the script does not specify are resolved
+ * against the catalog and schema in effect at that point of the script, and
+ * are {@code ?} if none is known.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class ScriptStatement {
+    /** Position of the statement in the script */
+    private final int index;
+    /** Statement text without the terminating semicolon */
+    private final String sql;
+    /** Objects read by the statement */
+    private final Set<String> reads;
+    /** Objects written by the statement */
+    private final Set<String> writes;
+    /** Whether the statement must run alone, after all earlier statements */
+    private final boolean barrier;
+    /** Positions of the earlier statements this one waits for */
+    private final List<Integer> dependencies;
+
+    ScriptStatement(int index, String sql, Set<String> reads, Set<String> writes, boolean barrier,
+            List<Integer> dependencies) {
+        this.index = index;
+        this.sql = sql;
+        this.reads = Set.copyOf(reads);
+        this.writes = Set.copyOf(writes);
+        this.barrier = barrier;
+        this.dependencies = List.copyOf(dependencies);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public Set<String> getReads() {
+        return reads;
+    }
+
+    public Set<String> getWrites() {
+        return writes;
+    }
+
+    /**
+     * Checks whether the statement runs alone. Statements that change the
+     * session, such as {@code USE}, {@code SET SESSION} or
+     * {@code START TRANSACTION}, and statements whose objects are not known
+     * wait for all earlier statements and are waited for by all later ones.
+     *
+     * @return true if the statement is a barrier
+     */
+    public boolean isBarrier() {
+        return barrier;
+    }
+
+    /**
+     * Gets the earlier statements this one waits for: barriers, statements
+     * writing what it reads or writes, and statements reading what it writes.
+     *
+     * @return the positions of the statements, in ascending order
+     */
+    public List<Integer> getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + " " + sql;
+    }
+}
@@ -0,0 +1,649 @@
+package io.github.haiphamcoder.trino.client.script;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A SQL script split into statements, with the dependencies between them.
+ *
+ * <p>
+ * The script is split at semicolons outside string literals, quoted
+ * identifiers, comments and the {@code BEGIN ... END} bodies of SQL routines.
+ * Each statement's leading keywords decide which tables, views and schemas it
+ * writes, and the names after {@code FROM}, {@code JOIN} and {@code USING}
+ * which it reads; names defined by {@code WITH} are not tables. A statement
+ * depends on the earlier statements it conflicts with:
+ * <ul>
+ * <li>statements writing an object it reads or writes</li>
+ * <li>statements reading an object it writes</li>
+ * <li>barriers: statements that change the session, such as {@code USE},
+ * {@code SET SESSION} or {@code PREPARE}, statements of unknown effect such
+ * as {@code CALL}, and all statements of an explicit transaction</li>
+ * </ul>
+ * The analysis is lexical and errs towards extra dependencies: a name it
+ * mistakes for a table only delays a statement, while a statement it cannot
+ * classify becomes a barrier.
+ *
+ * <pre>{@code
+ * SqlScript script = SqlScript.parse(text, "hive", "staging");
+ * for (ScriptStatement statement : script.getStatements()) {
+ *     System.out.println(statement.getIndex() + " waits for " + statement.getDependencies());
+ * }
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see ScriptRunner
+ */
+public final class SqlScript {
+    /** Words ending a table reference rather than naming its alias */
+    private static final Set<String> CLAUSE_KEYWORDS = Set.of("WHERE", "JOIN", "LEFT", "RIGHT", "INNER", "FULL",
+            "CROSS", "OUTER", "NATURAL", "ON", "USING", "GROUP", "ORDER", "LIMIT", "OFFSET", "FETCH", "UNION",
+            "INTERSECT", "EXCEPT", "HAVING", "WINDOW", "TABLESAMPLE", "FOR", "SET", "WHEN", "MATCH_RECOGNIZE",
+            "LATERAL", "RETURNING");
+    /** Words after {@code END} closing a routine block that was not opened by BEGIN or CASE */
+    private static final Set<String> UNCOUNTED_BLOCKS = Set.of("IF", "LOOP", "WHILE", "REPEAT", "FOR");
+
+    private final List<ScriptStatement> statements;
+
+    private SqlScript(List<ScriptStatement> statements) {
+        this.statements = List.copyOf(statements);
+    }
+
+    /**
+     * Parses a script whose unqualified names have no known catalog or schema.
+     *
+     * @param script the script text
+     * @return the parsed script
+     */
+    public static SqlScript parse(String script) {
+        return parse(script, null, null);
+    }
+
+    /**
+     * Parses a script, resolving unqualified names against the given catalog
+     * and schema until a {@code USE} statement changes them.
+     *
+     * @param script  the script text
+     * @param catalog the catalog of the session running the script, or null
+     * @param schema  the schema of the session running the script, or null
+     * @return the parsed script
+     */
+    public static SqlScript parse(String script, String catalog, String schema) {
+        Context context = new Context(catalog, schema);
+        List<ScriptStatement> statements = new ArrayList<>();
+        List<Analysis> analyses = new ArrayList<>();
+        int lastBarrier = -1;
+        for (String sql : split(script)) {
+            int index = statements.size();
+            Analysis analysis = analyze(tokenize(sql), context);
+
+            // Statements before the last barrier are already dependencies of the barrier
+            List<Integer> dependencies = new ArrayList<>();
+            for (int i = Math.max(lastBarrier, 0); i < index; i++) {
+                if (analysis.barrier || i == lastBarrier || analysis.conflictsWith(analyses.get(i))) {
+                    dependencies.add(i);
+                }
+            }
+            if (analysis.barrier) {
+                lastBarrier = index;
+            }
+            analyses.add(analysis);
+            statements.add(new ScriptStatement(index, sql, analysis.reads, analysis.writes, analysis.barrier,
+                    dependencies));
+        }
+        return new SqlScript(statements);
+    }
+
+    /**
+     * Splits a script into statements at semicolons that are not part of a
+     * literal, quoted identifier, comment or routine body. Statements are
+     * trimmed, and those containing only comments are dropped.
+     *
+     * @param script the script text
+     * @return the statements, without their semicolons
+     */
+    public static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        List<String> leadingWords = new ArrayList<>();
+        int start = 0;
+        int blockDepth = 0;
+        boolean content = false;
+        int i = 0;
+        int length = script.length();
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '\'' || c == '"') {
+                i = skipQuoted(script, i);
+                content = true;
+            } else if (script.startsWith("--", i)) {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (script.startsWith("/*", i)) {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == ';' && blockDepth == 0) {
+                if (content) {
+                    statements.add(script.substring(start, i).trim());
+                }
+                start = i + 1;
+                content = false;
+                leadingWords.clear();
+                i++;
+            } else if (isWordPart(c)) {
+                int end = i;
+                while (end < length && isWordPart(script.charAt(end))) {
+                    end++;
+                }
+                String word = script.substring(i, end).toUpperCase(Locale.ROOT);
+                if (leadingWords.size() < 4) {
+                    leadingWords.add(word);
+                }
+                if (isRoutine(leadingWords)) {
+                    if (word.equals("BEGIN") || word.equals("CASE")) {
+                        blockDepth++;
+                    } else if (word.equals("END") && blockDepth > 0
+                            && !UNCOUNTED_BLOCKS.contains(nextWord(script, end))) {
+                        blockDepth--;
+                    }
+                }
+                content = true;
+                i = end;
+            } else {
+                content |= !Character.isWhitespace(c);
+                i++;
+            }
+        }
+        if (content) {
+            statements.add(script.substring(start).trim());
+        }
+        return statements;
+    }
+
+    public List<ScriptStatement> getStatements() {
+        return statements;
+    }
+
+    private static boolean isRoutine(List<String> words) {
+        if (words.size() < 2 || !words.get(0).equals("CREATE")) {
+            return false;
+        }
+        return words.get(1).equals("FUNCTION")
+                || (words.size() >= 4 && words.get(1).equals("OR") && words.get(3).equals("FUNCTION"));
+    }
+
+    private static String nextWord(String script, int from) {
+        int i = from;
+        while (i < script.length() && Character.isWhitespace(script.charAt(i))) {
+            i++;
+        }
+        int end = i;
+        while (end < script.length() && isWordPart(script.charAt(end))) {
+            end++;
+        }
+        return script.substring(i, end).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the position after the literal or quoted identifier starting at
+     * the given position; a doubled quote is an escaped quote.
+     */
+    private static int skipQuoted(String sql, int start) {
+        char quote = sql.charAt(start);
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Splits a statement into words, quoted identifiers and single-character
+     * symbols, dropping comments and string literals.
+     */
+    private static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i = skipQuoted(sql, i);
+                tokens.add(new Token("'", Token.Kind.LITERAL));
+            } else if (c == '"') {
+                int end = skipQuoted(sql, i);
+                String name = sql.substring(i + 1, Math.max(i + 1, end - 1)).replace("\"\"", "\"");
+                tokens.add(new Token(name, Token.Kind.IDENTIFIER));
+                i = end;
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? sql.length() : end + 2;
+            } else if (isWordPart(c)) {
+                int end = i;
+                while (end < sql.length() && isWordPart(sql.charAt(end))) {
+                    end++;
+                }
+                String word = sql.substring(i, end);
+                tokens.add(new Token(word, Character.isDigit(c) ? Token.Kind.LITERAL : Token.Kind.WORD));
+                i = end;
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    tokens.add(new Token(String.valueOf(c), Token.Kind.SYMBOL));
+                }
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static Analysis analyze(List<Token> tokens, Context context) {
+        Analysis analysis = new Analysis();
+        Cursor cursor = new Cursor(tokens);
+        while (cursor.isSymbol("(")) {
+            cursor.next();
+        }
+        String keyword = cursor.keyword();
+
+        if (context.inTransaction) {
+            // A transaction runs one query at a time
+            analysis.barrier = true;
+        }
+        switch (keyword) {
+            case "SELECT":
+            case "WITH":
+            case "VALUES":
+            case "TABLE":
+                if (keyword.equals("TABLE")) {
+                    cursor.next();
+                    analysis.read(cursor.name(), context);
+                }
+                scanReads(tokens, 0, analysis, context, false);
+                return analysis;
+            case "INSERT":
+                return writeThenRead(cursor.next().expect("INTO"), tokens, analysis, context, false);
+            case "DELETE":
+                return writeThenRead(cursor.next().expect("FROM"), tokens, analysis, context, false);
+            case "UPDATE":
+                return writeThenRead(cursor.next(), tokens, analysis, context, false);
+            case "MERGE":
+                return writeThenRead(cursor.next().expect("INTO"), tokens, analysis, context, true);
+            case "ANALYZE":
+                return writeThenRead(cursor.next(), tokens, analysis, context, false);
+            case "TRUNCATE":
+                return writeThenRead(cursor.next().expect("TABLE"), tokens, analysis, context, false);
+            case "REFRESH":
+                return writeThenRead(cursor.next().expect("MATERIALIZED").expect("VIEW"), tokens, analysis,
+                        context, false);
+            case "CREATE":
+                cursor.next();
+                if (cursor.isKeyword("OR")) {
+                    cursor.next().expect("REPLACE");
+                }
+                if (cursor.isKeyword("SCHEMA")) {
+                    analysis.writeSchema(cursor.next().skip("IF", "NOT", "EXISTS").name(), context);
+                    return analysis;
+                }
+                return writeThenRead(cursor.skip("MATERIALIZED").expectObject().skip("IF", "NOT", "EXISTS"),
+                        tokens, analysis, context, false);
+            case "DROP":
+                cursor.next();
+                if (cursor.isKeyword("SCHEMA")) {
+                    analysis.writeSchema(cursor.next().skip("IF", "EXISTS").name(), context);
+                    return analysis;
+                }
+                return writeThenRead(cursor.skip("MATERIALIZED").expectObject().skip("IF", "EXISTS"), tokens,
+                        analysis, context, false);
+            case "ALTER":
+                return alter(cursor.next(), analysis, context);
+            case "COMMENT":
+                cursor.next().expect("ON");
+                if (cursor.isKeyword("COLUMN")) {
+                    List<String> column = cursor.next().name();
+                    analysis.write(column != null && column.size() > 1 ? column.subList(0, column.size() - 1)
+                            : null, context);
+                    return analysis;
+                }
+                return writeThenRead(cursor.skip("MATERIALIZED").expectObject(), tokens, analysis, context, false);
+            case "USE":
+                List<String> target = cursor.next().name();
+                if (target != null && target.size() == 2) {
+                    context.catalog = target.get(0);
+                    context.schema = target.get(1);
+                } else if (target != null && target.size() == 1) {
+                    context.schema = target.get(0);
+                }
+                analysis.barrier = true;
+                return analysis;
+            case "START":
+                context.inTransaction = true;
+                analysis.barrier = true;
+                return analysis;
+            case "COMMIT":
+            case "ROLLBACK":
+                context.inTransaction = false;
+                analysis.barrier = true;
+                return analysis;
+            default:
+                analysis.barrier = true;
+                return analysis;
+        }
+    }
+
+    private static Analysis alter(Cursor cursor, Analysis analysis, Context context) {
+        if (cursor.isKeyword("SCHEMA")) {
+            analysis.writeSchema(cursor.next().name(), context);
+            if (cursor.isKeyword("RENAME")) {
+                analysis.writeSchema(cursor.next().expect("TO").name(), context);
+            }
+            return analysis;
+        }
+        analysis.write(cursor.skip("MATERIALIZED").expectObject().skip("IF", "EXISTS").name(), context);
+        // RENAME TO names a new object, unlike RENAME COLUMN
+        int position = cursor.position;
+        if (cursor.skip("RENAME", "TO").position > position) {
+            analysis.write(cursor.name(), context);
+        }
+        return analysis;
+    }
+
+    /**
+     * Records the object named at the cursor as written and the tables the
+     * rest of the statement refers to as read.
+     */
+    private static Analysis writeThenRead(Cursor cursor, List<Token> tokens, Analysis analysis, Context context,
+            boolean merge) {
+        analysis.write(cursor.name(), context);
+        scanReads(tokens, cursor.position, analysis, context, merge);
+        return analysis;
+    }
+
+    /**
+     * Records the tables named after {@code FROM} and {@code JOIN}, and after
+     * {@code USING} in a {@code MERGE}, excluding the names of common table
+     * expressions.
+     */
+    private static void scanReads(List<Token> tokens, int from, Analysis analysis, Context context, boolean merge) {
+        Set<String> cteNames = cteNames(tokens);
+        Cursor cursor = new Cursor(tokens);
+        cursor.position = from;
+        while (cursor.position < tokens.size()) {
+            String keyword = cursor.keyword();
+            cursor.next();
+            if (!keyword.equals("FROM") && !keyword.equals("JOIN") && !(merge && keyword.equals("USING"))) {
+                continue;
+            }
+            // A comma-separated list of tables, each with an optional alias
+            while (cursor.isName() && !cursor.isSymbolAt(cursor.position + 1, "(")) {
+                List<String> name = cursor.name();
+                if (name == null) {
+                    break;
+                }
+                if (name.size() > 1 || !cteNames.contains(name.get(0))) {
+                    analysis.read(name, context);
+                }
+                if (cursor.isKeyword("AS")) {
+                    cursor.next().next();
+                } else if (cursor.isName() && !CLAUSE_KEYWORDS.contains(cursor.keyword())) {
+                    cursor.next();
+                }
+                if (!cursor.isSymbol(",")) {
+                    break;
+                }
+                cursor.next();
+            }
+        }
+    }
+
+    private static Set<String> cteNames(List<Token> tokens) {
+        Set<String> names = new HashSet<>();
+        Cursor cursor = new Cursor(tokens);
+        while (cursor.position < tokens.size()) {
+            if (!cursor.isKeyword("WITH")) {
+                cursor.next();
+                continue;
+            }
+            cursor.next().skip("RECURSIVE");
+            while (cursor.isName()) {
+                names.add(cursor.current().text.toLowerCase(Locale.ROOT));
+                cursor.next();
+                if (cursor.isSymbol("(")) {
+                    cursor.skipParentheses();
+                }
+                if (!cursor.isKeyword("AS")) {
+                    break;
+                }
+                cursor.next();
+                if (!cursor.isSymbol("(")) {
+                    break;
+                }
+                cursor.skipParentheses();
+                if (!cursor.isSymbol(",")) {
+                    break;
+                }
+                cursor.next();
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Catalog, schema and transaction in effect at a point of the script.
+     */
+    private static final class Context {
+        private String catalog;
+        private String schema;
+        private boolean inTransaction;
+
+        Context(String catalog, String schema) {
+            this.catalog = catalog != null ? catalog.toLowerCase(Locale.ROOT) : null;
+            this.schema = schema != null ? schema.toLowerCase(Locale.ROOT) : null;
+        }
+
+        String qualify(List<String> name) {
+            String table = name.get(name.size() - 1);
+            String schemaName = name.size() >= 2 ? name.get(name.size() - 2) : orUnknown(schema);
+            String catalogName = name.size() >= 3 ? name.get(name.size() - 3) : orUnknown(catalog);
+            return catalogName + "." + schemaName + "." + table;
+        }
+
+        String qualifySchema(List<String> name) {
+            String schemaName = name.get(name.size() - 1);
+            String catalogName = name.size() >= 2 ? name.get(name.size() - 2) : orUnknown(catalog);
+            return "schema:" + catalogName + "." + schemaName;
+        }
+
+        private static String orUnknown(String part) {
+            return part != null ? part : "?";
+        }
+    }
+
+    /**
+     * Objects read and written by one statement.
+     */
+    private static final class Analysis {
+        private final Set<String> reads = new HashSet<>();
+        private final Set<String> writes = new HashSet<>();
+        private boolean barrier;
+
+        void read(List<String> name, Context context) {
+            if (name == null) {
+                barrier = true;
+                return;
+            }
+            reads.add(context.qualify(name));
+            readSchema(name, context);
+        }
+
+        void write(List<String> name, Context context) {
+            if (name == null) {
+                barrier = true;
+                return;
+            }
+            writes.add(context.qualify(name));
+            readSchema(name, context);
+        }
+
+        void writeSchema(List<String> name, Context context) {
+            if (name == null) {
+                barrier = true;
+                return;
+            }
+            writes.add(context.qualifySchema(name));
+        }
+
+        private void readSchema(List<String> table, Context context) {
+            String qualified = context.qualify(table);
+            reads.add("schema:" + qualified.substring(0, qualified.lastIndexOf('.')));
+        }
+
+        boolean conflictsWith(Analysis earlier) {
+            return intersects(earlier.writes, reads) || intersects(earlier.writes, writes)
+                    || intersects(earlier.reads, writes);
+        }
+
+        private static boolean intersects(Set<String> a, Set<String> b) {
+            for (String name : a) {
+                if (b.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Token {
+        enum Kind {
+            WORD, IDENTIFIER, LITERAL, SYMBOL
+        }
+
+        private final String text;
+        private final Kind kind;
+
+        Token(String text, Kind kind) {
+            this.text = text;
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * Position in the tokens of a statement. Expectations that fail move the
+     * cursor past the end, so that the next name read is null.
+     */
+    private static final class Cursor {
+        private final List<Token> tokens;
+        private int position;
+
+        Cursor(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Token current() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        Cursor next() {
+            position++;
+            return this;
+        }
+
+        /** Gets the upper-case word at the cursor, or an empty string if there is none. */
+        String keyword() {
+            Token token = current();
+            return token != null && token.kind == Token.Kind.WORD ? token.text.toUpperCase(Locale.ROOT) : "";
+        }
+
+        boolean isKeyword(String keyword) {
+            return keyword().equals(keyword);
+        }
+
+        boolean isSymbol(String symbol) {
+            return isSymbolAt(position, symbol);
+        }
+
+        boolean isSymbolAt(int index, String symbol) {
+            return index < tokens.size() && tokens.get(index).kind == Token.Kind.SYMBOL
+                    && tokens.get(index).text.equals(symbol);
+        }
+
+        boolean isName() {
+            Token token = current();
+            return token != null && (token.kind == Token.Kind.WORD || token.kind == Token.Kind.IDENTIFIER);
+        }
+
+        Cursor expect(String keyword) {
+            if (isKeyword(keyword)) {
+                return next();
+            }
+            position = tokens.size();
+            return this;
+        }
+
+        /** Moves past {@code TABLE} or {@code VIEW}, or to the end for any other object. */
+        Cursor expectObject() {
+            if (isKeyword("TABLE") || isKeyword("VIEW")) {
+                return next();
+            }
+            position = tokens.size();
+            return this;
+        }
+
+        /** Moves past the given keywords if they are all at the cursor. */
+        Cursor skip(String... keywords) {
+            for (int i = 0; i < keywords.length; i++) {
+                Token token = position + i < tokens.size() ? tokens.get(position + i) : null;
+                if (token == null || token.kind != Token.Kind.WORD || !token.text.equalsIgnoreCase(keywords[i])) {
+                    return this;
+                }
+            }
+            position += keywords.length;
+            return this;
+        }
+
+        /** Moves past the parenthesized group at the cursor. */
+        void skipParentheses() {
+            int depth = 0;
+            do {
+                if (isSymbol("(")) {
+                    depth++;
+                } else if (isSymbol(")")) {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0 && position < tokens.size());
+        }
+
+        /** Reads a dotted name of up to three lower-case parts, or returns null if there is none. */
+        List<String> name() {
+            if (!isName()) {
+                return null;
+            }
+            List<String> parts = new ArrayList<>();
+            parts.add(current().text.toLowerCase(Locale.ROOT));
+            next();
+            while (isSymbol(".") && position + 1 < tokens.size()
+                    && (tokens.get(position + 1).kind == Token.Kind.WORD
+                            || tokens.get(position + 1).kind == Token.Kind.IDENTIFIER)) {
+                next();
+                parts.add(current().text.toLowerCase(Locale.ROOT));
+                next();
+            }
+            return parts.size() <= 3 ? parts : null;
+        }
+    }
+}
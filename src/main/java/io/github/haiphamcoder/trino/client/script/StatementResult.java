@@ -0,0 +1,84 @@
+package io.github.haiphamcoder.trino.client.script;
+
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+
+/**
+ * Outcome of one statement of a script: its update count, the error that
+ * ended it, or the fact that it was skipped after another statement failed.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class StatementResult {
+    /** Statement this result belongs to */
+    private final ScriptStatement statement;
+    /** Server-assigned query ID (null if the statement was not accepted) */
+    private final String queryId;
+    /** Update count reported by the server (null if none) */
+    private final Long updateCount;
+    /** Error that ended the statement (null if it succeeded or was skipped) */
+    private final TrinoException error;
+    /** Whether the statement was never started */
+    private final boolean skipped;
+    /** Wall time from submission to completion in milliseconds */
+    private final long elapsedMillis;
+
+    StatementResult(ScriptStatement statement, String queryId, Long updateCount, TrinoException error,
+            boolean skipped, long elapsedMillis) {
+        this.statement = statement;
+        this.queryId = queryId;
+        this.updateCount = updateCount;
+        this.error = error;
+        this.skipped = skipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    static StatementResult skipped(ScriptStatement statement) {
+        return new StatementResult(statement, null, null, null, true, 0);
+    }
+
+    /**
+     * Checks whether the statement ran and completed without error.
+     *
+     * @return true if the statement succeeded
+     */
+    public boolean isSuccess() {
+        return !skipped && error == null;
+    }
+
+    public ScriptStatement getStatement() {
+        return statement;
+    }
+
+    public String getQueryId() {
+        return queryId;
+    }
+
+    public Long getUpdateCount() {
+        return updateCount;
+    }
+
+    public TrinoException getError() {
+        return error;
+    }
+
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementResult{" +
+                "statement=" + statement.getIndex() +
+                ", queryId='" + queryId + '\'' +
+                ", updateCount=" + updateCount +
+                ", error=" + (error != null ? error.getMessage() : null) +
+                ", skipped=" + skipped +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,294 @@
+package io.github.haiphamcoder.trino.client.sql;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Renders Java values as Trino SQL literals, for statements built by the
+ * client from user data. Strings are quoted with embedded quotes doubled, so a
+ * rendered literal can never end the string early.
+ *
+ * <p>
+ * Values are mapped by their Java type:
+ * <ul>
+ * <li>{@code null} to {@code NULL}</li>
+ * <li>{@link String}, {@link Character} and enums to varchar literals</li>
+ * <li>integral numbers as they are, {@link BigDecimal} to {@code DECIMAL},
+ * {@link Double} to {@code DOUBLE} and {@link Float} to {@code REAL}</li>
+ * <li>{@link Boolean} to {@code TRUE} or {@code FALSE}</li>
+ * <li>{@link LocalDate}, {@link LocalTime} and {@link LocalDateTime} to
+ * {@code DATE}, {@code TIME} and {@code TIMESTAMP}</li>
+ * <li>{@link Instant}, {@link OffsetDateTime} and {@link ZonedDateTime} to
+ * {@code TIMESTAMP ... WITH TIME ZONE}</li>
+ * <li>{@link UUID} to {@code UUID} and {@code byte[]} to {@code varbinary}</li>
+ * <li>{@link TypedValue} to a literal of its type</li>
+ * </ul>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class SqlLiterals {
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private SqlLiterals() {
+    }
+
+    /**
+     * Renders a value as a SQL literal.
+     *
+     * @param value the value
+     * @return the literal
+     * @throws IllegalArgumentException if the type of the value is not supported
+     */
+    public static String render(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof TypedValue) {
+            return ((TypedValue) value).toLiteral();
+        }
+        if (value instanceof String || value instanceof Character || value instanceof Enum) {
+            return quote(value.toString());
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger) {
+            return value.toString();
+        }
+        if (value instanceof BigDecimal) {
+            return "DECIMAL '" + ((BigDecimal) value).toPlainString() + "'";
+        }
+        if (value instanceof Double) {
+            return floatingPoint("DOUBLE", (Double) value);
+        }
+        if (value instanceof Float) {
+            return floatingPoint("REAL", ((Float) value).doubleValue());
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "TRUE" : "FALSE";
+        }
+        if (value instanceof LocalDate) {
+            return "DATE '" + value + "'";
+        }
+        if (value instanceof LocalTime) {
+            return "TIME '" + time((LocalTime) value) + "'";
+        }
+        if (value instanceof LocalDateTime) {
+            return "TIMESTAMP '" + timestamp((LocalDateTime) value) + "'";
+        }
+        if (value instanceof Instant) {
+            return "TIMESTAMP '" + timestamp(LocalDateTime.ofInstant((Instant) value, ZoneOffset.UTC)) + " UTC'";
+        }
+        if (value instanceof OffsetDateTime) {
+            OffsetDateTime dateTime = (OffsetDateTime) value;
+            return "TIMESTAMP '" + timestamp(dateTime.toLocalDateTime()) + " " + offset(dateTime.getOffset()) + "'";
+        }
+        if (value instanceof ZonedDateTime) {
+            ZonedDateTime dateTime = (ZonedDateTime) value;
+            return "TIMESTAMP '" + timestamp(dateTime.toLocalDateTime()) + " " + dateTime.getZone().getId() + "'";
+        }
+        if (value instanceof UUID) {
+            return "UUID '" + value + "'";
+        }
+        if (value instanceof byte[]) {
+            return hex((byte[]) value);
+        }
+        throw new IllegalArgumentException("Unsupported literal type: " + value.getClass().getName());
+    }
+
+    /**
+     * Renders a value as a literal of the given Trino type, for example a
+     * column type of an {@code INSERT} target. Numbers, strings and temporal
+     * values are converted to the type where that cannot lose information;
+     * types without a literal form of their own, such as {@code map} or
+     * {@code row}, are rendered as a {@code CAST} of the value's own literal.
+     *
+     * @param value the value
+     * @param type  the Trino type, for example {@code decimal(10,2)} or
+     *              {@code array(varchar)}
+     * @return the literal
+     * @throws IllegalArgumentException if the value cannot be rendered as the
+     *                                  type
+     */
+    public static String render(Object value, String type) {
+        if (value == null) {
+            return "NULL";
+        }
+        String normalized = type.trim().toLowerCase(Locale.ROOT);
+        String base = baseType(normalized);
+        switch (base) {
+            case "varchar":
+            case "char":
+                return quote(value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8)
+                        : value.toString());
+            case "bigint":
+            case "integer":
+            case "smallint":
+            case "tinyint":
+                return integral(value, base);
+            case "double":
+                return floatingPoint("DOUBLE", number(value, base).doubleValue());
+            case "real":
+                return floatingPoint("REAL", number(value, base).floatValue());
+            case "decimal":
+                return "DECIMAL '" + decimal(value).toPlainString() + "'";
+            case "boolean":
+                if (value instanceof Boolean) {
+                    return render(value);
+                }
+                break;
+            case "date":
+                if (value instanceof LocalDate || value instanceof String) {
+                    return "DATE " + quote(value.toString());
+                }
+                break;
+            case "time":
+                if (value instanceof LocalTime) {
+                    return render(value);
+                }
+                break;
+            case "timestamp":
+                if (value instanceof LocalDateTime && !normalized.endsWith("with time zone")) {
+                    return render(value);
+                }
+                if ((value instanceof Instant || value instanceof OffsetDateTime || value instanceof ZonedDateTime)
+                        && normalized.endsWith("with time zone")) {
+                    return render(value);
+                }
+                break;
+            case "json":
+                return "JSON " + quote(value.toString());
+            case "uuid":
+                if (value instanceof UUID || value instanceof String) {
+                    return "UUID " + quote(value.toString());
+                }
+                break;
+            case "varbinary":
+                if (value instanceof byte[]) {
+                    return hex((byte[]) value);
+                }
+                break;
+            case "array":
+                if (value instanceof Collection) {
+                    String elementType = normalized.substring(normalized.indexOf('(') + 1,
+                            normalized.lastIndexOf(')'));
+                    StringJoiner elements = new StringJoiner(", ", "ARRAY[", "]");
+                    for (Object element : (Collection<?>) value) {
+                        elements.add(render(element, elementType));
+                    }
+                    return elements.toString();
+                }
+                break;
+            default:
+                return "CAST(" + render(value) + " AS " + type + ")";
+        }
+        throw new IllegalArgumentException("Cannot render " + value.getClass().getName() + " as " + type);
+    }
+
+    private static String baseType(String type) {
+        int end = type.length();
+        for (int i = 0; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (c == '(' || c == ' ') {
+                end = i;
+                break;
+            }
+        }
+        return type.substring(0, end);
+    }
+
+    private static Number number(Object value, String type) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        throw new IllegalArgumentException("Cannot render " + value.getClass().getName() + " as " + type);
+    }
+
+    private static String integral(Object value, String type) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger) {
+            return value.toString();
+        }
+        if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).toBigIntegerExact().toString();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Cannot render " + value + " as " + type, e);
+            }
+        }
+        throw new IllegalArgumentException("Cannot render " + value.getClass().getName() + " as " + type);
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Number || value instanceof String) {
+            try {
+                // Going through the string form keeps doubles such as 0.1 exact as written
+                return new BigDecimal(value.toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cannot render " + value + " as decimal", e);
+            }
+        }
+        throw new IllegalArgumentException("Cannot render " + value.getClass().getName() + " as decimal");
+    }
+
+    /**
+     * Quotes a string as a varchar literal.
+     *
+     * @param value the string
+     * @return the literal
+     */
+    public static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static String floatingPoint(String type, double value) {
+        if (Double.isNaN(value)) {
+            return "CAST(nan() AS " + type + ")";
+        }
+        if (Double.isInfinite(value)) {
+            return "CAST(" + (value > 0 ? "infinity()" : "-infinity()") + " AS " + type + ")";
+        }
+        // A plain 1.5 would be parsed as a decimal
+        return type + " '" + value + "'";
+    }
+
+    private static String timestamp(LocalDateTime dateTime) {
+        return dateTime.toLocalDate() + " " + time(dateTime.toLocalTime());
+    }
+
+    private static String time(LocalTime time) {
+        // LocalTime.toString() drops zero seconds, so the format is spelled out
+        String text = String.format("%02d:%02d:%02d", time.getHour(), time.getMinute(), time.getSecond());
+        if (time.getNano() == 0) {
+            return text;
+        }
+        String fraction = String.format("%09d", time.getNano()).replaceAll("0+$", "");
+        return text + "." + fraction;
+    }
+
+    private static String offset(ZoneOffset offset) {
+        return offset.getTotalSeconds() == 0 ? "+00:00" : offset.getId();
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2 + 3).append("X'");
+        for (byte b : bytes) {
+            builder.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+        }
+        return builder.append('\'').toString();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.haiphamcoder.trino.client.sql;
+
+import java.util.Objects;
+
+/**
+ * A value paired with the Trino type it should be rendered as, for parameters
+ * whose Java type does not determine the SQL type, such as a
+ * {@code decimal(10,2)} given as a string or a {@code bigint} given as an
+ * {@link Integer} for an overloaded function.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see SqlLiterals#render(Object, String)
+ */
+public final class TypedValue {
+    private final Object value;
+    private final String type;
+
+    private TypedValue(Object value, String type) {
+        this.value = value;
+        this.type = Objects.requireNonNull(type, "type is null");
+    }
+
+    /**
+     * Creates a typed value.
+     *
+     * @param value the value, or null for a typed {@code NULL}
+     * @param type  the Trino type
+     * @return the typed value
+     */
+    public static TypedValue of(Object value, String type) {
+        return new TypedValue(value, type);
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Renders the value as a literal of its type. A null value is rendered as
+     * {@code CAST(NULL AS type)} so that it keeps its type.
+     *
+     * @return the literal
+     */
+    public String toLiteral() {
+        return value == null ? "CAST(NULL AS " + type + ")" : SqlLiterals.render(value, type);
+    }
+
+    @Override
+    public String toString() {
+        return toLiteral();
+    }
+}
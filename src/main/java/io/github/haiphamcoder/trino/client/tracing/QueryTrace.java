@@ -0,0 +1,52 @@
+package io.github.haiphamcoder.trino.client.tracing;
+
+import java.net.URI;
+
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * The trace of one query, from submission until it reaches a final state.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see QueryTracer
+ */
+public interface QueryTrace {
+    /**
+     * Trace that records nothing.
+     */
+    QueryTrace NOOP = new QueryTrace() {
+        @Override
+        public RequestTrace startRequest(boolean submission, String method, URI uri) {
+            return RequestTrace.NOOP;
+        }
+
+        @Override
+        public void end(String queryId, QueryState state, TrinoStats stats, TrinoError error, long rows) {
+        }
+    };
+
+    /**
+     * Starts the trace of an HTTP request of the query, as a child of the
+     * query's trace.
+     *
+     * @param submission whether the request submits the statement
+     * @param method     the HTTP method
+     * @param uri        the request URI
+     * @return the trace of the request
+     */
+    RequestTrace startRequest(boolean submission, String method, URI uri);
+
+    /**
+     * Ends the trace when the query reaches a final state. Called once.
+     *
+     * @param queryId the query id, or null if the query was never accepted
+     * @param state   the final client-side state
+     * @param stats   the last statistics reported by the server, or null
+     * @param error   the error of a failed query, or null
+     * @param rows    the number of rows received
+     */
+    void end(String queryId, QueryState state, TrinoStats stats, TrinoError error, long rows);
+}
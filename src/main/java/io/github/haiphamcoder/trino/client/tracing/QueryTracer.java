@@ -0,0 +1,32 @@
+package io.github.haiphamcoder.trino.client.tracing;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+
+/**
+ * Starts a trace for every query submitted by a client, with a child per HTTP
+ * request whose context is propagated to the coordinator.
+ *
+ * <p>
+ * {@link #NOOP} is the default and traces nothing;
+ * {@link io.github.haiphamcoder.trino.client.tracing.opentelemetry.OpenTelemetryQueryTracer}
+ * records OpenTelemetry spans. Implementations must be thread-safe.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public interface QueryTracer {
+    /**
+     * Tracer that records nothing.
+     */
+    QueryTracer NOOP = (session, statement) -> QueryTrace.NOOP;
+
+    /**
+     * Called on the submitting thread when a query is submitted, so the trace
+     * may join the caller's current trace.
+     *
+     * @param session   the session of the query
+     * @param statement the SQL statement
+     * @return the trace of the query
+     */
+    QueryTrace startQuery(ClientSession session, String statement);
+}
@@ -0,0 +1,47 @@
+package io.github.haiphamcoder.trino.client.tracing;
+
+import java.util.function.BiConsumer;
+
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+
+/**
+ * The trace of one HTTP request of a query.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ * @see QueryTrace#startRequest
+ */
+public interface RequestTrace {
+    /**
+     * Trace that records nothing.
+     */
+    RequestTrace NOOP = new RequestTrace() {
+        @Override
+        public void inject(BiConsumer<String, String> headers) {
+        }
+
+        @Override
+        public void end(int statusCode, long responseBytes, int rows, TrinoStats stats, Throwable error) {
+        }
+    };
+
+    /**
+     * Writes the headers propagating this trace to the coordinator, such as
+     * W3C {@code traceparent}.
+     *
+     * @param headers receives each header name and value
+     */
+    void inject(BiConsumer<String, String> headers);
+
+    /**
+     * Ends the trace when the response has been processed or the request
+     * failed. Called at most once.
+     *
+     * @param statusCode    the HTTP status code, or 0 if there was no response
+     * @param responseBytes the size of the response body
+     * @param rows          the number of rows in the response
+     * @param stats         the statistics in the response, or null
+     * @param error         the failure, or null
+     */
+    void end(int statusCode, long responseBytes, int rows, TrinoStats stats, Throwable error);
+}
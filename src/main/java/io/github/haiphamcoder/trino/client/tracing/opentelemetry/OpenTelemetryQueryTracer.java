@@ -0,0 +1,193 @@
+package io.github.haiphamcoder.trino.client.tracing.opentelemetry;
+
+import java.net.URI;
+import java.util.function.BiConsumer;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.TrinoError;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+import io.github.haiphamcoder.trino.client.tracing.QueryTrace;
+import io.github.haiphamcoder.trino.client.tracing.QueryTracer;
+import io.github.haiphamcoder.trino.client.tracing.RequestTrace;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+
+/**
+ * Records OpenTelemetry spans for queries: a {@code trino.query} span per
+ * query, child of the span current when the query was submitted, and a
+ * {@code trino.submit} or {@code trino.page} client span per HTTP request.
+ *
+ * <p>
+ * Request spans are propagated to the coordinator with the propagators of the
+ * given {@link OpenTelemetry}, so with W3C trace context configured (the
+ * default of the SDK autoconfiguration) the coordinator receives a
+ * {@code traceparent} header and its trace joins the client's. Spans carry the
+ * query id and the statistics reported by the server: state, splits, CPU
+ * time, processed rows and bytes, and queued time.
+ *
+ * <p>
+ * OpenTelemetry is an optional dependency of this library: add
+ * {@code io.opentelemetry:opentelemetry-api} to the application to use this
+ * class.
+ *
+ * <pre>{@code
+ * TrinoClient client = TrinoClient.builder()
+ *         .server("http://localhost:8080")
+ *         .tracer(new OpenTelemetryQueryTracer(GlobalOpenTelemetry.get()))
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class OpenTelemetryQueryTracer implements QueryTracer {
+    /** Instrumentation scope name of the spans */
+    public static final String INSTRUMENTATION_NAME = "io.github.haiphamcoder.trino.client";
+
+    private static final AttributeKey<String> DB_SYSTEM = AttributeKey.stringKey("db.system");
+    private static final AttributeKey<String> DB_STATEMENT = AttributeKey.stringKey("db.statement");
+    private static final AttributeKey<String> DB_USER = AttributeKey.stringKey("db.user");
+    private static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.request.method");
+    private static final AttributeKey<Long> HTTP_STATUS = AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<String> URL = AttributeKey.stringKey("url.full");
+    private static final AttributeKey<String> QUERY_ID = AttributeKey.stringKey("trino.query_id");
+    private static final AttributeKey<String> STATE = AttributeKey.stringKey("trino.state");
+    private static final AttributeKey<Long> ROWS = AttributeKey.longKey("trino.rows");
+    private static final AttributeKey<Long> RESPONSE_BYTES = AttributeKey.longKey("trino.response_bytes");
+    private static final AttributeKey<Long> TOTAL_SPLITS = AttributeKey.longKey("trino.splits.total");
+    private static final AttributeKey<Long> COMPLETED_SPLITS = AttributeKey.longKey("trino.splits.completed");
+    private static final AttributeKey<Long> CPU_TIME = AttributeKey.longKey("trino.cpu_time_ms");
+    private static final AttributeKey<Long> PROCESSED_ROWS = AttributeKey.longKey("trino.processed_rows");
+    private static final AttributeKey<Long> PROCESSED_BYTES = AttributeKey.longKey("trino.processed_bytes");
+    private static final AttributeKey<Long> QUEUED_TIME = AttributeKey.longKey("trino.queued_time_ms");
+    private static final AttributeKey<String> ERROR_NAME = AttributeKey.stringKey("trino.error_name");
+
+    private static final TextMapSetter<BiConsumer<String, String>> SETTER = (headers, name, value) -> {
+        if (headers != null) {
+            headers.accept(name, value);
+        }
+    };
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    /**
+     * Constructs a new OpenTelemetryQueryTracer.
+     *
+     * @param openTelemetry the OpenTelemetry instance providing the tracer and
+     *                      propagators
+     */
+    public OpenTelemetryQueryTracer(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    @Override
+    public QueryTrace startQuery(ClientSession session, String statement) {
+        Span span = tracer.spanBuilder("trino.query")
+                .setSpanKind(SpanKind.INTERNAL)
+                .setAttribute(DB_SYSTEM, "trino")
+                .setAttribute(DB_STATEMENT, statement)
+                .setAttribute(DB_USER, session.getUser())
+                .startSpan();
+        return new OpenTelemetryQueryTrace(span);
+    }
+
+    private static void setStats(Span span, TrinoStats stats) {
+        if (stats == null) {
+            return;
+        }
+        if (stats.getState() != null) {
+            span.setAttribute(STATE, stats.getState());
+        }
+        setIfPresent(span, TOTAL_SPLITS, stats.getTotalSplits());
+        setIfPresent(span, COMPLETED_SPLITS, stats.getCompletedSplits());
+        setIfPresent(span, CPU_TIME, stats.getTotalCpuTimeMillis());
+        setIfPresent(span, PROCESSED_ROWS, stats.getRowsProcessed());
+        setIfPresent(span, PROCESSED_BYTES, stats.getBytesProcessed());
+        setIfPresent(span, QUEUED_TIME, stats.getQueuedTimeMillis());
+    }
+
+    private static void setIfPresent(Span span, AttributeKey<Long> key, Number value) {
+        if (value != null) {
+            span.setAttribute(key, value.longValue());
+        }
+    }
+
+    private final class OpenTelemetryQueryTrace implements QueryTrace {
+        private final Span span;
+        private final Context context;
+
+        OpenTelemetryQueryTrace(Span span) {
+            this.span = span;
+            this.context = Context.current().with(span);
+        }
+
+        @Override
+        public RequestTrace startRequest(boolean submission, String method, URI uri) {
+            Span requestSpan = tracer.spanBuilder(submission ? "trino.submit" : "trino.page")
+                    .setParent(context)
+                    .setSpanKind(SpanKind.CLIENT)
+                    .setAttribute(HTTP_METHOD, method)
+                    .setAttribute(URL, uri.toString())
+                    .startSpan();
+            return new OpenTelemetryRequestTrace(requestSpan);
+        }
+
+        @Override
+        public void end(String queryId, QueryState state, TrinoStats stats, TrinoError error, long rows) {
+            if (queryId != null) {
+                span.setAttribute(QUERY_ID, queryId);
+            }
+            span.setAttribute(ROWS, rows);
+            setStats(span, stats);
+            if (error != null) {
+                span.setAttribute(ERROR_NAME, error.getErrorName());
+                span.setStatus(StatusCode.ERROR, error.getMessage());
+            } else if (state == QueryState.CLIENT_ERROR) {
+                span.setStatus(StatusCode.ERROR, "Client error");
+            } else if (stats != null && "FAILED".equals(stats.getState())) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+        }
+    }
+
+    private final class OpenTelemetryRequestTrace implements RequestTrace {
+        private final Span span;
+
+        OpenTelemetryRequestTrace(Span span) {
+            this.span = span;
+        }
+
+        @Override
+        public void inject(BiConsumer<String, String> headers) {
+            propagator.inject(Context.current().with(span), headers, SETTER);
+        }
+
+        @Override
+        public void end(int statusCode, long responseBytes, int rows, TrinoStats stats, Throwable error) {
+            if (statusCode > 0) {
+                span.setAttribute(HTTP_STATUS, (long) statusCode);
+            }
+            span.setAttribute(RESPONSE_BYTES, responseBytes);
+            span.setAttribute(ROWS, (long) rows);
+            setStats(span, stats);
+            if (error != null) {
+                span.recordException(error);
+                span.setStatus(StatusCode.ERROR, error.getMessage());
+            } else if (statusCode >= 400) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.haiphamcoder.trino.client.transaction;
+
+/**
+ * Isolation level of a transaction. Connectors support different levels, and
+ * starting a transaction with a level the connector cannot provide fails when
+ * the transaction first touches it.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public enum IsolationLevel {
+    READ_UNCOMMITTED("READ UNCOMMITTED"),
+    READ_COMMITTED("READ COMMITTED"),
+    REPEATABLE_READ("REPEATABLE READ"),
+    SERIALIZABLE("SERIALIZABLE");
+
+    private final String sql;
+
+    IsolationLevel(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Gets the level as written in {@code START TRANSACTION}.
+     *
+     * @return the SQL text of the level
+     */
+    public String getSql() {
+        return sql;
+    }
+}
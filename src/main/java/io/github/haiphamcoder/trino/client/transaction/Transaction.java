@@ -0,0 +1,130 @@
+package io.github.haiphamcoder.trino.client.transaction;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+
+/**
+ * An explicit transaction of a client session, started with
+ * {@link TrinoClient#beginTransaction()}.
+ *
+ * <p>
+ * While the transaction is open, every query of the session runs in it, so a
+ * batch of statements commits once instead of once per statement. The
+ * transaction ends with {@link #commit()} or {@link #rollback()}; closing an
+ * open transaction rolls it back.
+ *
+ * <pre>{@code
+ * try (Transaction transaction = client.beginTransaction()) {
+ *     client.executeUpdate("INSERT INTO orders VALUES (1, 'open')");
+ *     client.executeUpdate("UPDATE stock SET quantity = quantity - 1 WHERE item = 1");
+ *     transaction.commit();
+ * }
+ * }</pre>
+ *
+ * <p>
+ * The transaction belongs to the session rather than to a thread; queries
+ * submitted by other threads with the same client join it too.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public class Transaction implements AutoCloseable {
+    /** Logger for this class */
+    private static final Logger log = LoggerFactory.getLogger(Transaction.class);
+
+    private final TrinoClient client;
+    private final ClientSession session;
+    private final String id;
+
+    /**
+     * Constructs a handle to a transaction already started in the session.
+     *
+     * @param client  the client running the session's queries
+     * @param session the session the transaction belongs to
+     * @param id      the transaction identifier reported by the server
+     */
+    public Transaction(TrinoClient client, ClientSession session, String id) {
+        this.client = client;
+        this.session = session;
+        this.id = Objects.requireNonNull(id, "id is null");
+    }
+
+    /**
+     * Commits the transaction. If the commit fails, the transaction is rolled
+     * back by the server and the session returns to auto-commit mode.
+     *
+     * @throws IllegalStateException if the transaction is no longer open
+     * @throws io.github.haiphamcoder.trino.client.exception.QueryFailedException
+     *         if the commit fails
+     */
+    public void commit() {
+        end("COMMIT");
+    }
+
+    /**
+     * Rolls back the transaction.
+     *
+     * @throws IllegalStateException if the transaction is no longer open
+     */
+    public void rollback() {
+        end("ROLLBACK");
+    }
+
+    private void end(String sql) {
+        if (!isActive()) {
+            throw new IllegalStateException("Transaction " + id + " is not open");
+        }
+        try (TrinoResultSet resultSet = client.execute(sql)) {
+            while (resultSet.next()) {
+                // COMMIT and ROLLBACK return no rows
+            }
+            resultSet.checkCompleted();
+        } finally {
+            // The server clears the transaction, but a failed statement ends it too
+            if (isActive()) {
+                session.setTransactionId(null);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the session's queries still run in this transaction.
+     *
+     * @return true until the transaction is committed or rolled back
+     */
+    public boolean isActive() {
+        return id.equals(session.getTransactionId());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Rolls back the transaction if it is still open. A failed rollback is
+     * logged rather than thrown, since the server aborts abandoned
+     * transactions after its idle timeout.
+     */
+    @Override
+    public void close() {
+        if (!isActive()) {
+            return;
+        }
+        try {
+            rollback();
+        } catch (RuntimeException e) {
+            log.warn("Failed to roll back transaction {}", id, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Transaction " + id + (isActive() ? " (active)" : "");
+    }
+}
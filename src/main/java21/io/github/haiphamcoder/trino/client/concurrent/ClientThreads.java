@@ -0,0 +1,62 @@
+package io.github.haiphamcoder.trino.client.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads used by the client to run queries and prefetch pages.
+ *
+ * <p>
+ * This is the Java 21 implementation packaged under
+ * {@code META-INF/versions/21}. Blocking page fetches park a virtual thread
+ * instead of occupying a platform thread, so thousands of queries can wait on
+ * the coordinator at once.
+ *
+ * @author Hai Pham Ngoc
+ * @version 1.0.0
+ */
+public final class ClientThreads {
+
+    private ClientThreads() {
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     *
+     * @return true on Java 21 and later, false otherwise
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return true;
+    }
+
+    /**
+     * Creates a thread factory naming threads {@code <name>-<n>}.
+     *
+     * @param name    the thread name prefix
+     * @param virtual whether to create virtual threads rather than daemon
+     *                platform threads
+     * @return the thread factory
+     */
+    public static ThreadFactory newThreadFactory(String name, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name + "-", 1).factory();
+        }
+        return Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+    }
+
+    /**
+     * Creates an executor that runs every task on its own thread, or on a cached
+     * platform thread when virtual threads are not used.
+     *
+     * @param name    the thread name prefix
+     * @param virtual whether to create virtual threads
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String name, boolean virtual) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(newThreadFactory(name, true));
+        }
+        return Executors.newCachedThreadPool(newThreadFactory(name, false));
+    }
+}
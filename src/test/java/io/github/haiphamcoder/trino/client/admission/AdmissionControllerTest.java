@@ -0,0 +1,162 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AdmissionController} and the built-in concurrency limits.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class AdmissionControllerTest {
+
+    @Test
+    @DisplayName("acquire should admit queries up to the limit")
+    void testAcquireUpToLimit() {
+        AdmissionController controller = new AdmissionController(ConcurrencyLimit.fixed(2), 0, Duration.ZERO);
+
+        AdmissionController.Permit first = controller.acquire();
+        AdmissionController.Permit second = controller.acquire();
+
+        assertEquals(2, controller.getInFlight());
+        assertThrows(AdmissionRejectedException.class, controller::acquire);
+        assertEquals(1, controller.getRejected());
+
+        first.close();
+        second.close();
+        assertEquals(0, controller.getInFlight());
+    }
+
+    @Test
+    @DisplayName("acquire should time out when no permit is released")
+    void testAcquireTimesOut() {
+        AdmissionController controller = new AdmissionController(ConcurrencyLimit.fixed(1), 10,
+                Duration.ofMillis(50));
+        controller.acquire();
+
+        assertThrows(AdmissionRejectedException.class, controller::acquire);
+        assertEquals(0, controller.getQueued());
+    }
+
+    @Test
+    @DisplayName("acquire should wait for a released permit")
+    void testAcquireWaitsForRelease() throws Exception {
+        AdmissionController controller = new AdmissionController(ConcurrencyLimit.fixed(1), 10,
+                Duration.ofSeconds(10));
+        AdmissionController.Permit permit = controller.acquire();
+
+        CompletableFuture<AdmissionController.Permit> waiter = CompletableFuture.supplyAsync(controller::acquire);
+        while (controller.getQueued() == 0) {
+            Thread.sleep(5);
+        }
+        permit.close();
+
+        assertNotNull(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, controller.getInFlight());
+    }
+
+    @Test
+    @DisplayName("permits should only be released once")
+    void testPermitReleasedOnce() {
+        AdmissionController controller = new AdmissionController(ConcurrencyLimit.fixed(2), 0, Duration.ZERO);
+        AdmissionController.Permit permit = controller.acquire();
+        controller.acquire();
+
+        permit.complete(0, false);
+        permit.close();
+
+        assertEquals(1, controller.getInFlight());
+    }
+
+    @Test
+    @DisplayName("AIMD limit should back off when the server queues queries")
+    void testAimdBacksOffOnQueueing() {
+        AimdLimit limit = new AimdLimit(10, 1, 20, 1000, 0.5);
+
+        limit.onSample(1_000_000, 5000, 10, false);
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("AIMD limit should grow when queries run without queueing")
+    void testAimdGrows() {
+        AimdLimit limit = new AimdLimit(10, 1, 20, 1000, 0.5);
+
+        limit.onSample(1_000_000, 0, 10, false);
+        limit.onSample(1_000_000, 0, 10, false);
+
+        assertEquals(12, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("gradient limit should shrink when latency rises")
+    void testGradientShrinksOnLatency() {
+        GradientLimit limit = new GradientLimit(20, 1, 100);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10_000_000, 0, 20, false);
+        }
+        int steady = limit.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(100_000_000, 0, 20, false);
+        }
+
+        assertTrue(limit.getLimit() < steady, limit.getLimit() + " should be below " + steady);
+    }
+
+    @Test
+    @DisplayName("latency samples should end when the query completes, not when the result set is closed")
+    void testLatencyExcludesReadTime() throws IOException, InterruptedException {
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        ConcurrencyLimit limit = new ConcurrencyLimit() {
+            @Override
+            public int getLimit() {
+                return 1;
+            }
+
+            @Override
+            public void onSample(long latencyNanos, long queuedTimeMillis, int inFlight, boolean dropped) {
+                latencies.add(latencyNanos);
+            }
+        };
+
+        try (MockTrinoServer server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(2).build())
+                .start();
+                TrinoClient client = TrinoClient.builder()
+                        .server(server.getUri())
+                        .user("test")
+                        .concurrencyLimit(limit)
+                        .build()) {
+            long start = System.nanoTime();
+            long readNanos;
+            try (TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+                while (resultSet.next()) {
+                    // Read all rows
+                }
+                readNanos = System.nanoTime() - start;
+                // A slow reader holding the result set open
+                Thread.sleep(500);
+            }
+            assertEquals(1, latencies.size());
+            assertTrue(latencies.get(0) <= readNanos,
+                    "latency " + latencies.get(0) + " ns, read " + readNanos + " ns");
+            assertEquals(0, client.getAdmissionController().getInFlight());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.haiphamcoder.trino.client.admission;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FairQueryScheduler}.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class FairQuerySchedulerTest {
+
+    private static ClientSession session(String user, String... tags) {
+        ClientSession.Builder builder = ClientSession.builder().user(user);
+        for (String tag : tags) {
+            builder.clientTag(tag);
+        }
+        return builder.build();
+    }
+
+    private static FairQueryScheduler.Builder schedulerWithSingleSlot() {
+        return FairQueryScheduler.builder()
+                .concurrencyLimit(ConcurrencyLimit.fixed(1))
+                .queryClass(new QueryClass("interactive", 10, 10))
+                .queryClass(new QueryClass("batch", 0, 10));
+    }
+
+    /**
+     * Submits queries one by one while the only slot is held, then releases the
+     * slot and returns the order in which the queries were admitted.
+     */
+    private static List<String> admissionOrder(FairQueryScheduler scheduler, List<ClientSession> sessions)
+            throws Exception {
+        AdmissionPermit blocker = scheduler.acquire(session("blocker"), "SELECT 1");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            int submitted = 0;
+            for (ClientSession session : sessions) {
+                executor.submit(() -> {
+                    AdmissionPermit permit = scheduler.acquire(session, "SELECT 1");
+                    order.add(session.getUser());
+                    permit.close();
+                });
+                submitted++;
+                while (queuedCount(scheduler) < submitted) {
+                    Thread.sleep(2);
+                }
+            }
+
+            blocker.close();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            return order;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int queuedCount(FairQueryScheduler scheduler) {
+        return scheduler.getStats().values().stream().mapToInt(QueryClassStats::getQueued).sum();
+    }
+
+    @Test
+    @DisplayName("higher priority classes should be admitted first")
+    void testPriorityOrdering() throws Exception {
+        FairQueryScheduler scheduler = schedulerWithSingleSlot().build();
+
+        List<String> order = admissionOrder(scheduler, List.of(
+                session("bulk", "batch"),
+                session("dashboard", "interactive")));
+
+        assertEquals(List.of("dashboard", "bulk"), order);
+    }
+
+    @Test
+    @DisplayName("tenants in the same class should be served in turn")
+    void testTenantFairness() throws Exception {
+        FairQueryScheduler scheduler = schedulerWithSingleSlot().build();
+
+        List<String> order = admissionOrder(scheduler, List.of(
+                session("a"), session("a"), session("a"), session("a"),
+                session("b"), session("b")));
+
+        assertEquals(List.of("a", "b", "a", "b", "a", "a"), order);
+    }
+
+    @Test
+    @DisplayName("tenant weights should give heavier tenants a larger share")
+    void testTenantWeights() throws Exception {
+        FairQueryScheduler scheduler = schedulerWithSingleSlot().tenantWeight("b", 2.0).build();
+
+        List<String> order = admissionOrder(scheduler, List.of(
+                session("a"), session("a"), session("a"),
+                session("b"), session("b"), session("b"), session("b")));
+
+        assertEquals(List.of("a", "b", "b", "a", "b", "b", "a"), order);
+    }
+
+    @Test
+    @DisplayName("per-class caps should hold queries even when global capacity remains")
+    void testClassCap() {
+        FairQueryScheduler scheduler = FairQueryScheduler.builder()
+                .queryClass(new QueryClass("batch", 0, 1))
+                .queueTimeout(Duration.ofMillis(50))
+                .build();
+
+        AdmissionPermit permit = scheduler.acquire(session("a"), "SELECT 1");
+
+        assertThrows(AdmissionRejectedException.class, () -> scheduler.acquire(session("b"), "SELECT 1"));
+        assertEquals(1, scheduler.getStats().get("batch").getRejected());
+
+        permit.close();
+        scheduler.acquire(session("b"), "SELECT 1").close();
+        assertEquals(2, scheduler.getStats().get("batch").getAdmitted());
+    }
+
+    @Test
+    @DisplayName("queue bounds should only reject queries that would have to wait")
+    void testQueueBoundsOnlyApplyToWaitingQueries() throws Exception {
+        FairQueryScheduler scheduler = FairQueryScheduler.builder()
+                .concurrencyLimit(ConcurrencyLimit.fixed(2))
+                .queryClass(new QueryClass("interactive", 10, 2, 1))
+                .queryClass(new QueryClass("batch", 0, 1, 0))
+                .maxQueuedQueries(0)
+                .build();
+
+        // Free slots admit queries right away despite the zero global bound
+        AdmissionPermit interactive = scheduler.acquire(session("a", "interactive"), "SELECT 1");
+        AdmissionPermit batch = scheduler.acquire(session("b", "batch"), "SELECT 1");
+        assertThrows(AdmissionRejectedException.class, () -> scheduler.acquire(session("c", "batch"), "SELECT 1"));
+        assertEquals(1, scheduler.getStats().get("batch").getRejected());
+        batch.close();
+        interactive.close();
+
+        FairQueryScheduler bounded = FairQueryScheduler.builder()
+                .concurrencyLimit(ConcurrencyLimit.fixed(1))
+                .queryClass(new QueryClass("interactive", 10, 1, 1))
+                .queryClass(new QueryClass("batch", 0, 1, 0))
+                .build();
+        AdmissionPermit blocker = bounded.acquire(session("a", "interactive"), "SELECT 1");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // One interactive query may wait, but no batch query
+            executor.submit(() -> bounded.acquire(session("b", "interactive"), "SELECT 1").close());
+            while (queuedCount(bounded) < 1) {
+                Thread.sleep(2);
+            }
+            assertThrows(AdmissionRejectedException.class,
+                    () -> bounded.acquire(session("c", "interactive"), "SELECT 1"));
+            assertThrows(AdmissionRejectedException.class, () -> bounded.acquire(session("d", "batch"), "SELECT 1"));
+
+            blocker.close();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, bounded.getStats().get("interactive").getAdmitted());
+        assertEquals(1, bounded.getStats().get("interactive").getRejected());
+        assertEquals(1, bounded.getStats().get("batch").getRejected());
+    }
+
+    @Test
+    @DisplayName("custom classifier should override client tags")
+    void testCustomClassifier() {
+        FairQueryScheduler scheduler = schedulerWithSingleSlot()
+                .classifier((session, sql) -> sql.startsWith("INSERT") ? "batch" : null)
+                .build();
+
+        scheduler.acquire(session("a", "interactive"), "INSERT INTO t VALUES (1)").close();
+        scheduler.acquire(session("a", "interactive"), "SELECT 1").close();
+
+        assertEquals(1, scheduler.getStats().get("batch").getAdmitted());
+        assertEquals(1, scheduler.getStats().get("interactive").getAdmitted());
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.haiphamcoder.trino.client.batch;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.BatchQueryException;
+import io.github.haiphamcoder.trino.client.exception.QueryCancelledException;
+import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link QueryBatch} against a {@link MockTrinoServer}.
+ * 
+ * <p>
+ * The server answers {@code SELECT '<value>'} with one row holding the value
+ * after a delay, {@code FAIL} with a query error, and {@code SLOW} with queued
+ * responses until the query is deleted.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class QueryBatchTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .column("v", "varchar")
+                        .result(sql -> List.of(List.of(sql.substring(sql.indexOf('\'') + 1, sql.lastIndexOf('\'')))))
+                        .latency(Duration.ofMillis(20))
+                        .build())
+                .scenario("FAIL", MockScenario.builder()
+                        .fault(1, MockFault.queryError("GENERIC_INTERNAL_ERROR", "INTERNAL_ERROR"))
+                        .latency(Duration.ofMillis(20))
+                        .build())
+                .scenario("SLOW", MockScenario.builder()
+                        .queuedResponses(1_000)
+                        .latency(Duration.ofMillis(20))
+                        .build())
+                .start();
+        client = TrinoClient.builder().server(server.getUri()).user("test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private static List<String> selects(int count) {
+        List<String> sqls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sqls.add("SELECT 'v" + i + "'");
+        }
+        return sqls;
+    }
+
+    @Test
+    @DisplayName("executeAll should return results in submission order")
+    void testSubmissionOrder() {
+        List<QueryResult> results = client.executeAll(selects(12));
+
+        assertEquals(12, results.size());
+        for (int i = 0; i < 12; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("v" + i, results.get(i).getRows().get(0).getValue(0));
+        }
+    }
+
+    @Test
+    @DisplayName("executeAll should not run more queries at once than the parallelism")
+    void testBoundedParallelism() {
+        List<QuerySpec> specs = new ArrayList<>();
+        for (String sql : selects(20)) {
+            specs.add(QuerySpec.of(sql));
+        }
+
+        List<QueryResult> results = client.executeAll(specs, BatchOptions.builder()
+                .parallelism(3)
+                .resultOrder(BatchOptions.ResultOrder.COMPLETION)
+                .build());
+
+        assertEquals(20, results.size());
+        assertTrue(server.getMaxRunningCount() <= 3, "max running was " + server.getMaxRunningCount());
+    }
+
+    @Test
+    @DisplayName("collect-errors mode should report failures alongside successful results")
+    void testCollectErrors() {
+        List<QueryResult> results = client.executeAll(List.of("SELECT 'a'", "FAIL", "SELECT 'b'"));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertInstanceOf(QueryFailedException.class, results.get(1).getError());
+        assertEquals("GENERIC_INTERNAL_ERROR", results.get(1).getError().getTrinoError().getErrorName());
+        assertTrue(results.get(2).isSuccess());
+    }
+
+    @Test
+    @DisplayName("fail-fast mode should cancel running siblings on the server and skip the rest")
+    void testFailFastCancelsSiblings() {
+        List<QuerySpec> specs = List.of(
+                QuerySpec.of("slow", "SLOW"),
+                QuerySpec.of("failing", "FAIL"),
+                QuerySpec.of("skipped", "SELECT 'x'"));
+
+        BatchQueryException e = assertThrows(BatchQueryException.class, () -> client.executeAll(specs,
+                BatchOptions.builder().parallelism(2).errorMode(BatchOptions.ErrorMode.FAIL_FAST).build()));
+
+        assertEquals("failing", e.getFailure().getSpec().getName());
+        assertEquals(1, server.getCancelledCount(), "slow query was not deleted");
+        QueryResult slow = e.getResults().stream()
+                .filter(result -> "slow".equals(result.getSpec().getName()))
+                .findFirst()
+                .orElseThrow();
+        assertInstanceOf(QueryCancelledException.class, slow.getError());
+        assertTrue(e.getResults().stream().noneMatch(result -> "skipped".equals(result.getSpec().getName())));
+    }
+}
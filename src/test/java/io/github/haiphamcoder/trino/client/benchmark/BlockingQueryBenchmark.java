@@ -0,0 +1,87 @@
+package io.github.haiphamcoder.trino.client.benchmark;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.concurrent.ClientThreads;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many concurrent blocking queries against a {@link MockTrinoServer}.
+ * 
+ * <p>
+ * Every query is driven by its own thread calling the blocking
+ * {@link TrinoClient#execute(String)} API. The server answers the submission
+ * with a queued response and holds the page request for a fixed delay, like a
+ * coordinator waiting for results. On Java 21 the client and the server use
+ * virtual threads; on Java 17 they fall back to platform threads.
+ * 
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=io.github.haiphamcoder.trino.client.benchmark.BlockingQueryBenchmark \
+ *     -Dexec.args="10000 200"
+ * </pre>
+ * 
+ * @author Hai Pham Ngoc
+ */
+public final class BlockingQueryBenchmark {
+
+    private BlockingQueryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long pageDelayMillis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        boolean virtual = ClientThreads.isVirtualThreadsSupported();
+
+        ExecutorService drivers = ClientThreads.newExecutor("benchmark-query", virtual);
+        try (MockTrinoServer server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().fault(1, MockFault.delay(Duration.ofMillis(pageDelayMillis))).build())
+                .backlog(queries)
+                .start();
+                TrinoClient client = TrinoClient.builder()
+                        .server(server.getUri())
+                        .user("benchmark")
+                        .virtualThreads(virtual)
+                        .build()) {
+            long start = System.nanoTime();
+            List<Future<Long>> results = new ArrayList<>(queries);
+            for (int i = 0; i < queries; i++) {
+                results.add(drivers.submit(() -> {
+                    long rows = 0;
+                    try (TrinoResultSet resultSet = client.execute("SELECT 1")) {
+                        while (resultSet.next()) {
+                            rows++;
+                        }
+                    }
+                    return rows;
+                }));
+            }
+
+            long rows = 0;
+            int failed = 0;
+            for (Future<Long> result : results) {
+                try {
+                    rows += result.get();
+                } catch (Exception e) {
+                    failed++;
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.printf("threads=%s queries=%d failed=%d rows=%d pageDelay=%dms elapsed=%dms (%.0f queries/s)%n",
+                    virtual ? "virtual" : "platform", queries, failed, rows, pageDelayMillis, elapsedMillis,
+                    queries * 1000.0 / Math.max(1, elapsedMillis));
+        } finally {
+            drivers.shutdownNow();
+        }
+    }
+}
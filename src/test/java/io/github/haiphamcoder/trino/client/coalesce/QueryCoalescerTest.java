@@ -0,0 +1,283 @@
+package io.github.haiphamcoder.trino.client.coalesce;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.event.QueryEvent;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.model.ClientQueryStats;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link QueryCoalescer} and {@link SharedQuery}.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class QueryCoalescerTest {
+
+    private static final ClientSession SESSION = ClientSession.builder()
+            .server(URI.create("http://localhost:8080"))
+            .user("test")
+            .build();
+
+    @Test
+    @DisplayName("isCoalescable should accept read-only statements only")
+    void testIsCoalescable() {
+        assertTrue(QueryCoalescer.isCoalescable("SELECT 1"));
+        assertTrue(QueryCoalescer.isCoalescable("  -- dashboard\n/* tile 3 */ with t AS (SELECT 1) SELECT * FROM t"));
+        assertTrue(QueryCoalescer.isCoalescable("(SELECT 1) UNION (SELECT 2)"));
+        assertTrue(QueryCoalescer.isCoalescable("show catalogs"));
+        assertTrue(QueryCoalescer.isCoalescable("EXPLAIN SELECT 1"));
+        assertTrue(QueryCoalescer.isCoalescable("EXPLAIN (TYPE DISTRIBUTED) SELECT 1"));
+        assertFalse(QueryCoalescer.isCoalescable("EXPLAIN ANALYZE SELECT 1"));
+        assertFalse(QueryCoalescer.isCoalescable("explain /* plan */ analyze VERBOSE INSERT INTO t SELECT 1"));
+        assertFalse(QueryCoalescer.isCoalescable("INSERT INTO t SELECT 1"));
+        assertFalse(QueryCoalescer.isCoalescable("DELETE FROM t"));
+        assertFalse(QueryCoalescer.isCoalescable("SELECTED"));
+        assertFalse(QueryCoalescer.isCoalescable(""));
+    }
+
+    @Test
+    @DisplayName("identical concurrent queries should share one server query and see every row")
+    void testIdenticalQueriesShareOneServerQuery() throws Exception {
+        MockTrinoServer server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(3).latency(Duration.ofMillis(100)).build())
+                .start();
+        ExecutorService callers = Executors.newFixedThreadPool(10);
+        try (TrinoClient client = TrinoClient.builder()
+                .server(server.getUri())
+                .user("test")
+                .coalesceQueries(true)
+                .build()) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    List<Object> values = new ArrayList<>();
+                    try (TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+                        while (resultSet.next()) {
+                            values.add(resultSet.getCurrentRow().getValue(0));
+                        }
+                    }
+                    return values;
+                }));
+            }
+            start.countDown();
+
+            for (Future<List<Object>> result : results) {
+                assertEquals(List.of(0.0, 1.0, 2.0), result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, server.getSubmittedCount());
+            assertEquals(1, client.getCoalescer().getStartedQueries());
+            assertEquals(9, client.getCoalescer().getCoalescedQueries());
+            assertEquals(0, client.getCoalescer().getRunningQueries());
+        } finally {
+            callers.shutdownNow();
+            server.close();
+        }
+    }
+
+    private static StatementResponse page(int number, boolean last) {
+        StatementResponse response = new StatementResponse();
+        response.setId("q1");
+        response.setData(List.of(List.of(number)));
+        response.setNextUri(last ? null : "http://example.com/" + (number + 1));
+        return response;
+    }
+
+    @Test
+    @DisplayName("the replay buffer should drop pages read by every subscriber once over its bound")
+    void testReplayBufferBound() {
+        StatementClient client = mock(StatementClient.class);
+        when(client.getSession()).thenReturn(SESSION);
+        ClientQueryStats stats = new ClientQueryStats();
+        stats.recordPage(100, 1);
+        when(client.getClientStats()).thenReturn(stats);
+        when(client.getState()).thenReturn(QueryState.RUNNING);
+        when(client.execute()).thenReturn(page(0, false));
+        when(client.advance()).thenReturn(page(1, false), page(2, true));
+
+        SharedQuery query = new SharedQuery(client, null, 150);
+        CoalescedStatementClient first = query.subscribe();
+        CoalescedStatementClient second = query.subscribe();
+
+        assertEquals(0, first.execute().getData().get(0).get(0));
+        assertEquals(0, second.execute().getData().get(0).get(0));
+        assertTrue(query.isJoinable());
+
+        // The second page exceeds the bound, and the first page has been read by both
+        assertEquals(1, first.advance().getData().get(0).get(0));
+        assertEquals(100, query.getBufferedBytes());
+        assertFalse(query.isJoinable());
+        assertNull(query.subscribe());
+
+        assertEquals(1, second.advance().getData().get(0).get(0));
+        assertEquals(2, second.advance().getData().get(0).get(0));
+        assertEquals(QueryState.FINISHED, second.getState());
+        assertEquals(2, first.advance().getData().get(0).get(0));
+        verify(client, times(1)).execute();
+        verify(client, times(2)).advance();
+    }
+
+    @Test
+    @DisplayName("the server query should be cancelled only when its last subscriber leaves")
+    void testCancelWhenLastSubscriberLeaves() {
+        StatementClient client = mock(StatementClient.class);
+        when(client.getSession()).thenReturn(SESSION);
+        when(client.getClientStats()).thenReturn(new ClientQueryStats());
+        when(client.getState()).thenReturn(QueryState.RUNNING);
+        when(client.execute()).thenReturn(page(0, false));
+
+        AtomicInteger finished = new AtomicInteger();
+        SharedQuery query = new SharedQuery(client, finished::incrementAndGet, 1024);
+        CoalescedStatementClient first = query.subscribe();
+        CoalescedStatementClient second = query.subscribe();
+        first.execute();
+
+        first.cancel();
+        assertEquals(QueryState.CLIENT_ABORTED, first.getState());
+        verify(client, never()).cancel();
+
+        second.close();
+        verify(client, times(1)).cancel();
+        verify(client, times(1)).close();
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    @DisplayName("a thread reading coalesced result sets one after the other should not wait on itself")
+    void testSequentialSubscribersOnOneThread() throws IOException {
+        try (MockTrinoServer server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(5).rowsPerPage(2).build())
+                .start();
+                TrinoClient client = TrinoClient.builder()
+                        .server(server.getUri())
+                        .user("test")
+                        .coalesceQueries(true)
+                        .coalescingBufferSize(1)
+                        .coalescingMaxWait(Duration.ofMillis(200))
+                        .build();
+                TrinoResultSet first = client.execute("SELECT x FROM t");
+                TrinoResultSet second = client.execute("SELECT x FROM t")) {
+            assertEquals(1, client.getCoalescer().getCoalescedQueries());
+
+            long start = System.nanoTime();
+            int rows = 0;
+            while (first.next()) {
+                rows++;
+            }
+            assertEquals(10, rows);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+            // The second result set fell behind by more than the buffer and was detached
+            assertThrows(TrinoException.class, () -> {
+                while (second.next()) {
+                    // Read until the detached subscriber fails
+                }
+            });
+            assertEquals(1, server.getSubmittedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("identical queries should join a query waiting for admission instead of queueing")
+    void testDuplicatesJoinQueryWaitingForAdmission() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (MockTrinoServer server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(2).build())
+                .start();
+                TrinoClient client = TrinoClient.builder()
+                        .server(server.getUri())
+                        .user("test")
+                        .coalesceQueries(true)
+                        .maxConcurrentQueries(1)
+                        .maxQueuedQueries(1)
+                        .build()) {
+            TrinoResultSet blocker = client.execute("SELECT y FROM t");
+            assertTrue(blocker.next());
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(callers.submit(() -> {
+                    int rows = 0;
+                    try (TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+                        while (resultSet.next()) {
+                            rows++;
+                        }
+                    }
+                    return rows;
+                }));
+                while (client.getAdmissionController().getQueued() < 1) {
+                    Thread.sleep(2);
+                }
+            }
+            // A duplicate taking its own place in the full queue would be rejected
+            Thread.sleep(100);
+            assertEquals(1, client.getAdmissionController().getQueued());
+            assertEquals(0, client.getAdmissionController().getRejected());
+            blocker.close();
+
+            for (Future<Integer> result : results) {
+                assertEquals(2, result.get(10, TimeUnit.SECONDS));
+            }
+            // The blocker and the shared query
+            assertEquals(2, server.getSubmittedCount());
+            assertEquals(2, client.getCoalescer().getStartedQueries());
+            assertEquals(1, client.getCoalescer().getCoalescedQueries());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("listeners should see one created and one terminal event per server query")
+    void testOneLifecyclePerServerQuery() throws IOException {
+        List<QueryEvent.Type> events = new CopyOnWriteArrayList<>();
+        try (MockTrinoServer server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(3).build())
+                .start();
+                TrinoClient client = TrinoClient.builder()
+                        .server(server.getUri())
+                        .user("test")
+                        .coalesceQueries(true)
+                        .eventListener(event -> events.add(event.getType()))
+                        .build()) {
+            try (TrinoResultSet first = client.execute("SELECT x FROM t");
+                    TrinoResultSet second = client.execute("SELECT x FROM t")) {
+                while (first.next()) {
+                    // Read all rows
+                }
+                while (second.next()) {
+                    // Read all rows
+                }
+            }
+            assertEquals(1, server.getSubmittedCount());
+        }
+        assertEquals(1, events.stream().filter(type -> type == QueryEvent.Type.CREATED).count());
+        assertEquals(1, events.stream().filter(type -> type == QueryEvent.Type.FINISHED).count());
+        assertFalse(events.contains(QueryEvent.Type.FAILED));
+        assertFalse(events.contains(QueryEvent.Type.CANCELLED));
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.haiphamcoder.trino.client.event;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for query lifecycle events and {@link QueryTimelineRecorder}
+ * against a {@link MockTrinoServer}.
+ *
+ * <p>
+ * The server queues each query, then serves one row per page over two pages;
+ * statements containing {@code fail} fail on the first page, and statements
+ * containing {@code slow} take 300 milliseconds per response.
+ *
+ * @author Hai Pham Ngoc
+ */
+class QueryTimelineRecorderTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+    private final QueryTimelineRecorder recorder = new QueryTimelineRecorder(2);
+    private final List<QueryEvent> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(2).stat("elapsedTimeMillis", 42).build())
+                .scenario("fail", MockScenario.builder().fault(1, MockFault.queryError("TABLE_NOT_FOUND")).build())
+                .scenario("slow", MockScenario.builder().pages(2).latency(Duration.ofMillis(300)).build())
+                .start();
+        client = TrinoClient.builder()
+                .server(server.getUri())
+                .user("test")
+                .eventListener(recorder)
+                .eventListener(events::add)
+                .eventListener(event -> {
+                    throw new IllegalStateException("listener failures must not affect queries");
+                })
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    /** Id the server gives the n-th submitted query */
+    private static String queryId(int n) {
+        return String.format("20250101_000000_%05d_mock0", n);
+    }
+
+    private static List<QueryEvent.Type> types(QueryTimeline timeline) {
+        return timeline.getEvents().stream().map(QueryEvent::getType).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("a successful query should emit every lifecycle event in order with the final stats")
+    void testFinishedQuery() {
+        try (TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+            while (resultSet.next()) {
+                // Consume rows
+            }
+        }
+
+        assertEquals(List.of(QueryEvent.Type.CREATED, QueryEvent.Type.SUBMITTED, QueryEvent.Type.QUEUED,
+                QueryEvent.Type.FIRST_ROW, QueryEvent.Type.FINISHED),
+                events.stream().map(QueryEvent::getType).collect(Collectors.toList()));
+        assertNull(events.get(0).getQueryId());
+        assertEquals(queryId(1), events.get(1).getQueryId());
+
+        QueryEvent finished = events.get(4);
+        assertEquals(2, finished.getRows());
+        assertEquals(42L, finished.getStats().getElapsedTimeMillis());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getElapsedNanos() >= events.get(i - 1).getElapsedNanos());
+        }
+
+        QueryTimeline timeline = finished.getTimeline();
+        assertEquals(List.of(timeline), recorder.getTimelines());
+        assertEquals(queryId(1), timeline.getQueryId());
+        assertSame(finished, timeline.getTerminalEvent());
+        assertTrue(recorder.dump().startsWith("Query " + queryId(1) + " (FINISHED, "), recorder.dump());
+    }
+
+    @Test
+    @DisplayName("failed and cancelled queries should end their timelines accordingly")
+    void testFailedAndCancelledQueries() {
+        try (TrinoResultSet resultSet = client.execute("SELECT x FROM fail")) {
+            assertFalse(resultSet.next());
+        }
+        QueryEvent failed = recorder.getTimelines().get(0).getTerminalEvent();
+        assertEquals(QueryEvent.Type.FAILED, failed.getType());
+        assertEquals("TABLE_NOT_FOUND", failed.getError().getErrorName());
+
+        try (TrinoResultSet resultSet = client.execute("SELECT x FROM slow")) {
+            assertTrue(resultSet.next());
+            resultSet.cancel();
+        }
+        List<QueryTimeline> timelines = recorder.getTimelines();
+        assertEquals(2, timelines.size());
+        assertEquals(QueryEvent.Type.CANCELLED, timelines.get(1).getTerminalEvent().getType());
+        assertEquals(List.of(QueryEvent.Type.CREATED, QueryEvent.Type.SUBMITTED, QueryEvent.Type.QUEUED,
+                QueryEvent.Type.FIRST_ROW, QueryEvent.Type.CANCELLED), types(timelines.get(1)));
+    }
+
+    @Test
+    @DisplayName("the recorder should keep only the most recent timelines and filter them by duration")
+    void testRingBuffer() {
+        client.executeUpdate("SELECT x FROM a");
+        client.executeUpdate("SELECT x FROM slow");
+        client.executeUpdate("SELECT x FROM b");
+
+        assertEquals(3, recorder.getRecordedCount());
+        List<QueryTimeline> timelines = recorder.getTimelines();
+        assertEquals(List.of(queryId(2), queryId(3)), timelines.stream().map(QueryTimeline::getQueryId)
+                .collect(Collectors.toList()));
+
+        List<QueryTimeline> slow = recorder.getTimelinesSlowerThan(Duration.ofMillis(500));
+        assertEquals(1, slow.size());
+        assertEquals("SELECT x FROM slow", slow.get(0).getStatement());
+        assertTrue(recorder.dump(Duration.ofMillis(500)).startsWith("Query " + queryId(2) + " (FINISHED, "));
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.haiphamcoder.trino.client.fingerprint;
+
+import com.google.gson.Gson;
+import io.github.haiphamcoder.trino.client.event.QueryEvent;
+import io.github.haiphamcoder.trino.client.event.QueryTimeline;
+import io.github.haiphamcoder.trino.client.metrics.MetricTags;
+import io.github.haiphamcoder.trino.client.model.TrinoStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SqlFingerprint} and {@link FingerprintAggregator}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class SqlFingerprintTest {
+
+    @Test
+    @DisplayName("Should replace literals and drop comments and whitespace")
+    void shouldReplaceLiterals() {
+        assertEquals("select a, b from t where x = ? and y > ? and z = ? and \"Col\" <> ?",
+                SqlFingerprint.normalize("SELECT a,  b\n FROM t -- comment\n WHERE x = 'it''s' AND y > -1.5e-3 "
+                        + "/* block */ AND z = 42 AND \"Col\" <> 0x1F"));
+    }
+
+    @Test
+    @DisplayName("Should keep subtraction distinct from negative literals")
+    void shouldKeepSubtraction() {
+        assertEquals("select a - ?, (?) - ?, f (?), ?", SqlFingerprint.normalize("select a - 1, (2) - 3, f(-4), -5"));
+    }
+
+    @Test
+    @DisplayName("Should collapse IN lists and repeated VALUES rows")
+    void shouldCollapseLists() {
+        SqlFingerprint one = SqlFingerprint.of("select * from t where id in (1)");
+        SqlFingerprint many = SqlFingerprint.of("SELECT * FROM t WHERE id IN (1, 2, 3, 'x')");
+        assertEquals("select * from t where id in (?...)", one.getNormalized());
+        assertEquals(one, many);
+        assertEquals(one.getHash(), many.getHash());
+        assertEquals(16, one.getHash().length());
+
+        assertEquals("insert into t values (?, ?), ...",
+                SqlFingerprint.normalize("INSERT INTO t VALUES (1, 'a'), (2, 'b'), (3, 'c')"));
+        assertEquals("insert into t values (?, ?)", SqlFingerprint.normalize("INSERT INTO t VALUES (1, 'a')"));
+        assertEquals("select * from t where id in (select id from u)",
+                SqlFingerprint.normalize("select * from t where id in (select id from u)"));
+        assertNotEquals(SqlFingerprint.of("select a from t"), SqlFingerprint.of("select b from t"));
+    }
+
+    @Test
+    @DisplayName("Should aggregate completed queries by fingerprint and source")
+    void shouldAggregateByFingerprint() {
+        FingerprintAggregator aggregator = new FingerprintAggregator();
+        TrinoStats stats = new Gson().fromJson("{\"bytesProcessed\":100,\"totalCpuTimeMillis\":7}", TrinoStats.class);
+        for (int i = 0; i < 3; i++) {
+            complete(aggregator, "select * from t where id = " + i, "etl", QueryEvent.Type.FINISHED,
+                    (i + 1) * 1_000_000L, 10, stats);
+        }
+        complete(aggregator, "select * from t where id = 9", "dashboard", QueryEvent.Type.FAILED, 1_000_000L, 0,
+                null);
+        complete(aggregator, "select 1", "etl", QueryEvent.Type.CANCELLED, 1_000_000L, 0, null);
+
+        List<FingerprintStats> snapshot = aggregator.snapshot();
+        assertEquals(3, snapshot.size());
+        FingerprintStats top = snapshot.get(0);
+        assertEquals("select * from t where id = ?", top.getFingerprint().getNormalized());
+        assertEquals("etl", top.getSource());
+        assertEquals(3, top.getCount());
+        assertEquals(0, top.getCountError());
+        assertEquals(0, top.getFailures());
+        assertEquals(30, top.getRows());
+        assertEquals(300, top.getProcessedBytes());
+        assertEquals(21, top.getCpuTimeMillis());
+        assertEquals(3_000_000L, top.getLatencyMax());
+        assertEquals(6_000_000L, top.getTotalLatency());
+        assertTrue(top.getLatencyP50() >= 1_900_000L && top.getLatencyP50() <= 2_100_000L, top.toString());
+        assertEquals(1, snapshot.get(1).getFailures());
+    }
+
+    @Test
+    @DisplayName("Should keep heavy fingerprints when evicting")
+    void shouldKeepHeavyFingerprints() {
+        FingerprintAggregator aggregator = new FingerprintAggregator(2);
+        for (int i = 0; i < 10; i++) {
+            complete(aggregator, "select * from hot where id = " + i, null, QueryEvent.Type.FINISHED, 1, 0, null);
+            complete(aggregator, "select * from hot where id = " + -i, null, QueryEvent.Type.FINISHED, 1, 0, null);
+            complete(aggregator, "select * from cold_" + i, null, QueryEvent.Type.FINISHED, 1, 0, null);
+        }
+
+        List<FingerprintStats> snapshot = aggregator.snapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals("select * from hot where id = ?", snapshot.get(0).getFingerprint().getNormalized());
+        assertEquals(20, snapshot.get(0).getCount());
+        FingerprintStats cold = snapshot.get(1);
+        assertEquals("select * from cold_9", cold.getFingerprint().getNormalized());
+        assertEquals(1, cold.getSampleCount());
+        assertEquals(cold.getCountError() + 1, cold.getCount());
+
+        aggregator.reset();
+        assertTrue(aggregator.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest fingerprint of the lowest count")
+    void shouldEvictLowestCount() {
+        FingerprintAggregator aggregator = new FingerprintAggregator(3);
+        for (String table : List.of("a", "a", "a", "b", "b", "c")) {
+            complete(aggregator, "select * from " + table, null, QueryEvent.Type.FINISHED, 1, 0, null);
+        }
+
+        // Evicts c, the only fingerprint seen once
+        complete(aggregator, "select * from d", null, QueryEvent.Type.FINISHED, 1, 0, null);
+        // Evicts b, which reached a count of two before d
+        complete(aggregator, "select * from e", null, QueryEvent.Type.FINISHED, 1, 0, null);
+
+        List<FingerprintStats> snapshot = aggregator.snapshot();
+        assertEquals(3, snapshot.size());
+        assertEquals(Map.of("select * from a", 3L, "select * from e", 3L, "select * from d", 2L),
+                snapshot.stream().collect(Collectors.toMap(s -> s.getFingerprint().getNormalized(),
+                        FingerprintStats::getCount)));
+        assertEquals(List.of(0L, 1L, 2L), snapshot.stream()
+                .sorted(Comparator.comparing(s -> s.getFingerprint().getNormalized()))
+                .map(FingerprintStats::getCountError)
+                .collect(Collectors.toList()));
+    }
+
+    private static void complete(FingerprintAggregator aggregator, String sql, String source, QueryEvent.Type type,
+            long elapsedNanos, long rows, TrinoStats stats) {
+        QueryTimeline timeline = new QueryTimeline(sql, MetricTags.of("user", source, Set.of()));
+        aggregator.onEvent(new QueryEvent(QueryEvent.Type.CREATED, timeline, null, 0, 0, 0, null, null));
+        aggregator.onEvent(new QueryEvent(type, timeline, "q", 0, elapsedNanos, rows, stats, null));
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.haiphamcoder.trino.client.insert;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.BulkInsertException;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BulkInserter} against a {@link MockTrinoServer}.
+ *
+ * <p>
+ * The server reports an update count equal to the number of rows in each
+ * {@code INSERT} statement, and fails statements containing {@code 'fail'}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class BulkInserterTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .column("rows", "bigint")
+                        .result(sql -> List.of(List.of(rows(sql))))
+                        .updateType("INSERT")
+                        .updateCount(BulkInserterTest::rows)
+                        .build())
+                .scenario("'fail'", MockScenario.builder()
+                        .fault(1, MockFault.queryError("GENERIC_INTERNAL_ERROR", "INTERNAL_ERROR"))
+                        .build())
+                .start();
+        client = TrinoClient.builder().server(server.getUri()).user("test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private static long rows(String sql) {
+        return sql.split("\\), \\(").length;
+    }
+
+    @Test
+    @DisplayName("rows should be batched by row count and the update counts summed")
+    void testBatchesByRowCount() {
+        long inserted;
+        try (BulkInserter inserter = client.bulkInserter("memory.default.users")
+                .column("id", "bigint")
+                .column("name", "varchar")
+                .maxBatchRows(10)
+                .parallelism(3)
+                .build()) {
+            for (long i = 0; i < 95; i++) {
+                inserter.add(i, "user" + i);
+            }
+            inserted = inserter.finish();
+        }
+
+        assertEquals(95, inserted);
+        List<String> statements = server.getStatements();
+        assertEquals(10, statements.size());
+        assertTrue(statements.contains("INSERT INTO memory.default.users (\"id\", \"name\") VALUES (0, 'user0'), "
+                + "(1, 'user1'), (2, 'user2'), (3, 'user3'), (4, 'user4'), (5, 'user5'), (6, 'user6'), "
+                + "(7, 'user7'), (8, 'user8'), (9, 'user9')"));
+    }
+
+    @Test
+    @DisplayName("batches should not exceed the byte limit and values should be typed literals")
+    void testBatchesByBytes() {
+        try (BulkInserter inserter = client.bulkInserter("t")
+                .column("price", "decimal(10,2)")
+                .column("day", "date")
+                .column("note", "varchar")
+                .maxBatchBytes(120)
+                .build()) {
+            for (int i = 0; i < 10; i++) {
+                inserter.add(new BigDecimal("1.50"), LocalDate.of(2024, 1, 1 + i), "it's é");
+            }
+            assertEquals(10, inserter.finish());
+        }
+
+        List<String> statements = server.getStatements();
+        assertTrue(statements.size() > 1);
+        for (String sql : statements) {
+            assertTrue(sql.getBytes(StandardCharsets.UTF_8).length <= 120, sql);
+            assertTrue(sql.contains("(DECIMAL '1.50', DATE '2024-01-01', 'it''s é')")
+                    || !sql.contains("2024-01-01"), sql);
+        }
+    }
+
+    @Test
+    @DisplayName("a failed batch should fail the inserter and report the rows already inserted")
+    void testFailure() {
+        BulkInserter inserter = client.bulkInserter("t")
+                .column("v", "varchar")
+                .maxBatchRows(2)
+                .parallelism(1)
+                .build();
+        inserter.add("a");
+        inserter.add("b");
+        inserter.add("fail");
+
+        BulkInsertException e = assertThrows(BulkInsertException.class, inserter::finish);
+        assertEquals(2, e.getInsertedRows());
+        assertEquals("GENERIC_INTERNAL_ERROR", e.getTrinoError().getErrorName());
+        assertThrows(IllegalArgumentException.class, () -> client.bulkInserter("t")
+                .column("v", "bigint")
+                .build()
+                .add("not a number"));
+    }
+}
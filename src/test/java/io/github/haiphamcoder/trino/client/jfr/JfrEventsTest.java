@@ -0,0 +1,124 @@
+package io.github.haiphamcoder.trino.client.jfr;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Flight Recorder events emitted by queries against a
+ * {@link MockTrinoServer}.
+ *
+ * <p>
+ * The server queues each query and serves one row per page over two pages.
+ *
+ * @author Hai Pham Ngoc
+ */
+class JfrEventsTest {
+
+    private static final String QUERY_ID = "20250101_000000_00001_mock0";
+    private static final String PREFIX = "io.github.haiphamcoder.trino.client.";
+
+    @TempDir
+    Path tempDir;
+
+    private MockTrinoServer server;
+    private String baseUri;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(2).build())
+                .start();
+        baseUri = server.getUri().toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private List<RecordedEvent> record(Runnable workload) throws IOException {
+        Path file = tempDir.resolve("client.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("StatementSubmit", "PageFetch", "PageDecode", "PageParse", "QueryCancel")) {
+                recording.enable(PREFIX + name).withoutThreshold();
+            }
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith(PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(PREFIX + name))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("submission, page fetches, decodes and parses should be recorded with their sizes")
+    void testQueryEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            try (TrinoClient client = TrinoClient.builder().server(baseUri).user("alice").build()) {
+                client.executeUpdate("SELECT x FROM t");
+            }
+        });
+
+        List<RecordedEvent> submits = ofType(events, "StatementSubmit");
+        assertEquals(1, submits.size());
+        assertEquals(QUERY_ID, submits.get(0).getString("queryId"));
+        assertEquals("alice", submits.get(0).getString("user"));
+        assertEquals(200, submits.get(0).getInt("statusCode"));
+        assertEquals(baseUri + "/v1/statement", submits.get(0).getString("uri"));
+
+        List<RecordedEvent> fetches = ofType(events, "PageFetch");
+        assertEquals(2, fetches.size());
+        assertEquals(List.of(1, 1), fetches.stream().map(e -> e.getInt("rows")).collect(Collectors.toList()));
+        assertTrue(fetches.get(0).getLong("responseBytes") > 0);
+        assertTrue(fetches.get(0).getString("uri").endsWith("/v1/statement/executing/" + QUERY_ID + "/1"));
+
+        assertEquals(3, ofType(events, "PageDecode").size());
+        List<RecordedEvent> parses = ofType(events, "PageParse");
+        assertEquals(3, parses.size());
+        assertEquals(fetches.get(1).getLong("responseBytes"), parses.get(2).getLong("bytes"));
+        assertTrue(ofType(events, "QueryCancel").isEmpty());
+    }
+
+    @Test
+    @DisplayName("cancelling a running query should be recorded")
+    void testCancelEvent() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            try (TrinoClient client = TrinoClient.builder().server(baseUri).user("alice").build();
+                    TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+                assertTrue(resultSet.next());
+                resultSet.cancel();
+            }
+        });
+
+        List<RecordedEvent> cancels = ofType(events, "QueryCancel");
+        assertEquals(1, cancels.size());
+        assertEquals(QUERY_ID, cancels.get(0).getString("queryId"));
+        assertTrue(cancels.get(0).getBoolean("succeeded"));
+        assertNotNull(cancels.get(0).getStackTrace());
+    }
+}
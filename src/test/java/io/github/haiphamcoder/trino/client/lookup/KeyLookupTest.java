@@ -0,0 +1,149 @@
+package io.github.haiphamcoder.trino.client.lookup;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.partition.Partition;
+import io.github.haiphamcoder.trino.client.partition.PartitionStats;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeyLookup}.
+ *
+ * <p>
+ * The {@link MockTrinoServer} answers each statement with one row per key of its
+ * {@code IN} list.
+ *
+ * @author Hai Pham Ngoc
+ */
+class KeyLookupTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .column("id", "bigint")
+                        .rowsPerPage(100)
+                        .result(KeyLookupTest::rowPerKey)
+                        .build())
+                .start();
+        client = TrinoClient.builder().server(server.getUri()).user("test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private static List<List<Object>> rowPerKey(String sql) {
+        String keys = sql.substring(sql.indexOf("IN (") + 4, sql.lastIndexOf("))"));
+        List<List<Object>> rows = new ArrayList<>();
+        for (String key : keys.split(", ")) {
+            rows.add(List.of(Long.parseLong(key)));
+        }
+        return rows;
+    }
+
+    private static List<Long> ids(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("lookup should split keys into chunks and return the rows of every chunk")
+    void testLookup() {
+        Queue<PartitionStats> chunkStats = new ConcurrentLinkedQueue<>();
+        KeyLookup lookup = KeyLookup.builder()
+                .sql("SELECT id FROM users WHERE {keys}")
+                .keyColumn("id")
+                .keys(ids(250))
+                .maxKeysPerChunk(100)
+                .parallelism(2)
+                .onChunkComplete(chunkStats::add)
+                .build();
+
+        Set<Long> found = new HashSet<>();
+        try (TrinoResultSet resultSet = client.executeLookup(lookup)) {
+            while (resultSet.next()) {
+                assertTrue(found.add(((Number) resultSet.getCurrentRow().getValue(0)).longValue()));
+            }
+        }
+
+        assertEquals(new HashSet<>(ids(250)), found);
+        assertEquals(3, server.getStatements().size());
+        assertEquals(3, chunkStats.size());
+        assertEquals(250, chunkStats.stream().mapToLong(PartitionStats::getRows).sum());
+        assertTrue(chunkStats.stream().allMatch(stats -> stats.isSuccess() && stats.getQueryId() != null));
+    }
+
+    @Test
+    @DisplayName("chunks should respect the maximum statement length")
+    void testStatementLength() {
+        String sql = "SELECT * FROM t WHERE {keys}";
+        KeyLookup lookup = KeyLookup.builder()
+                .sql(sql)
+                .keyColumn("name")
+                .keys(List.of("alpha", "bravo", "charlie", "delta", "echo", "foxtrot"))
+                .maxStatementLength(64)
+                .build();
+
+        assertTrue(lookup.getChunkCount() > 1);
+        for (Partition chunk : lookup.toPartitionedQuery().getPartitions()) {
+            assertTrue(lookup.toPartitionedQuery().sqlFor(chunk).length() <= 64);
+        }
+        assertThrows(IllegalArgumentException.class, () -> KeyLookup.builder()
+                .sql(sql)
+                .keyColumn("name")
+                .keys(List.of("x".repeat(100)))
+                .maxStatementLength(64)
+                .build());
+    }
+
+    @Test
+    @DisplayName("keys should be rendered as escaped literals and deduplicated")
+    void testLiterals() {
+        KeyLookup lookup = KeyLookup.builder()
+                .sql("SELECT * FROM t WHERE {keys}")
+                .keyColumn("name")
+                .keys(List.of("o'brien", "o'brien", "x') OR (1=1"))
+                .build();
+
+        assertEquals(2, lookup.getKeyCount());
+        assertEquals("name IN ('o''brien', 'x'') OR (1=1')",
+                lookup.toPartitionedQuery().getPartitions().get(0).getPredicate());
+    }
+
+    @Test
+    @DisplayName("an empty key set should run one query returning no rows")
+    void testEmptyKeys() {
+        KeyLookup lookup = KeyLookup.builder()
+                .sql("SELECT * FROM t WHERE {keys}")
+                .keyColumn("id")
+                .keys(List.of())
+                .build();
+
+        assertEquals(1, lookup.getChunkCount());
+        assertEquals("FALSE", lookup.toPartitionedQuery().getPartitions().get(0).getPredicate());
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.haiphamcoder.trino.client.metrics;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
+import io.github.haiphamcoder.trino.client.metrics.micrometer.MicrometerClientMetrics;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ClientMetrics} recorded by queries against a
+ * {@link MockTrinoServer}.
+ *
+ * <p>
+ * The server queues each query, then serves two rows and one row over two
+ * pages; statements containing {@code fail} fail on the first page instead.
+ *
+ * @author Hai Pham Ngoc
+ */
+class ClientMetricsTest {
+
+    private MockTrinoServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .rowsPerPage(2)
+                        .result(sql -> List.of(List.of(1), List.of(2), List.of(3)))
+                        .stat("queuedTimeMillis", 5)
+                        .build())
+                .scenario("fail", MockScenario.builder()
+                        .fault(1, MockFault.queryError("TABLE_NOT_FOUND"))
+                        .stat("queuedTimeMillis", 5)
+                        .build())
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private void runQueries(ClientMetrics metrics) {
+        try (TrinoClient client = TrinoClient.builder()
+                .server(server.getUri())
+                .user("alice")
+                .source("etl")
+                .clientTag("nightly")
+                .clientTag("batch")
+                .metrics(metrics)
+                .build()) {
+            try (TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+                int rows = 0;
+                while (resultSet.next()) {
+                    rows++;
+                }
+                assertEquals(3, rows);
+            }
+            try (TrinoResultSet resultSet = client.execute("SELECT x FROM fail")) {
+                assertFalse(resultSet.next());
+                assertThrows(QueryFailedException.class, resultSet::checkCompleted);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("requests, pages, errors and completed queries should be recorded per session tags")
+    void testHistogramMetrics() {
+        HistogramClientMetrics metrics = new HistogramClientMetrics();
+        runQueries(metrics);
+
+        MetricTags tags = MetricTags.of("alice", "etl", Set.of("nightly", "batch"));
+        assertEquals(Set.of(tags), metrics.getAll().keySet());
+        assertEquals("batch,nightly", tags.getJoinedClientTags());
+
+        HistogramClientMetrics.Metrics m = metrics.get(tags);
+        assertEquals(2, m.getSubmitLatency().getCount());
+        assertEquals(3, m.getPageLatency().getCount());
+        assertEquals(5, m.getPolls());
+        assertEquals(5, m.getParseTime().getCount());
+        assertEquals(3, m.getPageRows().getSum());
+        assertEquals(2, m.getPageRows().getMax());
+        assertTrue(m.getPageBytes().getSum() > 0);
+        assertEquals(2, m.getQueries());
+        assertEquals(2, m.getQueryTime().getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), m.getQueueWait().getMax());
+        assertEquals(Map.of("TABLE_NOT_FOUND", 1L), m.getErrors());
+        assertEquals(0, m.getRetries());
+    }
+
+    @Test
+    @DisplayName("Micrometer metrics should be published with user, source and client tags")
+    void testMicrometerMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        runQueries(new MicrometerClientMetrics(registry));
+
+        String[] tags = { "user", "alice", "source", "etl", "client_tags", "batch,nightly" };
+        assertEquals(2, registry.get("trino.client.request").tags(tags).tag("type", "SUBMIT").timer().count());
+        assertEquals(3, registry.get("trino.client.request").tags(tags).tag("type", "NEXT_PAGE").timer().count());
+        assertEquals(3, registry.get("trino.client.page.rows").tags(tags).summary().totalAmount());
+        assertEquals(1, registry.get("trino.client.errors").tags(tags).tag("error", "TABLE_NOT_FOUND")
+                .counter().count());
+        assertEquals(2, registry.get("trino.client.query").tags(tags).tag("state", QueryState.FINISHED.name())
+                .timer().count());
+        assertEquals(10, registry.get("trino.client.query.queued").tags(tags).timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.haiphamcoder.trino.client.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("every value should fall in a bucket within about 3% of it")
+    void testBuckets() {
+        long[] values = { 0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789, 1L << 40, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestValueOf(index);
+            assertTrue(highest >= value, "bucket of " + value + " ends at " + highest);
+            assertTrue(highest - value <= value / 32, "bucket of " + value + " ends at " + highest);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("quantiles should be reported within the bucket precision")
+    void testQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        histogram.record(-5);
+
+        assertEquals(10_001, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(0, histogram.getValueAtQuantile(0));
+        assertEquals(5_000_000, histogram.getValueAtQuantile(0.5), 5_000_000 / 32.0);
+        assertEquals(9_900_000, histogram.getValueAtQuantile(0.99), 9_900_000 / 32.0);
+        assertEquals(10_000_000, histogram.getValueAtQuantile(1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtQuantile(1.5));
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.haiphamcoder.trino.client.monitor;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.testing.MockRequest;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link QueryMonitor} against a {@link MockTrinoServer}
+ * serving scripted query info or running statements.
+ *
+ * @author Hai Pham Ngoc
+ */
+class QueryMonitorTest {
+
+    private MockTrinoServer server;
+    private QueryMonitor monitor;
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void start(MockTrinoServer.Builder builder) throws IOException {
+        server = builder.recordRequests().start();
+    }
+
+    /** Query info requests received for a query */
+    private List<MockRequest> requests(String queryId) {
+        return server.getRequests().stream()
+                .filter(request -> request.getPath().equals("/v1/query/" + queryId))
+                .collect(Collectors.toList());
+    }
+
+    private static String info(String state, int completedDrivers, String elapsed, String extra) {
+        return "{\"queryId\":\"q\",\"state\":\"" + state + "\",\"scheduled\":true,\"queryStats\":{"
+                + "\"elapsedTime\":\"" + elapsed + "\",\"queuedTime\":\"2.00ms\",\"totalCpuTime\":\"1.00m\","
+                + "\"totalDrivers\":4,\"queuedDrivers\":0,\"runningDrivers\":1,\"completedDrivers\":"
+                + completedDrivers + ",\"processedInputDataSize\":\"1.50kB\",\"processedInputPositions\":42,"
+                + "\"cumulativeUserMemory\":10.5}" + extra + "}";
+    }
+
+    private QueryMonitor.Builder monitor() {
+        return QueryMonitor.builder()
+                .session(ClientSession.builder().server(server.getUri()).user("monitor").build())
+                .minInterval(Duration.ofMillis(10))
+                .maxInterval(Duration.ofMillis(10));
+    }
+
+    @Test
+    @DisplayName("Should track queries by id until they finish")
+    void shouldTrackById() throws Exception {
+        start(MockTrinoServer.builder().queryInfo("q1",
+                info("QUEUED", 0, "10.00ms", ""),
+                info("RUNNING", 1, "1.00s", ""),
+                info("RUNNING", 2, "2.00s", ""),
+                info("FINISHED", 4, "3.50s", "")));
+        List<QueryStatus> seen = new CopyOnWriteArrayList<>();
+        monitor = monitor().listener(seen::add).build();
+
+        QueryStatus status = monitor.track("q1").get(10, TimeUnit.SECONDS);
+        assertTrue(status.isDone());
+        assertFalse(status.isFailed());
+        assertEquals("FINISHED", status.getState());
+        assertEquals(1.0, status.getProgress());
+        assertEquals(Duration.ZERO, status.getEstimatedRemaining());
+        assertEquals(4, status.getPolls());
+        assertEquals(3500L, status.getStats().getElapsedTimeMillis());
+        assertEquals(60_000L, status.getStats().getTotalCpuTimeMillis());
+        assertEquals(1536L, status.getStats().getBytesProcessed());
+        assertEquals(42L, status.getStats().getRowsProcessed());
+
+        assertEquals(4, seen.size());
+        assertEquals(0.0, seen.get(0).getProgress());
+        assertEquals(0.5, seen.get(2).getProgress());
+        // A quarter of the work in one second: the remaining half takes about two more
+        assertNotNull(seen.get(2).getEstimatedRemaining());
+        List<MockRequest> requests = requests("q1");
+        assertEquals(4, requests.size());
+        assertTrue(requests.stream().allMatch(request -> "monitor".equals(request.getHeader("X-Trino-User"))));
+        assertTrue(requests.stream().allMatch(request -> "pruned=true".equals(request.getQuery())));
+        assertEquals(0, monitor.getTrackedQueries());
+        assertNull(monitor.getStatus("q1"));
+    }
+
+    @Test
+    @DisplayName("Should report failed and unknown queries")
+    void shouldReportFailures() throws Exception {
+        start(MockTrinoServer.builder().queryInfo("q2", info("FAILED", 1, "1.00s",
+                ",\"errorCode\":{\"code\":131079,\"name\":\"EXCEEDED_TIME_LIMIT\",\"type\":\"INSUFFICIENT_RESOURCES\"},"
+                        + "\"failureInfo\":{\"message\":\"Query exceeded maximum time limit\"}")));
+        monitor = monitor().build();
+
+        QueryStatus failed = monitor.track("q2").get(10, TimeUnit.SECONDS);
+        assertTrue(failed.isFailed());
+        assertEquals("EXCEEDED_TIME_LIMIT", failed.getError().getErrorName());
+        assertEquals("Query exceeded maximum time limit", failed.getError().getMessage());
+
+        CompletableFuture<QueryStatus> unknown = monitor.track("missing");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> unknown.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(TrinoException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Should poll long-running queries less often")
+    void shouldAdaptInterval() throws Exception {
+        start(MockTrinoServer.builder()
+                .queryInfo("young", info("RUNNING", 0, "100.00ms", ""))
+                .queryInfo("old", info("RUNNING", 0, "1.00h", "")));
+        monitor = QueryMonitor.builder()
+                .session(ClientSession.builder().server(server.getUri()).user("monitor").build())
+                .minInterval(Duration.ofMillis(20))
+                .maxInterval(Duration.ofMillis(400))
+                .build();
+        monitor.track("young");
+        monitor.track("old");
+
+        Thread.sleep(1_000);
+        int young = requests("young").size();
+        int old = requests("old").size();
+        assertTrue(young >= 10, "young " + young);
+        assertTrue(old <= 4, "old " + old);
+        assertEquals(2, monitor.getStatuses().size());
+        assertEquals("RUNNING", monitor.getStatus("old").getState());
+
+        assertTrue(monitor.untrack("old"));
+        assertEquals(1, monitor.getTrackedQueries());
+    }
+
+    @Test
+    @DisplayName("Should drive statement clients without reading their rows")
+    void shouldTrackStatementClients() throws Exception {
+        start(MockTrinoServer.builder().scenario(MockScenario.builder().queuedResponses(2).pages(3).build()));
+        ClientSession session = ClientSession.builder().server(server.getUri()).user("test").build();
+        monitor = QueryMonitor.builder()
+                .session(session)
+                .minInterval(Duration.ofMillis(10))
+                .build();
+
+        StatementClient client = new StatementClient(session, "CREATE TABLE t AS SELECT 1");
+        QueryStatus status = monitor.track(client).get(10, TimeUnit.SECONDS);
+        assertEquals("FINISHED", status.getState());
+        assertEquals(1.0, status.getProgress());
+        assertNotNull(status.getQueryId());
+        // Submission, two queued responses and three pages
+        assertEquals(6, status.getPolls());
+        assertEquals(6, monitor.getRequestCount());
+        assertEquals(6, server.getRequestCount());
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.haiphamcoder.trino.client.partition;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.event.QueryEvent;
+import io.github.haiphamcoder.trino.client.exception.AdmissionRejectedException;
+import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PartitionedQuery} execution against a
+ * {@link MockTrinoServer}.
+ *
+ * <p>
+ * Partitions use the predicate {@code p=<k>}. Of {@code n} partitions,
+ * partition {@code k} returns the values {@code k, k + n, k + 2n, ...}, two
+ * rows per page, so an ordered merge interleaves all partitions. Partition
+ * {@code flaky} fails with an internal error on the second page of its first
+ * attempt, and partition {@code bad} fails with a user error.
+ *
+ * @author Hai Pham Ngoc
+ */
+class PartitionedQueryTest {
+    private static final Pattern PARTITION = Pattern.compile("\\(p=(\\w+)\\)");
+    private static final int ROWS_PER_PARTITION = 6;
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+    private String baseUri;
+    private volatile int partitionCount;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(partition().build())
+                .scenario("p=flaky)", partition()
+                        .fault(2, MockFault.queryError("GENERIC_INTERNAL_ERROR", "INTERNAL_ERROR"))
+                        .faultedQueries(1)
+                        .build())
+                .scenario("p=bad)", MockScenario.builder()
+                        .fault(1, MockFault.queryError("COLUMN_NOT_FOUND"))
+                        .build())
+                .start();
+        baseUri = server.getUri().toString();
+        client = TrinoClient.builder().server(baseUri).user("test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private MockScenario.Builder partition() {
+        return MockScenario.builder()
+                .column("v", "bigint")
+                .rowsPerPage(2)
+                .result(this::partitionRows);
+    }
+
+    private List<List<Object>> partitionRows(String sql) {
+        String partition = partitionOf(sql);
+        // The flaky partition reads as partition 1
+        int k = partition.equals("flaky") ? 1 : Integer.parseInt(partition);
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS_PER_PARTITION; i++) {
+            rows.add(List.of(k + i * partitionCount));
+        }
+        return rows;
+    }
+
+    private static String partitionOf(String sql) {
+        Matcher matcher = PARTITION.matcher(sql);
+        assertTrue(matcher.find(), sql);
+        return matcher.group(1);
+    }
+
+    /** Number of submissions per partition */
+    private Map<String, Long> submissions() {
+        return server.getStatements().stream()
+                .collect(Collectors.groupingBy(PartitionedQueryTest::partitionOf, Collectors.counting()));
+    }
+
+    private PartitionedQuery.Builder query(String... names) {
+        partitionCount = names.length;
+        PartitionedQuery.Builder builder = PartitionedQuery.builder()
+                .sql("SELECT v FROM t WHERE {partition} ORDER BY v")
+                .chunkRows(1)
+                .bufferedChunks(1);
+        for (String name : names) {
+            builder.partition(Partition.of(name, "p=" + name));
+        }
+        return builder;
+    }
+
+    private List<Integer> readAll(PartitionedQuery query) {
+        return readAll(client, query);
+    }
+
+    private static List<Integer> readAll(TrinoClient client, PartitionedQuery query) {
+        List<Integer> values = new ArrayList<>();
+        try (TrinoResultSet resultSet = client.executePartitioned(query)) {
+            while (resultSet.next()) {
+                values.add(((Number) resultSet.getCurrentRow().getValue("v")).intValue());
+            }
+        }
+        return values;
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("unordered mode should return every row of every partition exactly once")
+    void testUnordered() {
+        List<Integer> values = readAll(query("0", "1", "2", "3").parallelism(2).build());
+
+        values.sort(null);
+        assertEquals(range(4 * ROWS_PER_PARTITION), values);
+    }
+
+    @Test
+    @DisplayName("ordered mode should merge the sorted partitions into one sorted stream")
+    void testOrderedMerge() {
+        List<Integer> values = readAll(query("0", "1", "2").sortKeys(SortKey.asc("v")).build());
+
+        assertEquals(range(3 * ROWS_PER_PARTITION), values);
+    }
+
+    @Test
+    @DisplayName("a failed partition should be retried on its own, skipping the rows already returned")
+    void testRetryFailedPartition() {
+        List<Integer> values = readAll(query("0", "flaky", "2").sortKeys(SortKey.asc("v")).build());
+
+        assertEquals(range(3 * ROWS_PER_PARTITION), values);
+        assertEquals(Map.of("0", 1L, "flaky", 2L, "2", 1L), submissions());
+    }
+
+    @Test
+    @DisplayName("listeners should see one created and one terminal event per partition query")
+    void testOneLifecyclePerPartitionQuery() {
+        List<QueryEvent.Type> events = new CopyOnWriteArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        try (TrinoClient listened = TrinoClient.builder()
+                .server(baseUri)
+                .user("test")
+                .eventListener(event -> events.add(event.getType()))
+                .build();
+                TrinoResultSet resultSet = listened.executePartitioned(query("0", "1", "2").build())) {
+            while (resultSet.next()) {
+                values.add(((Number) resultSet.getCurrentRow().getValue("v")).intValue());
+            }
+        }
+
+        assertEquals(3 * ROWS_PER_PARTITION, values.size());
+        assertEquals(3, events.stream().filter(type -> type == QueryEvent.Type.CREATED).count());
+        assertEquals(3, events.stream().filter(type -> type == QueryEvent.Type.FINISHED).count());
+        assertFalse(events.contains(QueryEvent.Type.FAILED));
+    }
+
+    @Test
+    @DisplayName("user errors should not be retried and should fail the merged result set")
+    void testUserErrorNotRetried() {
+        PartitionedQuery query = query("0", "bad").build();
+
+        QueryFailedException e = assertThrows(QueryFailedException.class, () -> readAll(query));
+        assertEquals("COLUMN_NOT_FOUND", e.getTrinoError().getErrorName());
+        assertEquals(1L, submissions().get("bad"));
+    }
+
+    @Test
+    @DisplayName("ordered partitions should all be admitted before any of them starts")
+    void testOrderedPartitionsAdmittedTogether() throws Exception {
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try (TrinoClient limited = TrinoClient.builder().server(baseUri).user("test").maxConcurrentQueries(3).build();
+                TrinoResultSet blocker = limited.execute("SELECT v FROM t WHERE (p=0)")) {
+            assertTrue(blocker.next());
+            Future<List<Integer>> values = caller.submit(
+                    () -> readAll(limited, query("0", "1", "2").sortKeys(SortKey.asc("v")).build()));
+            while (limited.getAdmissionController().getQueued() < 1) {
+                Thread.sleep(2);
+            }
+            // Two partitions are admitted, but neither runs until the third is
+            Thread.sleep(100);
+            assertEquals(Set.of("0"), submissions().keySet());
+
+            blocker.close();
+            assertEquals(range(3 * ROWS_PER_PARTITION), values.get(10, TimeUnit.SECONDS));
+            assertEquals(0, limited.getAdmissionController().getInFlight());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("ordered queries with more partitions than the concurrency limit should fail fast")
+    void testOrderedPartitionsOverLimitRejected() {
+        try (TrinoClient limited = TrinoClient.builder().server(baseUri).user("test").maxConcurrentQueries(2).build()) {
+            PartitionedQuery query = query("0", "1", "2").sortKeys(SortKey.asc("v")).build();
+
+            assertThrows(AdmissionRejectedException.class, () -> limited.executePartitioned(query));
+            assertEquals(0, limited.getAdmissionController().getInFlight());
+            assertTrue(submissions().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("range partitions should cover the estimate without gaps")
+    void testRanges() {
+        List<Partition> ranges = Partition.ranges("id", 0, 99, 4);
+
+        assertEquals(4, ranges.size());
+        assertEquals("id < 25", ranges.get(0).getPredicate());
+        assertEquals("id >= 25 AND id < 50", ranges.get(1).getPredicate());
+        assertEquals("id >= 75", ranges.get(3).getPredicate());
+        assertEquals("kind >= 'it''s'", Partition.range("kind", "it's", null).getPredicate());
+        assertThrows(IllegalArgumentException.class,
+                () -> query("0", "1").sortKeys(SortKey.asc("v")).parallelism(1).build());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.haiphamcoder.trino.client.poll;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HashedTimerWheel}.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class HashedTimerWheelTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final HashedTimerWheel timer = new HashedTimerWheel(1, TimeUnit.MILLISECONDS, 8, executor);
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("schedule should run the task no earlier than its delay")
+    void testScheduleRunsAfterDelay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertEquals(0, timer.getPendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("tasks beyond one wheel rotation should wait for the remaining rounds")
+    void testScheduleBeyondOneRotation() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // 8 buckets of 1ms, so 50ms needs several rotations
+        timer.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("cancelled tasks should never run")
+    void testCancel() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+
+        HashedTimerWheel.Timeout timeout = timer.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        timer.schedule(later::countDown, 40, TimeUnit.MILLISECONDS);
+
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        assertTrue(timeout.isCancelled());
+    }
+
+    @Test
+    @DisplayName("many tasks should all fire")
+    void testManyTasks() throws Exception {
+        CountDownLatch latch = new CountDownLatch(10_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            timer.schedule(latch::countDown, i % 25, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.haiphamcoder.trino.client.poll;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import io.github.haiphamcoder.trino.client.model.StatementResponse;
+import io.github.haiphamcoder.trino.client.protocol.StatementClient;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PollScheduler} against a {@link MockTrinoServer}.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class PollSchedulerTest {
+
+    private MockTrinoServer server;
+    private URI serverUri;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(2).build())
+                .start();
+        serverUri = server.getUri();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("register should drive a query to completion and push pages and state transitions")
+    void testDrivesQueryToCompletion() throws Exception {
+        ClientSession session = ClientSession.builder().server(serverUri).user("test").build();
+        List<Object> rows = Collections.synchronizedList(new ArrayList<>());
+        List<String> states = Collections.synchronizedList(new ArrayList<>());
+
+        try (PollScheduler scheduler = PollScheduler.builder().workerThreads(2).build()) {
+            PollHandle handle = scheduler.register(new StatementClient(session, "SELECT x"), new QueryCallback() {
+                @Override
+                public void onPage(StatementClient client, StatementResponse response) {
+                    response.getData().forEach(row -> rows.add(row.get(0)));
+                }
+
+                @Override
+                public void onStateChange(StatementClient client, String previousState, String newState) {
+                    states.add(newState);
+                }
+            });
+
+            assertEquals(QueryState.FINISHED, handle.getCompletion().get(10, TimeUnit.SECONDS));
+            assertTrue(handle.isDone());
+            assertEquals(0, scheduler.getActiveQueries());
+        }
+
+        assertEquals(List.of(0.0, 1.0), rows);
+        assertEquals(List.of("QUEUED", "RUNNING", "FINISHED"), states);
+    }
+
+    @Test
+    @DisplayName("many queries should complete on a small worker pool")
+    void testManyQueries() throws Exception {
+        ClientSession session = ClientSession.builder().server(serverUri).user("test").build();
+        List<PollHandle> handles = new ArrayList<>();
+
+        try (PollScheduler scheduler = PollScheduler.builder()
+                .workerThreads(2)
+                .pollInterval(Duration.ofMillis(5))
+                .build()) {
+            for (int i = 0; i < 100; i++) {
+                handles.add(scheduler.register(new StatementClient(session, "SELECT x"), new QueryCallback() {
+                }));
+            }
+            for (PollHandle handle : handles) {
+                assertEquals(QueryState.FINISHED, handle.getCompletion().get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("cancel and close should cancel running queries on the coordinator")
+    void testCancelSendsDelete() throws Exception {
+        try (MockTrinoServer mock = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().queuedResponses(1_000).build())
+                .start()) {
+            ClientSession session = ClientSession.builder().server(mock.getUri()).user("test").build();
+            PollScheduler scheduler = PollScheduler.builder()
+                    .workerThreads(2)
+                    .pollInterval(Duration.ofMillis(10))
+                    .build();
+            PollHandle cancelled = scheduler.register(new StatementClient(session, "SELECT x"), new QueryCallback() {
+            });
+            PollHandle closed = scheduler.register(new StatementClient(session, "SELECT x"), new QueryCallback() {
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((cancelled.getStatementClient().getCurrentResponse() == null
+                    || closed.getStatementClient().getCurrentResponse() == null) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            cancelled.cancel();
+            assertEquals(QueryState.CLIENT_ABORTED, cancelled.getCompletion().get(10, TimeUnit.SECONDS));
+            assertEquals(1, mock.getCancelledCount());
+
+            scheduler.close();
+            assertEquals(QueryState.CLIENT_ABORTED, closed.getCompletion().get(10, TimeUnit.SECONDS));
+            assertEquals(2, mock.getCancelledCount());
+
+            // Cancelling a finished query is a no-op
+            cancelled.cancel();
+            assertEquals(2, mock.getCancelledCount());
+        }
+    }
+
+    @Test
+    @DisplayName("a throwing callback should cancel its query on the coordinator")
+    void testThrowingCallbackCancelsQuery() throws Exception {
+        try (MockTrinoServer mock = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(100).build())
+                .start();
+                PollScheduler scheduler = PollScheduler.builder().workerThreads(2).build()) {
+            ClientSession session = ClientSession.builder().server(mock.getUri()).user("test").build();
+            PollHandle handle = scheduler.register(new StatementClient(session, "SELECT x"), new QueryCallback() {
+                @Override
+                public void onPage(StatementClient client, StatementResponse response) {
+                    throw new IllegalStateException("Consumer failed");
+                }
+            });
+
+            assertEquals(QueryState.CLIENT_ABORTED, handle.getCompletion().get(10, TimeUnit.SECONDS));
+            assertEquals(1, mock.getCancelledCount());
+            assertEquals(0, scheduler.getActiveQueries());
+        }
+    }
+}
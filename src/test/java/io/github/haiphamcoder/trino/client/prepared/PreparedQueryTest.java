@@ -0,0 +1,133 @@
+package io.github.haiphamcoder.trino.client.prepared;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.sql.TypedValue;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockRequest;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PreparedQuery} against a {@link MockTrinoServer}.
+ *
+ * <p>
+ * Like Trino, the server reports {@code PREPARE} and {@code DEALLOCATE} through
+ * response headers on the final page and keeps no prepared statements itself.
+ *
+ * @author Hai Pham Ngoc
+ */
+class PreparedQueryTest {
+
+    private static final String PREPARED_HEADER = "X-Trino-Prepared-Statement";
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .column("n", "bigint")
+                        .rows(row -> List.of(1))
+                        .updateType("INSERT")
+                        .updateCount(1)
+                        .build())
+                .scenario("DEALLOCATE PREPARE ", MockScenario.builder()
+                        .pages(0)
+                        .updateType("DEALLOCATE")
+                        .responseHeader("X-Trino-Deallocated-Prepare", sql -> encode(sql.split(" ")[2]))
+                        .build())
+                .scenario("FROM SELEC ", MockScenario.builder()
+                        .fault(1, MockFault.queryError("SYNTAX_ERROR"))
+                        .build())
+                .scenario("PREPARE ", MockScenario.builder()
+                        .pages(0)
+                        .updateType("PREPARE")
+                        .responseHeader("X-Trino-Added-Prepare", sql -> encode(sql.split(" ")[1]) + "="
+                                + encode(sql.substring(sql.indexOf(" FROM ") + 6)))
+                        .build())
+                .recordRequests()
+                .start();
+        client = TrinoClient.builder().server(server.getUri()).user("test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void assertSubmitted(String statement, String prepared, MockRequest request) {
+        assertEquals("POST", request.getMethod());
+        assertEquals(statement, request.getStatement());
+        assertEquals(prepared, request.getHeader(PREPARED_HEADER));
+    }
+
+    @Test
+    @DisplayName("PREPARE responses should register the statement in the session")
+    void testPrepare() {
+        String sql = "SELECT * FROM orders WHERE note = '?' AND custkey = ? -- ?\n AND day >= ?";
+        PreparedQuery query = client.prepare("orders_by_customer", sql);
+
+        assertEquals("orders_by_customer", query.getName());
+        assertEquals(2, query.getParameterCount());
+        assertEquals(sql, client.getSession().getPreparedStatements().get("orders_by_customer"));
+        assertSubmitted("PREPARE orders_by_customer FROM " + sql, null, server.getRequests().get(0));
+
+        assertThrows(IllegalArgumentException.class, () -> client.prepare("bad name", "SELECT 1"));
+        assertThrows(RuntimeException.class, () -> client.prepare("broken", "SELEC 1"));
+        assertFalse(client.getSession().getPreparedStatements().containsKey("broken"));
+    }
+
+    @Test
+    @DisplayName("EXECUTE should bind rendered parameters and send only its statement with the submission")
+    void testExecute() {
+        PreparedQuery other = client.prepare("SELECT 1");
+        PreparedQuery query = client.prepare("insert_order", "INSERT INTO orders VALUES (?, ?, ?)");
+        int before = server.getRequests().size();
+
+        assertEquals(1, query.executeUpdate(42L, LocalDate.of(2024, 1, 1), TypedValue.of("9.99", "decimal(10,2)")));
+        List<MockRequest> requests = server.getRequests();
+        assertSubmitted("EXECUTE insert_order USING 42, DATE '2024-01-01', DECIMAL '9.99'",
+                "insert_order=" + encode("INSERT INTO orders VALUES (?, ?, ?)"), requests.get(before));
+        assertNull(requests.get(before + 1).getHeader(PREPARED_HEADER));
+
+        try (TrinoResultSet resultSet = other.execute()) {
+            assertTrue(resultSet.next());
+        }
+        assertSubmitted("EXECUTE " + other.getName(), other.getName() + "=" + encode("SELECT 1"),
+                server.getRequests().get(before + 2));
+        assertThrows(IllegalArgumentException.class, () -> query.execute(1));
+    }
+
+    @Test
+    @DisplayName("closing a handle or deallocating should remove the statement from the session")
+    void testDeallocate() {
+        PreparedQuery first = client.prepare("first", "SELECT ?");
+        client.prepare("second", "SELECT 2");
+
+        first.close();
+        assertFalse(client.getSession().getPreparedStatements().containsKey("first"));
+        assertThrows(IllegalStateException.class, () -> first.execute(1));
+
+        client.executeUpdate("DEALLOCATE PREPARE second");
+        assertTrue(client.getSession().getPreparedStatements().isEmpty());
+    }
+}
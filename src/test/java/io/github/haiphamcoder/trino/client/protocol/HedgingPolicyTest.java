@@ -0,0 +1,221 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HedgingPolicy} and hedged page fetches.
+ *
+ * @author Hai Pham Ngoc
+ */
+class HedgingPolicyTest {
+
+    private static final int PAGES = 10;
+    private static final int STALLED_PAGE = 8;
+    private static final Duration HEDGE_DELAY = Duration.ofSeconds(1);
+    private static final Duration STALL = Duration.ofSeconds(5);
+
+    private MockTrinoServer server;
+    private HttpAsyncServer h2Server;
+    private ScheduledExecutorService responder;
+    private URI h2Uri;
+    private final Map<Integer, AtomicInteger> pageAttempts = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+        if (h2Server != null) {
+            h2Server.close(CloseMode.IMMEDIATE);
+            responder.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not hedge until enough fetches were measured")
+    void shouldWaitForMinSamples() {
+        HedgingPolicy policy = HedgingPolicy.builder().minSamples(10).minDelay(Duration.ZERO).build();
+        for (int i = 0; i < 9; i++) {
+            policy.recordFetch(1_000_000);
+        }
+        assertEquals(-1, policy.getHedgeDelayNanos());
+        policy.recordFetch(1_000_000);
+        assertEquals(1_000_000, policy.getHedgeDelayNanos());
+    }
+
+    @Test
+    @DisplayName("Should hedge after the configured percentile, bounded below by the minimum delay")
+    void shouldUsePercentile() {
+        HedgingPolicy policy = HedgingPolicy.builder()
+                .percentile(0.9)
+                .windowSize(100)
+                .minSamples(100)
+                .minDelay(Duration.ofNanos(5))
+                .build();
+        for (int i = 1; i <= 100; i++) {
+            policy.recordFetch(i);
+        }
+        assertEquals(90, policy.getHedgeDelayNanos());
+
+        HedgingPolicy floored = HedgingPolicy.builder().minSamples(1).minDelay(Duration.ofMillis(20)).build();
+        floored.recordFetch(1_000);
+        assertEquals(Duration.ofMillis(20).toNanos(), floored.getHedgeDelayNanos());
+    }
+
+    @Test
+    @DisplayName("Should cap hedges to the maximum hedge rate")
+    void shouldCapHedgeRate() {
+        HedgingPolicy policy = HedgingPolicy.builder().maxHedgeRate(0.1).minSamples(1).build();
+        int granted = 0;
+        for (int i = 0; i < 1000; i++) {
+            policy.recordFetch(1_000_000);
+            // Every fetch is slow, as during an incident
+            if (policy.tryAcquireHedge()) {
+                granted++;
+            }
+        }
+        assertTrue(granted <= 100, "granted " + granted);
+        assertTrue(granted >= 99, "granted " + granted);
+        assertEquals(1000 - granted, policy.getSuppressedHedges());
+    }
+
+    @Test
+    @DisplayName("Should take the duplicate response when a page fetch stalls")
+    void shouldHedgeStalledFetch() throws IOException {
+        // Steps 1 to 7 measure latency; the first attempt at step 8 stalls
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(10).rowsPerPage(1)
+                        .fault(8, MockFault.delay(STALL)).build())
+                .start();
+        assertHedgesStalledFetch(server.getUri(), null);
+    }
+
+    @Test
+    @DisplayName("Should hedge stalled page fetches over the shared HTTP/2 transport")
+    void shouldHedgeStalledFetchOverTransport() throws Exception {
+        responder = Executors.newSingleThreadScheduledExecutor();
+        h2Server = H2ServerBootstrap.bootstrap()
+                .setCanonicalHostName("127.0.0.1")
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest, String>>() {
+                    @Override
+                    public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(HttpRequest request,
+                            EntityDetails entityDetails, HttpContext context) {
+                        return new BasicRequestConsumer<>(new StringAsyncEntityConsumer());
+                    }
+
+                    @Override
+                    public void handle(Message<HttpRequest, String> message, ResponseTrigger trigger,
+                            HttpContext context) {
+                        respond(message.getHead(), trigger, context);
+                    }
+                })
+                .create();
+        h2Server.start();
+        ListenerEndpoint endpoint = h2Server.listen(new InetSocketAddress("127.0.0.1", 0), URIScheme.HTTP).get();
+        h2Uri = URI.create("http://127.0.0.1:" + ((InetSocketAddress) endpoint.getAddress()).getPort());
+
+        assertHedgesStalledFetch(h2Uri, TransportProtocol.HTTP_2);
+        // The stalled page was requested twice: once by the primary and once by the hedge
+        assertEquals(2, pageAttempts.get(STALLED_PAGE).get());
+    }
+
+    /**
+     * Serves {@value #PAGES} single-row pages; the first request for page
+     * {@value #STALLED_PAGE} stalls.
+     */
+    private void respond(HttpRequest request, AsyncServerRequestHandler.ResponseTrigger trigger,
+            HttpContext context) {
+        String body;
+        long delay = 0;
+        if ("POST".equals(request.getMethod())) {
+            body = "{\"id\":\"q1\",\"nextUri\":\"" + h2Uri + "/v1/statement/executing/q1/1\","
+                    + "\"stats\":{\"state\":\"QUEUED\"}}";
+        } else {
+            String path = request.getPath();
+            int page = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            int attempt = pageAttempts.computeIfAbsent(page, key -> new AtomicInteger()).incrementAndGet();
+            if (page == STALLED_PAGE && attempt == 1) {
+                delay = STALL.toMillis();
+            }
+            String next = page < PAGES ? "\"nextUri\":\"" + h2Uri + "/v1/statement/executing/q1/" + (page + 1) + "\","
+                    : "";
+            body = "{\"id\":\"q1\"," + next + "\"columns\":[{\"name\":\"x\",\"type\":\"bigint\"}],"
+                    + "\"data\":[[" + page + "]],\"stats\":{\"state\":\"" + (page < PAGES ? "RUNNING" : "FINISHED")
+                    + "\"}}";
+        }
+        responder.schedule(() -> {
+            try {
+                trigger.submitResponse(new BasicResponseProducer(200, body, ContentType.APPLICATION_JSON), context);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void assertHedgesStalledFetch(URI serverUri, TransportProtocol protocol) throws IOException {
+        // The minimum delay is well above the latency of fetches on a cold JVM, so only the stalled one is hedged
+        HedgingPolicy policy = HedgingPolicy.builder()
+                .maxHedgeRate(1)
+                .minSamples(3)
+                .minDelay(HEDGE_DELAY)
+                .build();
+        TrinoClient.Builder builder = TrinoClient.builder().server(serverUri).user("test").hedging(policy);
+        if (protocol != null) {
+            builder.transportProtocol(protocol);
+        }
+
+        long start = System.nanoTime();
+        int rows = 0;
+        try (TrinoClient client = builder.build(); TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+            while (resultSet.next()) {
+                rows++;
+            }
+            resultSet.checkCompleted();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(PAGES, rows);
+        assertTrue(elapsedMillis < STALL.toMillis() - 1_000, "elapsed " + elapsedMillis + " ms");
+        assertEquals(1, policy.getHedges());
+        assertEquals(1, policy.getHedgeWins());
+        assertEquals(0, policy.getSuppressedHedges());
+        assertEquals(PAGES, policy.getFetches());
+    }
+}
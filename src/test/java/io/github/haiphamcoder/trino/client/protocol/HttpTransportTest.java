@@ -0,0 +1,267 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.model.QueryState;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.function.Supplier;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncPushConsumer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.HandlerFactory;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HttpTransport} against a local HTTP/2 stub coordinator.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class HttpTransportTest {
+
+    private static final long PAGE_DELAY_MILLIS = 50;
+
+    private HttpAsyncServer server;
+    private ScheduledExecutorService responder;
+    private URI serverUri;
+    private final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong queryIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        responder = Executors.newSingleThreadScheduledExecutor();
+        server = H2ServerBootstrap.bootstrap()
+                .setCanonicalHostName("127.0.0.1")
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest, String>>() {
+                    @Override
+                    public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(HttpRequest request,
+                            EntityDetails entityDetails, HttpContext context) {
+                        return new BasicRequestConsumer<>(new StringAsyncEntityConsumer());
+                    }
+
+                    @Override
+                    public void handle(Message<HttpRequest, String> message, ResponseTrigger trigger,
+                            HttpContext context) {
+                        respond(message.getHead(), trigger, context);
+                    }
+                })
+                .create();
+        server.start();
+        ListenerEndpoint endpoint = server.listen(new InetSocketAddress("127.0.0.1", 0), URIScheme.HTTP).get();
+        serverUri = URI.create("http://127.0.0.1:" + ((InetSocketAddress) endpoint.getAddress()).getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close(CloseMode.IMMEDIATE);
+        responder.shutdownNow();
+    }
+
+    private void respond(HttpRequest request, AsyncServerRequestHandler.ResponseTrigger trigger,
+            HttpContext context) {
+        connections.add(HttpCoreContext.cast(context).getEndpointDetails().getRemoteAddress());
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+
+        String body;
+        long delay;
+        if ("POST".equals(request.getMethod())) {
+            String id = "q" + queryIds.incrementAndGet();
+            body = "{\"id\":\"" + id + "\",\"nextUri\":\"" + serverUri + "/v1/statement/executing/" + id + "/1\","
+                    + "\"stats\":{\"state\":\"QUEUED\"}}";
+            delay = 0;
+        } else if (request.getPath().startsWith("/slow")) {
+            body = "{}";
+            delay = TimeUnit.SECONDS.toMillis(30);
+        } else {
+            body = "{\"id\":\"q\",\"columns\":[{\"name\":\"x\",\"type\":\"bigint\"}],\"data\":[[1]],"
+                    + "\"stats\":{\"state\":\"FINISHED\"}}";
+            delay = PAGE_DELAY_MILLIS;
+        }
+
+        responder.schedule(() -> {
+            inFlight.decrementAndGet();
+            try {
+                trigger.submitResponse(new BasicResponseProducer(200, body, ContentType.APPLICATION_JSON), context);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("blocking queries should multiplex over one HTTP/2 connection within the stream limit")
+    void testMultiplexesQueriesOverOneConnection() throws Exception {
+        ClientSession session = ClientSession.builder().server(serverUri).user("test").build();
+        ExecutorService drivers = Executors.newFixedThreadPool(20);
+
+        try (HttpTransport transport = HttpTransport.builder()
+                .protocol(TransportProtocol.HTTP_2)
+                .maxConcurrentStreams(4)
+                .ioThreads(1)
+                .build()) {
+            List<Future<QueryState>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(drivers.submit(() -> {
+                    try (StatementClient client = new StatementClient(session, "SELECT 1", null, transport)) {
+                        client.execute();
+                        while (client.getState() == QueryState.RUNNING) {
+                            client.advance();
+                        }
+                        return client.getState();
+                    }
+                }));
+            }
+
+            for (Future<QueryState> result : results) {
+                assertEquals(QueryState.FINISHED, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(0, transport.getInFlight());
+            assertEquals(0, transport.getQueued());
+        } finally {
+            drivers.shutdownNow();
+        }
+
+        assertEquals(1, connections.size());
+        assertTrue(maxInFlight.get() <= 4, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("execute should fail with the connection error when the server is unreachable")
+    void testConnectionFailure() {
+        ClientSession session = ClientSession.builder().server(URI.create("http://127.0.0.1:1")).user("test").build();
+
+        try (HttpTransport transport = HttpTransport.builder().protocol(TransportProtocol.HTTP_2).build();
+                StatementClient client = new StatementClient(session, "SELECT 1", null, transport)) {
+            assertThrows(RuntimeException.class, client::execute);
+            assertEquals(QueryState.CLIENT_ERROR, client.getState());
+            assertEquals(0, transport.getInFlight());
+        }
+    }
+
+    @Test
+    @DisplayName("close should abort requests in flight and fail queued requests")
+    void testCloseFailsInFlightAndQueuedRequests() {
+        HttpTransport transport = HttpTransport.builder()
+                .protocol(TransportProtocol.HTTP_2)
+                .maxConcurrentStreams(1)
+                .ioThreads(1)
+                .build();
+        CompletableFuture<SimpleHttpResponse> inFlightRequest =
+                transport.execute(SimpleRequestBuilder.get(serverUri.resolve("/slow/1")).build());
+        CompletableFuture<SimpleHttpResponse> queuedRequest =
+                transport.execute(SimpleRequestBuilder.get(serverUri.resolve("/slow/2")).build());
+        assertEquals(1, transport.getInFlight());
+        assertEquals(1, transport.getQueued());
+
+        transport.close();
+
+        assertThrows(Exception.class, () -> inFlightRequest.get(5, TimeUnit.SECONDS));
+        ExecutionException queued = assertThrows(ExecutionException.class,
+                () -> queuedRequest.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, queued.getCause());
+        assertEquals(0, transport.getQueued());
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> transport.execute(SimpleRequestBuilder.get(serverUri).build()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, rejected.getCause());
+    }
+
+    @Test
+    @DisplayName("execute should release the stream when the client rejects a request")
+    void testRejectedRequestReleasesStream() {
+        try (HttpTransport transport = HttpTransport.of(new RejectingClient())) {
+            CompletableFuture<SimpleHttpResponse> response =
+                    transport.execute(SimpleRequestBuilder.get(serverUri).build());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals(0, transport.getInFlight());
+        }
+    }
+
+    /**
+     * Asynchronous client that throws instead of invoking the request callback.
+     */
+    private static class RejectingClient extends CloseableHttpAsyncClient {
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public IOReactorStatus getStatus() {
+            return IOReactorStatus.ACTIVE;
+        }
+
+        @Override
+        public void awaitShutdown(TimeValue waitTime) {
+        }
+
+        @Override
+        public void initiateShutdown() {
+        }
+
+        @Override
+        protected <T> Future<T> doExecute(HttpHost target, AsyncRequestProducer requestProducer,
+                AsyncResponseConsumer<T> responseConsumer, HandlerFactory<AsyncPushConsumer> pushHandlerFactory,
+                HttpContext context, FutureCallback<T> callback) {
+            throw new IllegalStateException("Request rejected");
+        }
+
+        @Override
+        public void register(String hostname, String uriPattern, Supplier<AsyncPushConsumer> supplier) {
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.haiphamcoder.trino.client.protocol;
+
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.testing.MockRequest;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ResultSizeTuner}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class ResultSizeTunerTest {
+
+    private static final long MB = 1024L * 1024;
+
+    @Test
+    @DisplayName("getTargetResultSize should return null when nothing is configured")
+    void testNoTargetByDefault() {
+        ResultSizeTuner tuner = new ResultSizeTuner(null, false, null);
+
+        assertNull(tuner.getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("fixed mode should keep the configured target")
+    void testFixedModeKeepsTarget() {
+        ResultSizeTuner tuner = new ResultSizeTuner(8 * MB, false, null);
+
+        tuner.onPage(8 * MB, 1_000_000, 0);
+
+        assertEquals(8 * MB, tuner.getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("fixed mode should send small targets as configured and cap large ones at the coordinator limit")
+    void testFixedModeOnlyCapsAtCoordinatorLimit() {
+        assertEquals(512 * 1024L, new ResultSizeTuner(512 * 1024L, false, 16 * MB).getTargetResultSize());
+        assertEquals(64 * MB, new ResultSizeTuner(64 * MB, false, 16 * MB).getTargetResultSize());
+        assertEquals(ResultSizeTuner.MAX_TARGET_RESULT_SIZE,
+                new ResultSizeTuner(1024 * MB, false, null).getTargetResultSize());
+        // Adaptive mode keeps its 1MB floor
+        assertEquals(ResultSizeTuner.MIN_TARGET_RESULT_SIZE,
+                new ResultSizeTuner(512 * 1024L, true, null).getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("adaptive mode should start from the server default")
+    void testAdaptiveModeStartsFromDefault() {
+        ResultSizeTuner tuner = new ResultSizeTuner(null, true, null);
+
+        assertEquals(ResultSizeTuner.DEFAULT_TARGET_RESULT_SIZE, tuner.getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("adaptive mode should grow when pages are full and the consumer keeps up")
+    void testAdaptiveModeGrows() {
+        ResultSizeTuner tuner = new ResultSizeTuner(4 * MB, true, null);
+
+        tuner.onPage(4 * MB, 10_000_000, 1_000_000);
+
+        assertEquals(8 * MB, tuner.getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("adaptive mode should shrink when the consumer falls behind")
+    void testAdaptiveModeShrinksForSlowConsumer() {
+        ResultSizeTuner tuner = new ResultSizeTuner(8 * MB, true, null);
+
+        tuner.onPage(8 * MB, 1_000_000, 100_000_000);
+
+        assertEquals(6 * MB, tuner.getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("adaptive mode should never exceed the memory budget")
+    void testAdaptiveModeRespectsMemoryBudget() {
+        ResultSizeTuner tuner = new ResultSizeTuner(64 * MB, true, 16 * MB);
+
+        assertEquals(16 * MB, tuner.getTargetResultSize());
+
+        tuner.onPage(32 * MB, 10_000_000, 1_000_000);
+
+        assertEquals(8 * MB, tuner.getTargetResultSize());
+    }
+
+    @Test
+    @DisplayName("formatDataSize should use the largest exact unit")
+    void testFormatDataSize() {
+        assertEquals("16MB", ResultSizeTuner.formatDataSize(16 * MB));
+        assertEquals("512kB", ResultSizeTuner.formatDataSize(512 * 1024));
+        assertEquals("1000B", ResultSizeTuner.formatDataSize(1000));
+    }
+
+    @Test
+    @DisplayName("page requests should carry the target as the targetResultSize parameter")
+    void testTargetSentWithNextUri() throws IOException {
+        assertEquals(List.of("targetResultSize=1MB"), nextUriQueries(ClientSession.builder().adaptiveResultSize(true)));
+        assertEquals(List.of("targetResultSize=8MB"), nextUriQueries(ClientSession.builder().targetResultSize(8 * MB)));
+        assertNull(nextUriQueries(ClientSession.builder()).get(0));
+    }
+
+    /**
+     * Runs a query of one page against a {@link MockTrinoServer} and returns the
+     * query strings of its page requests.
+     */
+    private static List<String> nextUriQueries(ClientSession.Builder session) throws IOException {
+        try (MockTrinoServer server = MockTrinoServer.builder().recordRequests().start();
+                StatementClient client = new StatementClient(session.server(server.getUri()).user("test").build(),
+                        "SELECT 1")) {
+            client.execute();
+            client.advance();
+            List<String> queries = server.getRequests().stream()
+                    .filter(request -> request.getMethod().equals("GET"))
+                    .map(MockRequest::getQuery)
+                    .collect(Collectors.toList());
+            assertEquals(1, queries.size());
+            return queries;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.haiphamcoder.trino.client.replay;
+
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link QueryLog}, {@link WorkloadReplayer} and
+ * {@link ReplayCli} against a {@link MockTrinoServer}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class WorkloadReplayerTest {
+
+    private static final String LOG = ""
+            + "# Three queries over 400 ms\n"
+            + "{\"timestamp\":\"2025-10-28T09:00:00.400Z\",\"sql\":\"SELECT 3\",\"user\":\"bob\"}\n"
+            + "{\"timestamp\":1761642000000,\"sql\":\"SELECT 1\",\"user\":\"alice\",\"source\":\"superset\","
+            + "\"catalog\":\"hive\",\"schema\":\"web\",\"clientTags\":[\"dashboard\"],"
+            + "\"properties\":{\"query_max_run_time\":\"5m\"}}\n"
+            + "\n"
+            + "{\"timestamp\":\"2025-10-28T09:00:00.200Z\",\"sql\":\"SELECT fail\"}\n";
+
+    private MockTrinoServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder().queuedResponses(1).pages(2).rowsPerPage(5).build())
+                .scenario("fail", MockScenario.builder().fault(1, MockFault.queryError("TABLE_NOT_FOUND")).build())
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should read query logs in arrival order")
+    void shouldReadQueryLogs() throws IOException {
+        List<QueryLogEntry> entries = QueryLog.read(new StringReader(LOG));
+
+        assertEquals(3, entries.size());
+        QueryLogEntry first = entries.get(0);
+        assertEquals("SELECT 1", first.getSql());
+        assertEquals(1761642000000L, first.getArrivalMillis());
+        assertEquals("superset", first.getSource());
+        assertEquals("hive", first.getCatalog());
+        assertEquals("web", first.getSchema());
+        assertEquals(Set.of("dashboard"), first.getClientTags());
+        assertEquals(Map.of("query_max_run_time", "5m"), first.getProperties());
+        assertEquals("SELECT fail", entries.get(1).getSql());
+        assertEquals(1761642000400L, entries.get(2).getArrivalMillis());
+
+        TrinoException error = assertThrows(TrinoException.class,
+                () -> QueryLog.read(new StringReader("{\"sql\":\"SELECT 1\"}\n{\"user\":\"x\"}")));
+        assertTrue(error.getMessage().contains("line 2"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should replay at a multiplied arrival rate")
+    void shouldReplayOpenLoop() throws IOException {
+        List<QueryLogEntry> entries = QueryLog.read(new StringReader(LOG));
+
+        ReplayReport report = new WorkloadReplayer(server.getUri(),
+                ReplayOptions.builder().rateMultiplier(2).build()).run(entries);
+
+        assertEquals(3, report.getQueries());
+        assertEquals(1, report.getFailures());
+        assertEquals(Map.of("TABLE_NOT_FOUND", 1L), report.getErrors());
+        assertEquals(20, report.getRows());
+        assertEquals(2, report.getTimeToFirstRow().getCount());
+        // The last query arrives 400 ms after the first, 200 ms at twice the rate
+        assertTrue(report.getWallNanos() >= 200_000_000L, report.format());
+        assertTrue(report.getWallNanos() < 400_000_000L, report.format());
+        assertTrue(report.getThroughput() > 0);
+        assertTrue(report.format().contains("first row"));
+    }
+
+    @Test
+    @DisplayName("Should replay with a closed loop of workers")
+    void shouldReplayClosedLoop() {
+        List<QueryLogEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // Same arrival for all; closed-loop replay ignores it anyway
+            entries.add(QueryLogEntry.builder().sql("SELECT " + i).user(i % 2 == 0 ? "alice" : "bob").build());
+        }
+
+        ReplayReport report = new WorkloadReplayer(server.getUri(),
+                ReplayOptions.builder().concurrency(4).build()).run(entries);
+
+        assertEquals(20, report.getQueries());
+        assertEquals(0, report.getFailures());
+        assertEquals(200, report.getRows());
+        assertEquals(20, report.getLatency().getCount());
+        assertEquals(20, server.getSubmittedCount());
+    }
+
+    @Test
+    @DisplayName("Should exit with an error status above the maximum error rate")
+    void shouldGateOnErrorRate(@TempDir Path directory) throws IOException {
+        Path log = directory.resolve("queries.jsonl");
+        Files.writeString(log, LOG);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, true, StandardCharsets.UTF_8);
+        PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8);
+
+        assertEquals(1, ReplayCli.run(new String[] { "--server", server.getUri().toString(), "--log",
+                log.toString(), "--concurrency", "2", "--max-error-rate", "0.1" }, outStream, errStream));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("queries      3"));
+        assertEquals(0, ReplayCli.run(new String[] { "--server", server.getUri().toString(), "--log",
+                log.toString(), "--rate", "100" }, outStream, errStream));
+        assertEquals(2, ReplayCli.run(new String[] { "--log" }, outStream, errStream));
+    }
+}
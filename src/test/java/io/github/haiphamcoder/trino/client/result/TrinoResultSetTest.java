@@ -14,6 +14,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -217,6 +219,52 @@ class TrinoResultSetTest {
         resultSet.close();
     }
 
+    @Test
+    @DisplayName("next should skip queued responses without data")
+    void testNextSkipsResponsesWithoutData() {
+        StatementResponse queuedResponse = new StatementResponse();
+        queuedResponse.setNextUri("http://example.com/queued");
+
+        when(statementClient.execute()).thenReturn(queuedResponse);
+        when(statementClient.advance()).thenReturn(firstResponse, secondResponse);
+        when(statementClient.getState()).thenReturn(QueryState.RUNNING);
+
+        TrinoResultSet resultSet = new TrinoResultSet(statementClient);
+
+        int count = 0;
+        while (resultSet.next()) {
+            count++;
+        }
+
+        assertEquals(3, count);
+        assertEquals("name", resultSet.getColumns().get(1).getName());
+        resultSet.close();
+    }
+
+    @Test
+    @DisplayName("next should use the page prefetched on the executor")
+    void testNextUsesPrefetchedPage() {
+        lenient().when(statementClient.getState()).thenReturn(QueryState.RUNNING);
+        when(statementClient.execute()).thenReturn(firstResponse);
+        when(statementClient.advance()).thenReturn(secondResponse);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TrinoResultSet resultSet = new TrinoResultSet(statementClient, null, executor);
+
+            List<Object> names = new ArrayList<>();
+            while (resultSet.next()) {
+                names.add(resultSet.getCurrentRow().getValue(1));
+            }
+
+            assertEquals(List.of("Alice", "Bob", "Charlie"), names);
+            verify(statementClient, times(1)).advance();
+            resultSet.close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("close should close statement client")
     void testClose() throws Exception {
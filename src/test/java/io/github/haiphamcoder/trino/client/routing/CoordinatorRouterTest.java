@@ -0,0 +1,124 @@
+package io.github.haiphamcoder.trino.client.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CoordinatorRouter} and the built-in routing policies.
+ * 
+ * @author Hai Pham Ngoc
+ */
+class CoordinatorRouterTest {
+
+    private static final List<URI> SERVERS = List.of(
+            URI.create("http://trino-a:8080"),
+            URI.create("http://trino-b:8080"),
+            URI.create("http://trino-c:8080"));
+
+    @Test
+    @DisplayName("round-robin should cycle through coordinators in order")
+    void testRoundRobin() {
+        CoordinatorRouter router = new CoordinatorRouter(SERVERS, RoutingPolicy.roundRobin());
+
+        assertEquals(SERVERS.get(0), router.select(Set.of()).getUri());
+        assertEquals(SERVERS.get(1), router.select(Set.of()).getUri());
+        assertEquals(SERVERS.get(2), router.select(Set.of()).getUri());
+        assertEquals(SERVERS.get(0), router.select(Set.of()).getUri());
+    }
+
+    @Test
+    @DisplayName("least-outstanding-queries should pick the least loaded coordinator")
+    void testLeastOutstandingQueries() {
+        CoordinatorRouter router = new CoordinatorRouter(SERVERS, RoutingPolicy.leastOutstandingQueries());
+        List<Coordinator> coordinators = router.getCoordinators();
+
+        router.acquire(coordinators.get(0));
+        router.acquire(coordinators.get(1));
+
+        assertSame(coordinators.get(2), router.select(Set.of()));
+
+        router.acquire(coordinators.get(2));
+        router.release(coordinators.get(1));
+
+        assertSame(coordinators.get(1), router.select(Set.of()));
+    }
+
+    @Test
+    @DisplayName("health-weighted should prefer coordinators with lower probe latency")
+    void testHealthWeighted() {
+        CoordinatorRouter router = new CoordinatorRouter(SERVERS.subList(0, 2), RoutingPolicy.healthWeighted());
+        List<Coordinator> coordinators = router.getCoordinators();
+        coordinators.get(0).setProbeLatencyMillis(1);
+        coordinators.get(1).setProbeLatencyMillis(1000);
+
+        int fast = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (router.select(Set.of()) == coordinators.get(0)) {
+                fast++;
+            }
+        }
+
+        assertTrue(fast > 900, "fast coordinator selected " + fast + " times");
+    }
+
+    @Test
+    @DisplayName("select should skip ejected and excluded coordinators")
+    void testSelectSkipsEjectedAndExcluded() {
+        CoordinatorRouter router = new CoordinatorRouter(SERVERS, RoutingPolicy.roundRobin(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5));
+        List<Coordinator> coordinators = router.getCoordinators();
+
+        router.markFailure(coordinators.get(0));
+
+        assertTrue(coordinators.get(0).isEjected());
+        for (int i = 0; i < 5; i++) {
+            Coordinator selected = router.select(Set.of(coordinators.get(1)));
+            assertSame(coordinators.get(2), selected);
+        }
+    }
+
+    @Test
+    @DisplayName("select should fall back to an ejected coordinator when nothing else is left")
+    void testSelectFallsBackToEjected() {
+        CoordinatorRouter router = new CoordinatorRouter(SERVERS.subList(0, 2), RoutingPolicy.roundRobin(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5));
+        List<Coordinator> coordinators = router.getCoordinators();
+
+        router.markFailure(coordinators.get(0));
+
+        assertSame(coordinators.get(0), router.select(Set.of(coordinators.get(1))));
+        assertNull(router.select(Set.copyOf(coordinators)));
+    }
+
+    @Test
+    @DisplayName("markSuccess should reinstate an ejected coordinator")
+    void testMarkSuccessReinstates() {
+        CoordinatorRouter router = new CoordinatorRouter(SERVERS, RoutingPolicy.roundRobin(),
+                Duration.ofMinutes(1), Duration.ofMinutes(5));
+        Coordinator coordinator = router.getCoordinators().get(0);
+
+        router.markFailure(coordinator);
+        router.markFailure(coordinator);
+        assertEquals(2, coordinator.getConsecutiveFailures());
+
+        router.markSuccess(coordinator);
+
+        assertFalse(coordinator.isEjected());
+        assertEquals(0, coordinator.getConsecutiveFailures());
+        assertTrue(coordinator.isAvailable(System.nanoTime()));
+    }
+
+    @Test
+    @DisplayName("constructor should reject an empty server list")
+    void testEmptyServersRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CoordinatorRouter(List.of(), RoutingPolicy.roundRobin()));
+    }
+}
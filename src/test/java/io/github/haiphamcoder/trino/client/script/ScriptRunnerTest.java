@@ -0,0 +1,133 @@
+package io.github.haiphamcoder.trino.client.script;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.ScriptExecutionException;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockRequest;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ScriptRunner} against a {@link MockTrinoServer}.
+ *
+ * <p>
+ * The server takes 200 milliseconds per response, or 500 for statements
+ * containing {@code slow}, and fails statements containing {@code fail}. A
+ * statement starts when its submission is received and finishes when its last
+ * request is.
+ *
+ * @author Hai Pham Ngoc
+ */
+class ScriptRunnerTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .pages(0)
+                        .updateType("INSERT")
+                        .updateCount(1)
+                        .latency(Duration.ofMillis(200))
+                        .build())
+                .scenario("fail", MockScenario.builder()
+                        .fault(1, MockFault.queryError("TABLE_NOT_FOUND"))
+                        .latency(Duration.ofMillis(200))
+                        .build())
+                .scenario("slow", MockScenario.builder()
+                        .pages(0)
+                        .latency(Duration.ofMillis(500))
+                        .build())
+                .recordRequests()
+                .start();
+        client = TrinoClient.builder().server(server.getUri()).user("test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    /** When the coordinator received the submission of a statement */
+    private long started(String sql) {
+        return requests(sql).get(0).getReceivedNanos();
+    }
+
+    /** When the coordinator received the last request of a statement */
+    private long finished(String sql) {
+        List<MockRequest> requests = requests(sql);
+        return requests.get(requests.size() - 1).getReceivedNanos();
+    }
+
+    private List<MockRequest> requests(String sql) {
+        List<MockRequest> requests = server.getRequests().stream()
+                .filter(request -> sql.equals(request.getStatement()))
+                .collect(Collectors.toList());
+        assertFalse(requests.isEmpty(), sql + " was not submitted");
+        return requests;
+    }
+
+    private void assertBefore(String first, String second) {
+        assertTrue(finished(first) < started(second), first + " should finish before " + second);
+    }
+
+    private void assertOverlap(String first, String second) {
+        assertTrue(started(first) < finished(second) && started(second) < finished(first),
+                first + " should run concurrently with " + second);
+    }
+
+    @Test
+    @DisplayName("independent statements should run concurrently and dependent ones in order")
+    void testPipelining() {
+        List<StatementResult> results = client.executeScript(
+                "CREATE TABLE a AS SELECT 1 x;"
+                        + "CREATE TABLE b AS SELECT 2 x;"
+                        + "INSERT INTO a SELECT x FROM b;"
+                        + "USE other;"
+                        + "CREATE TABLE c AS SELECT 3 x;"
+                        + "CREATE TABLE d AS SELECT 4 x", 4);
+
+        assertEquals(6, results.size());
+        assertTrue(results.stream().allMatch(StatementResult::isSuccess));
+        assertEquals(1L, results.get(0).getUpdateCount());
+        assertOverlap("CREATE TABLE a AS SELECT 1 x", "CREATE TABLE b AS SELECT 2 x");
+        assertBefore("CREATE TABLE a AS SELECT 1 x", "INSERT INTO a SELECT x FROM b");
+        assertBefore("CREATE TABLE b AS SELECT 2 x", "INSERT INTO a SELECT x FROM b");
+        assertBefore("INSERT INTO a SELECT x FROM b", "USE other");
+        assertBefore("USE other", "CREATE TABLE c AS SELECT 3 x");
+        assertOverlap("CREATE TABLE c AS SELECT 3 x", "CREATE TABLE d AS SELECT 4 x");
+    }
+
+    @Test
+    @DisplayName("a failed statement should stop the script and skip the statements not started")
+    void testFailure() {
+        ScriptExecutionException e = assertThrows(ScriptExecutionException.class, () -> client.executeScript(
+                "INSERT INTO fail_here VALUES (1);"
+                        + "INSERT INTO slow VALUES (1);"
+                        + "INSERT INTO fail_here VALUES (2);"
+                        + "INSERT INTO later SELECT * FROM slow", 2));
+
+        assertEquals(0, e.getFailure().getStatement().getIndex());
+        assertEquals("TABLE_NOT_FOUND", e.getTrinoError().getErrorName());
+        List<StatementResult> results = e.getResults();
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertTrue(results.get(2).isSkipped());
+        assertTrue(results.get(3).isSkipped());
+        assertFalse(server.getStatements().contains("INSERT INTO later SELECT * FROM slow"));
+    }
+}
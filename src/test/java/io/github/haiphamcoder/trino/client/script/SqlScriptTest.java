@@ -0,0 +1,98 @@
+package io.github.haiphamcoder.trino.client.script;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SqlScript}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class SqlScriptTest {
+
+    @Test
+    @DisplayName("scripts should split at semicolons outside literals, comments and routine bodies")
+    void testSplit() {
+        String script = "SELECT ';' AS \"a;b\"; -- one; two\n"
+                + "/* three; */ INSERT INTO t VALUES ('it''s;');\n"
+                + "CREATE FUNCTION f(x bigint) RETURNS bigint BEGIN DECLARE y bigint; "
+                + "IF x > 0 THEN SET y = CASE WHEN x > 1 THEN 2 ELSE 1 END; END IF; RETURN y; END;\n"
+                + ";  -- trailing comment";
+
+        assertEquals(List.of(
+                "SELECT ';' AS \"a;b\"",
+                "-- one; two\n/* three; */ INSERT INTO t VALUES ('it''s;')",
+                "CREATE FUNCTION f(x bigint) RETURNS bigint BEGIN DECLARE y bigint; "
+                        + "IF x > 0 THEN SET y = CASE WHEN x > 1 THEN 2 ELSE 1 END; END IF; RETURN y; END"),
+                SqlScript.split(script));
+    }
+
+    @Test
+    @DisplayName("reads and writes should be resolved against the current catalog and schema")
+    void testReadsAndWrites() {
+        List<ScriptStatement> statements = SqlScript.parse(
+                "CREATE TABLE IF NOT EXISTS daily AS "
+                        + "WITH recent AS (SELECT * FROM raw.Events) "
+                        + "SELECT * FROM recent r JOIN hive.ref.users u ON true;"
+                        + "USE iceberg.mart;"
+                        + "INSERT INTO \"Totals\" SELECT count(*) FROM a, b AS x WHERE x.v IN (SELECT v FROM c);"
+                        + "MERGE INTO totals t USING updates u ON t.id = u.id WHEN MATCHED THEN DELETE;"
+                        + "ALTER TABLE totals RENAME TO totals_old",
+                "hive", "staging").getStatements();
+
+        assertEquals(Set.of("hive.staging.daily"), statements.get(0).getWrites());
+        assertEquals(Set.of("hive.raw.events", "hive.ref.users", "schema:hive.raw", "schema:hive.ref",
+                "schema:hive.staging"), statements.get(0).getReads());
+        assertTrue(statements.get(1).isBarrier());
+        assertEquals(Set.of("iceberg.mart.totals"), statements.get(2).getWrites());
+        assertEquals(Set.of("iceberg.mart.a", "iceberg.mart.b", "iceberg.mart.c", "schema:iceberg.mart"),
+                statements.get(2).getReads());
+        assertEquals(Set.of("iceberg.mart.updates", "schema:iceberg.mart"), statements.get(3).getReads());
+        assertEquals(Set.of("iceberg.mart.totals", "iceberg.mart.totals_old"), statements.get(4).getWrites());
+    }
+
+    @Test
+    @DisplayName("statements should depend on conflicting statements and barriers only")
+    void testDependencies() {
+        List<ScriptStatement> statements = SqlScript.parse(
+                "CREATE SCHEMA s;"                              // 0
+                        + "CREATE TABLE s.a (x bigint);"        // 1: needs the schema
+                        + "CREATE TABLE other.b (x bigint);"    // 2: independent
+                        + "INSERT INTO s.a SELECT x FROM other.b;" // 3: writes a, reads b
+                        + "SELECT * FROM other.b;"              // 4: reads b only
+                        + "DROP TABLE other.b;"                 // 5: after every reader of b
+                        + "SET SESSION query_max_run_time = '1h';" // 6: barrier
+                        + "SELECT * FROM s.a;"                  // 7: after the barrier only
+                        + "CALL system.flush()",                // 8: unknown, so a barrier
+                "hive", null).getStatements();
+
+        assertEquals(List.of(), statements.get(0).getDependencies());
+        assertEquals(List.of(0), statements.get(1).getDependencies());
+        assertEquals(List.of(), statements.get(2).getDependencies());
+        assertEquals(List.of(0, 1, 2), statements.get(3).getDependencies());
+        assertEquals(List.of(2), statements.get(4).getDependencies());
+        assertEquals(List.of(2, 3, 4), statements.get(5).getDependencies());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), statements.get(6).getDependencies());
+        assertEquals(List.of(6), statements.get(7).getDependencies());
+        assertEquals(List.of(6, 7), statements.get(8).getDependencies());
+        assertTrue(statements.get(8).isBarrier());
+    }
+
+    @Test
+    @DisplayName("statements of an explicit transaction should run one at a time")
+    void testTransaction() {
+        List<ScriptStatement> statements = SqlScript.parse(
+                "START TRANSACTION; INSERT INTO a VALUES (1); INSERT INTO b VALUES (2); COMMIT;"
+                        + "INSERT INTO c VALUES (3); INSERT INTO d VALUES (4)").getStatements();
+
+        assertEquals(List.of(0), statements.get(1).getDependencies());
+        assertEquals(List.of(1), statements.get(2).getDependencies());
+        assertEquals(List.of(3), statements.get(4).getDependencies());
+        assertEquals(List.of(3), statements.get(5).getDependencies());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.haiphamcoder.trino.client.sql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SqlLiterals}.
+ *
+ * @author Hai Pham Ngoc
+ */
+class SqlLiteralsTest {
+
+    @Test
+    @DisplayName("strings should be quoted with embedded quotes doubled")
+    void testStrings() {
+        assertEquals("'abc'", SqlLiterals.render("abc"));
+        assertEquals("'it''s'", SqlLiterals.render("it's"));
+        assertEquals("''''' OR 1=1 --'", SqlLiterals.render("'' OR 1=1 --"));
+        assertEquals("NULL", SqlLiterals.render(null));
+    }
+
+    @Test
+    @DisplayName("numbers should keep their Trino type")
+    void testNumbers() {
+        assertEquals("42", SqlLiterals.render(42));
+        assertEquals("-7", SqlLiterals.render(-7L));
+        assertEquals("DECIMAL '12.50'", SqlLiterals.render(new BigDecimal("12.50")));
+        assertEquals("DOUBLE '1.5'", SqlLiterals.render(1.5d));
+        assertEquals("REAL '2.5'", SqlLiterals.render(2.5f));
+        assertEquals("CAST(nan() AS DOUBLE)", SqlLiterals.render(Double.NaN));
+        assertEquals("CAST(-infinity() AS DOUBLE)", SqlLiterals.render(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    @DisplayName("temporal and other values should use typed literals")
+    void testTypedLiterals() {
+        assertEquals("DATE '2024-02-29'", SqlLiterals.render(LocalDate.of(2024, 2, 29)));
+        assertEquals("TIME '08:00:00'", SqlLiterals.render(LocalTime.of(8, 0)));
+        assertEquals("TIMESTAMP '2024-01-02 03:04:05.5'",
+                SqlLiterals.render(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 500_000_000)));
+        assertEquals("TIMESTAMP '1970-01-01 00:00:00 UTC'", SqlLiterals.render(Instant.EPOCH));
+        assertEquals("TIMESTAMP '2024-01-02 03:04:05 +07:00'",
+                SqlLiterals.render(OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(7))));
+        assertEquals("TRUE", SqlLiterals.render(true));
+        assertEquals("X'00FF'", SqlLiterals.render(new byte[] {0, (byte) 0xFF}));
+        UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        assertEquals("UUID '123e4567-e89b-12d3-a456-426614174000'", SqlLiterals.render(uuid));
+        assertThrows(IllegalArgumentException.class, () -> SqlLiterals.render(new Object()));
+    }
+
+    @Test
+    @DisplayName("values should be rendered as literals of the given column type")
+    void testColumnTypes() {
+        assertEquals("42", SqlLiterals.render(42, "bigint"));
+        assertEquals("42", SqlLiterals.render(new BigDecimal("42.0"), "integer"));
+        assertEquals("DOUBLE '3.0'", SqlLiterals.render(3, "double"));
+        assertEquals("DECIMAL '0.1'", SqlLiterals.render(0.1d, "decimal(10,2)"));
+        assertEquals("'123'", SqlLiterals.render(123, "varchar(10)"));
+        assertEquals("DATE '2024-01-01'", SqlLiterals.render("2024-01-01", "date"));
+        assertEquals("DATE '1'' OR ''1'", SqlLiterals.render("1' OR '1", "date"));
+        assertEquals("JSON '{\"a\": ''b''}'", SqlLiterals.render("{\"a\": 'b'}", "json"));
+        assertEquals("ARRAY['a', NULL, 'b''c']",
+                SqlLiterals.render(Arrays.asList("a", null, "b'c"), "array(varchar)"));
+        assertEquals("CAST('x' AS ipaddress)", SqlLiterals.render("x", "ipaddress"));
+        assertEquals("DECIMAL '9.99'", SqlLiterals.render(TypedValue.of("9.99", "decimal(10,2)")));
+        assertEquals("CAST(NULL AS bigint)", SqlLiterals.render(TypedValue.of(null, "bigint")));
+        assertThrows(IllegalArgumentException.class, () -> SqlLiterals.render(1.5, "bigint"));
+        assertThrows(IllegalArgumentException.class, () -> SqlLiterals.render("abc", "double"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SqlLiterals.render(LocalDate.of(2024, 1, 1), "timestamp(3)"));
+    }
+}
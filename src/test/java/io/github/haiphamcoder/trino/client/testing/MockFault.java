@@ -0,0 +1,123 @@
+package io.github.haiphamcoder.trino.client.testing;
+
+import java.time.Duration;
+
+/**
+ * A fault injected by {@link MockTrinoServer} into one response.
+ *
+ * @author Hai Pham Ngoc
+ */
+public final class MockFault {
+
+    /** What the server does instead of, or before, answering normally */
+    public enum Kind {
+        /** Answers with an HTTP status and no body */
+        STATUS,
+        /** Waits before answering normally, to trigger client timeouts */
+        DELAY,
+        /** Closes the connection without answering */
+        DISCONNECT,
+        /** Fails the query with a Trino error */
+        QUERY_ERROR
+    }
+
+    private final Kind kind;
+    private final int statusCode;
+    private final Duration delay;
+    private final String errorName;
+    private final String errorType;
+
+    private MockFault(Kind kind, int statusCode, Duration delay, String errorName, String errorType) {
+        this.kind = kind;
+        this.statusCode = statusCode;
+        this.delay = delay;
+        this.errorName = errorName;
+        this.errorType = errorType;
+    }
+
+    /**
+     * Answers with an HTTP status, such as 502, 503 or 504, and no body.
+     *
+     * @param statusCode the HTTP status code
+     * @return the fault
+     */
+    public static MockFault status(int statusCode) {
+        return new MockFault(Kind.STATUS, statusCode, null, null, null);
+    }
+
+    /**
+     * Waits before answering normally.
+     *
+     * @param delay the time to wait
+     * @return the fault
+     */
+    public static MockFault delay(Duration delay) {
+        return new MockFault(Kind.DELAY, 0, delay, null, null);
+    }
+
+    /**
+     * Closes the connection without sending a response, as a crashed
+     * coordinator or a proxy reset would.
+     *
+     * @return the fault
+     */
+    public static MockFault disconnect() {
+        return new MockFault(Kind.DISCONNECT, 0, null, null, null);
+    }
+
+    /**
+     * Fails the query with a user error; no further pages are served.
+     *
+     * @param errorName the error name, such as {@code TABLE_NOT_FOUND}
+     * @return the fault
+     */
+    public static MockFault queryError(String errorName) {
+        return queryError(errorName, "USER_ERROR");
+    }
+
+    /**
+     * Fails the query with a Trino error of the given type, such as
+     * {@code INTERNAL_ERROR} for a failure the client may retry.
+     *
+     * @param errorName the error name, such as {@code GENERIC_INTERNAL_ERROR}
+     * @param errorType the error type
+     * @return the fault
+     */
+    public static MockFault queryError(String errorName, String errorType) {
+        return new MockFault(Kind.QUERY_ERROR, 0, null, errorName, errorType);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Duration getDelay() {
+        return delay;
+    }
+
+    public String getErrorName() {
+        return errorName;
+    }
+
+    public String getErrorType() {
+        return errorType;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case STATUS:
+                return "STATUS " + statusCode;
+            case DELAY:
+                return "DELAY " + delay;
+            case QUERY_ERROR:
+                return "QUERY_ERROR " + errorName;
+            default:
+                return kind.name();
+        }
+    }
+}
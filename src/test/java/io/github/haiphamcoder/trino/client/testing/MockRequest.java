@@ -0,0 +1,78 @@
+package io.github.haiphamcoder.trino.client.testing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request received by a {@link MockTrinoServer} that records requests, for
+ * tests that check what the client sent.
+ *
+ * @author Hai Pham Ngoc
+ */
+public final class MockRequest {
+    private final String method;
+    private final String path;
+    private final String query;
+    private final String statement;
+    private final Map<String, List<String>> headers;
+    private final long receivedNanos;
+
+    MockRequest(String method, String path, String query, String statement, Map<String, List<String>> headers,
+            long receivedNanos) {
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.statement = statement;
+        this.headers = headers;
+        this.receivedNanos = receivedNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /** Query string of the URI, or null */
+    public String getQuery() {
+        return query;
+    }
+
+    /** Statement of the query the request belongs to, or null */
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * Gets the first value of a request header.
+     *
+     * @param name the header name, matched case-insensitively
+     * @return the value, or null if the header was not sent
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values != null ? values.get(0) : null;
+    }
+
+    /**
+     * Gets every value of a request header sent more than once.
+     *
+     * @param name the header name, matched case-insensitively
+     * @return the values in the order sent, empty if the header was not sent
+     */
+    public List<String> getHeaders(String name) {
+        return headers.getOrDefault(name, List.of());
+    }
+
+    /** {@link System#nanoTime()} when the request was received */
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + (query != null ? "?" + query : "");
+    }
+}
@@ -0,0 +1,377 @@
+package io.github.haiphamcoder.trino.client.testing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * How {@link MockTrinoServer} answers a query: how long it stays queued, how
+ * many pages of how many rows it returns, how fast, and which faults it
+ * injects.
+ *
+ * <p>
+ * The requests of a query are numbered in steps: step 0 is the submission,
+ * the next {@link Builder#queuedResponses(int) queued} steps answer with a
+ * {@code QUEUED} state and no rows, and the following steps each return one
+ * page. Faults are attached to steps; a scripted fault applies to the first
+ * attempt at its step only, so a client retrying the same URI gets a normal
+ * answer.
+ *
+ * <p>
+ * Instead of generated rows, a scenario may compute each query's rows from its
+ * statement, and it may add statistics, an update type and response headers,
+ * so that one scenario can stand in for the statements a test runs.
+ *
+ * <pre>{@code
+ * MockScenario scenario = MockScenario.builder()
+ *         .queuedResponses(2)
+ *         .pages(10)
+ *         .rowsPerPage(1000)
+ *         .latency(Duration.ofMillis(20))
+ *         .fault(3, MockFault.status(503))
+ *         .build();
+ * }</pre>
+ *
+ * @author Hai Pham Ngoc
+ */
+public final class MockScenario {
+    private final int queuedResponses;
+    private final int pages;
+    private final int rowsPerPage;
+    private final List<String[]> columns;
+    private final IntFunction<List<Object>> rows;
+    private final Function<String, List<List<Object>>> result;
+    private final Map<String, Number> stats;
+    private final String updateType;
+    private final Function<String, Long> updateCount;
+    private final Map<String, Function<String, String>> responseHeaders;
+    private final Duration latency;
+    private final long bytesPerSecond;
+    private final Map<Integer, MockFault> faults;
+    private final int faultedQueries;
+    private final AtomicInteger queries = new AtomicInteger();
+    private final MockFault randomFault;
+    private final double randomFaultRate;
+    private final Random random;
+
+    private MockScenario(Builder builder) {
+        this.queuedResponses = builder.queuedResponses;
+        this.pages = builder.pages;
+        this.rowsPerPage = builder.rowsPerPage;
+        this.columns = builder.columns.isEmpty() ? List.<String[]>of(new String[] { "x", "bigint" })
+                : List.copyOf(builder.columns);
+        this.rows = builder.rows != null ? builder.rows : row -> List.of(row);
+        this.result = builder.result;
+        this.stats = new LinkedHashMap<>(builder.stats);
+        this.updateType = builder.updateType;
+        this.updateCount = builder.updateCount;
+        this.responseHeaders = new LinkedHashMap<>(builder.responseHeaders);
+        this.latency = builder.latency;
+        this.bytesPerSecond = builder.bytesPerSecond;
+        this.faults = Map.copyOf(builder.faults);
+        this.faultedQueries = builder.faultedQueries;
+        this.randomFault = builder.randomFault;
+        this.randomFaultRate = builder.randomFaultRate;
+        this.random = new Random(builder.seed);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getQueuedResponses() {
+        return queuedResponses;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getRowsPerPage() {
+        return rowsPerPage;
+    }
+
+    /** Column names and types */
+    public List<String[]> getColumns() {
+        return columns;
+    }
+
+    /** Generates the values of a row from its index in the result */
+    public IntFunction<List<Object>> getRows() {
+        return rows;
+    }
+
+    /** Computes the rows of a query from its statement, or null to generate them */
+    public Function<String, List<List<Object>>> getResult() {
+        return result;
+    }
+
+    /** Statistics added to every response, by name */
+    public Map<String, Number> getStats() {
+        return stats;
+    }
+
+    public String getUpdateType() {
+        return updateType;
+    }
+
+    /** Update count of the final response, computed from the statement, or null */
+    public Function<String, Long> getUpdateCount() {
+        return updateCount;
+    }
+
+    /** Headers of the final response, computed from the statement, by name */
+    public Map<String, Function<String, String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public Duration getLatency() {
+        return latency;
+    }
+
+    /** Bytes per second each response body is written at, or 0 for no limit */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /** Checks whether the scripted faults apply to the next query */
+    boolean nextQueryFaulted() {
+        return faultedQueries < 0 || queries.getAndIncrement() < faultedQueries;
+    }
+
+    /**
+     * Gets the fault for an attempt at a step, if any.
+     */
+    MockFault faultFor(int step, int attempt, boolean faulted) {
+        MockFault fault = attempt == 0 && faulted ? faults.get(step) : null;
+        if (fault == null && randomFault != null && random.nextDouble() < randomFaultRate) {
+            fault = randomFault;
+        }
+        return fault;
+    }
+
+    public static class Builder {
+        private int queuedResponses;
+        private int pages = 1;
+        private int rowsPerPage = 1;
+        private final List<String[]> columns = new ArrayList<>();
+        private IntFunction<List<Object>> rows;
+        private Function<String, List<List<Object>>> result;
+        private final Map<String, Number> stats = new LinkedHashMap<>();
+        private String updateType;
+        private Function<String, Long> updateCount;
+        private final Map<String, Function<String, String>> responseHeaders = new LinkedHashMap<>();
+        private Duration latency = Duration.ZERO;
+        private long bytesPerSecond;
+        private final Map<Integer, MockFault> faults = new HashMap<>();
+        private int faultedQueries = -1;
+        private MockFault randomFault;
+        private double randomFaultRate;
+        private long seed;
+
+        /**
+         * Sets the number of {@code QUEUED} responses after the submission.
+         *
+         * @param queuedResponses the number of queued responses
+         * @return this builder
+         */
+        public Builder queuedResponses(int queuedResponses) {
+            this.queuedResponses = queuedResponses;
+            return this;
+        }
+
+        /**
+         * Sets the number of pages with rows; 0 answers like a statement
+         * without results.
+         *
+         * @param pages the number of pages
+         * @return this builder
+         */
+        public Builder pages(int pages) {
+            this.pages = pages;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows per page.
+         *
+         * @param rowsPerPage the number of rows per page
+         * @return this builder
+         */
+        public Builder rowsPerPage(int rowsPerPage) {
+            this.rowsPerPage = rowsPerPage;
+            return this;
+        }
+
+        /**
+         * Adds a result column. Without columns, results have a single
+         * {@code bigint} column {@code x} holding the row index.
+         *
+         * @param name the column name
+         * @param type the Trino type
+         * @return this builder
+         */
+        public Builder column(String name, String type) {
+            this.columns.add(new String[] { name, type });
+            return this;
+        }
+
+        /**
+         * Sets the generator of row values, called with each row's index in
+         * the result.
+         *
+         * @param rows the row generator
+         * @return this builder
+         */
+        public Builder rows(IntFunction<List<Object>> rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        /**
+         * Computes the rows of each query from its statement instead of
+         * generating them; they are served in pages of
+         * {@link #rowsPerPage(int)} rows, with at least one page.
+         *
+         * @param result computes the rows from the statement
+         * @return this builder
+         */
+        public Builder result(Function<String, List<List<Object>>> result) {
+            this.result = result;
+            return this;
+        }
+
+        /**
+         * Adds a statistic, such as {@code queuedTimeMillis} or
+         * {@code totalCpuTimeMillis}, to the stats of every response.
+         *
+         * @param name  the statistic name
+         * @param value the value
+         * @return this builder
+         */
+        public Builder stat(String name, Number value) {
+            this.stats.put(name, value);
+            return this;
+        }
+
+        /**
+         * Sets the update type of the final response, such as {@code INSERT}.
+         *
+         * @param updateType the update type
+         * @return this builder
+         */
+        public Builder updateType(String updateType) {
+            this.updateType = updateType;
+            return this;
+        }
+
+        /**
+         * Sets the update count of the final response.
+         *
+         * @param updateCount the number of rows updated
+         * @return this builder
+         */
+        public Builder updateCount(long updateCount) {
+            return updateCount(statement -> updateCount);
+        }
+
+        /**
+         * Sets the update count of the final response, computed from the
+         * statement, such as the number of rows in an {@code INSERT}.
+         *
+         * @param updateCount computes the number of rows updated
+         * @return this builder
+         */
+        public Builder updateCount(Function<String, Long> updateCount) {
+            this.updateCount = updateCount;
+            return this;
+        }
+
+        /**
+         * Adds a header to the final response, computed from the statement,
+         * such as {@code X-Trino-Added-Prepare}.
+         *
+         * @param name  the header name
+         * @param value computes the value from the statement; null omits the
+         *              header
+         * @return this builder
+         */
+        public Builder responseHeader(String name, Function<String, String> value) {
+            this.responseHeaders.put(name, value);
+            return this;
+        }
+
+        /**
+         * Sets the time waited before each response.
+         *
+         * @param latency the latency
+         * @return this builder
+         */
+        public Builder latency(Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Limits the rate at which response bodies are written.
+         *
+         * @param bytesPerSecond the bandwidth, or 0 for no limit
+         * @return this builder
+         */
+        public Builder bandwidth(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        /**
+         * Injects a fault into the first attempt at a step.
+         *
+         * @param step  the step, 0 being the submission
+         * @param fault the fault
+         * @return this builder
+         */
+        public Builder fault(int step, MockFault fault) {
+            this.faults.put(step, fault);
+            return this;
+        }
+
+        /**
+         * Limits the scripted faults to the first queries of the scenario, so
+         * that a client submitting a failed query again gets a normal answer.
+         *
+         * @param queries the number of queries with faults
+         * @return this builder
+         */
+        public Builder faultedQueries(int queries) {
+            this.faultedQueries = queries;
+            return this;
+        }
+
+        /**
+         * Injects a fault into a random fraction of all requests, for chaos
+         * testing.
+         *
+         * @param rate  the fraction of requests, between 0 and 1
+         * @param fault the fault
+         * @param seed  the seed of the random choice, for reproducible runs
+         * @return this builder
+         */
+        public Builder randomFaults(double rate, MockFault fault, long seed) {
+            this.randomFaultRate = rate;
+            this.randomFault = fault;
+            this.seed = seed;
+            return this;
+        }
+
+        public MockScenario build() {
+            return new MockScenario(this);
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package io.github.haiphamcoder.trino.client.testing;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.haiphamcoder.trino.client.concurrent.ClientThreads;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * An embeddable coordinator speaking the {@code /v1/statement} protocol, for
+ * load and fault testing the client end to end without a cluster.
+ *
+ * <p>
+ * Each submitted statement is answered according to a {@link MockScenario},
+ * chosen by the first marker the statement contains or else the default
+ * scenario: queued responses, then pages of generated rows, with latency,
+ * bandwidth limits and injected faults. {@code DELETE} on a query's next URI
+ * cancels it; later requests for a cancelled or failed query get HTTP 410.
+ * {@code GET /v1/query/{id}} answers with scripted query info. The server can
+ * record every request, for tests that check what the client sent. Requests
+ * are served on virtual threads when available, so slow responses do
+ * not hold up others.
+ *
+ * <pre>{@code
+ * try (MockTrinoServer server = MockTrinoServer.builder()
+ *         .scenario(MockScenario.builder().pages(100).rowsPerPage(1000).build())
+ *         .scenario("flaky", MockScenario.builder().fault(2, MockFault.disconnect()).build())
+ *         .start();
+ *         TrinoClient client = TrinoClient.builder().server(server.getUri()).user("test").build()) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * <p>
+ * The class is published in the test jar ({@code <type>test-jar</type>}).
+ *
+ * @author Hai Pham Ngoc
+ */
+public final class MockTrinoServer implements Closeable {
+    private static final Gson GSON = new Gson();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final URI uri;
+    private final MockScenario defaultScenario;
+    private final Map<String, MockScenario> scenarios;
+    private final Map<String, MockQuery> queries = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> queryInfos;
+    private final Map<String, AtomicInteger> queryInfoRequests = new ConcurrentHashMap<>();
+    /** Received requests in arrival order, or null if not recorded */
+    private final ConcurrentLinkedQueue<MockRequest> recorded;
+    private final AtomicLong queryIds = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private MockTrinoServer(Builder builder) throws IOException {
+        this.defaultScenario = builder.defaultScenario;
+        this.scenarios = new LinkedHashMap<>(builder.scenarios);
+        this.queryInfos = new ConcurrentHashMap<>(builder.queryInfos);
+        this.recorded = builder.recordRequests ? new ConcurrentLinkedQueue<>() : null;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", builder.port), builder.backlog);
+        this.executor = ClientThreads.newExecutor("mock-coordinator", ClientThreads.isVirtualThreadsSupported());
+        server.setExecutor(executor);
+        server.createContext("/v1/statement", this::handle);
+        server.createContext("/v1/query/", this::handleQueryInfo);
+        this.uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Base URI of the server, to pass to the client builder */
+    public URI getUri() {
+        return uri;
+    }
+
+    /** Number of statements submitted */
+    public long getSubmittedCount() {
+        return queryIds.get();
+    }
+
+    /** Number of HTTP requests received */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /** Number of faults injected */
+    public long getFaultCount() {
+        return faults.sum();
+    }
+
+    /** Number of queries cancelled with {@code DELETE} */
+    public long getCancelledCount() {
+        return cancelled.sum();
+    }
+
+    /**
+     * Gets the most queries running at once, each from its submission until it
+     * finishes, fails or is cancelled.
+     *
+     * @return the maximum number of running queries
+     */
+    public int getMaxRunningCount() {
+        return maxRunning.get();
+    }
+
+    /**
+     * Gets the statements submitted so far, in no particular order.
+     *
+     * @return the statements
+     */
+    public List<String> getStatements() {
+        List<String> statements = new ArrayList<>();
+        queries.values().forEach(query -> statements.add(query.statement));
+        return statements;
+    }
+
+    /**
+     * Gets the requests received so far, in arrival order.
+     *
+     * @return the requests
+     * @throws IllegalStateException if the server does not record requests
+     */
+    public List<MockRequest> getRequests() {
+        if (recorded == null) {
+            throw new IllegalStateException("Requests are not recorded; see Builder.recordRequests()");
+        }
+        return new ArrayList<>(recorded);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            if (method.equals("POST") && path.equals("/v1/statement")) {
+                String statement = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                record(exchange, statement);
+                String id = String.format("20250101_000000_%05d_mock0", queryIds.incrementAndGet());
+                MockQuery query = new MockQuery(id, statement, scenarioFor(statement));
+                queries.put(id, query);
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                serve(exchange, query, 0);
+                return;
+            }
+
+            // /v1/statement/{queued|executing}/{id}/{step}
+            String[] parts = path.split("/");
+            MockQuery query = parts.length == 6 ? queries.get(parts[4]) : null;
+            record(exchange, query != null ? query.statement : null);
+            if (query == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (method.equals("DELETE")) {
+                if (!query.cancelled) {
+                    query.cancelled = true;
+                    cancelled.increment();
+                    complete(query);
+                }
+                exchange.sendResponseHeaders(204, -1);
+            } else if (query.cancelled || query.failed) {
+                exchange.sendResponseHeaders(410, -1);
+            } else {
+                serve(exchange, query, Integer.parseInt(parts[5]));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleQueryInfo(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try {
+            record(exchange, null);
+            String path = exchange.getRequestURI().getPath();
+            String queryId = path.substring(path.lastIndexOf('/') + 1);
+            List<String> responses = queryInfos.get(queryId);
+            if (responses == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            int index = queryInfoRequests.computeIfAbsent(queryId, id -> new AtomicInteger()).getAndIncrement();
+            byte[] body = responses.get(Math.min(index, responses.size() - 1)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void record(HttpExchange exchange, String statement) {
+        if (recorded == null) {
+            return;
+        }
+        long receivedNanos = System.nanoTime();
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        exchange.getRequestHeaders().forEach((name, values) -> headers.put(name, List.copyOf(values)));
+        recorded.add(new MockRequest(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                exchange.getRequestURI().getRawQuery(), statement, headers, receivedNanos));
+    }
+
+    private void complete(MockQuery query) {
+        if (query.completed.compareAndSet(false, true)) {
+            running.decrementAndGet();
+        }
+    }
+
+    private MockScenario scenarioFor(String statement) {
+        for (Map.Entry<String, MockScenario> entry : scenarios.entrySet()) {
+            if (statement.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return defaultScenario;
+    }
+
+    private void serve(HttpExchange exchange, MockQuery query, int step) throws IOException {
+        MockScenario scenario = query.scenario;
+        MockFault fault = scenario.faultFor(step, query.attempt(step), query.faulted);
+        sleep(scenario.getLatency());
+        if (fault != null) {
+            faults.increment();
+            switch (fault.getKind()) {
+                case STATUS:
+                    exchange.sendResponseHeaders(fault.getStatusCode(), -1);
+                    return;
+                case DISCONNECT:
+                    // Closing the exchange before sending headers drops the connection
+                    return;
+                case DELAY:
+                    sleep(fault.getDelay());
+                    break;
+                case QUERY_ERROR:
+                    query.failed = true;
+                    complete(query);
+                    write(exchange, scenario, errorPage(query, fault));
+                    return;
+                default:
+                    throw new IllegalStateException("Unknown fault: " + fault);
+            }
+        }
+        if (step == query.steps - 1) {
+            for (Map.Entry<String, Function<String, String>> header : scenario.getResponseHeaders().entrySet()) {
+                String value = header.getValue().apply(query.statement);
+                if (value != null) {
+                    exchange.getResponseHeaders().add(header.getKey(), value);
+                }
+            }
+            complete(query);
+        }
+        write(exchange, scenario, page(query, step));
+    }
+
+    private JsonObject page(MockQuery query, int step) {
+        MockScenario scenario = query.scenario;
+        int queued = scenario.getQueuedResponses();
+        boolean last = step == query.steps - 1;
+        JsonObject page = new JsonObject();
+        page.addProperty("id", query.id);
+        page.addProperty("infoUri", uri + "/ui/query.html?" + query.id);
+        if (!last) {
+            String phase = step + 1 <= queued ? "queued" : "executing";
+            page.addProperty("nextUri", uri + "/v1/statement/" + phase + "/" + query.id + "/" + (step + 1));
+        }
+
+        int pageIndex = step - queued - 1;
+        long rowsBefore = 0;
+        int pageRows = 0;
+        if (pageIndex >= 0 && query.pages > 0) {
+            JsonArray columns = new JsonArray();
+            for (String[] column : scenario.getColumns()) {
+                JsonObject json = new JsonObject();
+                json.addProperty("name", column[0]);
+                json.addProperty("type", column[1]);
+                columns.add(json);
+            }
+            page.add("columns", columns);
+            rowsBefore = (long) pageIndex * scenario.getRowsPerPage();
+            List<List<Object>> data;
+            if (query.result != null) {
+                int from = (int) Math.min(rowsBefore, query.result.size());
+                data = query.result.subList(from, Math.min(from + scenario.getRowsPerPage(), query.result.size()));
+            } else {
+                data = new ArrayList<>(scenario.getRowsPerPage());
+                for (int i = 0; i < scenario.getRowsPerPage(); i++) {
+                    data.add(scenario.getRows().apply((int) rowsBefore + i));
+                }
+            }
+            pageRows = data.size();
+            if (!data.isEmpty()) {
+                page.add("data", GSON.toJsonTree(data));
+            }
+        }
+        if (last && scenario.getUpdateType() != null) {
+            page.addProperty("updateType", scenario.getUpdateType());
+        }
+        if (last && scenario.getUpdateCount() != null) {
+            page.addProperty("updateCount", scenario.getUpdateCount().apply(query.statement));
+        }
+
+        JsonObject stats = new JsonObject();
+        stats.addProperty("state", last ? "FINISHED" : pageIndex < 0 ? "QUEUED" : "RUNNING");
+        stats.addProperty("queued", pageIndex < 0);
+        stats.addProperty("scheduled", pageIndex >= 0);
+        int pages = Math.max(query.pages, 1);
+        stats.addProperty("totalSplits", pages);
+        stats.addProperty("completedSplits", Math.max(pageIndex + 1, 0));
+        stats.addProperty("rowsProcessed", pageIndex < 0 ? 0 : rowsBefore + pageRows);
+        scenario.getStats().forEach(stats::addProperty);
+        page.add("stats", stats);
+        return page;
+    }
+
+    private static JsonObject errorPage(MockQuery query, MockFault fault) {
+        JsonObject error = new JsonObject();
+        error.addProperty("message", "Injected failure: " + fault.getErrorName());
+        error.addProperty("errorName", fault.getErrorName());
+        error.addProperty("errorType", fault.getErrorType());
+        JsonObject stats = new JsonObject();
+        stats.addProperty("state", "FAILED");
+        query.scenario.getStats().forEach(stats::addProperty);
+        JsonObject page = new JsonObject();
+        page.addProperty("id", query.id);
+        page.add("error", error);
+        page.add("stats", stats);
+        return page;
+    }
+
+    private static void write(HttpExchange exchange, MockScenario scenario, JsonObject page) throws IOException {
+        byte[] body = GSON.toJson(page).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            long bytesPerSecond = scenario.getBytesPerSecond();
+            if (bytesPerSecond <= 0) {
+                out.write(body);
+                return;
+            }
+            // Twenty chunks per second keeps the rate smooth without busy writing
+            int chunk = (int) Math.max(1, Math.min(body.length, bytesPerSecond / 20));
+            for (int offset = 0; offset < body.length; offset += chunk) {
+                int length = Math.min(chunk, body.length - offset);
+                out.write(body, offset, length);
+                out.flush();
+                sleep(Duration.ofNanos(length * 1_000_000_000L / bytesPerSecond));
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) throws IOException {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /** State of one submitted query */
+    private static final class MockQuery {
+        final String id;
+        final String statement;
+        final MockScenario scenario;
+        /** Rows computed from the statement, or null if generated */
+        final List<List<Object>> result;
+        final int pages;
+        /** Number of steps, submission included */
+        final int steps;
+        /** Whether the scenario's scripted faults apply to this query */
+        final boolean faulted;
+        final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        volatile boolean cancelled;
+        volatile boolean failed;
+        final AtomicBoolean completed = new AtomicBoolean();
+
+        MockQuery(String id, String statement, MockScenario scenario) {
+            this.id = id;
+            this.statement = statement;
+            this.scenario = scenario;
+            this.result = scenario.getResult() != null ? scenario.getResult().apply(statement) : null;
+            this.pages = result != null ? Math.max(1, (result.size() + scenario.getRowsPerPage() - 1)
+                    / scenario.getRowsPerPage()) : scenario.getPages();
+            this.steps = 1 + scenario.getQueuedResponses() + Math.max(pages, 1);
+            this.faulted = scenario.nextQueryFaulted();
+        }
+
+        /** Returns the number of earlier attempts at the step */
+        int attempt(int step) {
+            return attempts.computeIfAbsent(step, s -> new AtomicInteger()).getAndIncrement();
+        }
+    }
+
+    public static class Builder {
+        private MockScenario defaultScenario = MockScenario.builder().build();
+        private final Map<String, MockScenario> scenarios = new LinkedHashMap<>();
+        private final Map<String, List<String>> queryInfos = new LinkedHashMap<>();
+        private boolean recordRequests;
+        private int port;
+        private int backlog;
+
+        /**
+         * Sets the scenario of statements matching no marker.
+         *
+         * @param scenario the scenario
+         * @return this builder
+         */
+        public Builder scenario(MockScenario scenario) {
+            this.defaultScenario = scenario;
+            return this;
+        }
+
+        /**
+         * Sets the scenario of statements containing a marker. Markers are
+         * checked in the order they were added.
+         *
+         * @param marker   the text the statement contains
+         * @param scenario the scenario
+         * @return this builder
+         */
+        public Builder scenario(String marker, MockScenario scenario) {
+            this.scenarios.put(marker, scenario);
+            return this;
+        }
+
+        /**
+         * Scripts the query info returned by {@code GET /v1/query/{queryId}},
+         * as for a query submitted elsewhere. Each request gets the next
+         * response, and the last one is repeated.
+         *
+         * @param queryId   the query id
+         * @param responses the query info JSON documents
+         * @return this builder
+         */
+        public Builder queryInfo(String queryId, String... responses) {
+            this.queryInfos.put(queryId, Arrays.asList(responses));
+            return this;
+        }
+
+        /**
+         * Records every request, for {@link MockTrinoServer#getRequests()}.
+         * Load tests leave it off, as the requests are kept in memory.
+         *
+         * @return this builder
+         */
+        public Builder recordRequests() {
+            this.recordRequests = true;
+            return this;
+        }
+
+        /**
+         * Sets the port to listen on; 0, the default, picks a free port.
+         *
+         * @param port the port
+         * @return this builder
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of pending connections, for load tests
+         * opening many at once; 0 uses the system default.
+         *
+         * @param backlog the connection backlog
+         * @return this builder
+         */
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Starts the server.
+         *
+         * @return the started server
+         * @throws IOException if the server cannot listen
+         */
+        public MockTrinoServer start() throws IOException {
+            MockTrinoServer server = new MockTrinoServer(this);
+            server.server.start();
+            return server;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.haiphamcoder.trino.client.testing;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
+import io.github.haiphamcoder.trino.client.exception.TrinoException;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MockTrinoServer}, driving it with the real client.
+ *
+ * @author Hai Pham Ngoc
+ */
+class MockTrinoServerTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void start(MockTrinoServer.Builder builder) throws IOException {
+        server = builder.start();
+        client = TrinoClient.builder()
+                .server(server.getUri())
+                .user("test")
+                .build();
+    }
+
+    private List<Object> readColumn(String sql) {
+        List<Object> values = new ArrayList<>();
+        try (TrinoResultSet resultSet = client.execute(sql)) {
+            while (resultSet.next()) {
+                values.add(resultSet.getCurrentRow().getValue(0));
+            }
+            resultSet.checkCompleted();
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Should serve queued responses and then pages of rows")
+    void shouldServePages() throws IOException {
+        start(MockTrinoServer.builder()
+                .scenario(MockScenario.builder().queuedResponses(2).pages(3).rowsPerPage(4).build())
+                .scenario("strings", MockScenario.builder()
+                        .column("name", "varchar")
+                        .rows(row -> List.of("row " + row))
+                        .build()));
+
+        List<Object> values = readColumn("SELECT x FROM t");
+        assertEquals(12, values.size());
+        assertEquals(0.0, ((Number) values.get(0)).doubleValue());
+        assertEquals(11.0, ((Number) values.get(11)).doubleValue());
+        // Submission, two queued responses and three pages
+        assertEquals(6, server.getRequestCount());
+
+        assertEquals(List.of("row 0"), readColumn("SELECT name FROM strings"));
+        assertEquals(2, server.getSubmittedCount());
+        assertTrue(server.getStatements().contains("SELECT name FROM strings"));
+        // The first query finished before the second was submitted
+        assertEquals(1, server.getMaxRunningCount());
+    }
+
+    @Test
+    @DisplayName("Should compute rows from the statement and record requests")
+    void shouldComputeResultAndRecordRequests() throws IOException {
+        start(MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .rowsPerPage(2)
+                        .result(sql -> List.of(List.of(sql.length()), List.of(1), List.of(2)))
+                        .updateCount(3)
+                        .build())
+                .recordRequests());
+
+        try (TrinoResultSet resultSet = client.execute("SELECT x")) {
+            assertTrue(resultSet.next());
+            assertEquals(8.0, ((Number) resultSet.getCurrentRow().getValue(0)).doubleValue());
+            while (resultSet.next()) {
+                // Consume rows
+            }
+            assertEquals(3L, resultSet.getUpdateCount());
+        }
+        List<MockRequest> requests = server.getRequests();
+        // Submission and two pages
+        assertEquals(3, requests.size());
+        assertEquals("POST", requests.get(0).getMethod());
+        assertEquals("test", requests.get(0).getHeader("x-trino-user"));
+        assertTrue(requests.stream().allMatch(request -> "SELECT x".equals(request.getStatement())));
+    }
+
+    @Test
+    @DisplayName("Should cancel queries on DELETE")
+    void shouldCancelQueries() throws IOException {
+        start(MockTrinoServer.builder()
+                .scenario(MockScenario.builder().pages(5).rowsPerPage(1).build()));
+
+        try (TrinoResultSet resultSet = client.execute("SELECT x FROM t")) {
+            assertTrue(resultSet.next());
+            resultSet.cancel();
+        }
+        assertEquals(1, server.getCancelledCount());
+    }
+
+    @Test
+    @DisplayName("Should inject scripted faults on the first attempt at a step")
+    void shouldInjectFaults() throws IOException {
+        start(MockTrinoServer.builder()
+                .scenario("error", MockScenario.builder().pages(3)
+                        .fault(2, MockFault.queryError("EXCEEDED_TIME_LIMIT")).build())
+                .scenario("unavailable", MockScenario.builder().pages(3).fault(2, MockFault.status(503)).build())
+                .scenario("reset", MockScenario.builder().pages(3).fault(1, MockFault.disconnect()).build()));
+
+        QueryFailedException failed = assertThrows(QueryFailedException.class, () -> readColumn("SELECT error"));
+        assertEquals("EXCEEDED_TIME_LIMIT", failed.getTrinoError().getErrorName());
+        assertThrows(TrinoException.class, () -> readColumn("SELECT unavailable"));
+        // The HTTP client retries the idempotent page request, and the retry is served normally
+        assertEquals(3, readColumn("SELECT reset").size());
+        assertEquals(3, server.getFaultCount());
+    }
+
+    @Test
+    @DisplayName("Should shape latency and bandwidth")
+    void shouldShapeLatencyAndBandwidth() throws IOException {
+        // About 7 KB of rows at 20 KB/s, plus 50 ms per response over two responses
+        start(MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .rowsPerPage(1000)
+                        .latency(Duration.ofMillis(50))
+                        .bandwidth(20_000)
+                        .build()));
+
+        long start = System.nanoTime();
+        assertEquals(1000, readColumn("SELECT x FROM t").size());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis >= 300, "elapsed " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.haiphamcoder.trino.client.tracing.opentelemetry;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.result.TrinoResultSet;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockRequest;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OpenTelemetryQueryTracer} against a
+ * {@link MockTrinoServer} recording the {@code traceparent} header of every
+ * request.
+ *
+ * <p>
+ * The server queues each query, then serves one row per page over two pages
+ * with split and CPU statistics; statements containing {@code fail} fail on
+ * the first page instead.
+ *
+ * @author Hai Pham Ngoc
+ */
+class OpenTelemetryQueryTracerTest {
+
+    @RegisterExtension
+    static final OpenTelemetryExtension otel = OpenTelemetryExtension.create();
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockTrinoServer.builder()
+                .scenario(MockScenario.builder()
+                        .pages(2)
+                        .stat("totalCpuTimeMillis", 1500)
+                        .stat("bytesProcessed", 4096)
+                        .stat("queuedTimeMillis", 20)
+                        .build())
+                .scenario("fail", MockScenario.builder().fault(1, MockFault.queryError("TABLE_NOT_FOUND")).build())
+                .recordRequests()
+                .start();
+        client = TrinoClient.builder()
+                .server(server.getUri())
+                .user("alice")
+                .tracer(new OpenTelemetryQueryTracer(otel.getOpenTelemetry()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private static SpanData named(List<SpanData> spans, String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("a query should be traced under the current span with a child per request sent as traceparent")
+    void testQuerySpans() {
+        Span parent = otel.getOpenTelemetry().getTracer("test").spanBuilder("job").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            client.executeUpdate("SELECT x FROM t");
+        } finally {
+            parent.end();
+        }
+
+        List<SpanData> spans = otel.getSpans();
+        assertEquals(List.of("job", "trino.page", "trino.page", "trino.query", "trino.submit"),
+                spans.stream().map(SpanData::getName).sorted().collect(Collectors.toList()));
+        SpanData query = named(spans, "trino.query");
+        assertEquals(parent.getSpanContext().getSpanId(), query.getParentSpanId());
+        assertEquals("20250101_000000_00001_mock0",
+                query.getAttributes().get(AttributeKey.stringKey("trino.query_id")));
+        assertEquals("FINISHED", query.getAttributes().get(AttributeKey.stringKey("trino.state")));
+        assertEquals(2L, query.getAttributes().get(AttributeKey.longKey("trino.splits.completed")));
+        assertEquals(1500L, query.getAttributes().get(AttributeKey.longKey("trino.cpu_time_ms")));
+        assertEquals(4096L, query.getAttributes().get(AttributeKey.longKey("trino.processed_bytes")));
+        assertEquals(2L, query.getAttributes().get(AttributeKey.longKey("trino.rows")));
+        assertEquals("SELECT x FROM t", query.getAttributes().get(AttributeKey.stringKey("db.statement")));
+
+        List<SpanData> requests = spans.stream()
+                .filter(span -> span.getName().equals("trino.submit") || span.getName().equals("trino.page"))
+                .sorted((a, b) -> Long.compare(a.getStartEpochNanos(), b.getStartEpochNanos()))
+                .collect(Collectors.toList());
+        List<MockRequest> received = server.getRequests();
+        assertEquals(3, received.size());
+        for (int i = 0; i < requests.size(); i++) {
+            SpanData request = requests.get(i);
+            assertEquals(query.getSpanId(), request.getParentSpanId());
+            assertEquals(200L, request.getAttributes().get(AttributeKey.longKey("http.response.status_code")));
+            assertEquals("00-" + request.getTraceId() + "-" + request.getSpanId() + "-01",
+                    received.get(i).getHeader("traceparent"));
+        }
+        assertEquals(1L, requests.get(1).getAttributes().get(AttributeKey.longKey("trino.splits.completed")));
+        assertEquals(1L, requests.get(2).getAttributes().get(AttributeKey.longKey("trino.rows")));
+    }
+
+    @Test
+    @DisplayName("a failed query should end its span with an error status and the error name")
+    void testFailedQuery() {
+        try (TrinoResultSet resultSet = client.execute("SELECT x FROM fail")) {
+            assertFalse(resultSet.next());
+        }
+
+        SpanData query = named(otel.getSpans(), "trino.query");
+        assertEquals(StatusCode.ERROR, query.getStatus().getStatusCode());
+        assertEquals("Injected failure: TABLE_NOT_FOUND", query.getStatus().getDescription());
+        assertEquals("TABLE_NOT_FOUND", query.getAttributes().get(AttributeKey.stringKey("trino.error_name")));
+        assertFalse(query.getParentSpanContext().isValid());
+    }
+}
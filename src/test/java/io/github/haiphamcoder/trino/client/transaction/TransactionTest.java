@@ -0,0 +1,172 @@
+package io.github.haiphamcoder.trino.client.transaction;
+
+import io.github.haiphamcoder.trino.client.TrinoClient;
+import io.github.haiphamcoder.trino.client.config.ClientSession;
+import io.github.haiphamcoder.trino.client.exception.QueryFailedException;
+import io.github.haiphamcoder.trino.client.testing.MockFault;
+import io.github.haiphamcoder.trino.client.testing.MockRequest;
+import io.github.haiphamcoder.trino.client.testing.MockScenario;
+import io.github.haiphamcoder.trino.client.testing.MockTrinoServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for session state tracking and {@link Transaction} against a
+ * {@link MockTrinoServer}.
+ *
+ * <p>
+ * Like Trino, the server reports session changes through response headers on
+ * the final page.
+ *
+ * @author Hai Pham Ngoc
+ */
+class TransactionTest {
+
+    private MockTrinoServer server;
+    private TrinoClient client;
+    private final AtomicInteger transactionIds = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void start(MockTrinoServer.Builder builder) throws IOException {
+        server = builder.recordRequests().start();
+        client = TrinoClient.builder().server(server.getUri()).user("test").build();
+    }
+
+    /** Coordinator reporting session changes, with the given answer to {@code COMMIT} */
+    private MockTrinoServer.Builder coordinator(MockScenario commit) {
+        return MockTrinoServer.builder()
+                .scenario("USE ", update()
+                        .responseHeader("X-Trino-Set-Catalog", sql -> sql.split(" ")[1].split("\\.")[0])
+                        .responseHeader("X-Trino-Set-Schema", sql -> sql.split(" ")[1].split("\\.")[1])
+                        .build())
+                .scenario("RESET SESSION ", update()
+                        .responseHeader("X-Trino-Clear-Session", sql -> sql.split(" ")[2])
+                        .build())
+                .scenario("SET SESSION ", update()
+                        .responseHeader("X-Trino-Set-Session", sql -> sql.split(" ")[2] + "=" + URLEncoder.encode(
+                                sql.substring(sql.indexOf("= '") + 3, sql.length() - 1), StandardCharsets.UTF_8))
+                        .build())
+                .scenario("START TRANSACTION", update()
+                        .responseHeader("X-Trino-Started-Transaction-Id",
+                                sql -> "tx-" + transactionIds.incrementAndGet())
+                        .build())
+                .scenario("COMMIT", commit)
+                .scenario("ROLLBACK", committed());
+    }
+
+    private static MockScenario.Builder update() {
+        return MockScenario.builder().pages(0);
+    }
+
+    private static MockScenario committed() {
+        return update().responseHeader("X-Trino-Clear-Transaction-Id", sql -> "true").build();
+    }
+
+    /** Last statement submission */
+    private MockRequest last() {
+        List<MockRequest> requests = server.getRequests();
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            if (requests.get(i).getMethod().equals("POST")) {
+                return requests.get(i);
+            }
+        }
+        throw new AssertionError("No statement submitted");
+    }
+
+    @Test
+    @DisplayName("USE, SET SESSION and RESET SESSION should update the headers of later queries")
+    void testSessionState() throws IOException {
+        start(coordinator(committed()));
+        client.executeUpdate("USE hive.sales");
+        client.executeUpdate("SET SESSION query_max_run_time = '1h'");
+        client.executeUpdate("SET SESSION hive.note = 'a b,c'");
+        client.executeUpdate("SELECT 1");
+
+        ClientSession session = client.getSession();
+        assertEquals("hive", session.getCatalog());
+        assertEquals("sales", session.getSchema());
+        assertEquals(Map.of("query_max_run_time", "1h", "hive.note", "a b,c"), session.getProperties());
+        assertEquals("hive", last().getHeader("X-Trino-Catalog"));
+        assertEquals("sales", last().getHeader("X-Trino-Schema"));
+        assertEquals(Set.of("query_max_run_time=1h", "hive.note=a+b%2Cc"),
+                Set.copyOf(last().getHeaders("X-Trino-Session")));
+
+        client.executeUpdate("RESET SESSION query_max_run_time");
+        client.executeUpdate("SELECT 1");
+        assertEquals(Map.of("hive.note", "a b,c"), session.getProperties());
+        assertEquals(List.of("hive.note=a+b%2Cc"), last().getHeaders("X-Trino-Session"));
+    }
+
+    @Test
+    @DisplayName("queries in a transaction should carry its id until it is committed")
+    void testCommit() throws IOException {
+        start(coordinator(committed()));
+        try (TrinoClient routed = TrinoClient.builder()
+                .servers(List.of(server.getUri(), server.getUri()))
+                .user("test")
+                .build()) {
+            assertThrows(IllegalStateException.class, routed::beginTransaction);
+        }
+
+        try (Transaction transaction = client.beginTransaction(IsolationLevel.SERIALIZABLE, false)) {
+            assertEquals("START TRANSACTION ISOLATION LEVEL SERIALIZABLE, READ WRITE", last().getStatement());
+            assertEquals("NONE", last().getHeader("X-Trino-Transaction-Id"));
+            assertTrue(transaction.isActive());
+            assertThrows(IllegalStateException.class, client::beginTransaction);
+
+            client.executeUpdate("INSERT INTO t VALUES (1)");
+            assertEquals(transaction.getId(), last().getHeader("X-Trino-Transaction-Id"));
+            transaction.commit();
+            assertEquals("COMMIT", last().getStatement());
+            assertFalse(transaction.isActive());
+            assertThrows(IllegalStateException.class, transaction::rollback);
+        }
+
+        client.executeUpdate("SELECT 1");
+        assertEquals("NONE", last().getHeader("X-Trino-Transaction-Id"));
+        assertNull(client.getSession().getTransactionId());
+    }
+
+    @Test
+    @DisplayName("closing an open transaction should roll it back")
+    void testRollback() throws IOException {
+        start(coordinator(committed()));
+        try (Transaction transaction = client.beginTransaction()) {
+            client.executeUpdate("DELETE FROM t");
+        }
+        assertEquals("ROLLBACK", last().getStatement());
+        assertNull(client.getSession().getTransactionId());
+    }
+
+    @Test
+    @DisplayName("a failed commit should end the transaction")
+    void testFailedCommit() throws IOException {
+        start(coordinator(MockScenario.builder().fault(1, MockFault.queryError("TRANSACTION_CONFLICT")).build()));
+        Transaction transaction = client.beginTransaction(null, true);
+        assertEquals("START TRANSACTION READ ONLY", last().getStatement());
+        QueryFailedException e = assertThrows(QueryFailedException.class, transaction::commit);
+        assertEquals("TRANSACTION_CONFLICT", e.getTrinoError().getErrorName());
+        assertFalse(transaction.isActive());
+        assertNull(client.getSession().getTransactionId());
+    }
+}